@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.parsing.AliasDefinition;
+import org.springframework.beans.factory.parsing.BeanComponentDefinition;
+import org.springframework.beans.factory.parsing.ComponentDefinition;
+import org.springframework.beans.factory.parsing.CompositeComponentDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.beans.factory.support.SimpleBeanDefinitionRegistry;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.tests.BeansCoreTestCase;
+import org.springframework.ide.eclipse.core.io.FileResource;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
+import org.springframework.ide.eclipse.core.model.validation.ValidationProblem;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Test case for writing and reading {@link BeansConfigSnapshot}s.
+ */
+public class BeansConfigSnapshotTest extends BeansCoreTestCase {
+
+	private static final String KEY = "key";
+
+	private IProject project;
+
+	private IFile file;
+
+	private FileResource resource;
+
+	private File folder;
+
+	@Before
+	public void setUp() throws Exception {
+		project = createPredefinedProject("beans-config-tests");
+		StsTestUtil.waitForResource(project);
+		file = project.getFile("basic-bean-config.xml");
+		resource = new FileResource(file);
+		folder = Files.createTempDirectory("snapshots").toFile();
+	}
+
+	@After
+	public void deleteFolder() throws Exception {
+		File[] files = folder.listFiles();
+		if (files != null) {
+			for (File snapshotFile : files) {
+				snapshotFile.delete();
+			}
+		}
+		folder.delete();
+	}
+
+	@Test
+	public void testScopedProxyRoundTrip() throws Exception {
+		GenericBeanDefinition target = new GenericBeanDefinition();
+		target.setBeanClassName("org.test.spring.SimpleBean");
+		target.setScope("session");
+		target.setResource(resource);
+		target.setAutowireCandidate(false);
+
+		RootBeanDefinition proxy = new RootBeanDefinition();
+		proxy.setBeanClassName("org.springframework.aop.scope.ScopedProxyFactoryBean");
+		proxy.getPropertyValues().add("targetBeanName", "scopedTarget.simple");
+		proxy.setDecoratedDefinition(new BeanDefinitionHolder(target, "scopedTarget.simple", new String[] { "alias" }));
+		proxy.setOriginatingBeanDefinition(target);
+
+		SimpleBeanDefinitionRegistry registry = new SimpleBeanDefinitionRegistry();
+		registry.registerBeanDefinition("scopedTarget.simple", target);
+		registry.registerBeanDefinition("simple", proxy);
+		List<ComponentDefinition> components = new ArrayList<ComponentDefinition>();
+		components.add(new BeanComponentDefinition(proxy, "simple"));
+
+		BeansConfigSnapshot snapshot = writeAndRead(components, registry);
+
+		BeanDefinitionRegistry readRegistry = snapshot.getRegistry();
+		RootBeanDefinition readProxy = (RootBeanDefinition) readRegistry.getBeanDefinition("simple");
+		BeanDefinition readTarget = readRegistry.getBeanDefinition("scopedTarget.simple");
+		assertSame(readProxy, ((BeanComponentDefinition) snapshot.getComponentDefinitions().get(0)).getBeanDefinition());
+
+		BeanDefinitionHolder decoratedDefinition = readProxy.getDecoratedDefinition();
+		assertSame(readTarget, decoratedDefinition.getBeanDefinition());
+		assertEquals("scopedTarget.simple", decoratedDefinition.getBeanName());
+		assertEquals("alias", decoratedDefinition.getAliases()[0]);
+		assertSame(readTarget, readProxy.getOriginatingBeanDefinition());
+
+		assertEquals(target, readTarget);
+		assertEquals(resource, ((AbstractBeanDefinition) readTarget).getResource());
+		assertEquals("scopedTarget.simple", readProxy.getPropertyValues().getPropertyValue("targetBeanName").getValue());
+	}
+
+	@Test
+	public void testStringsLongerThan64K() throws Exception {
+		StringBuilder description = new StringBuilder();
+		while (description.length() < 100000) {
+			description.append("A long description \u00e4\u00f6\u00fc. ");
+		}
+		GenericBeanDefinition bean = new GenericBeanDefinition();
+		bean.setBeanClassName("org.test.spring.SimpleBean");
+		bean.setDescription(description.toString());
+		SimpleBeanDefinitionRegistry registry = new SimpleBeanDefinitionRegistry();
+		registry.registerBeanDefinition("simple", bean);
+
+		BeansConfigSnapshot snapshot = writeAndRead(Collections.<ComponentDefinition> emptyList(), registry);
+		assertEquals(description.toString(), snapshot.getRegistry().getBeanDefinition("simple").getDescription());
+	}
+
+	@Test
+	public void testSnapshotOfOtherKeyNotRead() throws Exception {
+		File snapshotFile = new File(folder, "snapshot.bin");
+		assertTrue(createSnapshot(Collections.<ComponentDefinition> emptyList(), new SimpleBeanDefinitionRegistry())
+				.write(snapshotFile, KEY, resource, file));
+		assertNull(BeansConfigSnapshot.read(snapshotFile, "otherKey", resource, file));
+	}
+
+	@Test
+	public void testPurge() throws Exception {
+		BeansProject beansProject = (BeansProject) BeansCorePlugin.getModel().getProject(project);
+		assertTrue(beansProject.addConfig(file, IBeansConfig.Type.MANUAL));
+
+		File snapshotFile = new File(folder, BeansConfigSnapshot.getSnapshotFile(file).getName());
+		assertTrue(createSnapshot(Collections.<ComponentDefinition> emptyList(), new SimpleBeanDefinitionRegistry())
+				.write(snapshotFile, KEY, resource, file));
+		Files.write(new File(folder, "garbage.bin").toPath(), new byte[] { 1, 2, 3 });
+		Files.write(new File(folder, "leftover.bin.tmp").toPath(), new byte[] { 1, 2, 3 });
+
+		assertEquals(2, BeansConfigSnapshot.purge(folder));
+		assertTrue(snapshotFile.exists());
+
+		// the snapshot of a config that went away is never read again
+		beansProject.removeConfig(file);
+		assertEquals(1, BeansConfigSnapshot.purge(folder));
+		assertFalse(snapshotFile.exists());
+	}
+
+	@Test
+	public void testKeyChangesWithClasspath() throws Exception {
+		String key = BeansConfigSnapshot.getKey(file);
+		assertEquals(key, BeansConfigSnapshot.getKey(file));
+
+		IJavaProject javaProject = JdtUtils.getJavaProject(project);
+		IClasspathEntry[] classpath = javaProject.getRawClasspath();
+		IClasspathEntry[] reducedClasspath = Arrays.copyOf(classpath, classpath.length - 1);
+		javaProject.setRawClasspath(reducedClasspath, null);
+		try {
+			assertFalse(key.equals(BeansConfigSnapshot.getKey(file)));
+		}
+		finally {
+			javaProject.setRawClasspath(classpath, null);
+		}
+		assertEquals(key, BeansConfigSnapshot.getKey(file));
+	}
+
+	private BeansConfigSnapshot writeAndRead(List<ComponentDefinition> components, BeanDefinitionRegistry registry)
+			throws Exception {
+		File snapshotFile = new File(folder, "snapshot.bin");
+		assertTrue(createSnapshot(components, registry).write(snapshotFile, KEY, resource, file));
+		return BeansConfigSnapshot.read(snapshotFile, KEY, resource, file);
+	}
+
+	private BeansConfigSnapshot createSnapshot(List<ComponentDefinition> components, BeanDefinitionRegistry registry) {
+		return new BeansConfigSnapshot(null, components, new ArrayList<AliasDefinition>(), registry,
+				Collections.<CompositeComponentDefinition, BeanDefinitionRegistry> emptyMap(),
+				new LinkedHashSet<ValidationProblem>());
+	}
+
+}
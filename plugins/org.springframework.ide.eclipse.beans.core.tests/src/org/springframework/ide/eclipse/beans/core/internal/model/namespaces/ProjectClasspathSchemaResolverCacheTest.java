@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model.namespaces;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.core.resources.IProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.tests.BeansCoreTestCase;
+import org.springframework.ide.eclipse.core.io.xml.SchemaGrammarPool;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Test case for {@link ProjectClasspathSchemaResolverCache}.
+ */
+public class ProjectClasspathSchemaResolverCacheTest extends BeansCoreTestCase {
+
+	private IProject project;
+
+	@Before
+	public void setUp() throws Exception {
+		project = createPredefinedProject("beans-config-tests");
+		StsTestUtil.waitForResource(project);
+	}
+
+	@After
+	public void removeResolver() throws Exception {
+		ProjectClasspathSchemaResolverCache.removeEntityResolver(project);
+	}
+
+	@Test
+	public void testResolverAndGrammarPoolReusedByLaterReads() throws Exception {
+		// every read of a config asks for the project classloader again
+		ClassLoader firstRead = JdtUtils.getClassLoader(project, BeansCorePlugin.getClassLoader());
+		ClassLoader secondRead = JdtUtils.getClassLoader(project, BeansCorePlugin.getClassLoader());
+
+		assertSame(ProjectClasspathSchemaResolverCache.getEntityResolver(project, firstRead),
+				ProjectClasspathSchemaResolverCache.getEntityResolver(project, secondRead));
+		assertSame(ProjectClasspathSchemaResolverCache.getGrammarPool(project, firstRead),
+				ProjectClasspathSchemaResolverCache.getGrammarPool(project, secondRead));
+	}
+
+	@Test
+	public void testResolverAndGrammarPoolDroppedWhenNamespaceClassLoaderChanges() throws Exception {
+		ClassLoader projectClassLoader = JdtUtils.getClassLoader(project, BeansCorePlugin.getClassLoader());
+		ClassLoader pluginClassLoader = BeansCorePlugin.getClassLoader();
+
+		Object resolver = ProjectClasspathSchemaResolverCache.getEntityResolver(project, projectClassLoader);
+		Object grammarPool = ProjectClasspathSchemaResolverCache.getGrammarPool(project, projectClassLoader);
+		assertNotSame(resolver, ProjectClasspathSchemaResolverCache.getEntityResolver(project, pluginClassLoader));
+		assertNotSame(grammarPool, ProjectClasspathSchemaResolverCache.getGrammarPool(project, pluginClassLoader));
+
+		// the grammars of the plugin classloader are shared between all projects
+		assertSame(ProjectClasspathSchemaResolverCache.getGrammarPool(project, pluginClassLoader),
+				SchemaGrammarPool.getGrammarPool(pluginClassLoader));
+	}
+
+	@Test
+	public void testResolverAndGrammarPoolDroppedWhenRemoved() throws Exception {
+		ClassLoader projectClassLoader = JdtUtils.getClassLoader(project, BeansCorePlugin.getClassLoader());
+		Object resolver = ProjectClasspathSchemaResolverCache.getEntityResolver(project, projectClassLoader);
+		Object grammarPool = ProjectClasspathSchemaResolverCache.getGrammarPool(project, projectClassLoader);
+
+		ProjectClasspathSchemaResolverCache.removeEntityResolver(project);
+		assertNotSame(resolver, ProjectClasspathSchemaResolverCache.getEntityResolver(project, projectClassLoader));
+		assertNotSame(grammarPool, ProjectClasspathSchemaResolverCache.getGrammarPool(project, projectClassLoader));
+	}
+
+	@Test
+	public void testResolverAndGrammarPoolDroppedWithProjectClassLoader() throws Exception {
+		ClassLoader projectClassLoader = JdtUtils.getClassLoader(project, BeansCorePlugin.getClassLoader());
+		Object resolver = ProjectClasspathSchemaResolverCache.getEntityResolver(project, projectClassLoader);
+		Object grammarPool = ProjectClasspathSchemaResolverCache.getGrammarPool(project, projectClassLoader);
+
+		// the resolver must not keep the dropped classloader alive
+		JdtUtils.removeClassLoaderEntryFromCache(project);
+		projectClassLoader = JdtUtils.getClassLoader(project, BeansCorePlugin.getClassLoader());
+		assertNotSame(resolver, ProjectClasspathSchemaResolverCache.getEntityResolver(project, projectClassLoader));
+		assertNotSame(grammarPool, ProjectClasspathSchemaResolverCache.getGrammarPool(project, projectClassLoader));
+	}
+
+	@Test
+	public void testPluginResolverKeptWhenProjectClassLoaderDropped() throws Exception {
+		ClassLoader pluginClassLoader = BeansCorePlugin.getClassLoader();
+		Object resolver = ProjectClasspathSchemaResolverCache.getEntityResolver(project, pluginClassLoader);
+
+		JdtUtils.removeClassLoaderEntryFromCache(project);
+		assertSame(resolver, ProjectClasspathSchemaResolverCache.getEntityResolver(project, pluginClassLoader));
+	}
+
+}
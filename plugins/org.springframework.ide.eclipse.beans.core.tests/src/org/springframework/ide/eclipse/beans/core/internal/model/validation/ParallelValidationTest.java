@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.tests.BeansCoreTestCase;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.internal.model.validation.ValidationRuleDefinition;
+import org.springframework.ide.eclipse.core.internal.model.validation.ValidationRuleDefinitionFactory;
+import org.springframework.ide.eclipse.core.model.validation.AbstractValidator;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Test case for the parallel validation mode of {@link AbstractValidator}.
+ */
+public class ParallelValidationTest extends BeansCoreTestCase {
+
+	private static final String BEANS_VALIDATOR_ID = "org.springframework.ide.eclipse.beans.core.beansvalidator";
+
+	private IProject project;
+
+	@BeforeClass
+	public static void setUpAll() {
+		if (Platform.OS_WIN32.equals(Platform.getOS())) {
+			/*
+			 * Set non-locking class-loader for windows testing
+			 */
+			InstanceScope.INSTANCE.getNode(SpringCore.PLUGIN_ID).putBoolean(
+					SpringCore.USE_NON_LOCKING_CLASSLOADER, true);
+		}
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		project = createPredefinedProject("validation");
+		StsTestUtil.waitForResource(project);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		setParallelValidation(false);
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testRulesDeclareThreadSafety() throws Exception {
+		for (ValidationRuleDefinition rule : ValidationRuleDefinitionFactory.getRuleDefinitions(BEANS_VALIDATOR_ID)) {
+			assertTrue(rule.getId(), rule.isThreadSafe());
+		}
+
+		// rules that don't declare anything are never invoked concurrently
+		assertFalse(new ValidationRuleDefinition(BEANS_VALIDATOR_ID, "test", "test", "test").isThreadSafe());
+	}
+
+	@Test
+	public void testParallelValidationCreatesSameMarkers() throws Exception {
+		List<String> sequentialMarkers = buildAndGetMarkers();
+		assertFalse(sequentialMarkers.isEmpty());
+
+		setParallelValidation(true);
+		assertEquals(sequentialMarkers, buildAndGetMarkers());
+	}
+
+	@Test
+	public void testValidationAfterPoolShutdown() throws Exception {
+		setParallelValidation(true);
+		List<String> markers = buildAndGetMarkers();
+
+		AbstractValidator.shutdownValidationPool();
+		assertEquals(markers, buildAndGetMarkers());
+	}
+
+	private void setParallelValidation(boolean enabled) {
+		SpringCore.getDefault().getPluginPreferences().setValue(SpringCore.ENABLE_PARALLEL_VALIDATION, enabled);
+	}
+
+	private List<String> buildAndGetMarkers() throws CoreException {
+		project.build(IncrementalProjectBuilder.CLEAN_BUILD, null);
+		project.build(IncrementalProjectBuilder.FULL_BUILD, null);
+		waitForManualBuild();
+
+		List<String> result = new ArrayList<String>();
+		for (IMarker marker : project.findMarkers(BeansCorePlugin.PLUGIN_ID + ".problemmarker", false,
+				IResource.DEPTH_INFINITE)) {
+			result.add(marker.getResource().getProjectRelativePath() + ":"
+					+ marker.getAttribute(IMarker.LINE_NUMBER, -1) + ":" + marker.getAttribute(IMarker.MESSAGE, ""));
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+}
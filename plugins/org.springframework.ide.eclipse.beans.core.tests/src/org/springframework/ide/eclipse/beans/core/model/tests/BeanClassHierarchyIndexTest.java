@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeanClassHierarchyIndex;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansProject;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+public class BeanClassHierarchyIndexTest {
+
+	private IProject project;
+	private BeansModel model;
+	private BeansProject beansProject;
+	private TypeHierarchyEngine typeEngine;
+	private BeanClassHierarchyIndex index;
+	private BeansModel originalModel;
+
+	@BeforeClass
+	public static void setUp() {
+		if (Platform.OS_WIN32.equals(Platform.getOS())) {
+			/*
+			 * Set non-locking class-loader for windows testing
+			 */
+			InstanceScope.INSTANCE.getNode(SpringCore.PLUGIN_ID).putBoolean(
+					SpringCore.USE_NON_LOCKING_CLASSLOADER, true);
+		}
+	}
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-model-utils-tests", "org.springframework.ide.eclipse.beans.core.tests");
+
+		model = new BeansModel();
+		beansProject = new BeansProject(model, project);
+		model.addProject(beansProject);
+
+		originalModel = (BeansModel) BeansCorePlugin.getModel();
+		BeansCorePlugin.setModel(model);
+
+		beansProject.addConfig("basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+		beansProject.addConfig("basic-bean-config-2.xml", IBeansConfig.Type.MANUAL);
+
+		typeEngine = SpringCore.getTypeHierarchyEngine();
+		index = new BeanClassHierarchyIndex();
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		project.delete(true, null);
+		typeEngine.clearCache();
+		BeansCorePlugin.setModel(originalModel);
+	}
+
+	@Test
+	public void testBeansIndexedBySupertypes() throws Exception {
+		assertEquals(names("supertypeChangedBean"), beanNames("org.test.spring.SuperType"));
+		assertEquals(names("supertypeChangedBean"), beanNames("org.test.spring.SuperInterface"));
+	}
+
+	@Test
+	public void testFactoryMethodBeansIndexedByReturnType() throws Exception {
+		assertEquals(names("factoryMethodCreatedBean", "factoryBeanCreatedBean"), beanNames("org.test.spring.FactoryCreatedBean"));
+		assertEquals(names("supertypeFactoryMethodCreatedBean"), beanNames("org.test.spring.SupertypeMethodCreatedBean"));
+		assertEquals(names("chainedFactoryCreatedBean", "chainedFactoryBean1", "chainedFactoryBean2"),
+				beanNames("org.test.spring.ChainedFactoryCreatedBean"));
+
+		// not under the class declaring the factory method
+		assertEquals(names(), beanNames("org.test.spring.FactoryMethodBean"));
+	}
+
+	@Test
+	public void testFactoryTypeLookupReindexesConfig() throws Exception {
+		IBeansConfig config = beansProject.getConfig("basic-bean-config.xml");
+		beanNames("org.test.spring.SimpleBeanClass");
+		assertTrue(index.isIndexed(beansProject, config));
+
+		// the return type of the factory method might have changed
+		assertEquals(names(), beanNames("org.test.spring.FactoryMethodBean"));
+		assertTrue(index.isIndexed(beansProject, config));
+		assertEquals(names("factoryMethodCreatedBean", "factoryBeanCreatedBean"), beanNames("org.test.spring.FactoryCreatedBean"));
+	}
+
+	@Test
+	public void testLookupKeepsIndex() throws Exception {
+		IBeansConfig config = beansProject.getConfig("basic-bean-config.xml");
+		IBeansConfig config2 = beansProject.getConfig("basic-bean-config-2.xml");
+
+		Set<IBeansConfig> configs = index.getConfigs(beansProject, new String[] { "org.test.spring.UsedAcrossBeanConfigs" }, typeEngine);
+		assertEquals(2, configs.size());
+
+		// the hierarchy of the looked up type didn't change, so nothing needs to be re-indexed
+		assertTrue(index.isIndexed(beansProject, config));
+		assertTrue(index.isIndexed(beansProject, config2));
+		assertEquals(configs, index.getConfigs(beansProject, new String[] { "org.test.spring.UsedAcrossBeanConfigs" }, typeEngine));
+	}
+
+	@Test
+	public void testRemovedConfigDropped() throws Exception {
+		IBeansConfig config2 = beansProject.getConfig("basic-bean-config-2.xml");
+		assertEquals(names("acrossConfigsBean1", "acrossConfigsBean2"), beanNames("org.test.spring.UsedAcrossBeanConfigs"));
+
+		beansProject.removeConfig("basic-bean-config-2.xml");
+		assertEquals(names("acrossConfigsBean1"), beanNames("org.test.spring.UsedAcrossBeanConfigs"));
+		assertFalse(index.isIndexed(beansProject, config2));
+	}
+
+	private Set<String> beanNames(String typeName) {
+		Set<String> names = new HashSet<String>();
+		for (IBean bean : index.getBeans(beansProject, new String[] { typeName }, false, typeEngine)) {
+			names.add(bean.getElementName());
+		}
+		return names;
+	}
+
+	private static Set<String> names(String... names) {
+		Set<String> result = new HashSet<String>();
+		for (String name : names) {
+			result.add(name);
+		}
+		return result;
+	}
+
+}
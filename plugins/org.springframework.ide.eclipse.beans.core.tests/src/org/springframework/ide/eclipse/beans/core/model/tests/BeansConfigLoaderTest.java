@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigLoader;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigLoader.Priority;
+
+/**
+ * @since 3.9.5
+ */
+public class BeansConfigLoaderTest {
+
+	private BeansConfigLoader loader;
+
+	private List<String> executed;
+
+	@Before
+	public void setUp() {
+		loader = new BeansConfigLoader(1);
+		executed = Collections.synchronizedList(new ArrayList<String>());
+	}
+
+	@After
+	public void tearDown() {
+		loader.shutdown();
+	}
+
+	@Test
+	public void testInteractiveLoadsRunFirst() throws Exception {
+		CountDownLatch blocker = block();
+
+		loader.submit(record("background1"), Priority.BACKGROUND);
+		loader.submit(record("background2"), Priority.BACKGROUND);
+		Future<String> interactive = loader.submit(record("interactive"), Priority.INTERACTIVE);
+
+		blocker.countDown();
+		interactive.get(10, TimeUnit.SECONDS);
+		loader.submit(record("last"), Priority.BACKGROUND).get(10, TimeUnit.SECONDS);
+
+		assertEquals("interactive", executed.get(0));
+	}
+
+	@Test
+	public void testPromotedLoadRunsFirst() throws Exception {
+		CountDownLatch blocker = block();
+
+		loader.submit(record("background1"), Priority.BACKGROUND);
+		Future<String> promoted = loader.submit(record("background2"), Priority.BACKGROUND);
+		loader.promote(promoted, Priority.INTERACTIVE);
+
+		blocker.countDown();
+		loader.submit(record("last"), Priority.BACKGROUND).get(10, TimeUnit.SECONDS);
+
+		assertEquals("background2", executed.get(0));
+		assertEquals("background1", executed.get(1));
+	}
+
+	@Test
+	public void testNestedLoadsRunInline() throws Exception {
+		Future<String> outer = loader.submit(new Callable<String>() {
+			public String call() throws Exception {
+				// would never run with a single loader thread if it got queued
+				return loader.submit(record("nested"), Priority.BACKGROUND).get(10, TimeUnit.SECONDS);
+			}
+		}, Priority.INTERACTIVE);
+
+		assertEquals("nested", outer.get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testCancelInterruptsRunningLoad() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final boolean[] canceled = new boolean[1];
+		Future<String> load = loader.submit(new Callable<String>() {
+			public String call() throws Exception {
+				started.countDown();
+				try {
+					while (true) {
+						BeansConfigLoader.checkCanceled();
+					}
+				}
+				catch (OperationCanceledException e) {
+					canceled[0] = true;
+					throw e;
+				}
+			}
+		}, Priority.BACKGROUND);
+
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		loader.cancel(load);
+
+		assertTrue(load.isCancelled());
+		assertTrue(canceled[0]);
+	}
+
+	@Test
+	public void testCanceledLoadIgnoringCancellationKeepsRunning() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		Future<String> load = loader.submit(new Callable<String>() {
+			public String call() {
+				started.countDown();
+				// never checks for cancellation
+				while (true) {
+					try {
+						release.await();
+						return "done";
+					}
+					catch (InterruptedException e) {
+						// keep on loading
+					}
+				}
+			}
+		}, Priority.BACKGROUND);
+
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		assertTrue(loader.isRunning(load));
+		loader.cancel(load);
+		assertTrue(load.isDone());
+		assertTrue(loader.isRunning(load));
+
+		release.countDown();
+		loader.submit(record("next"), Priority.BACKGROUND).get(10, TimeUnit.SECONDS);
+		assertFalse(loader.isRunning(load));
+	}
+
+	@Test
+	public void testTimeoutStartsWhenLoadStarts() throws Exception {
+		CountDownLatch blocker = block();
+
+		Future<String> load = loader.submit(record("queued"), Priority.BACKGROUND, 100, TimeUnit.MILLISECONDS);
+		Thread.sleep(300);
+		blocker.countDown();
+
+		assertEquals("queued", load.get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testLoadCanceledAfterTimeout() throws Exception {
+		final CountDownLatch canceled = new CountDownLatch(1);
+		final boolean[] timedOut = new boolean[1];
+		Future<String> load = loader.submit(new Callable<String>() {
+			public String call() throws Exception {
+				try {
+					while (true) {
+						BeansConfigLoader.checkCanceled();
+					}
+				}
+				catch (OperationCanceledException e) {
+					timedOut[0] = BeansConfigLoader.isTimedOut();
+					canceled.countDown();
+					throw e;
+				}
+			}
+		}, Priority.BACKGROUND, 100, TimeUnit.MILLISECONDS);
+
+		assertTrue(canceled.await(10, TimeUnit.SECONDS));
+		assertTrue(load.isCancelled());
+		assertTrue(timedOut[0]);
+	}
+
+	@Test
+	public void testCanceledQueuedLoadTellsOperation() throws Exception {
+		CountDownLatch blocker = block();
+
+		final boolean[] called = new boolean[1];
+		final boolean[] canceled = new boolean[1];
+		Future<String> load = loader.submit(new BeansConfigLoader.LoadOperation<String>() {
+			public String call() {
+				called[0] = true;
+				return null;
+			}
+
+			public void canceled() {
+				canceled[0] = true;
+			}
+		}, Priority.BACKGROUND);
+		loader.cancel(load);
+
+		assertTrue(load.isCancelled());
+		assertTrue(canceled[0]);
+
+		blocker.countDown();
+		loader.submit(record("next"), Priority.BACKGROUND).get(10, TimeUnit.SECONDS);
+		assertFalse(called[0]);
+	}
+
+	/**
+	 * Occupies the single loader thread until the returned latch is released.
+	 */
+	private CountDownLatch block() throws InterruptedException {
+		final CountDownLatch running = new CountDownLatch(1);
+		final CountDownLatch blocker = new CountDownLatch(1);
+		loader.submit(new Callable<String>() {
+			public String call() throws Exception {
+				running.countDown();
+				blocker.await();
+				return null;
+			}
+		}, Priority.BACKGROUND);
+		assertTrue(running.await(10, TimeUnit.SECONDS));
+		return blocker;
+	}
+
+	private Callable<String> record(final String name) {
+		return new Callable<String>() {
+			public String call() {
+				executed.add(name);
+				return name;
+			}
+		};
+	}
+
+}
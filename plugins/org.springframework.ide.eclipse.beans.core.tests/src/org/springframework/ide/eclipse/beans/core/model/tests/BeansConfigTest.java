@@ -12,9 +12,15 @@ package org.springframework.ide.eclipse.beans.core.model.tests;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.Platform;
@@ -106,6 +112,40 @@ public class BeansConfigTest {
 		assertEquals("simpleScannedBean", bean.getElementName());
 	}
 
+	@Test
+	public void testComponentBeanLookupAfterReload() throws Exception {
+		BeansConfig config = new BeansConfig(beansProject, "basic-component-scanning.xml", IBeansConfig.Type.MANUAL);
+
+		IBean bean = BeansModelUtils.getBean("simpleScannedBean", config);
+		assertNotNull(bean);
+		assertNull(config.getBean("simpleScannedBean"));
+		assertSame(bean, config.getComponentBean("simpleScannedBean"));
+		assertNull(BeansModelUtils.getBean("unknownBean", config));
+
+		config.reload();
+
+		IBean reloadedBean = BeansModelUtils.getBean("simpleScannedBean", config);
+		assertNotNull(reloadedBean);
+		assertNotSame(bean, reloadedBean);
+	}
+
+	@Test
+	public void testLoadAsync() throws Exception {
+		BeansConfig config = new BeansConfig(beansProject, "basic-component-scanning.xml", IBeansConfig.Type.MANUAL);
+
+		Future<IBeansConfig> load = config.loadAsync();
+		Future<IBeansConfig> concurrentLoad = config.loadAsync();
+
+		assertSame(config, load.get(30, TimeUnit.SECONDS));
+		assertSame(config, concurrentLoad.get(30, TimeUnit.SECONDS));
+		assertTrue(config.isInitialized());
+		assertNotNull(config.getComponentBean("simpleScannedBean"));
+
+		config.reload();
+		assertNotNull(BeansModelUtils.getBean("simpleScannedBean", config));
+		assertTrue(config.loadAsync().isDone());
+	}
+
 	@Test
 	public void testComponentScanningWithEnableAnnotations() throws Exception {
 		BeansConfig config = new BeansConfig(beansProject, "advanced-component-scanning.xml", IBeansConfig.Type.MANUAL);
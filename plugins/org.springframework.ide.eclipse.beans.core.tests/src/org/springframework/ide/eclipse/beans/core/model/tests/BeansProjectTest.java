@@ -12,6 +12,8 @@ package org.springframework.ide.eclipse.beans.core.model.tests;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.HashSet;
@@ -196,6 +198,22 @@ public class BeansProjectTest {
 		secondProject.delete(true, null);
 	}
 	
+	@Test
+	public void testConfigsAreReadFromSnapshots() throws Exception {
+		beansProject.addConfig("basic-bean-config.xml", IBeansConfig.Type.MANUAL);
+
+		Set<IBeansConfig> configs = beansProject.getConfigs();
+		assertSame(configs, beansProject.getConfigs());
+
+		beansProject.addConfig("advanced-bean-config.xml", IBeansConfig.Type.MANUAL);
+
+		// the previously returned set is not affected by the modification
+		assertEquals(1, configs.size());
+		assertNotSame(configs, beansProject.getConfigs());
+		assertEquals(2, beansProject.getConfigs().size());
+		assertTrue(beansProject.hasConfig("advanced-bean-config.xml"));
+	}
+
 	@Test
 	public void testBeansProjectXMLConfigFileRemoved() throws Exception {
 		beansProject.addConfig("basic-bean-config.xml", IBeansConfig.Type.MANUAL);
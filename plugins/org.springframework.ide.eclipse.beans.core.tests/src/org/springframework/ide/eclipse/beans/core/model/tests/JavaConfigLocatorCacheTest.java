@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.model.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.beans.core.model.locate.AutoConfigurationJavaConfigLocator;
+import org.springframework.ide.eclipse.beans.core.model.locate.JavaConfigLocatorCache;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * @since 3.9.5
+ */
+public class JavaConfigLocatorCacheTest {
+
+	private IProject project;
+
+	private IProject requiredProject;
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-autoconfig-java-tests", "org.springframework.ide.eclipse.beans.core.tests");
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		JavaConfigLocatorCache.clear(project);
+		project.delete(true, null);
+		if (requiredProject != null) {
+			requiredProject.delete(true, null);
+		}
+	}
+
+	@Test
+	public void testChangedCompilationUnitsAreSearchedAgain() throws Exception {
+		AutoConfigurationJavaConfigLocator locator = new AutoConfigurationJavaConfigLocator();
+
+		Set<IType> types = JavaConfigLocatorCache.locateJavaConfigs(locator, project, null);
+		assertEquals(1, types.size());
+		assertEquals("org.test.advanced.SpringBootConfigClass", types.iterator().next().getFullyQualifiedName());
+
+		// add a second auto config
+		IFile newConfig = project.getFile("src/org/test/advanced/SecondSpringBootConfigClass.java");
+		newConfig.create(source("SecondSpringBootConfigClass", true), true, null);
+
+		types = JavaConfigLocatorCache.locateJavaConfigs(locator, project, null);
+		assertEquals(2, types.size());
+		assertEquals(locator.locateJavaConfigs(project, null), types);
+
+		// remove the annotation from the existing one
+		IFile existingConfig = project.getFile("src/org/test/advanced/SpringBootConfigClass.java");
+		existingConfig.setContents(source("SpringBootConfigClass", false), true, false, null);
+
+		types = JavaConfigLocatorCache.locateJavaConfigs(locator, project, null);
+		assertEquals(1, types.size());
+		assertEquals("org.test.advanced.SecondSpringBootConfigClass", types.iterator().next().getFullyQualifiedName());
+
+		// delete the new one
+		newConfig.delete(true, null);
+
+		types = JavaConfigLocatorCache.locateJavaConfigs(locator, project, null);
+		assertTrue(types.isEmpty());
+		assertEquals(new HashSet<IType>(), locator.locateJavaConfigs(project, null));
+	}
+
+	@Test
+	public void testChangedCompilationUnitsOfRequiredProjectsAreIgnored() throws Exception {
+		IJavaProject javaProject = JavaCore.create(project);
+		requiredProject = ResourcesPlugin.getWorkspace().getRoot().getProject("beans-autoconfig-java-tests-required");
+		requiredProject.create(null);
+		requiredProject.open(null);
+		IProjectDescription description = requiredProject.getDescription();
+		description.setNatureIds(new String[] { JavaCore.NATURE_ID });
+		requiredProject.setDescription(description, null);
+		requiredProject.getFolder("src").create(true, true, null);
+
+		// the required project compiles against the libraries of the project
+		List<IClasspathEntry> requiredClasspath = new ArrayList<IClasspathEntry>();
+		requiredClasspath.add(JavaCore.newSourceEntry(requiredProject.getFullPath().append("src")));
+		for (IClasspathEntry entry : javaProject.getRawClasspath()) {
+			if (entry.getEntryKind() != IClasspathEntry.CPE_SOURCE) {
+				requiredClasspath.add(entry);
+			}
+		}
+		JavaCore.create(requiredProject).setRawClasspath(
+				requiredClasspath.toArray(new IClasspathEntry[requiredClasspath.size()]),
+				requiredProject.getFullPath().append("bin"), null);
+
+		List<IClasspathEntry> classpath = new ArrayList<IClasspathEntry>(Arrays.asList(javaProject.getRawClasspath()));
+		classpath.add(JavaCore.newProjectEntry(requiredProject.getFullPath()));
+		javaProject.setRawClasspath(classpath.toArray(new IClasspathEntry[classpath.size()]), null);
+
+		AutoConfigurationJavaConfigLocator locator = new AutoConfigurationJavaConfigLocator();
+		Set<IType> types = JavaConfigLocatorCache.locateJavaConfigs(locator, project, null);
+		assertEquals(1, types.size());
+
+		// an auto config in the required project is not part of the project-wide search either
+		IFolder packageFolder = requiredProject.getFolder("src/org/test");
+		packageFolder.create(true, true, null);
+		packageFolder.getFolder("advanced").create(true, true, null);
+		IFile requiredConfig = packageFolder.getFile("advanced/RequiredSpringBootConfigClass.java");
+		requiredConfig.create(source("RequiredSpringBootConfigClass", true), true, null);
+
+		types = JavaConfigLocatorCache.locateJavaConfigs(locator, project, null);
+		assertEquals(1, types.size());
+		assertEquals(locator.locateJavaConfigs(project, null), types);
+
+		requiredConfig.setContents(source("RequiredSpringBootConfigClass", true), true, false, null);
+		assertEquals(locator.locateJavaConfigs(project, null),
+				JavaConfigLocatorCache.locateJavaConfigs(locator, project, null));
+	}
+
+	private ByteArrayInputStream source(String className, boolean autoConfig) {
+		String source = "package org.test.advanced;\n\n"
+				+ "import org.springframework.boot.autoconfigure.EnableAutoConfiguration;\n"
+				+ "import org.springframework.context.annotation.Configuration;\n\n"
+				+ "@Configuration\n"
+				+ (autoConfig ? "@EnableAutoConfiguration\n" : "")
+				+ "public class " + className + " {\n}\n";
+		return new ByteArrayInputStream(source.getBytes());
+	}
+
+}
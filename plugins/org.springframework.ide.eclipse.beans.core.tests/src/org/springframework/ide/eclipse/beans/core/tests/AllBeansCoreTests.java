@@ -18,7 +18,10 @@ import org.springframework.ide.core.classreading.tests.JdtBasedAnnotationMetadat
 import org.springframework.ide.core.classreading.tests.JdtClassMetadataTest;
 import org.springframework.ide.eclipse.beans.core.autowire.AutowireDependencyProviderTest;
 import org.springframework.ide.eclipse.beans.core.autowire.CommonAnnotationInjectionMetadataProviderTests;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigSnapshotTest;
+import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.ProjectClasspathSchemaResolverCacheTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.resources.tests.ResourceChangeEventHandlerTest;
+import org.springframework.ide.eclipse.beans.core.internal.model.validation.ParallelValidationTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanClassRuleTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanConstructorArgumentRuleTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanConstructorArgumentRulesAutowireTest;
@@ -30,17 +33,27 @@ import org.springframework.ide.eclipse.beans.core.internal.model.validation.rule
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.BeanReferenceRuleWithConfigSetTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.NamespaceElementsRuleTest;
 import org.springframework.ide.eclipse.beans.core.internal.model.validation.rules.RequiredPropertyRuleTest;
+import org.springframework.ide.eclipse.beans.core.model.tests.BeanClassHierarchyIndexTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansProjectAutoConfigTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansProjectDescriptionWriterTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansConfigFactoryTest;
+import org.springframework.ide.eclipse.beans.core.model.tests.BeansConfigLoaderTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansConfigTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansJavaConfigTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansModelUtilsTest;
 import org.springframework.ide.eclipse.beans.core.model.tests.BeansProjectTest;
+import org.springframework.ide.eclipse.beans.core.model.tests.JavaConfigLocatorCacheTest;
 import org.springframework.ide.eclipse.beans.ui.refactoring.tests.BeansJavaConfigRenameTypeRefactoringParticipantTest;
+import org.springframework.ide.eclipse.core.internal.project.ClasspathFingerprintTest;
 import org.springframework.ide.eclipse.core.java.IntrospectorTest;
+import org.springframework.ide.eclipse.core.java.JavaAnnotationIndexTest;
 import org.springframework.ide.eclipse.core.java.JdtUtilsTest;
+import org.springframework.ide.eclipse.core.java.ProjectClassLoaderCacheTest;
+import org.springframework.ide.eclipse.core.java.TypeHierarchyElementCacheTest;
 import org.springframework.ide.eclipse.core.java.TypeHierarchyEngineTest;
+import org.springframework.ide.eclipse.core.java.TypeHierarchyIndexTest;
+import org.springframework.ide.eclipse.core.java.TypeStructureFingerprintTest;
+import org.springframework.ide.eclipse.core.model.validation.ValidationRuleStatisticsTest;
 
 /**
  * Test suite for <code>beans.core</code> plugin.
@@ -64,23 +77,36 @@ import org.springframework.ide.eclipse.core.java.TypeHierarchyEngineTest;
 	BeanReferenceRuleWithConfigSetTest.class,
 	BeanReferenceRuleWithConfigSetAndProfileTest.class,
 	NamespaceElementsRuleTest.class,
+	ParallelValidationTest.class,
+	ValidationRuleStatisticsTest.class,
 	IntrospectorTest.class,
 	JdtUtilsTest.class,
+	ProjectClassLoaderCacheTest.class,
+	ProjectClasspathSchemaResolverCacheTest.class,
+	BeansConfigSnapshotTest.class,
+	JavaAnnotationIndexTest.class,
+	TypeStructureFingerprintTest.class,
 	AutowireDependencyProviderTest.class,
 	CommonAnnotationInjectionMetadataProviderTests.class,
 	JdtAnnotationMetadataTest.class,
 	JdtBasedAnnotationMetadataTest.class,
 	JdtClassMetadataTest.class,
 	BeansConfigTest.class,
+	BeansConfigLoaderTest.class,
 	BeansJavaConfigTest.class,
 	BeansConfigFactoryTest.class,
 	BeansProjectTest.class,
 	BeansProjectAutoConfigTest.class,
+	JavaConfigLocatorCacheTest.class,
 	BeansProjectDescriptionWriterTest.class,
 	BeansJavaConfigRenameTypeRefactoringParticipantTest.class,
 	ResourceChangeEventHandlerTest.class,
 	TypeHierarchyEngineTest.class,
-	BeansModelUtilsTest.class
+	TypeHierarchyElementCacheTest.class,
+	TypeHierarchyIndexTest.class,
+	ClasspathFingerprintTest.class,
+	BeansModelUtilsTest.class,
+	BeanClassHierarchyIndexTest.class
 })
 public class AllBeansCoreTests {
 	// goofy junit4, no class body needed
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.internal.project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.internal.model.validation.ValidatorDefinition;
+import org.springframework.ide.eclipse.core.internal.model.validation.ValidatorDefinitionFactory;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * @since 3.9.5
+ */
+public class ClasspathFingerprintTest {
+
+	private IProject project;
+
+	private IProject requiredProject;
+
+	@Before
+	public void createProject() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-autoconfig-java-tests", "org.springframework.ide.eclipse.beans.core.tests");
+	}
+
+	@After
+	public void deleteProject() throws Exception {
+		project.delete(true, null);
+		if (requiredProject != null) {
+			requiredProject.delete(true, null);
+		}
+	}
+
+	@Test
+	public void testFingerprintChangesWithClasspath() throws Exception {
+		String fingerprint = ClasspathFingerprint.compute(project);
+		assertNotNull(fingerprint);
+		assertEquals(fingerprint, ClasspathFingerprint.compute(project));
+
+		IFolder classes = project.getFolder("extra-classes");
+		classes.create(true, true, null);
+		IJavaProject javaProject = JdtUtils.getJavaProject(project);
+		IClasspathEntry[] rawClasspath = javaProject.getRawClasspath();
+		IClasspathEntry[] newClasspath = new IClasspathEntry[rawClasspath.length + 1];
+		System.arraycopy(rawClasspath, 0, newClasspath, 0, rawClasspath.length);
+		newClasspath[rawClasspath.length] = JavaCore.newLibraryEntry(classes.getFullPath(), null, null);
+		javaProject.setRawClasspath(newClasspath, null);
+
+		assertFalse(fingerprint.equals(ClasspathFingerprint.compute(project)));
+	}
+
+	@Test
+	public void testFingerprintChangesWithExportedEntriesOfRequiredProjects() throws Exception {
+		requiredProject = ResourcesPlugin.getWorkspace().getRoot().getProject("beans-autoconfig-java-tests-required");
+		requiredProject.create(null);
+		requiredProject.open(null);
+		IProjectDescription description = requiredProject.getDescription();
+		description.setNatureIds(new String[] { JavaCore.NATURE_ID });
+		requiredProject.setDescription(description, null);
+		IFolder exportedClasses = requiredProject.getFolder("exported-classes");
+		exportedClasses.create(true, true, null);
+		IFolder privateClasses = requiredProject.getFolder("private-classes");
+		privateClasses.create(true, true, null);
+		IJavaProject requiredJavaProject = JavaCore.create(requiredProject);
+		IPath outputLocation = requiredProject.getFullPath().append("bin");
+		requiredJavaProject.setRawClasspath(new IClasspathEntry[0], outputLocation, null);
+
+		IJavaProject javaProject = JdtUtils.getJavaProject(project);
+		List<IClasspathEntry> classpath = new ArrayList<IClasspathEntry>(Arrays.asList(javaProject.getRawClasspath()));
+		classpath.add(JavaCore.newProjectEntry(requiredProject.getFullPath()));
+		javaProject.setRawClasspath(classpath.toArray(new IClasspathEntry[classpath.size()]), null);
+		String fingerprint = ClasspathFingerprint.compute(project);
+
+		// entries the required project keeps to itself are not on the classpath of the project
+		requiredJavaProject.setRawClasspath(new IClasspathEntry[] {
+				JavaCore.newLibraryEntry(privateClasses.getFullPath(), null, null) }, outputLocation, null);
+		assertEquals(fingerprint, ClasspathFingerprint.compute(project));
+
+		requiredJavaProject.setRawClasspath(new IClasspathEntry[] {
+				JavaCore.newLibraryEntry(privateClasses.getFullPath(), null, null),
+				JavaCore.newLibraryEntry(exportedClasses.getFullPath(), null, null, true) }, outputLocation, null);
+		assertFalse(fingerprint.equals(ClasspathFingerprint.compute(project)));
+	}
+
+	@Test
+	public void testUnchangedClasspathAvoidsFullBuild() throws Exception {
+		project.build(IncrementalProjectBuilder.FULL_BUILD, null);
+
+		String fingerprint = ClasspathFingerprint.compute(project);
+		for (ValidatorDefinition validatorDefinition : ValidatorDefinitionFactory.getValidatorDefinitions()) {
+			if (validatorDefinition.isEnabled(project)) {
+				assertEquals(fingerprint, ClasspathFingerprint.getLastBuilt(project, validatorDefinition.getID()));
+			}
+		}
+
+		// a classpath event that didn't change anything
+		ProjectBuildStatistics.reset();
+		SpringProjectContributionManager.classpathChanged(project.getName());
+		IFile file = project.getFile("src/unrelated.txt");
+		file.create(new ByteArrayInputStream("unrelated".getBytes()), true, null);
+		Job.getJobManager().join(ResourcesPlugin.FAMILY_AUTO_BUILD, null);
+		project.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, null);
+
+		assertEquals(0, ProjectBuildStatistics.getFullBuilds(project.getName()));
+		assertTrue(ProjectBuildStatistics.getAvoidedFullBuilds(project.getName()) > 0);
+	}
+
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * @since 3.9.5
+ */
+public class JavaAnnotationIndexTest {
+
+	private static final String CONFIGURATION = "org.springframework.context.annotation.Configuration";
+
+	private static final String COMPONENT = "org.springframework.stereotype.Component";
+
+	private IProject project;
+
+	private IJavaProject javaProject;
+
+	@Before
+	public void setup() throws Exception {
+		project = StsTestUtil.createPredefinedProject("beans-autoconfig-java-tests", "org.springframework.ide.eclipse.beans.core.tests");
+		javaProject = JdtUtils.getJavaProject(project);
+	}
+
+	@After
+	public void cleanup() throws Exception {
+		JavaAnnotationIndex.removeIndex(javaProject);
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testDirectAndMetaAnnotations() throws Exception {
+		JavaAnnotationIndex index = JavaAnnotationIndex.getIndex(javaProject);
+
+		assertEquals(names("org.test.advanced.SpringBootConfigClass"), names(index.getAnnotatedTypes(CONFIGURATION, false)));
+		assertTrue(index.getAnnotatedTypes(COMPONENT, false).isEmpty());
+
+		// @Configuration is meta-annotated with @Component
+		assertEquals(names("org.test.advanced.SpringBootConfigClass"), names(index.getAnnotatedTypes(COMPONENT, true)));
+	}
+
+	@Test
+	public void testIndexIsUpdatedFromChanges() throws Exception {
+		JavaAnnotationIndex index = JavaAnnotationIndex.getIndex(javaProject);
+		assertEquals(1, index.getAnnotatedTypes(COMPONENT, true).size());
+
+		// a custom annotation in source, meta-annotated with @Configuration
+		IFile annotation = project.getFile("src/org/test/advanced/MyConfig.java");
+		annotation.create(source("package org.test.advanced;\n\n"
+				+ "import org.springframework.context.annotation.Configuration;\n\n"
+				+ "@Configuration\n"
+				+ "public @interface MyConfig {\n}\n"), true, null);
+		IFile annotated = project.getFile("src/org/test/advanced/MyConfigClass.java");
+		annotated.create(source("package org.test.advanced;\n\n"
+				+ "@MyConfig\n"
+				+ "public class MyConfigClass {\n}\n"), true, null);
+
+		assertEquals(names("org.test.advanced.MyConfigClass"), names(index.getAnnotatedTypes("org.test.advanced.MyConfig", false)));
+		assertEquals(names("org.test.advanced.SpringBootConfigClass", "org.test.advanced.MyConfig", "org.test.advanced.MyConfigClass"),
+				names(index.getAnnotatedTypes(CONFIGURATION, true)));
+
+		// remove @Configuration from the existing config class
+		IFile existing = project.getFile("src/org/test/advanced/SpringBootConfigClass.java");
+		existing.setContents(source("package org.test.advanced;\n\n"
+				+ "public class SpringBootConfigClass {\n}\n"), true, false, null);
+
+		assertEquals(names("org.test.advanced.MyConfig"), names(index.getAnnotatedTypes(CONFIGURATION, false)));
+
+		annotated.delete(true, null);
+		assertTrue(index.getAnnotatedTypes("org.test.advanced.MyConfig", false).isEmpty());
+	}
+
+	@Test
+	public void testAnnotationsResolvedFromImports() throws Exception {
+		JavaAnnotationIndex index = JavaAnnotationIndex.getIndex(javaProject);
+
+		// an annotation of the same package hides the java.lang one
+		project.getFile("src/org/test/advanced/Deprecated.java").create(source("package org.test.advanced;\n\n"
+				+ "public @interface Deprecated {\n}\n"), true, null);
+		project.getFile("src/org/test/advanced/Annotated.java").create(source("package org.test.advanced;\n\n"
+				+ "import org.springframework.context.annotation.Bean;\n\n"
+				+ "@Deprecated\n"
+				+ "public class Annotated {\n\n"
+				+ "	@Bean\n"
+				+ "	@Override\n"
+				+ "	public String toString() {\n"
+				+ "		return null;\n"
+				+ "	}\n"
+				+ "}\n"), true, null);
+
+		assertEquals(names("org.test.advanced.Annotated"), names(index.getAnnotatedTypes("org.test.advanced.Deprecated", false)));
+		assertTrue(index.getAnnotatedTypes("java.lang.Deprecated", false).isEmpty());
+		assertEquals(names("org.test.advanced.Annotated"), names(index.getAnnotatedTypes("java.lang.Override", false)));
+		assertEquals(names("org.test.advanced.Annotated"), names(index.getAnnotatedTypes("org.springframework.context.annotation.Bean", false)));
+	}
+
+	private ByteArrayInputStream source(String source) {
+		return new ByteArrayInputStream(source.getBytes());
+	}
+
+	private Set<String> names(String... names) {
+		Set<String> result = new HashSet<String>();
+		for (String name : names) {
+			result.add(name);
+		}
+		return result;
+	}
+
+	private Set<String> names(Set<IType> types) {
+		Set<String> result = new HashSet<String>();
+		for (IType type : types) {
+			result.add(type.getFullyQualifiedName());
+		}
+		return result;
+	}
+
+}
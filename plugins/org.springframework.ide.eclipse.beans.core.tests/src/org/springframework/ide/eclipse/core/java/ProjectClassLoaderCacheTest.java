@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Test case for the jar class loaders {@link ProjectClassLoaderCache} shares between projects with identical
+ * library sets.
+ */
+public class ProjectClassLoaderCacheTest {
+
+	private static final String TEST_BUNDLE = "org.springframework.ide.eclipse.beans.core.tests";
+
+	// both projects only have the JRE on their build path
+	private IProject project1;
+	private IProject project2;
+
+	// has an additional library
+	private IProject project3;
+
+	@BeforeClass
+	public static void setUpAll() {
+		if (Platform.OS_WIN32.equals(Platform.getOS())) {
+			/*
+			 * Set non-locking class-loader for windows testing
+			 */
+			InstanceScope.INSTANCE.getNode(SpringCore.PLUGIN_ID).putBoolean(
+					SpringCore.USE_NON_LOCKING_CLASSLOADER, true);
+		}
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		project1 = StsTestUtil.createPredefinedProject("init-and-destory", TEST_BUNDLE);
+		project2 = StsTestUtil.createPredefinedProject("find-type-testcases-binary", TEST_BUNDLE);
+		project3 = StsTestUtil.createPredefinedProject("find-type-testcases", TEST_BUNDLE);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		project1.delete(true, null);
+		project2.delete(true, null);
+		project3.delete(true, null);
+	}
+
+	@Test
+	public void testJarClassLoaderSharedByIdenticalLibraries() throws Exception {
+		ClassLoader classLoader1 = JdtUtils.getClassLoader(project1, null);
+		ClassLoader classLoader2 = JdtUtils.getClassLoader(project2, null);
+		ClassLoader classLoader3 = JdtUtils.getClassLoader(project3, null);
+
+		// source and output folders are never shared
+		assertNotSame(classLoader1, classLoader2);
+		assertSame(classLoader1.getParent(), classLoader2.getParent());
+		assertNotSame(classLoader1.getParent(), classLoader3.getParent());
+	}
+
+	@Test
+	public void testSharedJarClassLoaderWeighedOnce() throws Exception {
+		JdtUtils.getClassLoader(project1, null);
+		long weightWithProject1 = ProjectClassLoaderCache.getWeight();
+		JdtUtils.getClassLoader(project2, null);
+		long weightWithBoth = ProjectClassLoaderCache.getWeight();
+		long directoriesWeight = weightWithBoth - weightWithProject1;
+
+		// dropping one of the projects only releases its directories
+		JdtUtils.removeClassLoaderEntryFromCache(project1);
+		assertEquals(weightWithProject1, ProjectClassLoaderCache.getWeight());
+
+		// the shared jar class loader is released with the last project using it
+		JdtUtils.removeClassLoaderEntryFromCache(project2);
+		assertTrue(ProjectClassLoaderCache.getWeight() < weightWithProject1 - directoriesWeight);
+	}
+
+	@Test
+	public void testSharedJarClassLoaderSurvivesRemovalOfOneProject() throws Exception {
+		ClassLoader jarClassLoader = JdtUtils.getClassLoader(project1, null).getParent();
+		JdtUtils.getClassLoader(project2, null);
+
+		JdtUtils.removeClassLoaderEntryFromCache(project2);
+		assertSame(jarClassLoader, JdtUtils.getClassLoader(project2, null).getParent());
+
+		JdtUtils.removeClassLoaderEntryFromCache(project1);
+		JdtUtils.removeClassLoaderEntryFromCache(project2);
+		assertNotSame(jarClassLoader, JdtUtils.getClassLoader(project1, null).getParent());
+	}
+
+}
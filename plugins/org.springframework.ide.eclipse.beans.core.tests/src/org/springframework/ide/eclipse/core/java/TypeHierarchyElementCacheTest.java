@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyElement;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyElementCache;
+
+public class TypeHierarchyElementCacheTest {
+
+	@Test
+	public void testCollidingNamesDontAlias() throws Exception {
+		// "Aa" and "BB" share the same 31-multiplier hash code
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+
+		TypeHierarchyElementCache cache = new TypeHierarchyElementCache();
+		cache.put("Aa".toCharArray(), element("Aa", "java/lang/Object"));
+		assertNull(cache.get("BB".toCharArray()));
+
+		cache.put("BB".toCharArray(), element("BB", "Aa"));
+		assertEquals("java/lang/Object", new String(cache.get("Aa".toCharArray()).superclassName));
+		assertEquals("Aa", new String(cache.get("BB".toCharArray()).superclassName));
+	}
+
+	@Test
+	public void testLinksStoredAsIds() throws Exception {
+		TypeHierarchyElementCache cache = new TypeHierarchyElementCache();
+		cache.put("org/Sub".toCharArray(), element("org/Sub", "org/Super", "org/I1", "org/I2"));
+
+		int id = cache.getId("org/Sub".toCharArray());
+		int superclassId = cache.getSuperclassId(id);
+		assertEquals("org/Super", new String(cache.getName(superclassId)));
+		// referenced, but not read yet
+		assertNull(cache.getElement(superclassId));
+		assertEquals(0, cache.getInterfaceIds(superclassId).length);
+
+		int[] interfaceIds = cache.getInterfaceIds(id);
+		assertEquals(2, interfaceIds.length);
+		assertEquals("org/I1", new String(cache.getName(interfaceIds[0])));
+		assertEquals("org/I2", new String(cache.getName(interfaceIds[1])));
+
+		assertEquals(TypeHierarchyElementCache.NO_ID, cache.getId("org/Unknown".toCharArray()));
+	}
+
+	@Test
+	public void testNamesInterned() throws Exception {
+		TypeHierarchyElementCache cache = new TypeHierarchyElementCache();
+		TypeHierarchyElement a = cache.put("org/A".toCharArray(), element("org/A", "java/lang/Object"));
+		TypeHierarchyElement b = cache.put("org/B".toCharArray(), element("org/B", "java/lang/Object"));
+		assertSame(a.superclassName, b.superclassName);
+		assertSame(a, cache.get("org/A".toCharArray()));
+	}
+
+	@Test
+	public void testGrow() throws Exception {
+		TypeHierarchyElementCache cache = new TypeHierarchyElementCache();
+		for (int i = 0; i < 10000; i++) {
+			cache.put(("org/C" + i).toCharArray(), element("org/C" + i, i > 0 ? "org/C" + (i - 1) : "java/lang/Object"));
+		}
+		// all classes plus java/lang/Object
+		assertEquals(10001, cache.size());
+		for (int i = 1; i < 10000; i++) {
+			int id = cache.getId(("org/C" + i).toCharArray());
+			assertEquals(cache.getId(("org/C" + (i - 1)).toCharArray()), cache.getSuperclassId(id));
+		}
+	}
+
+	@Test
+	public void testConcurrentReadsWhileGrowing() throws Exception {
+		final TypeHierarchyElementCache cache = new TypeHierarchyElementCache();
+		final int count = 20000;
+		final AtomicBoolean done = new AtomicBoolean(false);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		final CountDownLatch started = new CountDownLatch(4);
+
+		Thread[] readers = new Thread[4];
+		for (int r = 0; r < readers.length; r++) {
+			readers[r] = new Thread() {
+				@Override
+				public void run() {
+					started.countDown();
+					try {
+						while (!done.get()) {
+							for (int i = 0; i < count; i += 97) {
+								char[] name = ("org/C" + i).toCharArray();
+								TypeHierarchyElement element = cache.get(name);
+								if (element != null) {
+									assertArrayEquals(name, element.className);
+									int id = cache.getId(name);
+									int superclassId = cache.getSuperclassId(id);
+									assertArrayEquals(element.superclassName, cache.getName(superclassId));
+								}
+							}
+						}
+					}
+					catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					}
+				}
+			};
+			readers[r].start();
+		}
+
+		started.await();
+		for (int i = 0; i < count; i++) {
+			cache.put(("org/C" + i).toCharArray(), element("org/C" + i, "org/Super" + i));
+		}
+		done.set(true);
+		for (Thread reader : readers) {
+			reader.join();
+		}
+
+		if (failure.get() != null) {
+			throw new AssertionError(failure.get());
+		}
+		for (int i = 0; i < count; i += 97) {
+			assertNotNull(cache.get(("org/C" + i).toCharArray()));
+		}
+		assertTrue(cache.size() >= 2 * count);
+	}
+
+	private static TypeHierarchyElement element(String name, String superclassName, String... interfaces) {
+		char[][] interfaceNames = new char[interfaces.length][];
+		for (int i = 0; i < interfaces.length; i++) {
+			interfaceNames[i] = interfaces[i].toCharArray();
+		}
+		return new TypeHierarchyElement(name.toCharArray(), superclassName.toCharArray(), interfaceNames);
+	}
+
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyElement;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyIndex;
+
+public class TypeHierarchyIndexTest {
+
+	private static final char[] CLASS_NAME = "org/Subclass".toCharArray();
+
+	private File dir;
+	private File indexDir;
+	private File jarV1;
+	private File jarV2;
+	private IProject project;
+
+	@Before
+	public void setup() throws Exception {
+		dir = Files.createTempDirectory("type-hierarchy-index").toFile();
+		indexDir = new File(dir, "index");
+		jarV1 = write(new File(dir, "lib-1.0.jar"), "version 1");
+		jarV2 = write(new File(dir, "lib-2.0.jar"), "version 2");
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject("type-hierarchy-index-test");
+	}
+
+	@After
+	public void teardown() throws Exception {
+		delete(dir);
+	}
+
+	@Test
+	public void testEntryReusedForSameLocation() throws Exception {
+		TypeHierarchyIndex index = new TypeHierarchyIndex(indexDir);
+		index.put(project, element("org/SimpleClass"), jarV1.getAbsolutePath());
+
+		TypeHierarchyElement element = index.get(project, CLASS_NAME, jarV1.getAbsolutePath());
+		assertNotNull(element);
+		assertEquals("org/SimpleClass", new String(element.superclassName));
+	}
+
+	@Test
+	public void testEntryPersisted() throws Exception {
+		TypeHierarchyIndex index = new TypeHierarchyIndex(indexDir);
+		index.put(project, element("org/SimpleClass"), jarV1.getAbsolutePath());
+		index.save();
+
+		index = new TypeHierarchyIndex(indexDir);
+		assertNotNull(index.get(project, CLASS_NAME, jarV1.getAbsolutePath()));
+	}
+
+	@Test
+	public void testDependencyVersionChanged() throws Exception {
+		TypeHierarchyIndex index = new TypeHierarchyIndex(indexDir);
+		index.put(project, element("org/SimpleClass"), jarV1.getAbsolutePath());
+		index.save();
+
+		// the old jar is still around, but the classpath now points to the new version
+		index = new TypeHierarchyIndex(indexDir);
+		assertNull(index.get(project, CLASS_NAME, jarV2.getAbsolutePath()));
+
+		index.put(project, element("org/OtherClass"), jarV2.getAbsolutePath());
+		assertEquals("org/OtherClass", new String(index.get(project, CLASS_NAME, jarV2.getAbsolutePath()).superclassName));
+	}
+
+	@Test
+	public void testClasspathOrderChanged() throws Exception {
+		TypeHierarchyIndex index = new TypeHierarchyIndex(indexDir);
+		index.put(project, element("org/SimpleClass"), jarV2.getAbsolutePath());
+
+		// both jars contain the class and the first one moved in front of the other one
+		assertNull(index.get(project, CLASS_NAME, jarV1.getAbsolutePath()));
+		// the outdated entry is gone for good
+		assertNull(index.get(project, CLASS_NAME, jarV2.getAbsolutePath()));
+	}
+
+	@Test
+	public void testLocationContentChanged() throws Exception {
+		TypeHierarchyIndex index = new TypeHierarchyIndex(indexDir);
+		index.put(project, element("org/SimpleClass"), jarV1.getAbsolutePath());
+
+		write(jarV1, "version 1 with a different size");
+		index.invalidateStamps(project);
+		assertNull(index.get(project, CLASS_NAME, jarV1.getAbsolutePath()));
+	}
+
+	@Test
+	public void testUnknownLocation() throws Exception {
+		TypeHierarchyIndex index = new TypeHierarchyIndex(indexDir);
+		index.put(project, element("org/SimpleClass"), jarV1.getAbsolutePath());
+		assertNull(index.get(project, CLASS_NAME, null));
+	}
+
+	private TypeHierarchyElement element(String superclassName) {
+		return new TypeHierarchyElement(CLASS_NAME, superclassName.toCharArray(), new char[0][]);
+	}
+
+	private static File write(File file, String content) throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(content.getBytes("UTF-8"));
+		}
+		finally {
+			out.close();
+		}
+		return file;
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+}
@@ -0,0 +1,374 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springsource.ide.eclipse.commons.tests.util.StsTestUtil;
+
+/**
+ * Test case for {@link TypeStructureFingerprint} and the way {@link TypeStructureCache} keeps them per project.
+ * <p>
+ * The class files are assembled by hand, so that they contain constant pool entries the Java compiler of the test
+ * environment may not produce.
+ */
+public class TypeStructureFingerprintTest {
+
+	private static final int ACC_PUBLIC = 0x0001;
+
+	private static final int ACC_STATIC = 0x0008;
+
+	private static final int ACC_SUPER = 0x0020;
+
+	private static final int ACC_INTERFACE = 0x0200;
+
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	private static final int ACC_ANNOTATION = 0x2000;
+
+	private static final int ACC_MODULE = 0x8000;
+
+	private static final int REF_INVOKE_STATIC = 6;
+
+	private IProject project;
+
+	private TypeStructureCache cache;
+
+	@Before
+	public void setUp() throws Exception {
+		project = StsTestUtil.createPredefinedProject("init-and-destory", "org.springframework.ide.eclipse.beans.core.tests");
+		cache = new TypeStructureCache();
+		cache.startup();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		cache.shutdown();
+		if (project.exists()) {
+			project.delete(true, null);
+		}
+	}
+
+	@Test
+	public void testLongAndDoubleConstantsTakeTwoSlots() throws Exception {
+		TypeStructureFingerprint fingerprint = TypeStructureFingerprint.create(limits(42L, false));
+		assertNotNull(fingerprint);
+		assertEquals("org.test.Limits", fingerprint.getClassName());
+
+		// shifting the constant pool by further long and double entries doesn't change the structure
+		assertTrue(fingerprint.matches(TypeStructureFingerprint.create(limits(42L, true))));
+
+		// the default values of the annotation are part of the structure
+		assertFalse(fingerprint.matches(TypeStructureFingerprint.create(limits(43L, true))));
+	}
+
+	@Test
+	public void testModuleInfo() throws Exception {
+		TypeStructureFingerprint fingerprint = TypeStructureFingerprint.create(moduleInfo("org/test/api"));
+		assertNotNull(fingerprint);
+		assertEquals("module-info", fingerprint.getClassName());
+		assertTrue(fingerprint.matches(TypeStructureFingerprint.create(moduleInfo("org/test/internal"))));
+	}
+
+	@Test
+	public void testInvokeDynamic() throws Exception {
+		TypeStructureFingerprint fingerprint = TypeStructureFingerprint.create(lambdas("run", false));
+		assertNotNull(fingerprint);
+		assertEquals("org.test.Lambdas", fingerprint.getClassName());
+
+		// additional bootstrap constants only used by the method body don't change the structure
+		assertTrue(fingerprint.matches(TypeStructureFingerprint.create(lambdas("run", true))));
+		assertFalse(fingerprint.matches(TypeStructureFingerprint.create(lambdas("call", true))));
+	}
+
+	@Test
+	public void testUnknownConstantPoolTag() throws Exception {
+		ClassFile classFile = new ClassFile();
+		classFile.pool.writeByte(2); // unused tag
+		classFile.pool.writeShort(0);
+		classFile.count++;
+		assertNull(TypeStructureFingerprint.create(classFile.toByteArray()));
+	}
+
+	@Test
+	public void testTypeStructuresDroppedWithClosedProject() throws Exception {
+		IFile classFile = project.getFile("Limits.class");
+		classFile.create(new ByteArrayInputStream(limits(42L, false)), true, null);
+
+		cache.recordTypeStructures(project, classFile);
+		assertTrue(cache.hasRecordedTypeStructures(project));
+		cache.clearStateForProject(project);
+		cache.recordTypeStructures(project, classFile);
+		assertTrue(cache.hasRecordedTypeStructures(project));
+
+		project.close(null);
+		assertFalse(cache.hasRecordedTypeStructures(project));
+	}
+
+	@Test
+	public void testTypeStructuresDroppedWithDeletedProject() throws Exception {
+		IFile classFile = project.getFile("Limits.class");
+		classFile.create(new ByteArrayInputStream(limits(42L, false)), true, null);
+
+		cache.recordTypeStructures(project, classFile);
+		assertTrue(cache.hasRecordedTypeStructures(project));
+
+		project.delete(true, null);
+		assertFalse(cache.hasRecordedTypeStructures(project));
+	}
+
+	/**
+	 * <code>public @interface Limits { long max() default max; double ratio() default 0.5; }</code>
+	 */
+	private byte[] limits(long max, boolean shiftConstantPool) throws IOException {
+		ClassFile classFile = new ClassFile();
+		if (shiftConstantPool) {
+			classFile.longConstant(-1L);
+			classFile.doubleConstant(-1d);
+		}
+		int maxValue = classFile.longConstant(max);
+		int ratioValue = classFile.doubleConstant(0.5d);
+		int annotationDefault = classFile.utf8("AnnotationDefault");
+
+		classFile.header(ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT | ACC_ANNOTATION, "org/test/Limits",
+				"java/lang/Object", "java/lang/annotation/Annotation");
+		DataOutputStream body = classFile.body;
+		body.writeShort(0); // fields
+		body.writeShort(2); // methods
+		writeAnnotationMethod(classFile, "max", "()J", annotationDefault, 'J', maxValue);
+		writeAnnotationMethod(classFile, "ratio", "()D", annotationDefault, 'D', ratioValue);
+		body.writeShort(0); // attributes
+		return classFile.toByteArray();
+	}
+
+	private void writeAnnotationMethod(ClassFile classFile, String name, String descriptor, int annotationDefault,
+			char tag, int value) throws IOException {
+		DataOutputStream body = classFile.body;
+		body.writeShort(ACC_PUBLIC | ACC_ABSTRACT);
+		body.writeShort(classFile.utf8(name));
+		body.writeShort(classFile.utf8(descriptor));
+		body.writeShort(1);
+		body.writeShort(annotationDefault);
+		body.writeInt(3);
+		body.writeByte(tag);
+		body.writeShort(value);
+	}
+
+	/**
+	 * <code>module org.test { exports exportedPackage; }</code>
+	 */
+	private byte[] moduleInfo(String exportedPackage) throws IOException {
+		ClassFile classFile = new ClassFile();
+		int module = classFile.module("org.test");
+		int exported = classFile.packageConstant(exportedPackage);
+		int moduleAttribute = classFile.utf8("Module");
+
+		int thisClass = classFile.classConstant("module-info");
+		DataOutputStream body = classFile.body;
+		body.writeShort(ACC_MODULE);
+		body.writeShort(thisClass);
+		body.writeShort(0); // no super class
+		body.writeShort(0); // interfaces
+		body.writeShort(0); // fields
+		body.writeShort(0); // methods
+		body.writeShort(1); // attributes
+		body.writeShort(moduleAttribute);
+		body.writeInt(22);
+		body.writeShort(module);
+		body.writeShort(0); // flags
+		body.writeShort(0); // version
+		body.writeShort(0); // requires
+		body.writeShort(1); // exports
+		body.writeShort(exported);
+		body.writeShort(0);
+		body.writeShort(0);
+		body.writeShort(0); // opens
+		body.writeShort(0); // uses
+		body.writeShort(0); // provides
+		return classFile.toByteArray();
+	}
+
+	/**
+	 * <code>public class Lambdas { public static Runnable name() { return () -> {}; } }</code>, compiled to an
+	 * <code>invokedynamic</code> of the lambda meta factory
+	 */
+	private byte[] lambdas(String name, boolean dynamicConstant) throws IOException {
+		ClassFile classFile = new ClassFile();
+		int metafactory = classFile.methodHandle(REF_INVOKE_STATIC, classFile.methodRef(
+				"java/lang/invoke/LambdaMetafactory", "metafactory",
+				"(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;"
+						+ "Ljava/lang/invoke/MethodType;Ljava/lang/invoke/MethodHandle;Ljava/lang/invoke/MethodType;)"
+						+ "Ljava/lang/invoke/CallSite;"));
+		int methodType = classFile.methodType("()V");
+		if (dynamicConstant) {
+			classFile.dynamic(0, classFile.nameAndType("constant", "Ljava/lang/Object;"));
+		}
+		int invokeDynamic = classFile.invokeDynamic(0, classFile.nameAndType("run", "()Ljava/lang/Runnable;"));
+		int code = classFile.utf8("Code");
+		int bootstrapMethods = classFile.utf8("BootstrapMethods");
+
+		classFile.header(ACC_PUBLIC | ACC_SUPER, "org/test/Lambdas", "java/lang/Object");
+		DataOutputStream body = classFile.body;
+		body.writeShort(0); // fields
+		body.writeShort(1); // methods
+		body.writeShort(ACC_PUBLIC | ACC_STATIC);
+		body.writeShort(classFile.utf8(name));
+		body.writeShort(classFile.utf8("()Ljava/lang/Runnable;"));
+		body.writeShort(1);
+		body.writeShort(code);
+		body.writeInt(18);
+		body.writeShort(1); // max stack
+		body.writeShort(0); // max locals
+		body.writeInt(6);
+		body.writeByte(0xBA); // invokedynamic
+		body.writeShort(invokeDynamic);
+		body.writeShort(0);
+		body.writeByte(0xB0); // areturn
+		body.writeShort(0); // exception table
+		body.writeShort(0); // attributes
+		body.writeShort(1); // attributes
+		body.writeShort(bootstrapMethods);
+		body.writeInt(8);
+		body.writeShort(1);
+		body.writeShort(metafactory);
+		body.writeShort(1);
+		body.writeShort(methodType);
+		return classFile.toByteArray();
+	}
+
+	/**
+	 * Assembles a class file, adding the constant pool entries as they are requested
+	 */
+	private static class ClassFile {
+
+		private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+
+		private final DataOutputStream pool = new DataOutputStream(poolBytes);
+
+		private final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+
+		private final DataOutputStream body = new DataOutputStream(bodyBytes);
+
+		private int count = 1;
+
+		public int utf8(String value) throws IOException {
+			pool.writeByte(1);
+			pool.writeUTF(value);
+			return count++;
+		}
+
+		public int longConstant(long value) throws IOException {
+			pool.writeByte(5);
+			pool.writeLong(value);
+			int index = count;
+			count += 2;
+			return index;
+		}
+
+		public int doubleConstant(double value) throws IOException {
+			pool.writeByte(6);
+			pool.writeDouble(value);
+			int index = count;
+			count += 2;
+			return index;
+		}
+
+		public int classConstant(String name) throws IOException {
+			return reference(7, utf8(name));
+		}
+
+		public int nameAndType(String name, String descriptor) throws IOException {
+			return reference(12, utf8(name), utf8(descriptor));
+		}
+
+		public int methodRef(String owner, String name, String descriptor) throws IOException {
+			return reference(10, classConstant(owner), nameAndType(name, descriptor));
+		}
+
+		public int methodHandle(int kind, int reference) throws IOException {
+			pool.writeByte(15);
+			pool.writeByte(kind);
+			pool.writeShort(reference);
+			return count++;
+		}
+
+		public int methodType(String descriptor) throws IOException {
+			return reference(16, utf8(descriptor));
+		}
+
+		public int dynamic(int bootstrapMethod, int nameAndType) throws IOException {
+			return reference(17, bootstrapMethod, nameAndType);
+		}
+
+		public int invokeDynamic(int bootstrapMethod, int nameAndType) throws IOException {
+			return reference(18, bootstrapMethod, nameAndType);
+		}
+
+		public int module(String name) throws IOException {
+			return reference(19, utf8(name));
+		}
+
+		public int packageConstant(String name) throws IOException {
+			return reference(20, utf8(name));
+		}
+
+		private int reference(int tag, int... indexes) throws IOException {
+			pool.writeByte(tag);
+			for (int index : indexes) {
+				pool.writeShort(index);
+			}
+			return count++;
+		}
+
+		public void header(int modifiers, String name, String superName, String... interfaces) throws IOException {
+			int thisClass = classConstant(name);
+			int superClass = classConstant(superName);
+			int[] interfaceClasses = new int[interfaces.length];
+			for (int i = 0; i < interfaces.length; i++) {
+				interfaceClasses[i] = classConstant(interfaces[i]);
+			}
+			body.writeShort(modifiers);
+			body.writeShort(thisClass);
+			body.writeShort(superClass);
+			body.writeShort(interfaceClasses.length);
+			for (int interfaceClass : interfaceClasses) {
+				body.writeShort(interfaceClass);
+			}
+		}
+
+		public byte[] toByteArray() throws IOException {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0); // minor version
+			out.writeShort(53); // Java 9, for modules
+			out.writeShort(count);
+			out.write(poolBytes.toByteArray());
+			out.write(bodyBytes.toByteArray());
+			return bytes.toByteArray();
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.model.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+import java.io.StringWriter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.core.SpringCore;
+
+public class ValidationRuleStatisticsTest {
+
+	@Before
+	public void setUp() throws Exception {
+		// the debug option keeps profiling switched on
+		assumeFalse(ValidationRuleStatistics.DEBUG);
+		setProfiling(true);
+		assertTrue(ValidationRuleStatistics.isEnabled());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		setProfiling(false);
+		ValidationRuleStatistics.isEnabled();
+	}
+
+	@Test
+	public void testRecordedPerRuleAndResource() throws Exception {
+		ValidationRuleStatistics.record("rule1", "/project/beans.xml", 2000000);
+		ValidationRuleStatistics.record("rule1", "/project/beans.xml", 4000000);
+		ValidationRuleStatistics.record("rule2", "/project/other.xml", 1000000);
+
+		String csv = csv();
+		assertTrue(csv, csv.contains("rule,rule1,,2,6000,3000,"));
+		assertTrue(csv, csv.contains("rule,rule2,,1,1000,1000,"));
+		assertTrue(csv, csv.contains("resource,,/project/beans.xml,2,6000,3000,"));
+		assertTrue(csv, csv.contains("rule-resource,rule1,/project/beans.xml,2,6000,3000,"));
+	}
+
+	@Test
+	public void testCountersResetWhenProfilingSwitched() throws Exception {
+		ValidationRuleStatistics.record("rule1", "/project/beans.xml", 2000000);
+		assertTrue(csv().contains("rule1"));
+
+		setProfiling(false);
+		assertFalse(ValidationRuleStatistics.isEnabled());
+		assertFalse(csv().contains("rule1"));
+
+		// switching it on again starts with an empty profile
+		ValidationRuleStatistics.record("rule2", "/project/beans.xml", 2000000);
+		setProfiling(true);
+		assertTrue(ValidationRuleStatistics.isEnabled());
+		assertEquals("scope,rule,resource,invocations,total,average,p99,max\n", csv());
+	}
+
+	private static void setProfiling(boolean enabled) {
+		SpringCore.getDefault().getPluginPreferences().setValue(SpringCore.ENABLE_VALIDATION_PROFILING, enabled);
+	}
+
+	private static String csv() throws Exception {
+		StringWriter writer = new StringWriter();
+		ValidationRuleStatistics.writeCsv(writer);
+		return writer.toString();
+	}
+
+}
@@ -45,6 +45,8 @@ import org.osgi.framework.Version;
 import org.osgi.service.url.URLConstants;
 import org.osgi.service.url.URLStreamHandlerService;
 import org.springframework.beans.factory.xml.NamespaceHandlerResolver;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigLoader;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigSnapshot;
 import org.springframework.ide.eclipse.beans.core.internal.model.BeansModel;
 import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.NamespaceManager;
 import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.ProjectClasspathNamespaceDefinitionResolverCache;
@@ -85,6 +87,9 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 	/** preference key for defining the parsing timeout */
 	public static final String TIMEOUT_CONFIG_LOADING_PREFERENCE_ID = PLUGIN_ID + ".timeoutConfigLoading";
 
+	/** preference key to restore unchanged beans configs from snapshots instead of parsing them */
+	public static final String USE_CONFIG_SNAPSHOTS_PREFERENCE_ID = PLUGIN_ID + ".useConfigSnapshots";
+
 	/** preference key to enable namespace versions per namespace */
 	public static final String PROJECT_PROPERTY_ID = "enable.project.preferences";
 
@@ -115,6 +120,9 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 	private AtomicInteger threadCount = new AtomicInteger(0);
 	private static final String THREAD_NAME_TEMPLATE = "Background Thread-%s (%s/%s.%s.%s)";
 
+	/** Bounded pool that loads beans configs */
+	private BeansConfigLoader configLoader;
+
 	/**
 	 * Preference ID to globally disable any beans auto detection scanning.
 	 */
@@ -179,10 +187,11 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 				return reportingThread;
 			}
 		});
+		configLoader = new BeansConfigLoader(Math.max(2, Runtime.getRuntime().availableProcessors()));
 
-		
 		nsManager = new NamespaceManager(context);
 		getPreferenceStore().setDefault(TIMEOUT_CONFIG_LOADING_PREFERENCE_ID, 60);
+		getPreferenceStore().setDefault(USE_CONFIG_SNAPSHOTS_PREFERENCE_ID, true);
 		getPreferenceStore().setDefault(NAMESPACE_DEFAULT_FROM_CLASSPATH_ID, true);
 		getPreferenceStore().setDefault(LOAD_NAMESPACEHANDLER_FROM_CLASSPATH_ID, true);
 
@@ -191,6 +200,8 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 			protected IStatus run(IProgressMonitor monitor) {
 				initNamespaceHandlers(context);
 				model.start();
+				// snapshots of configs removed while the workbench wasn't running are never read again
+				BeansConfigSnapshot.purge(BeansConfigSnapshot.getSnapshotFolder());
 				return Status.OK_STATUS;
 			}
 		};
@@ -211,6 +222,7 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 			isClosed = true;
 		}
 		model.stop();
+		configLoader.shutdown();
 		if (projectAwareUrlService != null) {
 			projectAwareUrlService.unregister();
 		}
@@ -257,6 +269,14 @@ public class BeansCorePlugin extends AbstractUIPlugin {
 		return getDefault().executorService;
 	}
 
+	/**
+	 * Returns the pool that loads beans configs.
+	 * @since 3.9.5
+	 */
+	public static BeansConfigLoader getConfigLoader() {
+		return getDefault().configLoader;
+	}
+
 	public static void notifyNamespaceDefinitionListeners(IProject project) {
 		for (INamespaceDefinitionListener listener : getDefault().namespaceDefinitionListeners) {
 			listener.onNamespaceDefinitionRegistered(new INamespaceDefinitionListener.NamespaceDefinitionChangeEvent(
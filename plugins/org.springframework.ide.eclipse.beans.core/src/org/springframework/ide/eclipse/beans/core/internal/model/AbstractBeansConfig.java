@@ -16,14 +16,24 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.springframework.beans.factory.xml.DocumentDefaultsDefinition;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigLoader.LoadOperation;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansConfigLoader.Priority;
 import org.springframework.ide.eclipse.beans.core.model.IBean;
 import org.springframework.ide.eclipse.beans.core.model.IBeanAlias;
 import org.springframework.ide.eclipse.beans.core.model.IBeansComponent;
@@ -73,6 +83,9 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 	/** List of components (in registration order) */
 	protected volatile Set<IBeansComponent> components = new LinkedHashSet<IBeansComponent>();
 
+	/** Bean names mapped to the beans contributed by (nested) components */
+	protected volatile Map<String, IBean> componentBeansMap = new HashMap<String, IBean>();
+
 	/** Defaults values for this beans config file */
 	protected volatile DocumentDefaultsDefinition defaults;
 
@@ -87,6 +100,8 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 
 	protected volatile boolean isBeanClassesMapPopulated = false;
 
+	protected volatile boolean isComponentBeansMapPopulated = false;
+
 	protected volatile boolean isModelPopulated = false;
 
 	/** This bean config file's timestamp of last modification */
@@ -105,6 +120,11 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 
 	protected volatile Set<IBeansConfigEventListener> eventListeners = new LinkedHashSet<IBeansConfigEventListener>();
 
+	private final Object loadMonitor = new Object();
+
+	/** The load of this config that is queued or running on the {@link BeansConfigLoader} */
+	private Future<IBeansConfig> pendingLoad;
+
 	public AbstractBeansConfig(IBeansModelElement project, String name, Type type) {
 		super(project, name);
 		this.type = type;
@@ -326,6 +346,19 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 		}
 	}
 
+	/**
+	 * Returns the bean with the given name that is contributed by one of the (nested) components of this config or
+	 * one of its imported configs.
+	 * @return <code>IBean</code> or <code>null</code> if no component contributes a bean with the given name
+	 * @since 3.9.5
+	 */
+	public IBean getComponentBean(String name) {
+		if (name != null) {
+			return getComponentBeansMap().get(name);
+		}
+		return null;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -587,6 +620,75 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 		return getElementName() + ": " + getBeans();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public Future<IBeansConfig> loadAsync() {
+		return load(Priority.INTERACTIVE);
+	}
+
+	/**
+	 * Returns the pending load of this config or queues a new one with the given priority. A pending load gets
+	 * promoted if the given priority is higher than the one it has been queued with.
+	 * <p>
+	 * A canceled load that is still running holds the write lock of this config. No new load is queued until it
+	 * stopped, as the new load would just occupy another loader thread waiting for the lock.
+	 */
+	protected Future<IBeansConfig> load(Priority priority) {
+		LoadOperation<IBeansConfig> operation = new LoadOperation<IBeansConfig>() {
+
+			public IBeansConfig call() {
+				readConfig();
+				return AbstractBeansConfig.this;
+			}
+
+			public void canceled() {
+				loadCanceled();
+			}
+		};
+		if (isModelPopulated || BeansConfigLoader.isLoaderThread()) {
+			FutureTask<IBeansConfig> loaded = new FutureTask<IBeansConfig>(operation);
+			loaded.run();
+			return loaded;
+		}
+
+		BeansConfigLoader loader = BeansCorePlugin.getConfigLoader();
+		synchronized (loadMonitor) {
+			if (pendingLoad == null || (pendingLoad.isDone() && !loader.isRunning(pendingLoad))) {
+				pendingLoad = loader.submit(operation, priority, BeansCorePlugin.getDefault().getPreferenceStore()
+						.getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID), TimeUnit.SECONDS);
+			}
+			else if (!pendingLoad.isDone()) {
+				loader.promote(pendingLoad, priority);
+			}
+			return pendingLoad;
+		}
+	}
+
+	/**
+	 * Loads this config on the {@link BeansConfigLoader} and waits for the load to finish. The loader cancels a load
+	 * that runs for longer than the configured timeout, counted from the moment a loader thread picks it up.
+	 * <p>
+	 * Implementations of {@link #readConfig()} call this unless they are already running on a loader thread or the
+	 * calling thread holds the write lock of this config.
+	 */
+	protected void awaitLoad() {
+		Future<IBeansConfig> load = load(BeansConfigLoader.getPriority());
+		try {
+			load.get();
+		}
+		catch (CancellationException e) {
+			// timed out or canceled; the load records the problem and marks this config as populated
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e) {
+			BeansCorePlugin.log(new Status(IStatus.ERROR, BeansCorePlugin.PLUGIN_ID, String.format(
+					"Error occured loading '%s'", getElementName()), e.getCause()));
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -708,6 +810,32 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 		return beanClassesMap;
 	}
 
+	/**
+	 * Returns lazily initialized map with the beans of all (nested) components of this config and its imported
+	 * configs. The map is replaced as a whole once it needs to be rebuilt, so that concurrent lookups never see a
+	 * partially populated map.
+	 */
+	protected Map<String, IBean> getComponentBeansMap() {
+		if (!this.isComponentBeansMapPopulated) {
+			try {
+				w.lock();
+				if (this.isComponentBeansMapPopulated) {
+					return componentBeansMap;
+				}
+				Map<String, IBean> componentBeans = new HashMap<String, IBean>();
+				for (IBeansComponent component : getComponents()) {
+					BeansModelUtils.addComponentBeans(component, componentBeans);
+				}
+				componentBeansMap = componentBeans;
+			}
+			finally {
+				this.isComponentBeansMapPopulated = true;
+				w.unlock();
+			}
+		}
+		return componentBeansMap;
+	}
+
 	public boolean doesAnnotationScanning() {
 		for (IBeansComponent component : this.getComponents()) {
 			boolean result = doesAnnotationScanning(component);
@@ -739,6 +867,15 @@ public abstract class AbstractBeansConfig extends AbstractResourceModelElement i
 
 	/**
 	 * Read the resource backing this beans configuration and initialize all internal state.
+	 * @see #awaitLoad()
 	 */
 	protected abstract void readConfig();
+
+	/**
+	 * Called if a load of this config got canceled before it started. Implementations record the cancellation as a
+	 * problem and mark this config as populated, the same as {@link #readConfig()} does for a load that got canceled
+	 * while running, so that later accesses don't wait for another load.
+	 */
+	protected void loadCanceled() {
+	}
 }
@@ -0,0 +1,384 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IProject;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+import org.springframework.ide.eclipse.beans.core.model.IBeansProject;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
+
+/**
+ * Reverse index that maps type names to the configs and beans whose bean classes are that type or
+ * a subtype of it.
+ * <p>
+ * The index is maintained per {@link IBeansProject} and updated incrementally: a config is only
+ * (re-)indexed if it is new or has been reloaded since it was indexed the last time. Beans are indexed
+ * by the type {@link BeansModelUtils#resolveBeanTypeAsString(IBean)} resolves them to, so beans created
+ * by a <code>factory-method</code> are indexed by the return type of that method. Such configs are
+ * re-indexed before a lookup for one of the factory types, since the factory method might return
+ * something different now.
+ * <p>
+ * The super types of all indexed types are cached. A lookup for a changed type re-reads the super types
+ * of that type only, and the configs containing it are only re-indexed if they really changed.
+ * @since 3.9.5
+ */
+public class BeanClassHierarchyIndex {
+
+	private static final int MAX_FACTORY_CHAIN_LENGTH = 10;
+
+	private final Map<IBeansProject, ProjectEntry> projects = new ConcurrentHashMap<IBeansProject, ProjectEntry>();
+
+	/**
+	 * Returns all configs of the given project that contain a bean class that is one of the given types
+	 * or a subtype of them.
+	 */
+	public Set<IBeansConfig> getConfigs(IBeansProject project, String[] typeNames, TypeHierarchyEngine typeEngine) {
+		ProjectEntry entry = getProjectEntry(project);
+		synchronized (entry) {
+			prepare(project, entry, typeNames, typeEngine);
+
+			Set<IBeansConfig> result = new LinkedHashSet<IBeansConfig>();
+			for (String typeName : typeNames) {
+				Set<IBeansConfig> configs = entry.configsByType.get(typeName);
+				if (configs != null) {
+					result.addAll(configs);
+				}
+			}
+
+			refreshHierarchy(project, entry, typeNames, typeEngine);
+			return result;
+		}
+	}
+
+	/**
+	 * Returns all beans of the given project whose bean type is one of the given types or a subtype
+	 * of them. Beans whose type could not be resolved are returned if <code>includeUnresolved</code>
+	 * is set.
+	 */
+	public Set<IBean> getBeans(IBeansProject project, String[] typeNames, boolean includeUnresolved,
+			TypeHierarchyEngine typeEngine) {
+		ProjectEntry entry = getProjectEntry(project);
+		synchronized (entry) {
+			prepare(project, entry, typeNames, typeEngine);
+
+			Set<IBean> result = new LinkedHashSet<IBean>();
+			for (String typeName : typeNames) {
+				Set<IBean> beans = entry.beansByType.get(typeName);
+				if (beans != null) {
+					result.addAll(beans);
+				}
+			}
+			if (includeUnresolved) {
+				for (ConfigEntry configEntry : entry.configs.values()) {
+					result.addAll(configEntry.unresolvedBeans);
+				}
+			}
+
+			refreshHierarchy(project, entry, typeNames, typeEngine);
+			return result;
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the given config is currently indexed. For testing purposes.
+	 */
+	public boolean isIndexed(IBeansProject project, IBeansConfig config) {
+		ProjectEntry entry = projects.get(project);
+		if (entry == null) {
+			return false;
+		}
+		synchronized (entry) {
+			return entry.configs.containsKey(config);
+		}
+	}
+
+	/**
+	 * Drops all index information of the given project.
+	 */
+	public void remove(IBeansProject project) {
+		projects.remove(project);
+	}
+
+	private ProjectEntry getProjectEntry(IBeansProject project) {
+		ProjectEntry entry = projects.get(project);
+		if (entry == null) {
+			synchronized (projects) {
+				entry = projects.get(project);
+				if (entry == null) {
+					entry = new ProjectEntry();
+					projects.put(project, entry);
+				}
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Brings the index up to date before answering a lookup for the given types.
+	 */
+	private void prepare(IBeansProject project, ProjectEntry entry, String[] typeNames, TypeHierarchyEngine typeEngine) {
+		// factory methods of the changed types might return something different now
+		for (ConfigEntry configEntry : new ArrayList<ConfigEntry>(entry.configs.values())) {
+			for (String typeName : typeNames) {
+				if (configEntry.factoryTypes.contains(typeName)) {
+					entry.invalidate(configEntry.config);
+					break;
+				}
+			}
+		}
+		update(project, entry, typeEngine);
+	}
+
+	private void update(IBeansProject project, ProjectEntry entry, TypeHierarchyEngine typeEngine) {
+		Set<IBeansConfig> configs = project.getConfigs();
+
+		// drop configs that are gone or have been reloaded
+		for (IBeansConfig config : new ArrayList<IBeansConfig>(entry.configs.keySet())) {
+			ConfigEntry configEntry = entry.configs.get(config);
+			if (!configs.contains(config) || configEntry.beanClassesMap != getBeanClassesMap(config)) {
+				entry.invalidate(config);
+			}
+		}
+
+		for (IBeansConfig config : configs) {
+			if (!entry.configs.containsKey(config)) {
+				entry.index(createConfigEntry(project.getProject(), config, typeEngine, entry.closures));
+			}
+		}
+	}
+
+	/**
+	 * Re-reads the super types of the given types. If they changed, the cached super types of these types
+	 * and of all their subtypes are dropped and the configs using them are re-indexed.
+	 */
+	private void refreshHierarchy(IBeansProject project, ProjectEntry entry, String[] typeNames,
+			TypeHierarchyEngine typeEngine) {
+		IProject resourceProject = project.getProject();
+		Set<String> changedTypes = new HashSet<String>();
+		for (String typeName : typeNames) {
+			Set<String> closure = entry.closures.get(typeName);
+			if (closure == null) {
+				// not used by any indexed bean
+				continue;
+			}
+			Set<String> current = new HashSet<String>();
+			current.add(typeName);
+			String supertype = typeEngine.getSupertype(resourceProject, typeName);
+			if (supertype != null) {
+				current.addAll(getTypeClosure(resourceProject, supertype, typeEngine, entry.closures));
+			}
+			String[] interfaces = typeEngine.getInterfaces(resourceProject, typeName);
+			if (interfaces != null) {
+				for (String interfaceName : interfaces) {
+					current.addAll(getTypeClosure(resourceProject, interfaceName, typeEngine, entry.closures));
+				}
+			}
+			if (!current.equals(closure)) {
+				changedTypes.add(typeName);
+			}
+		}
+		if (changedTypes.isEmpty()) {
+			return;
+		}
+
+		for (Map.Entry<String, Set<String>> closureEntry : new ArrayList<Map.Entry<String, Set<String>>>(entry.closures.entrySet())) {
+			if (!Collections.disjoint(closureEntry.getValue(), changedTypes)) {
+				entry.closures.remove(closureEntry.getKey());
+			}
+		}
+		for (ConfigEntry configEntry : new ArrayList<ConfigEntry>(entry.configs.values())) {
+			if (!Collections.disjoint(configEntry.types, changedTypes)
+					|| !Collections.disjoint(configEntry.beansByType.keySet(), changedTypes)) {
+				entry.invalidate(configEntry.config);
+				entry.index(createConfigEntry(resourceProject, configEntry.config, typeEngine, entry.closures));
+			}
+		}
+	}
+
+	private ConfigEntry createConfigEntry(IProject project, IBeansConfig config, TypeHierarchyEngine typeEngine,
+			Map<String, Set<String>> closures) {
+		ConfigEntry configEntry = new ConfigEntry(config, getBeanClassesMap(config));
+
+		for (String className : config.getBeanClasses()) {
+			configEntry.types.addAll(getTypeClosure(project, className, typeEngine, closures));
+		}
+
+		for (IBean bean : BeansModelUtils.getBeans(config)) {
+			String className = BeansModelUtils.resolveBeanTypeAsString(bean);
+			if (className == null) {
+				configEntry.unresolvedBeans.add(bean);
+			}
+			else {
+				for (String typeName : getTypeClosure(project, className, typeEngine, closures)) {
+					Set<IBean> beans = configEntry.beansByType.get(typeName);
+					if (beans == null) {
+						beans = new LinkedHashSet<IBean>();
+						configEntry.beansByType.put(typeName, beans);
+					}
+					beans.add(bean);
+				}
+			}
+			collectFactoryTypes(project, bean, config, configEntry.factoryTypes, typeEngine, closures, 0);
+		}
+		return configEntry;
+	}
+
+	/**
+	 * Collects the types (and their super types) that declare the factory methods the type of the given
+	 * bean depends on, following chains of <code>factory-bean</code>s.
+	 */
+	private void collectFactoryTypes(IProject project, IBean bean, IBeansConfig config, Set<String> factoryTypes,
+			TypeHierarchyEngine typeEngine, Map<String, Set<String>> closures, int depth) {
+		BeanDefinition mergedBd = BeansModelUtils.getMergedBeanDefinition(bean, null);
+		if (mergedBd.getFactoryMethodName() == null || depth > MAX_FACTORY_CHAIN_LENGTH) {
+			return;
+		}
+
+		if (mergedBd.getFactoryBeanName() == null) {
+			if (mergedBd.getBeanClassName() != null) {
+				factoryTypes.addAll(getTypeClosure(project, mergedBd.getBeanClassName(), typeEngine, closures));
+			}
+			return;
+		}
+
+		try {
+			IBean factoryBean = BeansModelUtils.getBeanWithConfigSets(mergedBd.getFactoryBeanName(), config);
+			if (factoryBean != null) {
+				String factoryTypeName = BeansModelUtils.resolveBeanTypeAsString(factoryBean);
+				if (factoryTypeName != null) {
+					factoryTypes.addAll(getTypeClosure(project, factoryTypeName, typeEngine, closures));
+				}
+				collectFactoryTypes(project, factoryBean, config, factoryTypes, typeEngine, closures, depth + 1);
+			}
+		}
+		catch (NoSuchBeanDefinitionException e) {
+		}
+	}
+
+	/**
+	 * Returns the given type together with all its superclasses and all directly or indirectly
+	 * implemented interfaces.
+	 */
+	private Set<String> getTypeClosure(IProject project, String className, TypeHierarchyEngine typeEngine,
+			Map<String, Set<String>> closures) {
+		Set<String> closure = closures.get(className);
+		if (closure != null) {
+			return closure;
+		}
+
+		closure = new HashSet<String>();
+		closure.add(className);
+		// guard against cycles in broken hierarchies
+		closures.put(className, closure);
+
+		String supertype = typeEngine.getSupertype(project, className);
+		if (supertype != null) {
+			closure.addAll(getTypeClosure(project, supertype, typeEngine, closures));
+		}
+		String[] interfaces = typeEngine.getInterfaces(project, className);
+		if (interfaces != null) {
+			for (String interfaceName : interfaces) {
+				closure.addAll(getTypeClosure(project, interfaceName, typeEngine, closures));
+			}
+		}
+		return closure;
+	}
+
+	private static Object getBeanClassesMap(IBeansConfig config) {
+		if (config instanceof AbstractBeansConfig) {
+			return ((AbstractBeansConfig) config).getBeanClassesMap();
+		}
+		return null;
+	}
+
+	private static class ProjectEntry {
+
+		final Map<IBeansConfig, ConfigEntry> configs = new HashMap<IBeansConfig, ConfigEntry>();
+		final Map<String, Set<IBeansConfig>> configsByType = new HashMap<String, Set<IBeansConfig>>();
+		final Map<String, Set<IBean>> beansByType = new HashMap<String, Set<IBean>>();
+		final Map<String, Set<String>> closures = new HashMap<String, Set<String>>();
+
+		void index(ConfigEntry configEntry) {
+			IBeansConfig config = configEntry.config;
+			configs.put(config, configEntry);
+			for (String typeName : configEntry.types) {
+				Set<IBeansConfig> typeConfigs = configsByType.get(typeName);
+				if (typeConfigs == null) {
+					typeConfigs = new LinkedHashSet<IBeansConfig>();
+					configsByType.put(typeName, typeConfigs);
+				}
+				typeConfigs.add(config);
+			}
+			for (Map.Entry<String, Set<IBean>> beansEntry : configEntry.beansByType.entrySet()) {
+				Set<IBean> typeBeans = beansByType.get(beansEntry.getKey());
+				if (typeBeans == null) {
+					typeBeans = new LinkedHashSet<IBean>();
+					beansByType.put(beansEntry.getKey(), typeBeans);
+				}
+				typeBeans.addAll(beansEntry.getValue());
+			}
+		}
+
+		void invalidate(IBeansConfig config) {
+			ConfigEntry configEntry = configs.remove(config);
+			if (configEntry == null) {
+				return;
+			}
+			for (String typeName : configEntry.types) {
+				Set<IBeansConfig> typeConfigs = configsByType.get(typeName);
+				if (typeConfigs != null) {
+					typeConfigs.remove(config);
+					if (typeConfigs.isEmpty()) {
+						configsByType.remove(typeName);
+					}
+				}
+			}
+			for (Map.Entry<String, Set<IBean>> beansEntry : configEntry.beansByType.entrySet()) {
+				Set<IBean> typeBeans = beansByType.get(beansEntry.getKey());
+				if (typeBeans != null) {
+					typeBeans.removeAll(beansEntry.getValue());
+					if (typeBeans.isEmpty()) {
+						beansByType.remove(beansEntry.getKey());
+					}
+				}
+			}
+		}
+	}
+
+	private static class ConfigEntry {
+
+		final IBeansConfig config;
+		final Object beanClassesMap;
+		final Set<String> types = new HashSet<String>();
+		final Map<String, Set<IBean>> beansByType = new HashMap<String, Set<IBean>>();
+		final Set<String> factoryTypes = new HashSet<String>();
+		final List<IBean> unresolvedBeans = new ArrayList<IBean>();
+
+		ConfigEntry(IBeansConfig config, Object beanClassesMap) {
+			this.config = config;
+			this.beanClassesMap = beanClassesMap;
+		}
+	}
+
+}
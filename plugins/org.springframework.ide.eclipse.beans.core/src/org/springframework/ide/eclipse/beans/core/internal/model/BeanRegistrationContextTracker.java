@@ -98,4 +98,19 @@ public class BeanRegistrationContextTracker {
 		return null;
 	}
 
+	/**
+	 * Returns the registries of implicitly defined beans, keyed by the context they got registered in.
+	 */
+	public Map<CompositeComponentDefinition, BeanDefinitionRegistry> getRegistries() {
+		return registries;
+	}
+
+	/**
+	 * Restores the registries of implicitly defined beans, e.g. from a {@link BeansConfigSnapshot}.
+	 */
+	public void setRegistries(Map<CompositeComponentDefinition, BeanDefinitionRegistry> registries) {
+		this.contexts = new Stack<CompositeComponentDefinition>();
+		this.registries = new HashMap<CompositeComponentDefinition, BeanDefinitionRegistry>(registries);
+	}
+
 }
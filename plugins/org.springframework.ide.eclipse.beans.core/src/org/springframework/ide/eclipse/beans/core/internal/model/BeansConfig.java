@@ -24,9 +24,6 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.FutureTask;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
@@ -38,6 +35,7 @@ import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
@@ -73,7 +71,6 @@ import org.springframework.beans.factory.xml.DefaultBeanDefinitionDocumentReader
 import org.springframework.beans.factory.xml.DocumentDefaultsDefinition;
 import org.springframework.beans.factory.xml.NamespaceHandler;
 import org.springframework.beans.factory.xml.NamespaceHandlerResolver;
-import org.springframework.beans.factory.xml.PluggableSchemaResolver;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
 import org.springframework.beans.factory.xml.XmlReaderContext;
 import org.springframework.context.annotation.ScannedGenericBeanDefinition;
@@ -86,9 +83,8 @@ import org.springframework.core.type.MethodMetadata;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.DelegatingNamespaceHandlerResolver;
 import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.DocumentAccessor;
-import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.XmlCatalogDelegatingEntityResolver;
+import org.springframework.ide.eclipse.beans.core.internal.model.namespaces.ProjectClasspathSchemaResolverCache;
 import org.springframework.ide.eclipse.beans.core.internal.model.process.BeansConfigPostProcessorFactory;
-import org.springframework.ide.eclipse.beans.core.internal.parser.BeansDtdResolver;
 import org.springframework.ide.eclipse.beans.core.model.IBean;
 import org.springframework.ide.eclipse.beans.core.model.IBeansComponent;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
@@ -211,6 +207,29 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 		return isModelPopulated;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void loadCanceled() {
+		// the write lock can't be acquired while holding the read lock
+		if (rwl.getReadHoldCount() > 0) {
+			return;
+		}
+		w.lock();
+		try {
+			if (!this.isModelPopulated) {
+				problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, "Loading of resource '"
+						+ getElementName() + "' has been canceled", file, 1));
+				this.children = new IModelElement[0];
+				this.isModelPopulated = true;
+			}
+		}
+		finally {
+			w.unlock();
+		}
+	}
+
 	/**
 	 * Sets internal list of {@link IBean}s to <code>null</code>. Any further access to the data of this instance of
 	 * {@link IBeansConfig} leads to reloading of the corresponding beans config file.
@@ -229,6 +248,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 				components.clear();
 				isBeanClassesMapPopulated = false;
 				beanClassesMap.clear();
+				isComponentBeansMapPopulated = false;
 				problems.clear();
 				children = null;
 
@@ -314,6 +334,12 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 	protected void readConfig() {
 		if (!this.isModelPopulated) {
 
+			// Hand the load over to the config loader, unless this already is a loader thread or holds the lock
+			if (!BeansConfigLoader.isLoaderThread() && !rwl.isWriteLockedByCurrentThread()) {
+				awaitLoad();
+				return;
+			}
+
 			long start = System.currentTimeMillis();
 			long count = 0;
 
@@ -364,8 +390,14 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 						 namespaceResolvingClassloader = BeansCorePlugin.getClassLoader();
 					}
 
+					// Restore the model from the snapshot of the last read if neither the file nor the classpath changed
+					final String snapshotKey = getSnapshotKey();
+					if (snapshotKey != null && readSnapshot(snapshotKey)) {
+						return;
+					}
+
 					registry = new ScannedGenericBeanDefinitionSuppressingBeanDefinitionRegistry();
-					EntityResolver resolver = new XmlCatalogDelegatingEntityResolver(new BeansDtdResolver(), new PluggableSchemaResolver(namespaceResolvingClassloader));
+					EntityResolver resolver = ProjectClasspathSchemaResolverCache.getEntityResolver(file.getProject(), namespaceResolvingClassloader);
 					final DocumentAccessor documentAccessor = new DocumentAccessor();
 					final SourceExtractor sourceExtractor = new DelegatingSourceExtractor(file.getProject());
 					final BeansConfigReaderEventListener eventListener = new BeansConfigReaderEventListener(this, resource, sourceExtractor, documentAccessor);
@@ -426,7 +458,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 						}
 					};
 
-					reader.setDocumentLoader(new XercesDocumentLoader());
+					reader.setDocumentLoader(new XercesDocumentLoader(ProjectClasspathSchemaResolverCache.getGrammarPool(file.getProject(), namespaceResolvingClassloader)));
 					reader.setResourceLoader(resourceLoader);
 
 					reader.setEntityResolver(resolver);
@@ -451,9 +483,11 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 								try {
 									// Load bean definitions
 									int count = reader.loadBeanDefinitions(resource);
+									BeansConfigLoader.checkCanceled();
 
 									// Finally register post processed beans and components
 									eventListener.registerComponents();
+									BeansConfigLoader.checkCanceled();
 
 									// Post process beans config if required
 									postProcess(resourceLoader.getClassLoader());
@@ -461,6 +495,9 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 									return count;
 								}
 								catch (Exception e) {
+									// The reader wraps any exception, so rather check if the load has been canceled
+									BeansConfigLoader.checkCanceled();
+
 									// Record the exception to throw it later
 									throwables.put(e, LineNumberPreservingDOMParser.getStartLineNumber(documentAccessor.getLastElement()));
 								}
@@ -474,22 +511,30 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 						};
 
 						try {
-							FutureTask<Integer> task = new FutureTask<Integer>(loadBeanDefinitionOperation);
-							BeansCorePlugin.getExecutorService().submit(task);
-							count = task.get(BeansCorePlugin.getDefault().getPreferenceStore().getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID),
-									TimeUnit.SECONDS);
+							// Already running on a loader thread that enforces the timeout
+							count = loadBeanDefinitionOperation.call();
 
 							// if we recored an exception use this instead of stupid concurrent exception
 							if (throwables.size() > 0) {
 								throw throwables.keySet().iterator().next();
 							}
+
+							if (snapshotKey != null) {
+								writeSnapshot(snapshotKey, eventListener);
+							}
 						}
-						catch (TimeoutException e) {
-							problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, "Loading of resource '"
-									+ resource.getFile().getAbsolutePath() + "' took more than "
-									+ BeansCorePlugin.getDefault().getPreferenceStore()
-											.getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID) + "sec",
-									file, 1));
+						catch (OperationCanceledException e) {
+							int timeout = BeansCorePlugin.getDefault().getPreferenceStore()
+									.getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID);
+							if (BeansConfigLoader.isTimedOut()) {
+								problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, "Loading of resource '"
+										+ resource.getFile().getAbsolutePath() + "' took more than " + timeout + "sec",
+										file, 1));
+							}
+							else {
+								problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, "Loading of resource '"
+										+ resource.getFile().getAbsolutePath() + "' has been canceled", file, 1));
+							}
 						}
 					}
 					catch (Throwable e) {
@@ -625,6 +670,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 
 		// Run all generally contributed post processors
 		for (IBeansConfigPostProcessor postProcessor : BeansConfigPostProcessorFactory.createPostProcessor(null)) {
+			BeansConfigLoader.checkCanceled();
 			executePostProcessor(postProcessor, eventListener, classloader);
 		}
 
@@ -690,6 +736,9 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 						executePostProcessor(postProcessor, eventListener, classloader);
 					}
 				}
+
+				// Post processors might have contributed new components
+				isComponentBeansMapPopulated = false;
 			}
 			finally {
 				w.unlock();
@@ -784,6 +833,84 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 		});
 	}
 
+	/**
+	 * Returns the key of the snapshot this config can be restored from, or <code>null</code> if this config is not
+	 * snapshotted.
+	 */
+	private String getSnapshotKey() {
+		if (isArchived || !(resource instanceof FileResource) || file instanceof ExternalFile
+				|| !BeansCorePlugin.getDefault().getPreferenceStore()
+						.getBoolean(BeansCorePlugin.USE_CONFIG_SNAPSHOTS_PREFERENCE_ID)) {
+			return null;
+		}
+		return BeansConfigSnapshot.getKey(file);
+	}
+
+	/**
+	 * Populates this config from the snapshot stored for the given key.
+	 * @return <code>false</code> if there is no such snapshot and the config file needs to be parsed
+	 */
+	private boolean readSnapshot(String snapshotKey) {
+		File snapshotFile = BeansConfigSnapshot.getSnapshotFile(file);
+		BeansConfigSnapshot snapshot = null;
+		try {
+			snapshot = BeansConfigSnapshot.read(snapshotFile, snapshotKey, resource, file);
+		}
+		catch (Exception e) {
+			// Corrupt snapshot; parse the file again
+			snapshotFile.delete();
+		}
+		if (snapshot == null) {
+			return false;
+		}
+
+		registry = new ScannedGenericBeanDefinitionSuppressingBeanDefinitionRegistry();
+		problemReporter = new BeansConfigProblemReporter();
+		beanNameGenerator = new UniqueBeanNameGenerator(this);
+
+		BeanDefinitionRegistry snapshotRegistry = snapshot.getRegistry();
+		for (String beanName : snapshotRegistry.getBeanDefinitionNames()) {
+			registry.registerBeanDefinition(beanName, snapshotRegistry.getBeanDefinition(beanName));
+			for (String alias : snapshotRegistry.getAliases(beanName)) {
+				registry.registerAlias(beanName, alias);
+			}
+		}
+		beanRegistrationTracker.setRegistries(snapshot.getContextRegistries());
+		problems.addAll(snapshot.getProblems());
+
+		defaults = snapshot.getDefaults();
+		Map<String, IModelElementProvider> elementProviders = NamespaceUtils.getElementProviders();
+		for (ComponentDefinition componentDefinition : snapshot.getComponentDefinitions()) {
+			registerComponentDefinition(componentDefinition, elementProviders);
+		}
+		for (AliasDefinition aliasDefinition : snapshot.getAliasDefinitions()) {
+			aliases.put(aliasDefinition.getAlias(), new BeanAlias(this, aliasDefinition));
+		}
+		return true;
+	}
+
+	/**
+	 * Stores the definitions read by the given listener as snapshot of this config, if they can be restored without
+	 * parsing the config file again.
+	 */
+	private void writeSnapshot(String snapshotKey, BeansConfigReaderEventListener eventListener) {
+		File snapshotFile = BeansConfigSnapshot.getSnapshotFile(file);
+		BeansConfigSnapshot snapshot = null;
+		if (imports.isEmpty() && ownPostProcessors.isEmpty() && externalPostProcessors.isEmpty()) {
+			snapshot = eventListener.createSnapshot();
+		}
+		try {
+			if (snapshot == null || !snapshot.write(snapshotFile, snapshotKey, resource, file)) {
+				snapshotFile.delete();
+			}
+		}
+		catch (IOException e) {
+			snapshotFile.delete();
+			BeansCorePlugin.log(new Status(IStatus.WARNING, BeansCorePlugin.PLUGIN_ID, String.format(
+					"Error occured writing snapshot of '%s'", file.getFullPath()), e));
+		}
+	}
+
 	/**
 	 * Registers the given component definition with this {@link BeansConfig}'s beans and component storage.
 	 */
@@ -894,6 +1021,7 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 		 * <code>org.springframework.ide.eclipse.beans.core.namespaces</code>.
 		 */
 		public void componentRegistered(ComponentDefinition componentDefinition) {
+			BeansConfigLoader.checkCanceled();
 			Object source = componentDefinition.getSource();
 
 			// make sure to attach a default source location
@@ -972,6 +1100,37 @@ public class BeansConfig extends AbstractBeansConfig implements IBeansConfig, IL
 			}
 		}
 
+		/**
+		 * Returns a snapshot of the definitions read from the root resource, or <code>null</code> if definitions of
+		 * other resources have been read as well.
+		 */
+		public BeansConfigSnapshot createSnapshot() {
+			if (!importDefinitionsCache.isEmpty() || !isRootResourceOnly(componentDefinitionsCache.keySet())
+					|| !isRootResourceOnly(aliasDefinitionsCache.keySet())
+					|| !isRootResourceOnly(defaultDefinitionsCache.keySet())) {
+				return null;
+			}
+			List<ComponentDefinition> componentDefinitions = new ArrayList<ComponentDefinition>();
+			if (componentDefinitionsCache.containsKey(resource)) {
+				componentDefinitions.addAll(componentDefinitionsCache.get(resource));
+			}
+			List<AliasDefinition> aliasDefinitions = new ArrayList<AliasDefinition>();
+			if (aliasDefinitionsCache.containsKey(resource)) {
+				aliasDefinitions.addAll(aliasDefinitionsCache.get(resource));
+			}
+			return new BeansConfigSnapshot(defaultDefinitionsCache.get(resource), componentDefinitions,
+					aliasDefinitions, registry, beanRegistrationTracker.getRegistries(), problems);
+		}
+
+		private boolean isRootResourceOnly(Set<Resource> resources) {
+			for (Resource cachedResource : resources) {
+				if (!resource.equals(cachedResource)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
 		public void registerComponents() {
 
 			// Start with the root resource
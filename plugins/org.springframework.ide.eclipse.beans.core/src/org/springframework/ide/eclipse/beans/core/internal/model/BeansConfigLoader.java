@@ -0,0 +1,388 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+
+/**
+ * Bounded thread pool that loads {@link IBeansConfig}s off the calling thread.
+ * <p>
+ * Queued loads are ordered by {@link Priority}, so that a config a user is waiting for doesn't queue up behind the
+ * configs the project builder loads in the background. Loads that are started from a loader thread, e.g. for
+ * configs that are touched while another config is being post processed, run inline instead of being queued, so
+ * that a load never waits for a free thread of its own pool.
+ * <p>
+ * Loads are canceled by interrupting the loader thread. Long running load operations are expected to call
+ * {@link #checkCanceled()} regularly. A load submitted with a timeout gets canceled once it has been running for
+ * longer than the timeout; the time a load waits in the queue doesn't count. Loads that run inline are covered by the
+ * timeout of the load they run in.
+ * @since 3.9.5
+ */
+public class BeansConfigLoader {
+
+	/**
+	 * Priorities of queued loads, in the order in which they are executed.
+	 */
+	public enum Priority {
+		INTERACTIVE, BACKGROUND
+	}
+
+	/**
+	 * Load operation that is told if it got canceled before a loader thread picked it up, e.g. to record the
+	 * cancellation the same way as a running load that got canceled.
+	 */
+	public interface LoadOperation<T> extends Callable<T> {
+
+		/**
+		 * Called on the canceling thread instead of {@link #call()}, before callers waiting for the load are released.
+		 */
+		void canceled();
+	}
+
+	private static final String THREAD_NAME_TEMPLATE = "Spring Beans Config Loader-%s";
+
+	private static final String TIMEOUT_THREAD_NAME = "Spring Beans Config Loader Timeout";
+
+	/** Time to wait for a canceled load to reach its next cancellation check */
+	private static final long CANCELLATION_GRACE_PERIOD = 5;
+
+	private final ThreadPoolExecutor executor;
+
+	/** Cancels loads that run for longer than their timeout */
+	private final ScheduledThreadPoolExecutor timeouts;
+
+	private final AtomicInteger threadCount = new AtomicInteger(0);
+
+	private final AtomicLong sequence = new AtomicLong(0);
+
+	public BeansConfigLoader(int threadCount) {
+		this.executor = new ThreadPoolExecutor(threadCount, threadCount, 30, TimeUnit.SECONDS,
+				new PriorityBlockingQueue<Runnable>(), new ThreadFactory() {
+
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new LoaderThread(runnable, String.format(THREAD_NAME_TEMPLATE,
+								BeansConfigLoader.this.threadCount.incrementAndGet()));
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		this.executor.allowCoreThreadTimeOut(true);
+		this.timeouts = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, TIMEOUT_THREAD_NAME);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.timeouts.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Queues the given load operation with the given priority.
+	 * <p>
+	 * If called from a loader thread the operation is executed right away and the returned future is already done.
+	 */
+	public <T> Future<T> submit(Callable<T> operation, Priority priority) {
+		return submit(operation, priority, 0, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Queues the given load operation with the given priority. The load gets canceled if it is still running after
+	 * the given timeout; a timeout of <code>0</code> or less means no timeout.
+	 * <p>
+	 * If called from a loader thread the operation is executed right away and the returned future is already done.
+	 */
+	public <T> Future<T> submit(Callable<T> operation, Priority priority, long timeout, TimeUnit unit) {
+		LoadTask<T> task = new LoadTask<T>(this, operation, priority, sequence.incrementAndGet(),
+				unit.toMillis(timeout));
+		if (isLoaderThread()) {
+			task.run();
+		}
+		else {
+			executor.execute(task);
+		}
+		return task;
+	}
+
+	/**
+	 * Moves the given queued load ahead of all loads with a lower priority than the given one. Loads that are
+	 * already running or done are not affected.
+	 */
+	public void promote(Future<?> future, Priority priority) {
+		if (future instanceof LoadTask) {
+			LoadTask<?> task = (LoadTask<?>) future;
+			// Re-queue as the priority of an element must not change while it is in the queue
+			if (task.priority.compareTo(priority) > 0 && executor.remove(task)) {
+				task.priority = priority;
+				executor.execute(task);
+			}
+		}
+	}
+
+	/**
+	 * Cancels the given load and waits a short moment for a running load to stop.
+	 * <p>
+	 * A load that ignores the cancellation keeps running on its loader thread; {@link #isRunning(Future)} tells
+	 * whether this is still the case.
+	 */
+	public void cancel(Future<?> future) {
+		future.cancel(true);
+		if (future instanceof LoadTask && !executor.remove((LoadTask<?>) future)) {
+			LoadTask<?> task = (LoadTask<?>) future;
+			try {
+				Thread runner = task.runner;
+				if (!task.finished.await(CANCELLATION_GRACE_PERIOD, TimeUnit.SECONDS) && runner != null) {
+					logStillRunning(runner);
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the given load is running on a loader thread. This includes canceled loads that
+	 * didn't reach a cancellation check yet, even though their future is done already.
+	 */
+	public boolean isRunning(Future<?> future) {
+		return future instanceof LoadTask && ((LoadTask<?>) future).runner != null;
+	}
+
+	/**
+	 * Stops all loader threads; loads that haven't started yet are canceled.
+	 */
+	public void shutdown() {
+		for (Runnable task : executor.shutdownNow()) {
+			((LoadTask<?>) task).cancel(false);
+		}
+		timeouts.shutdownNow();
+	}
+
+	/**
+	 * Returns <code>true</code> if the calling thread is a loader thread.
+	 */
+	public static boolean isLoaderThread() {
+		return Thread.currentThread() instanceof LoaderThread;
+	}
+
+	/**
+	 * Returns the priority for loads requested by the calling thread: loads requested from within a non-interactive
+	 * {@link Job}, like the project builder, run in the background, everything else is considered to be waited for
+	 * by a user.
+	 */
+	public static Priority getPriority() {
+		Job job = Job.getJobManager().currentJob();
+		if (job != null && job.getPriority() != Job.INTERACTIVE) {
+			return Priority.BACKGROUND;
+		}
+		return Priority.INTERACTIVE;
+	}
+
+	/**
+	 * Returns <code>true</code> if the load running on the calling thread has been canceled because it ran for longer
+	 * than its timeout.
+	 */
+	public static boolean isTimedOut() {
+		Thread thread = Thread.currentThread();
+		if (thread instanceof LoaderThread) {
+			LoadTask<?> task = ((LoaderThread) thread).task;
+			return task != null && task.timedOut;
+		}
+		return false;
+	}
+
+	/**
+	 * Logs a warning if the given canceled load doesn't stop within the grace period.
+	 */
+	private void checkStopped(final LoadTask<?> task) {
+		try {
+			timeouts.schedule(new Runnable() {
+
+				public void run() {
+					Thread runner = task.runner;
+					if (runner != null) {
+						logStillRunning(runner);
+					}
+				}
+			}, CANCELLATION_GRACE_PERIOD, TimeUnit.SECONDS);
+		}
+		catch (RejectedExecutionException e) {
+			// shut down
+		}
+	}
+
+	private static void logStillRunning(Thread runner) {
+		BeansCorePlugin.log(new Status(IStatus.WARNING, BeansCorePlugin.PLUGIN_ID, String.format(
+				"Canceled load still running on '%s' after %s seconds", runner.getName(), CANCELLATION_GRACE_PERIOD)));
+	}
+
+	/**
+	 * Throws an {@link OperationCanceledException} if the load running on the calling thread has been canceled.
+	 */
+	public static void checkCanceled() {
+		if (isLoaderThread() && Thread.currentThread().isInterrupted()) {
+			throw new OperationCanceledException();
+		}
+	}
+
+	/**
+	 * Marker for the threads of the loader pool.
+	 */
+	private static class LoaderThread extends Thread {
+
+		/** The queued load running on this thread; loads running inline are covered by it */
+		private volatile LoadTask<?> task;
+
+		public LoaderThread(Runnable runnable, String name) {
+			super(runnable, name);
+		}
+	}
+
+	/**
+	 * {@link FutureTask} that is ordered by priority and, within the same priority, by submission.
+	 */
+	private static class LoadTask<T> extends FutureTask<T> implements Comparable<LoadTask<?>> {
+
+		private final BeansConfigLoader loader;
+
+		private final Callable<T> operation;
+
+		private final long sequence;
+
+		/** Timeout in milliseconds, counted from the start of the load */
+		private final long timeout;
+
+		/** Claimed by whatever comes first: the start of the operation or the cancellation of the load */
+		private final AtomicBoolean claimed;
+
+		private final CountDownLatch finished = new CountDownLatch(1);
+
+		private volatile Priority priority;
+
+		/** The thread running this load, <code>null</code> unless it is running */
+		private volatile Thread runner;
+
+		private volatile boolean timedOut = false;
+
+		public LoadTask(BeansConfigLoader loader, Callable<T> operation, Priority priority, long sequence,
+				long timeout) {
+			this(loader, operation, priority, sequence, timeout, new AtomicBoolean(false));
+		}
+
+		private LoadTask(BeansConfigLoader loader, final Callable<T> operation, Priority priority, long sequence,
+				long timeout, final AtomicBoolean claimed) {
+			super(new Callable<T>() {
+
+				public T call() throws Exception {
+					if (!claimed.compareAndSet(false, true)) {
+						// canceled right before it started; the operation has been told already
+						return null;
+					}
+					return operation.call();
+				}
+			});
+			this.loader = loader;
+			this.operation = operation;
+			this.priority = priority;
+			this.sequence = sequence;
+			this.timeout = timeout;
+			this.claimed = claimed;
+		}
+
+		@Override
+		public void run() {
+			Thread thread = Thread.currentThread();
+			LoaderThread loaderThread = (thread instanceof LoaderThread ? (LoaderThread) thread : null);
+			// loads running inline count against the timeout of the load they run in
+			boolean inline = loaderThread == null || loaderThread.task != null;
+			ScheduledFuture<?> timeoutCheck = null;
+			runner = thread;
+			try {
+				if (!inline) {
+					loaderThread.task = this;
+					timeoutCheck = scheduleTimeout();
+				}
+				super.run();
+			}
+			finally {
+				if (timeoutCheck != null) {
+					timeoutCheck.cancel(false);
+				}
+				if (!inline) {
+					loaderThread.task = null;
+				}
+				runner = null;
+				finished.countDown();
+			}
+		}
+
+		private ScheduledFuture<?> scheduleTimeout() {
+			if (timeout <= 0 || isDone()) {
+				return null;
+			}
+			try {
+				return loader.timeouts.schedule(new Runnable() {
+
+					public void run() {
+						timedOut = true;
+						if (cancel(true)) {
+							loader.checkStopped(LoadTask.this);
+						}
+					}
+				}, timeout, TimeUnit.MILLISECONDS);
+			}
+			catch (RejectedExecutionException e) {
+				// shut down
+				return null;
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			if (!isDone() && claimed.compareAndSet(false, true) && operation instanceof LoadOperation) {
+				// the operation never runs; let it record the cancellation before waiting callers are released
+				((LoadOperation<?>) operation).canceled();
+			}
+			return super.cancel(mayInterruptIfRunning);
+		}
+
+		public int compareTo(LoadTask<?> other) {
+			int result = priority.compareTo(other.priority);
+			if (result == 0) {
+				result = sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+			}
+			return result;
+		}
+	}
+
+}
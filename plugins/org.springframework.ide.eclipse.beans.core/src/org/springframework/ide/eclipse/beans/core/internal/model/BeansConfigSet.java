@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.core.internal.model;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -62,6 +63,10 @@ public class BeansConfigSet extends AbstractResourceModelElement implements IBea
 
 	private volatile boolean isComponentsPopulated = false;
 
+	private volatile Map<String, IBean> componentBeansMap;
+
+	private volatile boolean isComponentBeansMapPopulated = false;
+
 	private volatile Map<String, IBean> beansMap;
 
 	private volatile boolean isBeansMapPopulated = false;
@@ -97,6 +102,8 @@ public class BeansConfigSet extends AbstractResourceModelElement implements IBea
 			isAliasesMapPopulated = false;
 			components = null;
 			isComponentsPopulated = false;
+			componentBeansMap = null;
+			isComponentBeansMapPopulated = false;
 			beansMap = null;
 			isBeansMapPopulated = false;
 			beanClassesMap = null;
@@ -244,6 +251,16 @@ public class BeansConfigSet extends AbstractResourceModelElement implements IBea
 		return getBeansMap().get(name);
 	}
 
+	/**
+	 * Returns the bean with the given name that is contributed by one of the (nested) components of this config
+	 * set's configs.
+	 * @return <code>IBean</code> or <code>null</code> if no component contributes a bean with the given name
+	 * @since 3.9.5
+	 */
+	public IBean getComponentBean(String name) {
+		return getComponentBeansMap().get(name);
+	}
+
 	public Set<IBean> getBeans() {
 		return new LinkedHashSet<IBean>(getBeansMap().values());
 	}
@@ -364,6 +381,36 @@ public class BeansConfigSet extends AbstractResourceModelElement implements IBea
 		}
 	}
 
+	/**
+	 * Returns lazily initialized map with the beans of all (nested) components defined in this config set.
+	 */
+	private Map<String, IBean> getComponentBeansMap() {
+		if (!this.isComponentBeansMapPopulated) {
+			try {
+				w.lock();
+				if (this.isComponentBeansMapPopulated) {
+					return componentBeansMap;
+				}
+				Map<String, IBean> componentBeans = new HashMap<String, IBean>();
+				for (IBeansComponent component : getComponentsList()) {
+					BeansModelUtils.addComponentBeans(component, componentBeans);
+				}
+				componentBeansMap = componentBeans;
+			}
+			finally {
+				this.isComponentBeansMapPopulated = true;
+				w.unlock();
+			}
+		}
+		try {
+			r.lock();
+			return componentBeansMap;
+		}
+		finally {
+			r.unlock();
+		}
+	}
+
 	/**
 	 * Returns lazily initialized map with all beans defined in this config set.
 	 */
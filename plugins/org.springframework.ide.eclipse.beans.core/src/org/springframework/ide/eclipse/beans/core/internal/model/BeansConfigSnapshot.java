@@ -0,0 +1,1419 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+import org.springframework.beans.BeanMetadataAttribute;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.parsing.AliasDefinition;
+import org.springframework.beans.factory.parsing.BeanComponentDefinition;
+import org.springframework.beans.factory.parsing.ComponentDefinition;
+import org.springframework.beans.factory.parsing.CompositeComponentDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.ChildBeanDefinition;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.LookupOverride;
+import org.springframework.beans.factory.support.ManagedArray;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.ManagedMap;
+import org.springframework.beans.factory.support.ManagedProperties;
+import org.springframework.beans.factory.support.ManagedSet;
+import org.springframework.beans.factory.support.MethodOverride;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.beans.factory.support.SimpleBeanDefinitionRegistry;
+import org.springframework.beans.factory.xml.DocumentDefaultsDefinition;
+import org.springframework.core.io.Resource;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.BeansCoreUtils;
+import org.springframework.ide.eclipse.beans.core.namespaces.NamespaceUtils;
+import org.springframework.ide.eclipse.core.internal.project.ClasspathFingerprint;
+import org.springframework.ide.eclipse.core.java.JavaProjectChangeTracker;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
+import org.springframework.ide.eclipse.core.model.DefaultModelSourceLocation;
+import org.springframework.ide.eclipse.core.model.validation.ValidationProblem;
+import org.springframework.ide.eclipse.core.model.validation.ValidationProblemAttribute;
+import org.springframework.ide.eclipse.core.model.xml.XmlSourceLocation;
+
+/**
+ * Binary snapshot of the definitions a {@link BeansConfig} has been populated from: the component, bean and alias
+ * definitions registered for the config file, the document defaults, the bean definition registries and the problems
+ * reported while reading the file.
+ * <p>
+ * A snapshot is keyed by the modification stamp of the config file and a fingerprint of the classpath of the project
+ * and the projects it requires. While both are unchanged, the snapshot can be used to populate the config instead of
+ * parsing the XML file again. The classpath fingerprint is computed once per project and kept until the classpath
+ * or the content of a library of the project changes. Configs of projects loading namespace handlers or XSDs from
+ * their source or output folders are not snapshotted, as these change without the classpath changing.
+ * <p>
+ * Only configs whose definitions can be restored exactly are snapshotted: plain bean definitions with the value types
+ * created by the XML parser, including the decorated and originating definitions of e.g. scoped proxies, sources
+ * located in the config file itself and no imports. Configs using anything else, e.g. namespace handlers creating
+ * their own definition types or component scanning, are always parsed.
+ * <p>
+ * Snapshots of configs that have been removed are deleted with the config, or by {@link #purge(File)} if the config
+ * went away while the workbench wasn't running.
+ * @since 3.9.5
+ */
+public class BeansConfigSnapshot {
+
+	private static final int FORMAT_VERSION = 2;
+
+	private static final String SNAPSHOT_FOLDER_NAME = "snapshots";
+
+	private static final String SNAPSHOT_FILE_SUFFIX = ".bin";
+
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+	/** Classpath resources that make namespace handlers and XSDs available */
+	private static final String[] NAMESPACE_MAPPINGS = { "META-INF/spring.handlers", "META-INF/spring.schemas" };
+
+	private static final Map<IJavaProject, ClasspathState> CLASSPATH_STATES = new HashMap<IJavaProject, ClasspathState>();
+
+	// value tags
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte BOOLEAN = 2;
+	private static final byte INTEGER = 3;
+	private static final byte LONG = 4;
+	private static final byte TYPED_STRING_VALUE = 5;
+	private static final byte RUNTIME_BEAN_REFERENCE = 6;
+	private static final byte RUNTIME_BEAN_NAME_REFERENCE = 7;
+	private static final byte BEAN_DEFINITION_HOLDER = 8;
+	private static final byte BEAN_DEFINITION = 9;
+	private static final byte MANAGED_LIST = 10;
+	private static final byte MANAGED_SET = 11;
+	private static final byte MANAGED_ARRAY = 12;
+	private static final byte MANAGED_MAP = 13;
+	private static final byte MANAGED_PROPERTIES = 14;
+
+	// bean definition tags
+	private static final byte GENERIC_BEAN_DEFINITION = 1;
+	private static final byte ROOT_BEAN_DEFINITION = 2;
+	private static final byte CHILD_BEAN_DEFINITION = 3;
+	private static final byte BEAN_DEFINITION_REFERENCE = 4;
+
+	// component definition tags
+	private static final byte BEAN_COMPONENT = 1;
+	private static final byte COMPOSITE_COMPONENT = 2;
+	private static final byte PROFILE_AWARE_COMPOSITE_COMPONENT = 3;
+	private static final byte COMPONENT_REFERENCE = 4;
+
+	// source tags
+	private static final byte XML_SOURCE_LOCATION = 1;
+	private static final byte DEFAULT_SOURCE_LOCATION = 2;
+
+	// bean definition resource tags
+	private static final byte NO_RESOURCE = 0;
+	private static final byte CONFIG_RESOURCE = 1;
+	private static final byte ORIGINATING_BEAN_DEFINITION = 2;
+
+	private final DocumentDefaultsDefinition defaults;
+
+	private final List<ComponentDefinition> componentDefinitions;
+
+	private final List<AliasDefinition> aliasDefinitions;
+
+	private final BeanDefinitionRegistry registry;
+
+	private final Map<CompositeComponentDefinition, BeanDefinitionRegistry> contextRegistries;
+
+	private final Set<ValidationProblem> problems;
+
+	public BeansConfigSnapshot(DocumentDefaultsDefinition defaults, List<ComponentDefinition> componentDefinitions,
+			List<AliasDefinition> aliasDefinitions, BeanDefinitionRegistry registry,
+			Map<CompositeComponentDefinition, BeanDefinitionRegistry> contextRegistries, Set<ValidationProblem> problems) {
+		this.defaults = defaults;
+		this.componentDefinitions = componentDefinitions;
+		this.aliasDefinitions = aliasDefinitions;
+		this.registry = registry;
+		this.contextRegistries = contextRegistries;
+		this.problems = problems;
+	}
+
+	public DocumentDefaultsDefinition getDefaults() {
+		return defaults;
+	}
+
+	public List<ComponentDefinition> getComponentDefinitions() {
+		return componentDefinitions;
+	}
+
+	public List<AliasDefinition> getAliasDefinitions() {
+		return aliasDefinitions;
+	}
+
+	public BeanDefinitionRegistry getRegistry() {
+		return registry;
+	}
+
+	public Map<CompositeComponentDefinition, BeanDefinitionRegistry> getContextRegistries() {
+		return contextRegistries;
+	}
+
+	public Set<ValidationProblem> getProblems() {
+		return problems;
+	}
+
+	/**
+	 * Returns the key a snapshot of the given config file is valid for, or <code>null</code> if the file can't be
+	 * snapshotted.
+	 */
+	public static String getKey(IFile file) {
+		IPath location = file.getLocation();
+		if (location == null) {
+			return null;
+		}
+		IProject project = file.getProject();
+		StringBuilder key = new StringBuilder();
+		key.append(FORMAT_VERSION).append(';');
+		key.append(BeansCorePlugin.getPluginVersion()).append(';');
+		key.append(file.getFullPath()).append(';');
+		key.append(file.getModificationStamp()).append(';');
+		key.append(file.getLocalTimeStamp()).append(';');
+		key.append(location.toFile().length()).append(';');
+		boolean namespacesFromClasspath = NamespaceUtils.useNamespacesFromClasspath(project);
+		String classpathFingerprint = getClasspathFingerprint(project, namespacesFromClasspath);
+		if (classpathFingerprint == null) {
+			return null;
+		}
+		key.append(namespacesFromClasspath).append(';');
+		key.append(classpathFingerprint);
+		return key.toString();
+	}
+
+	/**
+	 * Returns the file the snapshot of the given config file is stored in.
+	 */
+	public static File getSnapshotFile(IFile file) {
+		return new File(getSnapshotFolder(), ClasspathFingerprint.hash(file.getFullPath().toString()) + SNAPSHOT_FILE_SUFFIX);
+	}
+
+	/**
+	 * Returns the folder the snapshots are stored in.
+	 */
+	public static File getSnapshotFolder() {
+		return BeansCorePlugin.getDefault().getStateLocation().append(SNAPSHOT_FOLDER_NAME).toFile();
+	}
+
+	/**
+	 * Deletes the snapshots in the given folder that can't be used anymore: snapshots of an older format, of config
+	 * files that have been deleted or aren't configs anymore, and leftovers of interrupted writes.
+	 * @return the number of deleted files
+	 */
+	public static int purge(File snapshotFolder) {
+		File[] files = snapshotFolder.listFiles();
+		if (files == null) {
+			return 0;
+		}
+		int deleted = 0;
+		for (File snapshotFile : files) {
+			if (snapshotFile.getName().endsWith(SNAPSHOT_FILE_SUFFIX) && isUsable(snapshotFile)) {
+				continue;
+			}
+			if (snapshotFile.isFile() && snapshotFile.delete()) {
+				deleted++;
+			}
+		}
+		return deleted;
+	}
+
+	private static boolean isUsable(File snapshotFile) {
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)));
+			try {
+				if (in.readInt() != FORMAT_VERSION) {
+					return false;
+				}
+				String path = Reader.readUTF(in);
+				if (!snapshotFile.getName().equals(ClasspathFingerprint.hash(path) + SNAPSHOT_FILE_SUFFIX)) {
+					return false;
+				}
+				IFile file = ResourcesPlugin.getWorkspace().getRoot().getFile(new Path(path));
+				return file.exists() && BeansCoreUtils.isBeansConfig(file);
+			}
+			finally {
+				in.close();
+			}
+		}
+		catch (Exception e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the fingerprint of the resolved classpath of the given project and the projects it requires, including
+	 * size and modification time of the libraries on it.
+	 * @return the fingerprint or <code>null</code> if there is no reliable fingerprint, e.g. because namespace
+	 * handlers or XSDs are loaded from source or output folders of the workspace
+	 */
+	private static String getClasspathFingerprint(IProject project, boolean namespacesFromClasspath) {
+		IJavaProject javaProject = JdtUtils.getJavaProject(project);
+		if (javaProject == null) {
+			return ClasspathFingerprint.compute(project);
+		}
+		ClasspathState state = getClasspathState(javaProject);
+		if (namespacesFromClasspath && state.providesNamespaces()) {
+			return null;
+		}
+		return state.getFingerprint();
+	}
+
+	private static ClasspathState getClasspathState(IJavaProject javaProject) {
+		synchronized (CLASSPATH_STATES) {
+			ClasspathState state = CLASSPATH_STATES.get(javaProject);
+			if (state == null) {
+				state = new ClasspathState(javaProject);
+				CLASSPATH_STATES.put(javaProject, state);
+			}
+			return state;
+		}
+	}
+
+	private static void removeClasspathState(ClasspathState state) {
+		synchronized (CLASSPATH_STATES) {
+			if (CLASSPATH_STATES.get(state.javaProject) == state) {
+				CLASSPATH_STATES.remove(state.javaProject);
+			}
+			state.dispose();
+		}
+	}
+
+	/**
+	 * Returns the source and output folders on the classpath of the given project that may contain namespace
+	 * handlers or XSDs, which change without the classpath changing.
+	 */
+	private static List<IPath> getNamespaceFolders(IJavaProject javaProject) throws JavaModelException {
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		List<IPath> folders = new ArrayList<IPath>();
+		folders.add(javaProject.getOutputLocation());
+		for (IClasspathEntry entry : ClasspathFingerprint.getClasspath(javaProject)) {
+			if (entry.getEntryKind() == IClasspathEntry.CPE_SOURCE) {
+				folders.add(entry.getPath());
+				folders.add(entry.getOutputLocation());
+			}
+			if (entry.getEntryKind() == IClasspathEntry.CPE_PROJECT) {
+				IJavaProject requiredProject = JdtUtils.getJavaProject(root.getProject(entry.getPath().lastSegment()));
+				if (requiredProject != null) {
+					folders.add(requiredProject.getOutputLocation());
+				}
+			}
+		}
+		return folders;
+	}
+
+	private static boolean providesNamespaces(IPath folder) {
+		if (folder == null) {
+			return false;
+		}
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		for (String mapping : NAMESPACE_MAPPINGS) {
+			if (root.findMember(folder.append(mapping)) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Writes this snapshot to the given file.
+	 * @return <code>false</code> if the snapshot contains definitions that can't be restored exactly
+	 */
+	public boolean write(File snapshotFile, String key, Resource resource, IResource file) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try {
+			Writer writer = new Writer(new DataOutputStream(bytes), resource, file);
+			writer.out.writeInt(FORMAT_VERSION);
+			writer.writeUTF(file.getFullPath().toString());
+			writer.writeUTF(key);
+			writer.writeSnapshot(this);
+			writer.out.flush();
+		}
+		catch (UnsupportedDefinitionException e) {
+			snapshotFile.delete();
+			return false;
+		}
+
+		File folder = snapshotFile.getParentFile();
+		if (!folder.isDirectory() && !folder.mkdirs()) {
+			throw new IOException("Can't create folder " + folder);
+		}
+		File tmp = new File(folder, snapshotFile.getName() + TEMP_FILE_SUFFIX);
+		FileOutputStream out = new FileOutputStream(tmp);
+		try {
+			bytes.writeTo(out);
+		}
+		finally {
+			out.close();
+		}
+		if (!tmp.renameTo(snapshotFile)) {
+			snapshotFile.delete();
+			if (!tmp.renameTo(snapshotFile)) {
+				tmp.delete();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the snapshot stored in the given file.
+	 * @param resource the resource the restored definitions are sourced from
+	 * @param file the resource the restored problems are reported on
+	 * @return the snapshot or <code>null</code> if there is no snapshot for the given key
+	 */
+	public static BeansConfigSnapshot read(File snapshotFile, String key, Resource resource, IResource file)
+			throws IOException {
+		if (!snapshotFile.isFile()) {
+			return null;
+		}
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)));
+		try {
+			if (in.readInt() != FORMAT_VERSION) {
+				return null;
+			}
+			Reader reader = new Reader(in, resource, file);
+			if (!file.getFullPath().toString().equals(reader.readUTF()) || !key.equals(reader.readUTF())) {
+				return null;
+			}
+			return reader.readSnapshot();
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Thrown while writing a snapshot that would not restore the given definitions exactly.
+	 */
+	@SuppressWarnings("serial")
+	/**
+	 * The classpath fingerprint and namespace folders of a project. Resolving the classpath and looking at every
+	 * library on it is too expensive to be done for every config read, so both are kept until the classpath of the
+	 * project or the content of one of its libraries changes.
+	 */
+	private static class ClasspathState implements JavaProjectChangeTracker.Listener {
+
+		private final IJavaProject javaProject;
+
+		private boolean initialized = false;
+
+		private String fingerprint;
+
+		/** <code>null</code> if the classpath can't be resolved */
+		private List<IPath> namespaceFolders;
+
+		public ClasspathState(IJavaProject javaProject) {
+			this.javaProject = javaProject;
+			JavaProjectChangeTracker.addListener(javaProject, this);
+		}
+
+		public void dispose() {
+			JavaProjectChangeTracker.removeListener(javaProject, this);
+		}
+
+		private synchronized void initialize() {
+			if (!initialized) {
+				fingerprint = ClasspathFingerprint.compute(javaProject.getProject());
+				try {
+					namespaceFolders = getNamespaceFolders(javaProject);
+				}
+				catch (JavaModelException e) {
+					namespaceFolders = null;
+				}
+				initialized = true;
+			}
+		}
+
+		public String getFingerprint() {
+			initialize();
+			return fingerprint;
+		}
+
+		/**
+		 * Returns <code>true</code> if source or output folders on the classpath of the project contain namespace
+		 * handlers or XSDs. The folders are checked on every call, as the mappings are added or removed without the
+		 * classpath changing.
+		 */
+		public boolean providesNamespaces() {
+			initialize();
+			if (namespaceFolders == null) {
+				return true;
+			}
+			for (IPath folder : namespaceFolders) {
+				if (BeansConfigSnapshot.providesNamespaces(folder)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		public void unitsChanged(Set<ICompilationUnit> units, boolean requiredProjectsChanged) {
+			// compilation units don't change the classpath
+		}
+
+		public void projectChanged() {
+			removeClasspathState(this);
+		}
+	}
+
+	private static class UnsupportedDefinitionException extends IOException {
+
+		public UnsupportedDefinitionException(Object definition) {
+			super("Unsupported definition " + (definition != null ? definition.getClass().getName() : null));
+		}
+	}
+
+	private static class Writer {
+
+		private final DataOutputStream out;
+
+		private final Resource resource;
+
+		private final IResource file;
+
+		private final Map<BeanDefinition, Integer> beanDefinitionIds = new IdentityHashMap<BeanDefinition, Integer>();
+
+		private final Map<ComponentDefinition, Integer> componentDefinitionIds = new IdentityHashMap<ComponentDefinition, Integer>();
+
+		public Writer(DataOutputStream out, Resource resource, IResource file) {
+			this.out = out;
+			this.resource = resource;
+			this.file = file;
+		}
+
+		public void writeSnapshot(BeansConfigSnapshot snapshot) throws IOException {
+			writeDefaults(snapshot.defaults);
+
+			out.writeInt(snapshot.componentDefinitions.size());
+			for (ComponentDefinition componentDefinition : snapshot.componentDefinitions) {
+				writeComponentDefinition(componentDefinition);
+			}
+
+			out.writeInt(snapshot.aliasDefinitions.size());
+			for (AliasDefinition aliasDefinition : snapshot.aliasDefinitions) {
+				writeUTF(aliasDefinition.getBeanName());
+				writeUTF(aliasDefinition.getAlias());
+				writeSource(aliasDefinition.getSource());
+			}
+
+			writeRegistry(snapshot.registry);
+
+			// registries of the composites written above, in order of appearance
+			List<CompositeComponentDefinition> composites = new ArrayList<CompositeComponentDefinition>();
+			for (ComponentDefinition componentDefinition : snapshot.componentDefinitions) {
+				collectComposites(componentDefinition, composites);
+			}
+			for (CompositeComponentDefinition composite : snapshot.contextRegistries.keySet()) {
+				if (!composites.contains(composite)) {
+					throw new UnsupportedDefinitionException(composite);
+				}
+			}
+			for (CompositeComponentDefinition composite : composites) {
+				BeanDefinitionRegistry contextRegistry = snapshot.contextRegistries.get(composite);
+				out.writeBoolean(contextRegistry != null);
+				if (contextRegistry != null) {
+					writeRegistry(contextRegistry);
+				}
+			}
+
+			out.writeInt(snapshot.problems.size());
+			for (ValidationProblem problem : snapshot.problems) {
+				writeProblem(problem);
+			}
+		}
+
+		private void collectComposites(ComponentDefinition componentDefinition,
+				List<CompositeComponentDefinition> composites) {
+			if (componentDefinition instanceof CompositeComponentDefinition) {
+				CompositeComponentDefinition composite = (CompositeComponentDefinition) componentDefinition;
+				if (composites.contains(composite)) {
+					return;
+				}
+				composites.add(composite);
+				for (ComponentDefinition nestedComponent : composite.getNestedComponents()) {
+					collectComposites(nestedComponent, composites);
+				}
+			}
+		}
+
+		private void writeDefaults(DocumentDefaultsDefinition defaults) throws IOException {
+			out.writeBoolean(defaults != null);
+			if (defaults != null) {
+				if (defaults.getClass() != DocumentDefaultsDefinition.class) {
+					throw new UnsupportedDefinitionException(defaults);
+				}
+				writeString(defaults.getLazyInit());
+				writeString(defaults.getMerge());
+				writeString(defaults.getAutowire());
+				writeString(defaults.getDependencyCheck());
+				writeString(defaults.getAutowireCandidates());
+				writeString(defaults.getInitMethod());
+				writeString(defaults.getDestroyMethod());
+				writeSource(defaults.getSource());
+			}
+		}
+
+		private void writeComponentDefinition(ComponentDefinition componentDefinition) throws IOException {
+			Integer id = componentDefinitionIds.get(componentDefinition);
+			if (id != null) {
+				out.writeByte(COMPONENT_REFERENCE);
+				out.writeInt(id);
+				return;
+			}
+			componentDefinitionIds.put(componentDefinition, componentDefinitionIds.size());
+
+			if (componentDefinition.getClass() == BeanComponentDefinition.class) {
+				BeanComponentDefinition beanComponent = (BeanComponentDefinition) componentDefinition;
+				out.writeByte(BEAN_COMPONENT);
+				writeBeanDefinition(beanComponent.getBeanDefinition());
+				writeUTF(beanComponent.getBeanName());
+				writeStrings(beanComponent.getAliases());
+				return;
+			}
+
+			CompositeComponentDefinition composite;
+			if (componentDefinition.getClass() == ProfileAwareCompositeComponentDefinition.class) {
+				ProfileAwareCompositeComponentDefinition profileAware = (ProfileAwareCompositeComponentDefinition) componentDefinition;
+				out.writeByte(PROFILE_AWARE_COMPOSITE_COMPONENT);
+				writeStrings(profileAware.getProfiles().toArray(new String[profileAware.getProfiles().size()]));
+				composite = profileAware;
+			}
+			else if (componentDefinition.getClass() == CompositeComponentDefinition.class) {
+				out.writeByte(COMPOSITE_COMPONENT);
+				composite = (CompositeComponentDefinition) componentDefinition;
+			}
+			else {
+				throw new UnsupportedDefinitionException(componentDefinition);
+			}
+			writeString(composite.getName());
+			writeSource(composite.getSource());
+			ComponentDefinition[] nestedComponents = composite.getNestedComponents();
+			out.writeInt(nestedComponents.length);
+			for (ComponentDefinition nestedComponent : nestedComponents) {
+				writeComponentDefinition(nestedComponent);
+			}
+		}
+
+		private void writeRegistry(BeanDefinitionRegistry registry) throws IOException {
+			if (!(registry instanceof SimpleBeanDefinitionRegistry)) {
+				throw new UnsupportedDefinitionException(registry);
+			}
+			String[] beanNames = registry.getBeanDefinitionNames();
+			out.writeInt(beanNames.length);
+			for (String beanName : beanNames) {
+				writeUTF(beanName);
+				writeBeanDefinition(registry.getBeanDefinition(beanName));
+				writeStrings(registry.getAliases(beanName));
+			}
+		}
+
+		private void writeBeanDefinition(BeanDefinition beanDefinition) throws IOException {
+			Integer id = beanDefinitionIds.get(beanDefinition);
+			if (id != null) {
+				out.writeByte(BEAN_DEFINITION_REFERENCE);
+				out.writeInt(id);
+				return;
+			}
+
+			Class<?> definitionClass = beanDefinition.getClass();
+			if (definitionClass == GenericBeanDefinition.class) {
+				out.writeByte(GENERIC_BEAN_DEFINITION);
+				writeString(beanDefinition.getParentName());
+			}
+			else if (definitionClass == ChildBeanDefinition.class) {
+				out.writeByte(CHILD_BEAN_DEFINITION);
+				writeString(beanDefinition.getParentName());
+			}
+			else if (definitionClass == RootBeanDefinition.class) {
+				out.writeByte(ROOT_BEAN_DEFINITION);
+			}
+			else {
+				throw new UnsupportedDefinitionException(beanDefinition);
+			}
+			beanDefinitionIds.put(beanDefinition, beanDefinitionIds.size());
+
+			AbstractBeanDefinition bd = (AbstractBeanDefinition) beanDefinition;
+			if (!bd.getQualifiers().isEmpty()) {
+				throw new UnsupportedDefinitionException(bd.getQualifiers().iterator().next());
+			}
+			BeanDefinition originatingDefinition = bd.getOriginatingBeanDefinition();
+			if (bd.getResource() != null && originatingDefinition == null && !bd.getResource().equals(resource)) {
+				throw new UnsupportedDefinitionException(bd.getResource());
+			}
+			if (bd instanceof RootBeanDefinition && ((RootBeanDefinition) bd).getTargetType() != null) {
+				throw new UnsupportedDefinitionException(((RootBeanDefinition) bd).getTargetType());
+			}
+			writeString(bd.getBeanClassName());
+			writeString(bd.getScope());
+			out.writeBoolean(bd.isAbstract());
+			out.writeBoolean(bd.isLazyInit());
+			out.writeInt(bd.getAutowireMode());
+			out.writeInt(bd.getDependencyCheck());
+			writeStrings(bd.getDependsOn());
+			out.writeBoolean(bd.isAutowireCandidate());
+			out.writeBoolean(bd.isPrimary());
+			out.writeBoolean(bd.isNonPublicAccessAllowed());
+			out.writeBoolean(bd.isLenientConstructorResolution());
+			writeString(bd.getFactoryBeanName());
+			writeString(bd.getFactoryMethodName());
+			writeConstructorArguments(bd.getConstructorArgumentValues());
+			writePropertyValues(bd.getPropertyValues());
+			writeMethodOverrides(bd.getMethodOverrides().getOverrides());
+			writeString(bd.getInitMethodName());
+			out.writeBoolean(bd.isEnforceInitMethod());
+			writeString(bd.getDestroyMethodName());
+			out.writeBoolean(bd.isEnforceDestroyMethod());
+			out.writeBoolean(bd.isSynthetic());
+			out.writeInt(bd.getRole());
+			writeString(bd.getDescription());
+			if (originatingDefinition != null) {
+				// e.g. the target of a scoped proxy
+				out.writeByte(ORIGINATING_BEAN_DEFINITION);
+				writeBeanDefinition(originatingDefinition);
+			}
+			else {
+				out.writeByte(bd.getResource() != null ? CONFIG_RESOURCE : NO_RESOURCE);
+			}
+			writeSource(bd.getSource());
+			if (bd instanceof RootBeanDefinition) {
+				BeanDefinitionHolder decoratedDefinition = ((RootBeanDefinition) bd).getDecoratedDefinition();
+				out.writeBoolean(decoratedDefinition != null);
+				if (decoratedDefinition != null) {
+					writeBeanDefinition(decoratedDefinition.getBeanDefinition());
+					writeUTF(decoratedDefinition.getBeanName());
+					writeStrings(decoratedDefinition.getAliases());
+				}
+			}
+
+			String[] attributeNames = bd.attributeNames();
+			out.writeInt(attributeNames.length);
+			for (String attributeName : attributeNames) {
+				BeanMetadataAttribute attribute = bd.getMetadataAttribute(attributeName);
+				if (attribute == null) {
+					throw new UnsupportedDefinitionException(bd.getAttribute(attributeName));
+				}
+				writeUTF(attributeName);
+				writeValue(attribute.getValue());
+				writeSource(attribute.getSource());
+			}
+		}
+
+		private void writeConstructorArguments(ConstructorArgumentValues arguments) throws IOException {
+			Map<Integer, ValueHolder> indexedArguments = arguments.getIndexedArgumentValues();
+			out.writeInt(indexedArguments.size());
+			for (Map.Entry<Integer, ValueHolder> argument : indexedArguments.entrySet()) {
+				out.writeInt(argument.getKey());
+				writeValueHolder(argument.getValue());
+			}
+			List<ValueHolder> genericArguments = arguments.getGenericArgumentValues();
+			out.writeInt(genericArguments.size());
+			for (ValueHolder argument : genericArguments) {
+				writeValueHolder(argument);
+			}
+		}
+
+		private void writeValueHolder(ValueHolder valueHolder) throws IOException {
+			writeValue(valueHolder.getValue());
+			writeString(valueHolder.getType());
+			writeString(valueHolder.getName());
+			writeSource(valueHolder.getSource());
+		}
+
+		private void writePropertyValues(MutablePropertyValues propertyValues) throws IOException {
+			List<PropertyValue> values = propertyValues.getPropertyValueList();
+			out.writeInt(values.size());
+			for (PropertyValue propertyValue : values) {
+				if (propertyValue.attributeNames().length > 0) {
+					throw new UnsupportedDefinitionException(propertyValue);
+				}
+				writeUTF(propertyValue.getName());
+				writeValue(propertyValue.getValue());
+				out.writeBoolean(propertyValue.isOptional());
+				writeSource(propertyValue.getSource());
+			}
+		}
+
+		private void writeMethodOverrides(Set<MethodOverride> overrides) throws IOException {
+			out.writeInt(overrides.size());
+			for (MethodOverride override : overrides) {
+				// replaced methods don't expose their argument types
+				if (override.getClass() != LookupOverride.class) {
+					throw new UnsupportedDefinitionException(override);
+				}
+				writeUTF(override.getMethodName());
+				writeString(((LookupOverride) override).getBeanName());
+				writeSource(override.getSource());
+			}
+		}
+
+		private void writeValue(Object value) throws IOException {
+			if (value == null) {
+				out.writeByte(NULL);
+			}
+			else if (value instanceof String) {
+				out.writeByte(STRING);
+				writeUTF((String) value);
+			}
+			else if (value instanceof Boolean) {
+				out.writeByte(BOOLEAN);
+				out.writeBoolean((Boolean) value);
+			}
+			else if (value instanceof Integer) {
+				out.writeByte(INTEGER);
+				out.writeInt((Integer) value);
+			}
+			else if (value instanceof Long) {
+				out.writeByte(LONG);
+				out.writeLong((Long) value);
+			}
+			else if (value.getClass() == TypedStringValue.class) {
+				TypedStringValue typedStringValue = (TypedStringValue) value;
+				out.writeByte(TYPED_STRING_VALUE);
+				writeString(typedStringValue.getValue());
+				writeString(typedStringValue.getTargetTypeName());
+				writeString(typedStringValue.getSpecifiedTypeName());
+				out.writeBoolean(typedStringValue.isDynamic());
+				writeSource(typedStringValue.getSource());
+			}
+			else if (value.getClass() == RuntimeBeanReference.class) {
+				RuntimeBeanReference reference = (RuntimeBeanReference) value;
+				out.writeByte(RUNTIME_BEAN_REFERENCE);
+				writeUTF(reference.getBeanName());
+				out.writeBoolean(reference.isToParent());
+				writeSource(reference.getSource());
+			}
+			else if (value.getClass() == RuntimeBeanNameReference.class) {
+				RuntimeBeanNameReference reference = (RuntimeBeanNameReference) value;
+				out.writeByte(RUNTIME_BEAN_NAME_REFERENCE);
+				writeUTF(reference.getBeanName());
+				writeSource(reference.getSource());
+			}
+			else if (value.getClass() == BeanDefinitionHolder.class) {
+				BeanDefinitionHolder holder = (BeanDefinitionHolder) value;
+				out.writeByte(BEAN_DEFINITION_HOLDER);
+				writeBeanDefinition(holder.getBeanDefinition());
+				writeUTF(holder.getBeanName());
+				writeStrings(holder.getAliases());
+			}
+			else if (value instanceof BeanDefinition) {
+				out.writeByte(BEAN_DEFINITION);
+				writeBeanDefinition((BeanDefinition) value);
+			}
+			else if (value.getClass() == ManagedArray.class) {
+				ManagedArray array = (ManagedArray) value;
+				out.writeByte(MANAGED_ARRAY);
+				writeString(array.getElementTypeName());
+				writeCollection(array, array.isMergeEnabled(), array.getSource());
+			}
+			else if (value.getClass() == ManagedList.class) {
+				ManagedList<?> list = (ManagedList<?>) value;
+				out.writeByte(MANAGED_LIST);
+				writeString(list.getElementTypeName());
+				writeCollection(list, list.isMergeEnabled(), list.getSource());
+			}
+			else if (value.getClass() == ManagedSet.class) {
+				ManagedSet<?> set = (ManagedSet<?>) value;
+				out.writeByte(MANAGED_SET);
+				writeString(set.getElementTypeName());
+				writeCollection(set, set.isMergeEnabled(), set.getSource());
+			}
+			else if (value.getClass() == ManagedMap.class) {
+				ManagedMap<?, ?> map = (ManagedMap<?, ?>) value;
+				out.writeByte(MANAGED_MAP);
+				writeString(map.getKeyTypeName());
+				writeString(map.getValueTypeName());
+				writeMap(map, map.isMergeEnabled(), map.getSource());
+			}
+			else if (value.getClass() == ManagedProperties.class) {
+				ManagedProperties properties = (ManagedProperties) value;
+				out.writeByte(MANAGED_PROPERTIES);
+				writeMap(properties, properties.isMergeEnabled(), properties.getSource());
+			}
+			else {
+				throw new UnsupportedDefinitionException(value);
+			}
+		}
+
+		private void writeCollection(Collection<?> collection, boolean mergeEnabled, Object source)
+				throws IOException {
+			out.writeBoolean(mergeEnabled);
+			writeSource(source);
+			out.writeInt(collection.size());
+			for (Object element : collection) {
+				writeValue(element);
+			}
+		}
+
+		private void writeMap(Map<?, ?> map, boolean mergeEnabled, Object source) throws IOException {
+			out.writeBoolean(mergeEnabled);
+			writeSource(source);
+			out.writeInt(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeValue(entry.getKey());
+				writeValue(entry.getValue());
+			}
+		}
+
+		private void writeSource(Object source) throws IOException {
+			if (source == null) {
+				out.writeByte(NULL);
+			}
+			else if (source.getClass() == XmlSourceLocation.class) {
+				XmlSourceLocation location = (XmlSourceLocation) source;
+				checkResource(location.getResource());
+				out.writeByte(XML_SOURCE_LOCATION);
+				out.writeBoolean(location.getResource() != null);
+				writeString(location.getLocalName());
+				writeString(location.getPrefix());
+				writeString(location.getNamespaceURI());
+				out.writeInt(location.getStartLine());
+				out.writeInt(location.getEndLine());
+			}
+			else if (source.getClass() == DefaultModelSourceLocation.class) {
+				DefaultModelSourceLocation location = (DefaultModelSourceLocation) source;
+				checkResource(location.getResource());
+				out.writeByte(DEFAULT_SOURCE_LOCATION);
+				out.writeBoolean(location.getResource() != null);
+				out.writeInt(location.getStartLine());
+				out.writeInt(location.getEndLine());
+			}
+			else {
+				throw new UnsupportedDefinitionException(source);
+			}
+		}
+
+		private void checkResource(Resource sourceResource) throws IOException {
+			if (sourceResource != null && !sourceResource.equals(resource)) {
+				throw new UnsupportedDefinitionException(sourceResource);
+			}
+		}
+
+		private void writeProblem(ValidationProblem problem) throws IOException {
+			if (problem.getResource() != null && !problem.getResource().equals(file)) {
+				throw new UnsupportedDefinitionException(problem.getResource());
+			}
+			writeString(problem.getRuleId());
+			writeString(problem.getErrorId());
+			out.writeInt(problem.getSeverity());
+			writeString(problem.getMessage());
+			out.writeBoolean(problem.getResource() != null);
+			out.writeInt(problem.getLine());
+			ValidationProblemAttribute[] attributes = problem.getAttributes();
+			out.writeInt(attributes != null ? attributes.length : -1);
+			if (attributes != null) {
+				for (ValidationProblemAttribute attribute : attributes) {
+					writeUTF(attribute.getKey());
+					Object value = attribute.getValue();
+					if (value != null && !(value instanceof String) && !(value instanceof Boolean)
+							&& !(value instanceof Integer) && !(value instanceof Long)) {
+						throw new UnsupportedDefinitionException(value);
+					}
+					writeValue(value);
+				}
+			}
+		}
+
+		private void writeStrings(String[] values) throws IOException {
+			out.writeInt(values != null ? values.length : -1);
+			if (values != null) {
+				for (String value : values) {
+					writeUTF(value);
+				}
+			}
+		}
+
+		private void writeString(String value) throws IOException {
+			out.writeBoolean(value != null);
+			if (value != null) {
+				writeUTF(value);
+			}
+		}
+
+		/**
+		 * Writes the given string; unlike {@link DataOutputStream#writeUTF(String)}, not limited to 64K bytes.
+		 */
+		public void writeUTF(String value) throws IOException {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static class Reader {
+
+		private final DataInputStream in;
+
+		private final Resource resource;
+
+		private final IResource file;
+
+		private final List<BeanDefinition> beanDefinitions = new ArrayList<BeanDefinition>();
+
+		private final List<ComponentDefinition> componentDefinitions = new ArrayList<ComponentDefinition>();
+
+		public Reader(DataInputStream in, Resource resource, IResource file) {
+			this.in = in;
+			this.resource = resource;
+			this.file = file;
+		}
+
+		public BeansConfigSnapshot readSnapshot() throws IOException {
+			DocumentDefaultsDefinition defaults = readDefaults();
+
+			int componentCount = in.readInt();
+			List<ComponentDefinition> rootComponents = new ArrayList<ComponentDefinition>(componentCount);
+			for (int i = 0; i < componentCount; i++) {
+				rootComponents.add(readComponentDefinition());
+			}
+
+			int aliasCount = in.readInt();
+			List<AliasDefinition> aliasDefinitions = new ArrayList<AliasDefinition>(aliasCount);
+			for (int i = 0; i < aliasCount; i++) {
+				aliasDefinitions.add(new AliasDefinition(readUTF(), readUTF(), readSource()));
+			}
+
+			BeanDefinitionRegistry registry = readRegistry();
+
+			List<CompositeComponentDefinition> composites = new ArrayList<CompositeComponentDefinition>();
+			for (ComponentDefinition componentDefinition : rootComponents) {
+				collectComposites(componentDefinition, composites);
+			}
+			Map<CompositeComponentDefinition, BeanDefinitionRegistry> contextRegistries = new IdentityHashMap<CompositeComponentDefinition, BeanDefinitionRegistry>();
+			for (CompositeComponentDefinition composite : composites) {
+				if (in.readBoolean()) {
+					contextRegistries.put(composite, readRegistry());
+				}
+			}
+
+			int problemCount = in.readInt();
+			Set<ValidationProblem> problems = new LinkedHashSet<ValidationProblem>();
+			for (int i = 0; i < problemCount; i++) {
+				problems.add(readProblem());
+			}
+
+			return new BeansConfigSnapshot(defaults, rootComponents, aliasDefinitions, registry,
+					contextRegistries, problems);
+		}
+
+		private void collectComposites(ComponentDefinition componentDefinition,
+				List<CompositeComponentDefinition> composites) {
+			if (componentDefinition instanceof CompositeComponentDefinition) {
+				CompositeComponentDefinition composite = (CompositeComponentDefinition) componentDefinition;
+				if (composites.contains(composite)) {
+					return;
+				}
+				composites.add(composite);
+				for (ComponentDefinition nestedComponent : composite.getNestedComponents()) {
+					collectComposites(nestedComponent, composites);
+				}
+			}
+		}
+
+		private DocumentDefaultsDefinition readDefaults() throws IOException {
+			if (!in.readBoolean()) {
+				return null;
+			}
+			DocumentDefaultsDefinition defaults = new DocumentDefaultsDefinition();
+			defaults.setLazyInit(readString());
+			defaults.setMerge(readString());
+			defaults.setAutowire(readString());
+			defaults.setDependencyCheck(readString());
+			defaults.setAutowireCandidates(readString());
+			defaults.setInitMethod(readString());
+			defaults.setDestroyMethod(readString());
+			defaults.setSource(readSource());
+			return defaults;
+		}
+
+		private ComponentDefinition readComponentDefinition() throws IOException {
+			byte tag = in.readByte();
+			if (tag == COMPONENT_REFERENCE) {
+				return componentDefinitions.get(in.readInt());
+			}
+			// reserve the id before reading nested components, as the writer assigns it up front
+			int id = componentDefinitions.size();
+			componentDefinitions.add(null);
+
+			if (tag == BEAN_COMPONENT) {
+				BeanDefinition beanDefinition = readBeanDefinition();
+				String beanName = readUTF();
+				ComponentDefinition beanComponent = new BeanComponentDefinition(beanDefinition, beanName, readStrings());
+				componentDefinitions.set(id, beanComponent);
+				return beanComponent;
+			}
+
+			CompositeComponentDefinition composite;
+			if (tag == PROFILE_AWARE_COMPOSITE_COMPONENT) {
+				String[] profiles = readStrings();
+				String name = readString();
+				composite = new ProfileAwareCompositeComponentDefinition(name, readSource(), profiles);
+			}
+			else if (tag == COMPOSITE_COMPONENT) {
+				String name = readString();
+				composite = new CompositeComponentDefinition(name, readSource());
+			}
+			else {
+				throw new IOException("Unknown component definition " + tag);
+			}
+			componentDefinitions.set(id, composite);
+			int nestedCount = in.readInt();
+			for (int i = 0; i < nestedCount; i++) {
+				composite.addNestedComponent(readComponentDefinition());
+			}
+			return composite;
+		}
+
+		private BeanDefinitionRegistry readRegistry() throws IOException {
+			SimpleBeanDefinitionRegistry registry = new SimpleBeanDefinitionRegistry();
+			int beanCount = in.readInt();
+			for (int i = 0; i < beanCount; i++) {
+				String beanName = readUTF();
+				registry.registerBeanDefinition(beanName, readBeanDefinition());
+				String[] aliases = readStrings();
+				if (aliases != null) {
+					for (String alias : aliases) {
+						registry.registerAlias(beanName, alias);
+					}
+				}
+			}
+			return registry;
+		}
+
+		private BeanDefinition readBeanDefinition() throws IOException {
+			byte tag = in.readByte();
+			AbstractBeanDefinition bd;
+			if (tag == BEAN_DEFINITION_REFERENCE) {
+				return beanDefinitions.get(in.readInt());
+			}
+			else if (tag == GENERIC_BEAN_DEFINITION) {
+				bd = new GenericBeanDefinition();
+				bd.setParentName(readString());
+			}
+			else if (tag == CHILD_BEAN_DEFINITION) {
+				bd = new ChildBeanDefinition(readString());
+			}
+			else if (tag == ROOT_BEAN_DEFINITION) {
+				bd = new RootBeanDefinition();
+			}
+			else {
+				throw new IOException("Unknown bean definition " + tag);
+			}
+			beanDefinitions.add(bd);
+
+			bd.setBeanClassName(readString());
+			bd.setScope(readString());
+			bd.setAbstract(in.readBoolean());
+			bd.setLazyInit(in.readBoolean());
+			bd.setAutowireMode(in.readInt());
+			bd.setDependencyCheck(in.readInt());
+			bd.setDependsOn(readStrings());
+			bd.setAutowireCandidate(in.readBoolean());
+			bd.setPrimary(in.readBoolean());
+			bd.setNonPublicAccessAllowed(in.readBoolean());
+			bd.setLenientConstructorResolution(in.readBoolean());
+			bd.setFactoryBeanName(readString());
+			bd.setFactoryMethodName(readString());
+			readConstructorArguments(bd.getConstructorArgumentValues());
+			readPropertyValues(bd.getPropertyValues());
+			int overrideCount = in.readInt();
+			for (int i = 0; i < overrideCount; i++) {
+				LookupOverride override = new LookupOverride(readUTF(), readString());
+				override.setSource(readSource());
+				bd.getMethodOverrides().addOverride(override);
+			}
+			bd.setInitMethodName(readString());
+			bd.setEnforceInitMethod(in.readBoolean());
+			bd.setDestroyMethodName(readString());
+			bd.setEnforceDestroyMethod(in.readBoolean());
+			bd.setSynthetic(in.readBoolean());
+			bd.setRole(in.readInt());
+			bd.setDescription(readString());
+			byte resourceTag = in.readByte();
+			if (resourceTag == ORIGINATING_BEAN_DEFINITION) {
+				bd.setOriginatingBeanDefinition(readBeanDefinition());
+			}
+			else if (resourceTag == CONFIG_RESOURCE) {
+				bd.setResource(resource);
+			}
+			bd.setSource(readSource());
+			if (bd instanceof RootBeanDefinition && in.readBoolean()) {
+				BeanDefinition decoratedDefinition = readBeanDefinition();
+				String beanName = readUTF();
+				((RootBeanDefinition) bd).setDecoratedDefinition(new BeanDefinitionHolder(decoratedDefinition,
+						beanName, readStrings()));
+			}
+
+			int attributeCount = in.readInt();
+			for (int i = 0; i < attributeCount; i++) {
+				String name = readUTF();
+				BeanMetadataAttribute attribute = new BeanMetadataAttribute(name, readValue());
+				attribute.setSource(readSource());
+				bd.addMetadataAttribute(attribute);
+			}
+			return bd;
+		}
+
+		private void readConstructorArguments(ConstructorArgumentValues arguments) throws IOException {
+			int indexedCount = in.readInt();
+			for (int i = 0; i < indexedCount; i++) {
+				int index = in.readInt();
+				arguments.addIndexedArgumentValue(index, readValueHolder());
+			}
+			int genericCount = in.readInt();
+			for (int i = 0; i < genericCount; i++) {
+				arguments.addGenericArgumentValue(readValueHolder());
+			}
+		}
+
+		private ValueHolder readValueHolder() throws IOException {
+			Object value = readValue();
+			String type = readString();
+			String name = readString();
+			ValueHolder valueHolder = new ValueHolder(value, type, name);
+			valueHolder.setSource(readSource());
+			return valueHolder;
+		}
+
+		private void readPropertyValues(MutablePropertyValues propertyValues) throws IOException {
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String name = readUTF();
+				PropertyValue propertyValue = new PropertyValue(name, readValue());
+				propertyValue.setOptional(in.readBoolean());
+				propertyValue.setSource(readSource());
+				propertyValues.addPropertyValue(propertyValue);
+			}
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private Object readValue() throws IOException {
+			byte tag = in.readByte();
+			switch (tag) {
+			case NULL:
+				return null;
+			case STRING:
+				return readUTF();
+			case BOOLEAN:
+				return in.readBoolean();
+			case INTEGER:
+				return in.readInt();
+			case LONG:
+				return in.readLong();
+			case TYPED_STRING_VALUE: {
+				String value = readString();
+				String targetTypeName = readString();
+				TypedStringValue typedStringValue = targetTypeName != null ? new TypedStringValue(value,
+						targetTypeName) : new TypedStringValue(value);
+				typedStringValue.setSpecifiedTypeName(readString());
+				if (in.readBoolean()) {
+					typedStringValue.setDynamic();
+				}
+				typedStringValue.setSource(readSource());
+				return typedStringValue;
+			}
+			case RUNTIME_BEAN_REFERENCE: {
+				String beanName = readUTF();
+				RuntimeBeanReference reference = new RuntimeBeanReference(beanName, in.readBoolean());
+				reference.setSource(readSource());
+				return reference;
+			}
+			case RUNTIME_BEAN_NAME_REFERENCE: {
+				RuntimeBeanNameReference reference = new RuntimeBeanNameReference(readUTF());
+				reference.setSource(readSource());
+				return reference;
+			}
+			case BEAN_DEFINITION_HOLDER: {
+				BeanDefinition beanDefinition = readBeanDefinition();
+				String beanName = readUTF();
+				return new BeanDefinitionHolder(beanDefinition, beanName, readStrings());
+			}
+			case BEAN_DEFINITION:
+				return readBeanDefinition();
+			case MANAGED_ARRAY: {
+				String elementTypeName = readString();
+				boolean mergeEnabled = in.readBoolean();
+				Object source = readSource();
+				int size = in.readInt();
+				ManagedArray array = new ManagedArray(elementTypeName, size);
+				readElements(array, size);
+				array.setMergeEnabled(mergeEnabled);
+				array.setSource(source);
+				return array;
+			}
+			case MANAGED_LIST: {
+				ManagedList list = new ManagedList();
+				list.setElementTypeName(readString());
+				list.setMergeEnabled(in.readBoolean());
+				list.setSource(readSource());
+				readElements(list, in.readInt());
+				return list;
+			}
+			case MANAGED_SET: {
+				ManagedSet set = new ManagedSet();
+				set.setElementTypeName(readString());
+				set.setMergeEnabled(in.readBoolean());
+				set.setSource(readSource());
+				readElements(set, in.readInt());
+				return set;
+			}
+			case MANAGED_MAP: {
+				ManagedMap map = new ManagedMap();
+				map.setKeyTypeName(readString());
+				map.setValueTypeName(readString());
+				readEntries(map);
+				return map;
+			}
+			case MANAGED_PROPERTIES: {
+				ManagedProperties properties = new ManagedProperties();
+				readEntries(properties);
+				return properties;
+			}
+			default:
+				throw new IOException("Unknown value " + tag);
+			}
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private void readElements(Collection collection, int size) throws IOException {
+			for (int i = 0; i < size; i++) {
+				collection.add(readValue());
+			}
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private void readEntries(Map map) throws IOException {
+			boolean mergeEnabled = in.readBoolean();
+			Object source = readSource();
+			int size = in.readInt();
+			for (int i = 0; i < size; i++) {
+				Object key = readValue();
+				map.put(key, readValue());
+			}
+			if (map instanceof ManagedMap) {
+				((ManagedMap) map).setMergeEnabled(mergeEnabled);
+				((ManagedMap) map).setSource(source);
+			}
+			else {
+				((ManagedProperties) map).setMergeEnabled(mergeEnabled);
+				((ManagedProperties) map).setSource(source);
+			}
+		}
+
+		private Object readSource() throws IOException {
+			byte tag = in.readByte();
+			if (tag == NULL) {
+				return null;
+			}
+			else if (tag == XML_SOURCE_LOCATION) {
+				Resource sourceResource = in.readBoolean() ? resource : null;
+				XmlSourceLocation location = new XmlSourceLocation(sourceResource, null, 0, 0);
+				location.setLocalName(readString());
+				location.setPrefix(readString());
+				location.setNamespaceURI(readString());
+				location.setStartLine(in.readInt());
+				location.setEndLine(in.readInt());
+				return location;
+			}
+			else if (tag == DEFAULT_SOURCE_LOCATION) {
+				Resource sourceResource = in.readBoolean() ? resource : null;
+				int startLine = in.readInt();
+				return new DefaultModelSourceLocation(startLine, in.readInt(), sourceResource);
+			}
+			throw new IOException("Unknown source " + tag);
+		}
+
+		private ValidationProblem readProblem() throws IOException {
+			String ruleId = readString();
+			String errorId = readString();
+			int severity = in.readInt();
+			String message = readString();
+			IResource problemResource = in.readBoolean() ? file : null;
+			int line = in.readInt();
+			int attributeCount = in.readInt();
+			ValidationProblemAttribute[] attributes = null;
+			if (attributeCount >= 0) {
+				attributes = new ValidationProblemAttribute[attributeCount];
+				for (int i = 0; i < attributeCount; i++) {
+					String key = readUTF();
+					attributes[i] = new ValidationProblemAttribute(key, readValue());
+				}
+			}
+			return new ValidationProblem(ruleId, errorId, severity, message, problemResource, line, attributes);
+		}
+
+		private String[] readStrings() throws IOException {
+			int length = in.readInt();
+			if (length < 0) {
+				return null;
+			}
+			String[] values = new String[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = readUTF();
+			}
+			return values;
+		}
+
+		private String readString() throws IOException {
+			return in.readBoolean() ? readUTF() : null;
+		}
+
+		public String readUTF() throws IOException {
+			return readUTF(in);
+		}
+
+		public static String readUTF(DataInputStream in) throws IOException {
+			int length = in.readInt();
+			if (length < 0) {
+				throw new IOException("Invalid string length " + length);
+			}
+			byte[] bytes = new byte[length];
+			in.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	}
+
+}
@@ -19,9 +19,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.FutureTask;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.logging.LogFactory;
 import org.eclipse.core.resources.IFile;
@@ -31,6 +28,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jdt.core.IClassFile;
@@ -190,6 +188,12 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 	protected void readConfig() {
 		if (!isModelPopulated) {
 
+			// Hand the load over to the config loader, unless this already is a loader thread or holds the lock
+			if (!BeansConfigLoader.isLoaderThread() && !rwl.isWriteLockedByCurrentThread()) {
+				awaitLoad();
+				return;
+			}
+
 			w.lock();
 			if (this.isModelPopulated) {
 				w.unlock();
@@ -230,6 +234,7 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 
 							IBeansConfigPostProcessor[] postProcessors = BeansConfigPostProcessorFactory.createPostProcessor(ConfigurationClassPostProcessor.class.getName());
 							for (IBeansConfigPostProcessor postProcessor : postProcessors) {
+								BeansConfigLoader.checkCanceled();
 								executePostProcessor(postProcessor, eventListener);
 							}
 						}
@@ -242,23 +247,27 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 					}
 				};
 
-				FutureTask<Integer> task = new FutureTask<Integer>(loadBeanDefinitionOperation);
-				BeansCorePlugin.getExecutorService().submit(task);
-				task.get(BeansCorePlugin.getDefault().getPreferenceStore().getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID),
-						TimeUnit.SECONDS);
+				// Already running on a loader thread that enforces the timeout
+				loadBeanDefinitionOperation.call();
 			}
-			catch (TimeoutException e) {
-				problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, "Loading of configuration '"
-						+ this.configClass.getFullyQualifiedName() + "' took more than "
-						+ BeansCorePlugin.getDefault().getPreferenceStore()
-						.getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID) + "sec",
-						file, 1));
+			catch (OperationCanceledException e) {
+				int timeout = BeansCorePlugin.getDefault().getPreferenceStore()
+						.getInt(BeansCorePlugin.TIMEOUT_CONFIG_LOADING_PREFERENCE_ID);
+				if (BeansConfigLoader.isTimedOut()) {
+					problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, "Loading of configuration '"
+							+ this.configClass.getFullyQualifiedName() + "' took more than " + timeout + "sec",
+							file, 1));
+				}
+				else {
+					problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, "Loading of configuration '"
+							+ this.configClass.getFullyQualifiedName() + "' has been canceled", file, 1));
+				}
 			}
 			catch (Exception e) {
 				problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, String.format(
-						"Error occured processing Java config '%s'. See Error Log for more details", e.getCause().getMessage()), getElementResource()));
+						"Error occured processing Java config '%s'. See Error Log for more details", e.getMessage()), getElementResource()));
 				BeansCorePlugin.log(new Status(IStatus.INFO, BeansCorePlugin.PLUGIN_ID, String.format(
-						"Error occured processing '%s'", this.configClass.getFullyQualifiedName()), e.getCause()));
+						"Error occured processing '%s'", this.configClass.getFullyQualifiedName()), e));
 			}
 			finally {
 				// Prepare the internal cache of all children for faster access
@@ -280,6 +289,31 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void loadCanceled() {
+		// the write lock can't be acquired while holding the read lock
+		if (rwl.getReadHoldCount() > 0) {
+			return;
+		}
+		w.lock();
+		try {
+			if (!this.isModelPopulated) {
+				if (this.configClass != null) {
+					problems.add(new ValidationProblem(IMarker.SEVERITY_ERROR, "Loading of configuration '"
+							+ this.configClass.getFullyQualifiedName() + "' has been canceled", file, 1));
+				}
+				this.children = new IModelElement[0];
+				this.isModelPopulated = true;
+			}
+		}
+		finally {
+			w.unlock();
+		}
+	}
+
 	/**
 	 * Sets internal list of {@link IBean}s to <code>null</code>. Any further access to the data of this instance of
 	 * {@link IBeansConfig} leads to reloading of the corresponding beans config file.
@@ -298,6 +332,7 @@ public class BeansJavaConfig extends AbstractBeansConfig implements IBeansConfig
 				components.clear();
 				isBeanClassesMapPopulated = false;
 				beanClassesMap.clear();
+				isComponentBeansMapPopulated = false;
 				problems.clear();
 				children = null;
 				//				componentDefinitions.clear();
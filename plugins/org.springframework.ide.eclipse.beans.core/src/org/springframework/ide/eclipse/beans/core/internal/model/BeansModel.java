@@ -16,9 +16,8 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -74,26 +73,24 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 
 	public static final boolean DEBUG = SpringCore.isDebug(DEBUG_OPTION);
 
-	private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
-
-	private final Lock r = rwl.readLock();
-
-	private final Lock w = rwl.writeLock();
+	/** Serializes changes to the project table; readers never lock */
+	private final Lock w = new ReentrantLock();
 	
 	protected volatile boolean modelPopulated = false;
 
 	/**
-	 * The table of Spring Beans projects
+	 * The table of Spring Beans projects; replaced as a whole on every change
 	 */
-	private volatile Map<IProject, IBeansProject> projects = new HashMap<IProject, IBeansProject>();
+	private volatile ProjectTable projects = ProjectTable.EMPTY;
 
 	private IResourceChangeListener workspaceListener;
 
 	private IFacetedProjectListener facetedProjectListener;
 
+	private final BeanClassHierarchyIndex beanClassHierarchyIndex = new BeanClassHierarchyIndex();
+
 	public BeansModel() {
 		super(null, IBeansModel.ELEMENT_NAME);
-		projects = new ConcurrentHashMap<IProject, IBeansProject>();
 		BeansCorePlugin.getDefault().getPreferenceStore().addPropertyChangeListener(new IPropertyChangeListener() {
 
 			public void propertyChange(PropertyChangeEvent event) {
@@ -121,18 +118,12 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	@Override
 	public void accept(IModelElementVisitor visitor, IProgressMonitor monitor) {
 		// Ask this model's projects
-		try {
-			r.lock();
-			for (IBeansProject project : projects.values()) {
-				project.accept(visitor, monitor);
-				if (monitor.isCanceled()) {
-					return;
-				}
+		for (IBeansProject project : projects.projectSet) {
+			project.accept(visitor, monitor);
+			if (monitor.isCanceled()) {
+				return;
 			}
 		}
-		finally {
-			r.unlock();
-		}
 	}
 
 	public void start() {
@@ -141,14 +132,14 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 		}
 		try {
 			w.lock();
-			projects.clear();
+			Map<IProject, IBeansProject> newProjects = new HashMap<IProject, IBeansProject>();
 			for (IProject project : SpringCoreUtils.getSpringProjects()) {
-				BeansProject beansProject = new BeansProject(BeansModel.this, project);
-				addProject(beansProject);
+				newProjects.put(project, new BeansProject(BeansModel.this, project));
 			}
+			projects = new ProjectTable(newProjects);
 			
 			// Eagerly populate the internal structure of the beans projects
-			for (IBeansProject beanProject : projects.values()) {
+			for (IBeansProject beanProject : projects.projectSet) {
 				beanProject.accept(new IModelElementVisitor() {
 					public boolean visit(IModelElement element, IProgressMonitor monitor) {
 						return element instanceof IBeansProject;
@@ -157,7 +148,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 			}
 
 			// Check for update actions
-			BeansModelUpdater.updateModel(projects.values());
+			BeansModelUpdater.updateModel(projects.projectSet);
 		}
 		finally {
 			modelPopulated = true;
@@ -176,7 +167,42 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	}
 
 	public void addProject(IBeansProject project) {
-		projects.put(project.getProject(), project);
+		putProject(project.getProject(), project);
+	}
+
+	/**
+	 * Publishes a copy of the project table with the given project added.
+	 */
+	private void putProject(IProject project, IBeansProject beansProject) {
+		try {
+			w.lock();
+			Map<IProject, IBeansProject> newProjects = new HashMap<IProject, IBeansProject>(projects.projectMap);
+			newProjects.put(project, beansProject);
+			projects = new ProjectTable(newProjects);
+		}
+		finally {
+			w.unlock();
+		}
+	}
+
+	/**
+	 * Publishes a copy of the project table without the given project.
+	 * @return the removed beans project or <code>null</code> if the project wasn't part of this model
+	 */
+	private IBeansProject removeProject(IProject project) {
+		try {
+			w.lock();
+			if (!projects.projectMap.containsKey(project)) {
+				return null;
+			}
+			Map<IProject, IBeansProject> newProjects = new HashMap<IProject, IBeansProject>(projects.projectMap);
+			IBeansProject beansProject = newProjects.remove(project);
+			projects = new ProjectTable(newProjects);
+			return beansProject;
+		}
+		finally {
+			w.unlock();
+		}
 	}
 
 	public void stop() {
@@ -195,7 +221,10 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 		try {
 			w.lock();
 			// Remove all projects
-			projects.clear();
+			for (IBeansProject project : projects.projectSet) {
+				beanClassHierarchyIndex.remove(project);
+			}
+			projects = ProjectTable.EMPTY;
 		}
 		finally {
 			w.unlock();
@@ -203,13 +232,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	}
 
 	public IBeansProject getProject(IProject project) {
-		try {
-			r.lock();
-			return projects.get(project);
-		}
-		finally {
-			r.unlock();
-		}
+		return projects.projectMap.get(project);
 	}
 
 	public IBeansProject getProject(String name) {
@@ -233,13 +256,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	 * Returns a collection of all projects defined in this model.
 	 */
 	public Set<IBeansProject> getProjects() {
-		try {
-			r.lock();
-			return Collections.unmodifiableSet(new HashSet<IBeansProject>(projects.values()));
-		}
-		finally {
-			r.unlock();
-		}
+		return projects.projectSet;
 	}
 
 	public IBeansConfig getConfig(IFile configFile) {
@@ -335,24 +352,26 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 		return null;
 	}
 
+	/**
+	 * Returns the reverse index that maps type names to the configs and beans using them as bean class.
+	 * @since 3.9.5
+	 */
+	public BeanClassHierarchyIndex getBeanClassHierarchyIndex() {
+		return beanClassHierarchyIndex;
+	}
+
 	/**
 	 * Returns a list of all configs from this model which contain a bean with given bean class.
 	 */
 	public Set<IBeansConfig> getConfigs(String className) {
 		Set<IBeansConfig> configs = new LinkedHashSet<IBeansConfig>();
-		try {
-			r.lock();
-			for (IBeansProject project : projects.values()) {
-				for (IBeansConfig config : project.getConfigs()) {
-					if (config.isBeanClass(className)) {
-						configs.add(config);
-					}
+		for (IBeansProject project : projects.projectSet) {
+			for (IBeansConfig config : project.getConfigs()) {
+				if (config.isBeanClass(className)) {
+					configs.add(config);
 				}
 			}
 		}
-		finally {
-			r.unlock();
-		}
 		return configs;
 	}
 
@@ -364,55 +383,43 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 		if (!(other instanceof BeansModel)) {
 			return false;
 		}
-		try {
-			r.lock();
-			BeansModel that = (BeansModel) other;
-			if (!ObjectUtils.nullSafeEquals(this.projects, that.projects))
-				return false;
-		}
-		finally {
-			r.unlock();
-		}
+		BeansModel that = (BeansModel) other;
+		if (!ObjectUtils.nullSafeEquals(this.projects.projectMap, that.projects.projectMap))
+			return false;
 		return super.equals(other);
 	}
 
 	@Override
 	public int hashCode() {
-		int hashCode = ObjectUtils.nullSafeHashCode(projects);
+		int hashCode = ObjectUtils.nullSafeHashCode(projects.projectMap);
 		return getElementType() * hashCode + super.hashCode();
 	}
 
 	@Override
 	public String toString() {
 		StringBuffer text = new StringBuffer("Beans model:\n");
-		try {
-			r.lock();
-			for (IBeansProject project : projects.values()) {
-				text.append(" Configs of project '");
-				text.append(project.getElementName());
-				text.append("':\n");
-				for (IBeansConfig config : project.getConfigs()) {
-					text.append("  ");
-					text.append(config);
-					text.append('\n');
-					for (IBean bean : config.getBeans()) {
-						text.append("   ");
-						text.append(bean);
-						text.append('\n');
-					}
-				}
-				text.append(" Config sets of project '");
-				text.append(project.getElementName());
-				text.append("':\n");
-				for (IBeansConfigSet configSet : project.getConfigSets()) {
-					text.append("  ");
-					text.append(configSet);
+		for (IBeansProject project : projects.projectSet) {
+			text.append(" Configs of project '");
+			text.append(project.getElementName());
+			text.append("':\n");
+			for (IBeansConfig config : project.getConfigs()) {
+				text.append("  ");
+				text.append(config);
+				text.append('\n');
+				for (IBean bean : config.getBeans()) {
+					text.append("   ");
+					text.append(bean);
 					text.append('\n');
 				}
 			}
-		}
-		finally {
-			r.unlock();
+			text.append(" Config sets of project '");
+			text.append(project.getElementName());
+			text.append("':\n");
+			for (IBeansConfigSet configSet : project.getConfigSets()) {
+				text.append("  ");
+				text.append(configSet);
+				text.append('\n');
+			}
 		}
 		return text.toString();
 	}
@@ -421,24 +428,11 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 	 * {@inheritDoc}
 	 */
 	public boolean isInitialized() {
-		try {
-			r.lock();
-			return modelPopulated;
-		}
-		finally {
-			r.unlock();
-		}
+		return modelPopulated;
 	}
 
 	private void buildProject(IResource resource, boolean build) {
-		BeansProject project = null;
-		try {
-			r.lock();
-			project = (BeansProject) projects.get(resource.getProject());
-		}
-		finally {
-			r.unlock();
-		}
+		BeansProject project = (BeansProject) getProject(resource.getProject());
 		// project can be null if the model has not been populated
 		// correctly before updating the project description
 		if (project != null) {
@@ -466,13 +460,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 					System.out.println("Spring beans nature added to project '" + project.getName() + "'");
 				}
 				BeansProject proj = new BeansProject(BeansModel.this, project);
-				try {
-					w.lock();
-					projects.put(project, proj);
-				}
-				finally {
-					w.unlock();
-				}
+				putProject(project, proj);
 				notifyListeners(proj, Type.CHANGED);
 
 				// Nature added -> run builder and validations on this event
@@ -485,15 +473,9 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 				if (DEBUG) {
 					System.out.println("Spring beans nature removed from project '" + project.getName() + "'");
 				}
-				IBeansProject proj = null;
-				try {
-					w.lock();
-					proj = projects.remove(project);
-				}
-				finally {
-					w.unlock();
-				}
+				IBeansProject proj = removeProject(project);
 				if (proj != null) {
+					beanClassHierarchyIndex.remove(proj);
 					notifyListeners(proj, Type.CHANGED);
 				}
 			}
@@ -507,7 +489,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 				BeansProject proj = new BeansProject(BeansModel.this, project);
 				try {
 					w.lock();
-					projects.put(project, proj);
+					putProject(project, proj);
 					BeansModelUpdater.updateProject(proj);
 				}
 				finally {
@@ -525,7 +507,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 				BeansProject proj = new BeansProject(BeansModel.this, project);
 				try {
 					w.lock();
-					projects.put(project, proj);
+					putProject(project, proj);
 					BeansModelUpdater.updateProject(proj);
 				}
 				finally {
@@ -539,15 +521,9 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 			if (DEBUG) {
 				System.out.println("Project '" + project.getName() + "' closed");
 			}
-			IBeansProject proj = null;
-			try {
-				w.lock();
-				proj = projects.remove(project);
-			}
-			finally {
-				w.unlock();
-			}
+			IBeansProject proj = removeProject(project);
 			if (proj != null) {
+				beanClassHierarchyIndex.remove(proj);
 				notifyListeners(proj, Type.REMOVED);
 			}
 		}
@@ -556,15 +532,9 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 			if (DEBUG) {
 				System.out.println("Project '" + project.getName() + "' deleted");
 			}
-			IBeansProject proj = null;
-			try {
-				w.lock();
-				proj = projects.remove(project);
-			}
-			finally {
-				w.unlock();
-			}
+			IBeansProject proj = removeProject(project);
 			if (proj != null) {
+				beanClassHierarchyIndex.remove(proj);
 				notifyListeners(proj, Type.REMOVED);
 			}
 		}
@@ -590,14 +560,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 				if (DEBUG) {
 					System.out.println("Config '" + file.getFullPath() + "' added");
 				}
-				BeansProject project = null;
-				try {
-					r.lock();
-					project = (BeansProject) projects.get(file.getProject());
-				}
-				finally {
-					r.unlock();
-				}
+				BeansProject project = (BeansProject) getProject(file.getProject());
 				
 				if (!BeansConfigFactory.isJavaConfigFile(file) && project.addConfig(file, type)) {
 					// In case this is a auto detected config make sure to refresh the
@@ -621,20 +584,13 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 
 		public void configChanged(IFile file, int eventType) {
 			Set<IReloadableBeansConfig> configs = new LinkedHashSet<IReloadableBeansConfig>();
-			try {
-				r.lock();
-				Set<IBeansConfig> bcs = getConfigs(file, true);
-				for (IBeansConfig bc : bcs) {
-					if (bc instanceof IImportedBeansConfig) {
-						configs.add(BeansModelUtils.getParentOfClass(bc, IReloadableBeansConfig.class));
-					}
-					else if (bc instanceof IReloadableBeansConfig) {
-						configs.add((IReloadableBeansConfig) bc);
-					}
+			for (IBeansConfig bc : getConfigs(file, true)) {
+				if (bc instanceof IImportedBeansConfig) {
+					configs.add(BeansModelUtils.getParentOfClass(bc, IReloadableBeansConfig.class));
+				}
+				else if (bc instanceof IReloadableBeansConfig) {
+					configs.add((IReloadableBeansConfig) bc);
 				}
-			}
-			finally {
-				r.unlock();
 			}
 			if (eventType == IResourceChangeEvent.POST_BUILD) {
 				if (DEBUG) {
@@ -658,14 +614,7 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 				if (DEBUG) {
 					System.out.println("Config '" + file.getFullPath() + "' removed");
 				}
-				BeansProject project = null;
-				try {
-					r.lock();
-					project = (BeansProject) projects.get(file.getProject());
-				}
-				finally {
-					r.unlock();
-				}
+				BeansProject project = (BeansProject) getProject(file.getProject());
 
 				if (project == null) {
 					return;
@@ -680,17 +629,11 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 
 				// Remove config from config sets where referenced as external
 				// config
-				try {
-					r.lock();
-					for (IBeansProject proj : projects.values()) {
-						if (((BeansProject) proj).removeConfig(file)) {
-							((BeansProject) proj).saveDescription();
-						}
+				for (IBeansProject proj : projects.projectSet) {
+					if (((BeansProject) proj).removeConfig(file)) {
+						((BeansProject) proj).saveDescription();
 					}
 				}
-				finally {
-					r.unlock();
-				}
 				if (config != null) {
 					notifyListeners(config, Type.REMOVED);
 				}
@@ -729,4 +672,23 @@ public class BeansModel extends AbstractModel implements IBeansModel {
 
 	}
 
+	/**
+	 * Immutable table of the projects of a {@link BeansModel}, published through a volatile reference so that readers
+	 * never need to lock.
+	 * @since 3.9.5
+	 */
+	private static class ProjectTable {
+
+		static final ProjectTable EMPTY = new ProjectTable(new HashMap<IProject, IBeansProject>());
+
+		final Map<IProject, IBeansProject> projectMap;
+
+		final Set<IBeansProject> projectSet;
+
+		ProjectTable(Map<IProject, IBeansProject> projects) {
+			this.projectMap = Collections.unmodifiableMap(projects);
+			this.projectSet = Collections.unmodifiableSet(new HashSet<IBeansProject>(projects.values()));
+		}
+	}
+
 }
@@ -15,6 +15,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
@@ -113,11 +114,11 @@ public abstract class BeansModelUtils {
 				}
 			}
 			if (bean == null) {
-				for (IBeansComponent component : config.getComponents()) {
-					bean = getBean(name, component);
-					if (bean != null) {
-						return bean;
-					}
+				if (config instanceof AbstractBeansConfig) {
+					bean = ((AbstractBeansConfig) config).getComponentBean(name);
+				}
+				else {
+					bean = getBean(name, config.getComponents());
 				}
 			}
 			return bean;
@@ -132,11 +133,11 @@ public abstract class BeansModelUtils {
 				}
 			}
 			if (bean == null) {
-				for (IBeansComponent component : configSet.getComponents()) {
-					bean = getBean(name, component);
-					if (bean != null) {
-						return bean;
-					}
+				if (configSet instanceof BeansConfigSet) {
+					bean = ((BeansConfigSet) configSet).getComponentBean(name);
+				}
+				else {
+					bean = getBean(name, configSet.getComponents());
 				}
 			}
 			return bean;
@@ -146,6 +147,35 @@ public abstract class BeansModelUtils {
 		}
 	}
 
+	/**
+	 * Return's the {@link IBean} for the given name by recursively looking into the given {@link IBeansComponent}s.
+	 */
+	private static IBean getBean(String name, Set<IBeansComponent> components) {
+		for (IBeansComponent component : components) {
+			IBean bean = getBean(name, component);
+			if (bean != null) {
+				return bean;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the beans of the given {@link IBeansComponent} and its nested components to the given map, unless the map
+	 * already contains a bean with the same name. The beans are visited in the same order as
+	 * {@link #getBean(String, IModelElement)} looks into the components.
+	 */
+	static void addComponentBeans(IBeansComponent component, Map<String, IBean> componentBeans) {
+		for (IBean bean : component.getBeans()) {
+			if (!componentBeans.containsKey(bean.getElementName())) {
+				componentBeans.put(bean.getElementName(), bean);
+			}
+		}
+		for (IBeansComponent nestedComponent : component.getComponents()) {
+			addComponentBeans(nestedComponent, componentBeans);
+		}
+	}
+
 	/**
 	 * Return's the {@link IBean} for the given name by recursively looking into the {@link IBeansComponent}.
 	 */
@@ -1310,6 +1340,7 @@ public abstract class BeansModelUtils {
 							changedTypeIsInterface[i] = types[i].isInterface();
 						}
 						
+						BeanClassHierarchyIndex beanClassHierarchyIndex = getBeanClassHierarchyIndex();
 						for (IBeansProject project : projects) {
 							if (project != null) {
 
@@ -1318,6 +1349,11 @@ public abstract class BeansModelUtils {
 									continue;
 								}
 								
+								if (beanClassHierarchyIndex != null) {
+									files.addAll(beanClassHierarchyIndex.getConfigs(project, changedTypeNames, typeEngine));
+									continue;
+								}
+
 								Set<IBeansConfig> configs = project.getConfigs();
 								for (IBeansConfig config : configs) {
 									boolean configAdded = false;
@@ -1352,6 +1388,14 @@ public abstract class BeansModelUtils {
 		return files;
 	}
 
+	private static BeanClassHierarchyIndex getBeanClassHierarchyIndex() {
+		IBeansModel model = BeansCorePlugin.getModel();
+		if (model instanceof BeansModel) {
+			return ((BeansModel) model).getBeanClassHierarchyIndex();
+		}
+		return null;
+	}
+
 	protected static Set<IBeansConfig> getConfigsByContainingTypesJDT(IResource resource, IProgressMonitor monitor) {
 		Set<IBeansConfig> files = new LinkedHashSet<IBeansConfig>();
 
@@ -1450,6 +1494,7 @@ public abstract class BeansModelUtils {
 							changedTypeIsInterface[i] = types[i].isInterface();
 						}
 						
+						BeanClassHierarchyIndex beanClassHierarchyIndex = getBeanClassHierarchyIndex();
 						for (IBeansProject project : projects) {
 							if (project != null) {
 								
@@ -1458,6 +1503,14 @@ public abstract class BeansModelUtils {
 									continue;
 								}
 								
+								if (beanClassHierarchyIndex != null) {
+									boolean includeUnresolved = JdtUtils.isJavaProject(project.getProject())
+											&& JdtUtils.getJavaProject(project.getProject()).isOnClasspath(resource);
+									files.addAll(beanClassHierarchyIndex.getBeans(project, changedTypeNames,
+											includeUnresolved, typeEngine));
+									continue;
+								}
+
 								Set<IBeansConfig> configs = project.getConfigs();
 								for (IBeansConfig config : configs) {
 									Set<IBean> allBeans = getBeans(config);
@@ -20,14 +20,16 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
-import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
@@ -37,7 +39,6 @@ import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
-import org.eclipse.core.runtime.jobs.MultiRule;
 import org.eclipse.jdt.core.IType;
 import org.osgi.framework.Bundle;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
@@ -57,6 +58,7 @@ import org.springframework.ide.eclipse.beans.core.model.locate.BeansConfigLocato
 import org.springframework.ide.eclipse.beans.core.model.locate.BeansConfigLocatorFactory;
 import org.springframework.ide.eclipse.beans.core.model.locate.IBeansConfigLocator;
 import org.springframework.ide.eclipse.beans.core.model.locate.IJavaConfigLocator;
+import org.springframework.ide.eclipse.beans.core.model.locate.JavaConfigLocatorCache;
 import org.springframework.ide.eclipse.beans.core.model.process.IBeansConfigPostProcessor;
 import org.springframework.ide.eclipse.core.MarkerUtils;
 import org.springframework.ide.eclipse.core.SpringCore;
@@ -88,10 +90,9 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	private static final int AUTO_CONFIG_RESCHEDULE_SLEEP_TIME_MILLIS = 3000;
 	private static final int AUTO_CONFIG_RESCHEDULE_MAX_COUNT = 10;
 
+	/** Serializes writers; readers only look at the published {@link Snapshot} */
 	private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
 
-	private final Lock r = rwl.readLock();
-
 	private final Lock w = rwl.writeLock();
 
 	protected volatile boolean modelPopulated = false;
@@ -108,7 +109,6 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 
 	protected volatile Map<String, IBeansConfig> configs = new LinkedHashMap<String, IBeansConfig>();
 	protected volatile Map<String, IBeansConfig> autoDetectedConfigs = new LinkedHashMap<String, IBeansConfig>();
-	protected volatile Set<IBeansConfig> allConfigs = Collections.unmodifiableSet(new CopyOnWriteArraySet<IBeansConfig>());
 
 	protected volatile Map<String, Set<String>> autoDetectedConfigsByLocator = new LinkedHashMap<String, Set<String>>();
 
@@ -124,6 +124,9 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 
 	private boolean isAutoConfigStatePersisted = false;
 
+	/** Immutable copy of the state above, replaced as a whole after every modification */
+	private volatile Snapshot snapshot = new Snapshot(this, true);
+
 	public BeansProject(IBeansModel model, IProject project) {
 		super(model, project.getName());
 		this.project = project;
@@ -142,9 +145,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	 */
 	@Override
 	public IModelElement[] getElementChildren() {
-		Set<IModelElement> children = new LinkedHashSet<IModelElement>(getConfigs());
-		children.addAll(getConfigSets());
-		return children.toArray(new IModelElement[children.size()]);
+		return getSnapshot().getChildren();
 	}
 
 	/**
@@ -215,6 +216,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 			configSuffixes.clear();
 			configSuffixes.addAll(suffixes);
 		} finally {
+			publishSnapshot();
 			w.unlock();
 		}
 	}
@@ -231,6 +233,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 					return true;
 				}
 			} finally {
+				publishSnapshot();
 				w.unlock();
 			}
 		}
@@ -239,15 +242,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 
 	@Override
 	public Set<String> getConfigSuffixes() {
-		if (!this.modelPopulated) {
-			populateModel();
-		}
-		try {
-			r.lock();
-			return Collections.unmodifiableSet(configSuffixes);
-		} finally {
-			r.unlock();
-		}
+		return getSnapshot().configSuffixes;
 	}
 
 	/**
@@ -261,12 +256,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 
 	@Override
 	public boolean hasConfigSuffix(String suffix) {
-		try {
-			r.lock();
-			return getConfigSuffixes().contains(suffix);
-		} finally {
-			r.unlock();
-		}
+		return getConfigSuffixes().contains(suffix);
 	}
 
 	/**
@@ -315,7 +305,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 				configs.put(configName, BeansConfigFactory.create(this, configName, Type.MANUAL));
 			}
 		} finally {
-			updateAllConfigsCache();
+			publishSnapshot();
 			w.unlock();
 		}
 
@@ -368,7 +358,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 				}
 			}
 		} finally {
-			updateAllConfigsCache();
+			publishSnapshot();
 			w.unlock();
 		}
 		return false;
@@ -437,10 +427,12 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	 */
 	public boolean removeConfig(String configName) {
 		if (hasConfig(configName)) {
+			IBeansConfig config = null;
+			IBeansConfig autoDetectedConfig = null;
 			try {
 				w.lock();
-				IBeansConfig config = configs.remove(configName);
-				IBeansConfig autoDetectedConfig = autoDetectedConfigs.remove(configName);
+				config = configs.remove(configName);
+				autoDetectedConfig = autoDetectedConfigs.remove(configName);
 				if (config != null) {
 					config.unregisterEventListener(eventListener);
 				}
@@ -452,15 +444,23 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 					autoDetectedConfigsByLocator.get(locatorId).remove(configName);
 				}
 			} finally {
-				updateAllConfigsCache();
+				publishSnapshot();
 				w.unlock();
 			}
+			deleteConfigSnapshot(config);
+			deleteConfigSnapshot(autoDetectedConfig);
 			removeConfigFromConfigSets(configName);
 			return true;
 		}
 		return false;
 	}
 
+	private void deleteConfigSnapshot(IBeansConfig config) {
+		if (config != null && !config.isElementArchived() && config.getElementResource() instanceof IFile) {
+			BeansConfigSnapshot.getSnapshotFile((IFile) config.getElementResource()).delete();
+		}
+	}
+
 	@Override
 	public boolean hasConfig(IFile file) {
 		return hasConfig(getConfigName(file));
@@ -468,15 +468,8 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 
 	@Override
 	public boolean hasConfig(String configName) {
-		if (!this.modelPopulated) {
-			populateModel();
-		}
-		try {
-			r.lock();
-			return (configs.containsKey(configName) || autoDetectedConfigs.containsKey(configName));
-		} finally {
-			r.unlock();
-		}
+		Snapshot snapshot = getSnapshot();
+		return (snapshot.configs.containsKey(configName) || snapshot.autoDetectedConfigs.containsKey(configName));
 	}
 
 	@Override
@@ -492,15 +485,10 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		}
 
 		if (isImportsEnabled() && includeImported) {
-			try {
-				r.lock();
-				for (IBeansConfig bc : getConfigs()) {
-					if (hasImportedBeansConfig(configFile, bc)) {
-						return true;
-					}
+			for (IBeansConfig bc : getConfigs()) {
+				if (hasImportedBeansConfig(configFile, bc)) {
+					return true;
 				}
-			} finally {
-				r.unlock();
 			}
 		}
 		return false;
@@ -545,15 +533,10 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		// configuration files don't
 		// need to get loaded.
 		if ((isImportsEnabled() && includeImported)) {
-			try {
-				r.lock();
-				if (ownConfigs != null) {
-					for (IBeansConfig bc : ownConfigs) {
-						checkForImportedBeansConfig(file, bc, beansConfigs);
-					}
+			if (ownConfigs != null) {
+				for (IBeansConfig bc : ownConfigs) {
+					checkForImportedBeansConfig(file, bc, beansConfigs);
 				}
-			} finally {
-				r.unlock();
 			}
 		}
 		return beansConfigs;
@@ -593,20 +576,11 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	public IBeansConfig getConfig(IFile file) {
 		IBeansConfig config = getConfig(getConfigName(file));
 		if (config == null) {
-			if (!this.modelPopulated) {
-				populateModel();
-			}
-			try {
-				r.lock();
-				for (IBeansConfig beansConfig : configs.values()) {
-					if (beansConfig.getElementResource() != null && beansConfig.getElementResource().equals(file)) {
-						return beansConfig;
-					}
+			for (IBeansConfig beansConfig : getSnapshot().configs.values()) {
+				if (beansConfig.getElementResource() != null && beansConfig.getElementResource().equals(file)) {
+					return beansConfig;
 				}
-			} finally {
-				r.unlock();
 			}
-
 		}
 		return config;
 	}
@@ -619,82 +593,35 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (configName != null && configName.length() > 0 && configName.charAt(0) == '/') {
 			return BeansCorePlugin.getModel().getConfig(configName);
 		}
-		if (!this.modelPopulated) {
-			populateModel();
-		}
-		try {
-			r.lock();
-			if (configs.containsKey(configName)) {
-				return configs.get(configName);
-			} else if (autoDetectedConfigs.containsKey(configName)) {
-				return autoDetectedConfigs.get(configName);
-			}
-			return null;
-		} finally {
-			r.unlock();
+		Snapshot snapshot = getSnapshot();
+		IBeansConfig config = snapshot.configs.get(configName);
+		if (config != null) {
+			return config;
 		}
+		return snapshot.autoDetectedConfigs.get(configName);
 	}
 
 	public Set<String> getConfigNames() {
-		if (!this.modelPopulated) {
-			populateModel();
-		}
-		try {
-			r.lock();
-			Set<String> configNames = new LinkedHashSet<String>(configs.keySet());
-			configNames.addAll(autoDetectedConfigs.keySet());
-			return configNames;
-		} finally {
-			r.unlock();
-		}
+		Snapshot snapshot = getSnapshot();
+		Set<String> configNames = new LinkedHashSet<String>(snapshot.configs.keySet());
+		configNames.addAll(snapshot.autoDetectedConfigs.keySet());
+		return configNames;
 	}
 
 	public Set<String> getManualConfigNames() {
-		if (!this.modelPopulated) {
-			populateModel();
-		}
-		try {
-			r.lock();
-			return new LinkedHashSet<String>(configs.keySet());
-		} finally {
-			r.unlock();
-		}
+		return new LinkedHashSet<String>(getSnapshot().configs.keySet());
 	}
 
 	public Set<String> getAutoConfigNames() {
-		if (!this.modelPopulated) {
-			populateModel();
-		}
-		try {
-			r.lock();
-			return new LinkedHashSet<String>(autoDetectedConfigs.keySet());
-		} finally {
-			r.unlock();
-		}
+		return new LinkedHashSet<String>(getSnapshot().autoDetectedConfigs.keySet());
 	}
 
 	public Set<String> getManualConfigSetNames() {
-		if (!this.modelPopulated) {
-			populateModel();
-		}
-		try {
-			r.lock();
-			return new LinkedHashSet<String>(configSets.keySet());
-		} finally {
-			r.unlock();
-		}
+		return new LinkedHashSet<String>(getSnapshot().configSets.keySet());
 	}
 
 	public Set<String> getAutoConfigSetNames() {
-		if (!this.modelPopulated) {
-			populateModel();
-		}
-		try {
-			r.lock();
-			return new LinkedHashSet<String>(autoDetectedConfigSets.keySet());
-		} finally {
-			r.unlock();
-		}
+		return new LinkedHashSet<String>(getSnapshot().autoDetectedConfigSets.keySet());
 	}
 
 	/**
@@ -702,19 +629,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	 */
 	@Override
 	public Set<IBeansConfig> getConfigs() {
-		if (!this.modelPopulated) {
-			populateModel();
-		}
-		try {
-			r.lock();
-			return allConfigs;
-			// Set<IBeansConfig> beansConfigs = new
-			// LinkedHashSet<IBeansConfig>(configs.values());
-			// beansConfigs.addAll(autoDetectedConfigs.values());
-			// return beansConfigs;
-		} finally {
-			r.unlock();
-		}
+		return getSnapshot().getAllConfigs();
 	}
 
 	/**
@@ -737,6 +652,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 				this.configSets.put(configSet.getElementName(), configSet);
 			}
 		} finally {
+			publishSnapshot();
 			w.unlock();
 		}
 	}
@@ -746,7 +662,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 			populateModel();
 		}
 		try {
-			r.lock();
+			w.lock();
 			if (!configSets.values().contains(configSet)) {
 				configSets.put(configSet.getElementName(), configSet);
 
@@ -758,7 +674,8 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 				return true;
 			}
 		} finally {
-			r.unlock();
+			publishSnapshot();
+			w.unlock();
 		}
 		return false;
 	}
@@ -768,6 +685,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 			w.lock();
 			configSets.remove(configSetName);
 		} finally {
+			publishSnapshot();
 			w.unlock();
 		}
 	}
@@ -777,15 +695,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	 */
 	@Override
 	public boolean hasConfigSet(String configSetName) {
-		if (!this.modelPopulated) {
-			populateModel();
-		}
-		try {
-			r.lock();
-			return configSets.containsKey(configSetName);
-		} finally {
-			r.unlock();
-		}
+		return getSnapshot().configSets.containsKey(configSetName);
 	}
 
 	/**
@@ -793,19 +703,12 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	 */
 	@Override
 	public IBeansConfigSet getConfigSet(String configSetName) {
-		if (!this.modelPopulated) {
-			populateModel();
-		}
-		try {
-			r.lock();
-			IBeansConfigSet set = configSets.get(configSetName);
-			if (set != null) {
-				return set;
-			}
-			return autoDetectedConfigSets.get(configSetName);
-		} finally {
-			r.unlock();
+		Snapshot snapshot = getSnapshot();
+		IBeansConfigSet set = snapshot.configSets.get(configSetName);
+		if (set != null) {
+			return set;
 		}
+		return snapshot.autoDetectedConfigSets.get(configSetName);
 	}
 
 	/**
@@ -813,17 +716,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	 */
 	@Override
 	public Set<IBeansConfigSet> getConfigSets() {
-		if (!this.modelPopulated) {
-			populateModel();
-		}
-		try {
-			r.lock();
-			Set<IBeansConfigSet> configSets = new LinkedHashSet<IBeansConfigSet>(this.configSets.values());
-			configSets.addAll(autoDetectedConfigSets.values());
-			return configSets;
-		} finally {
-			r.unlock();
-		}
+		return getSnapshot().getAllConfigSets();
 	}
 
 	/**
@@ -895,7 +788,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 			autoDetectedConfigSets.clear();
 			autoDetectedConfigSetsByLocator.clear();
 		} finally {
-			updateAllConfigsCache();
+			publishSnapshot();
 			w.unlock();
 		}
 	}
@@ -931,13 +824,9 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	 */
 	@Override
 	public String toString() {
-		try {
-			r.lock();
-			return "Project=" + getElementName() + ", ConfigExtensions=" + configSuffixes + ", Configs=" + configs.values() + ", ConfigsSets="
-					+ configSets;
-		} finally {
-			r.unlock();
-		}
+		Snapshot snapshot = this.snapshot;
+		return "Project=" + getElementName() + ", ConfigExtensions=" + snapshot.configSuffixes + ", Configs="
+				+ snapshot.configs.values() + ", ConfigsSets=" + snapshot.configSets;
 	}
 
 	/**
@@ -993,7 +882,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 				autoDetectedConfigSetsByLocator.remove(configSet);
 			}
 		} finally {
-			updateAllConfigsCache();
+			publishSnapshot();
 			w.unlock();
 		}
 	}
@@ -1007,26 +896,12 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	}
 
 	private boolean removeConfigFromConfigSets(String configName) {
-		if (!this.modelPopulated) {
-			populateModel();
-		}
 		boolean hasRemoved = false;
-		try {
-			r.lock();
-			for (IBeansConfigSet configSet : configSets.values()) {
-				if (configSet.hasConfig(configName)) {
-					((BeansConfigSet) configSet).removeConfig(configName);
-					hasRemoved = true;
-				}
+		for (IBeansConfigSet configSet : getSnapshot().getAllConfigSets()) {
+			if (configSet.hasConfig(configName)) {
+				((BeansConfigSet) configSet).removeConfig(configName);
+				hasRemoved = true;
 			}
-			for (IBeansConfigSet configSet : autoDetectedConfigSets.values()) {
-				if (configSet.hasConfig(configName)) {
-					((BeansConfigSet) configSet).removeConfig(configName);
-					hasRemoved = true;
-				}
-			}
-		} finally {
-			r.unlock();
 		}
 		return hasRemoved;
 	}
@@ -1046,13 +921,15 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	 * {@link ISpringProject.DESCRIPTION_FILE}).
 	 */
 	private void populateModel() {
+		boolean populating = false;
 		try {
 			w.lock();
-			if (this.modelPopulated) {
+			// Nested calls from the description reader see the state under construction
+			if (this.modelPopulated || rwl.getWriteHoldCount() > 1) {
 				return;
 			}
+			populating = true;
 			this.eventListener = new DefaultBeansConfigEventListener();
-			this.modelPopulated = true;
 
 			BeansProjectDescriptionReader.read(this);
 
@@ -1089,7 +966,10 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 				config.registerEventListener(eventListener);
 			}
 		} finally {
-			updateAllConfigsCache();
+			if (populating) {
+				publishSnapshot();
+				this.modelPopulated = true;
+			}
 			w.unlock();
 		}
 	}
@@ -1124,7 +1004,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 						w.lock();
 						restoreConfigSetState(removedConfigsFromSets);
 					} finally {
-						updateAllConfigsCache();
+						publishSnapshot();
 						w.unlock();
 					}
 					
@@ -1141,77 +1021,97 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 			};
 	
 			job.setPriority(Job.BUILD);
-			job.setRule(MultiRule.combine(ResourcesPlugin.getWorkspace().getRoot(), BeansCoreUtils.BEANS_MODEL_INIT_RULE));
+			// Locators only read resources; don't block workspace operations while they run
+			job.setRule(BeansCoreUtils.BEANS_MODEL_INIT_RULE);
 			job.schedule();
 		}
 	}
 
 	protected boolean populateAutoDetectedConfigsAndConfigSetsInternally() {
 		
-		final Boolean[] reschedule = new Boolean[1];
-		reschedule[0] = Boolean.FALSE;
+		final AtomicBoolean reschedule = new AtomicBoolean(false);
 
-		final Map<BeansConfigLocatorDefinition, Map<String, IBeansConfig>> newAutoConfigs = new HashMap<BeansConfigLocatorDefinition, Map<String, IBeansConfig>>();
-		final Map<BeansConfigLocatorDefinition, String> newConfigSetNames = new HashMap<BeansConfigLocatorDefinition, String>();
+		final Map<BeansConfigLocatorDefinition, Map<String, IBeansConfig>> newAutoConfigs = new LinkedHashMap<BeansConfigLocatorDefinition, Map<String, IBeansConfig>>();
+		final Map<BeansConfigLocatorDefinition, String> newConfigSetNames = new ConcurrentHashMap<BeansConfigLocatorDefinition, String>();
 
-		// Find  auto detected beans configs
+		// Find auto detected beans configs, running the locators concurrently
+		List<Future<?>> locatorRuns = new ArrayList<Future<?>>();
 		for (final BeansConfigLocatorDefinition locator : BeansConfigLocatorFactory.getBeansConfigLocatorDefinitions()) {
 			if (locator.isEnabled(getProject()) && locator.getBeansConfigLocator().supports(getProject())) {
 				final Map<String, IBeansConfig> detectedConfigs = new HashMap<String, IBeansConfig>();
 				newAutoConfigs.put(locator, detectedConfigs);
 
-				// Prevent extension contribution from crashing the model
-				// creation
-				SafeRunner.run(new ISafeRunnable() {
-
-					@Override
-					public void handleException(Throwable exception) {
-					}
+				locatorRuns.add(BeansCorePlugin.getExecutorService().submit(new Runnable() {
 					
 					@Override
-					public void run() throws Exception {
-						IBeansConfigLocator configLocator = locator.getBeansConfigLocator();
-						Set<IFile> files = configLocator.locateBeansConfigs(getProject(), null);
-						
-						for (IFile file : files) {
-							BeansConfig config = new BeansConfig(BeansProject.this, file.getProjectRelativePath().toString(), Type.AUTO_DETECTED);
-							String configName = getConfigName(file);
-							if (!hasConfig(configName)) {
-								detectedConfigs.put(configName, config);
-							}
-						}
+					public void run() {
+						// Prevent extension contribution from crashing the model
+						// creation
+						SafeRunner.run(new ISafeRunnable() {
 
-						if (files.size() > 1) {
-							String configSet = locator.getBeansConfigLocator().getBeansConfigSetName(files);
-							if (configSet.length() > 0) {
-								newConfigSetNames.put(locator, configSet);
+							@Override
+							public void handleException(Throwable exception) {
 							}
-						}
+					
+							@Override
+							public void run() throws Exception {
+								IBeansConfigLocator configLocator = locator.getBeansConfigLocator();
+								Set<IFile> files = configLocator.locateBeansConfigs(getProject(), null);
 						
-						if (configLocator instanceof IJavaConfigLocator) {
-							
-							if (workaroundM2EActivationTimeout(getProject())) {
-								reschedule[0] = Boolean.TRUE;
-							}
-							else {
-								Set<IType> types = ((IJavaConfigLocator) configLocator).locateJavaConfigs(getProject(), null);
-								for (IType type : types) {
-									IBeansConfig config = new BeansJavaConfig(BeansProject.this, type, type.getFullyQualifiedName(), Type.AUTO_DETECTED);
-									String configName = BeansConfigFactory.JAVA_CONFIG_TYPE + type.getFullyQualifiedName();
+								for (IFile file : files) {
+									BeansConfig config = new BeansConfig(BeansProject.this, file.getProjectRelativePath().toString(), Type.AUTO_DETECTED);
+									String configName = getConfigName(file);
 									if (!hasConfig(configName)) {
 										detectedConfigs.put(configName, config);
 									}
 								}
+
+								if (files.size() > 1) {
+									String configSet = locator.getBeansConfigLocator().getBeansConfigSetName(files);
+									if (configSet.length() > 0) {
+										newConfigSetNames.put(locator, configSet);
+									}
+								}
+						
+								if (configLocator instanceof IJavaConfigLocator) {
+							
+									if (workaroundM2EActivationTimeout(getProject())) {
+										reschedule.set(true);
+									}
+									else {
+										Set<IType> types = JavaConfigLocatorCache.locateJavaConfigs((IJavaConfigLocator) configLocator, getProject(), null);
+										for (IType type : types) {
+											IBeansConfig config = new BeansJavaConfig(BeansProject.this, type, type.getFullyQualifiedName(), Type.AUTO_DETECTED);
+											String configName = BeansConfigFactory.JAVA_CONFIG_TYPE + type.getFullyQualifiedName();
+											if (!hasConfig(configName)) {
+												detectedConfigs.put(configName, config);
+											}
+										}
+									}
+								}
 							}
-						}
+						});
 					}
-				});
+				}));
+			}
+		}
+
+		for (Future<?> locatorRun : locatorRuns) {
+			try {
+				locatorRun.get();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+			catch (ExecutionException e) {
+				// already handled by the SafeRunner
 			}
 		}
 
 		setAutoDetectedConfigs(newAutoConfigs, newConfigSetNames);
 
-		return reschedule[0].booleanValue();
+		return reschedule.get();
 	}
 
 	protected boolean workaroundM2EActivationTimeout(IProject project2) {
@@ -1288,6 +1188,7 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 			}
 
 		} finally {
+			publishSnapshot();
 			w.unlock();
 			
 			//The commented line below was a fix for 'STS-3541: added additional project build after asynchronous beans config scanning'
@@ -1311,14 +1212,28 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 	}
 
 	/**
-	 * Update the internal cache for all configs in case something changed to
-	 * this.configs or this.autoDetectedConfigs. This has to be called in a
-	 * write-guarded block.
+	 * Publishes a new {@link Snapshot} of this project's configs and config
+	 * sets to readers. This has to be called in a write-guarded block after
+	 * something changed.
 	 */
-	protected void updateAllConfigsCache() {
-		CopyOnWriteArraySet<IBeansConfig> newAllConfigs = new CopyOnWriteArraySet<IBeansConfig>(configs.values());
-		newAllConfigs.addAll(autoDetectedConfigs.values());
-		this.allConfigs = Collections.unmodifiableSet(newAllConfigs);
+	protected void publishSnapshot() {
+		this.snapshot = new Snapshot(this, true);
+	}
+
+	/**
+	 * Returns the state to read from: the published snapshot or, for the
+	 * thread currently modifying this project, a view on the state under
+	 * construction. The view doesn't copy anything, so lookups of the writer
+	 * thread stay as cheap as lookups in the published snapshot.
+	 */
+	private Snapshot getSnapshot() {
+		if (rwl.isWriteLockedByCurrentThread()) {
+			return new Snapshot(this, false);
+		}
+		if (!this.modelPopulated) {
+			populateModel();
+		}
+		return this.snapshot;
 	}
 
 	/**
@@ -1403,22 +1318,12 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		if (!this.modelPopulated) {
 			return false;
 		}
-		try {
-			r.lock();
-			for (IBeansConfig config : configs.values()) {
-				if (!((ILazyInitializedModelElement) config).isInitialized()) {
-					return false;
-				}
-			}
-			for (IBeansConfig config : autoDetectedConfigs.values()) {
-				if (!((ILazyInitializedModelElement) config).isInitialized()) {
-					return false;
-				}
+		for (IBeansConfig config : this.snapshot.getAllConfigs()) {
+			if (!((ILazyInitializedModelElement) config).isInitialized()) {
+				return false;
 			}
-			return true;
-		} finally {
-			r.unlock();
 		}
+		return true;
 	}
 
 	@Override
@@ -1430,4 +1335,86 @@ public class BeansProject extends AbstractResourceModelElement implements IBeans
 		this.isAutoConfigStatePersisted = autoConfigPersisted;
 	}
 
+	/**
+	 * Immutable copy of the configs and config sets of a {@link BeansProject}.
+	 * Readers get the snapshot through a volatile reference without any
+	 * locking; writers build a new one after each modification.
+	 * <p>
+	 * The thread holding the write lock reads through a view on the live
+	 * state instead, which doesn't copy the maps and only computes the
+	 * combined sets if asked for.
+	 * 
+	 * @since 3.9.5
+	 */
+	private static class Snapshot {
+
+		final Set<String> configSuffixes;
+
+		final Map<String, IBeansConfig> configs;
+
+		final Map<String, IBeansConfig> autoDetectedConfigs;
+
+		final Map<String, IBeansConfigSet> configSets;
+
+		final Map<String, IBeansConfigSet> autoDetectedConfigSets;
+
+		private Set<IBeansConfig> allConfigs;
+
+		private Set<IBeansConfigSet> allConfigSets;
+
+		private IModelElement[] children;
+
+		/**
+		 * @param copy <code>true</code> to copy the state of the given
+		 * project, <code>false</code> for a view on the live state
+		 */
+		Snapshot(BeansProject project, boolean copy) {
+			// handed out as is and usually only a handful, so always copied
+			configSuffixes = Collections.unmodifiableSet(new LinkedHashSet<String>(project.configSuffixes));
+			if (copy) {
+				configs = Collections.unmodifiableMap(new LinkedHashMap<String, IBeansConfig>(project.configs));
+				autoDetectedConfigs = Collections.unmodifiableMap(new LinkedHashMap<String, IBeansConfig>(
+						project.autoDetectedConfigs));
+				configSets = Collections.unmodifiableMap(new LinkedHashMap<String, IBeansConfigSet>(
+						project.configSets));
+				autoDetectedConfigSets = Collections.unmodifiableMap(new LinkedHashMap<String, IBeansConfigSet>(
+						project.autoDetectedConfigSets));
+				getChildren();
+			}
+			else {
+				configs = Collections.unmodifiableMap(project.configs);
+				autoDetectedConfigs = Collections.unmodifiableMap(project.autoDetectedConfigs);
+				configSets = Collections.unmodifiableMap(project.configSets);
+				autoDetectedConfigSets = Collections.unmodifiableMap(project.autoDetectedConfigSets);
+			}
+		}
+
+		Set<IBeansConfig> getAllConfigs() {
+			if (allConfigs == null) {
+				Set<IBeansConfig> allConfigs = new LinkedHashSet<IBeansConfig>(configs.values());
+				allConfigs.addAll(autoDetectedConfigs.values());
+				this.allConfigs = Collections.unmodifiableSet(allConfigs);
+			}
+			return allConfigs;
+		}
+
+		Set<IBeansConfigSet> getAllConfigSets() {
+			if (allConfigSets == null) {
+				Set<IBeansConfigSet> allConfigSets = new LinkedHashSet<IBeansConfigSet>(configSets.values());
+				allConfigSets.addAll(autoDetectedConfigSets.values());
+				this.allConfigSets = Collections.unmodifiableSet(allConfigSets);
+			}
+			return allConfigSets;
+		}
+
+		IModelElement[] getChildren() {
+			if (children == null) {
+				Set<IModelElement> children = new LinkedHashSet<IModelElement>(getAllConfigs());
+				children.addAll(getAllConfigSets());
+				this.children = children.toArray(new IModelElement[children.size()]);
+			}
+			return children;
+		}
+	}
+
 }
@@ -83,6 +83,7 @@ public class ImportedBeansConfig extends AbstractBeansConfig implements IImporte
 
 	protected void readFinish() {
 		isModelPopulated = true;
+		isComponentBeansMapPopulated = false;
 
 		List<ISourceModelElement> allChildren = new ArrayList<ISourceModelElement>(imports);
 		allChildren.addAll(aliases.values());
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.internal.model.namespaces;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.springframework.beans.factory.xml.PluggableSchemaResolver;
+import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
+import org.springframework.ide.eclipse.beans.core.internal.parser.BeansDtdResolver;
+import org.springframework.ide.eclipse.core.io.xml.SchemaGrammarPool;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
+import org.springframework.ide.eclipse.core.java.ProjectClassLoaderCache;
+import org.xml.sax.EntityResolver;
+
+/**
+ * Caches the entity resolver used to load the XSDs and DTDs of bean config files and the {@link SchemaGrammarPool}
+ * holding the compiled schemas per project, so that the schema mappings are only read and the schemas are only
+ * compiled once.
+ * <p>
+ * Entries are keyed by project and by whether the project resolves namespaces from its classpath, not by the
+ * namespace-resolving classloader: the project classloader is a new instance on every request. Instead, the cached
+ * resolver and grammar pool are dropped as soon as the classpath of the project changes. As the resolver holds on to
+ * the classloader it was created with, it is also dropped when the {@link ProjectClassLoaderCache} drops the
+ * classloaders of the project, so that evicted classloaders aren't kept alive.
+ * @since 3.9.5
+ */
+public class ProjectClasspathSchemaResolverCache {
+
+	private static final Map<IProject, ResolverCacheEntry> RESOLVER_CACHE = new HashMap<IProject, ResolverCacheEntry>();
+
+	static {
+		ProjectClassLoaderCache.addRemovalListener(new ProjectClassLoaderCache.RemovalListener() {
+
+			public void classLoaderRemoved(IProject project) {
+				synchronized (RESOLVER_CACHE) {
+					ResolverCacheEntry entry = RESOLVER_CACHE.get(project);
+					// the plugin classloader isn't managed by the project classloader cache
+					if (entry != null && entry.isFromClasspath()) {
+						removeResolverEntryFromCache(entry);
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Returns the entity resolver for the given project that resolves schemas via the given classloader.
+	 */
+	public static EntityResolver getEntityResolver(IProject project, ClassLoader namespaceResolvingClassLoader) {
+		return getEntry(project, namespaceResolvingClassLoader).getResolver();
+	}
+
+	/**
+	 * Returns the grammar pool for the schemas the given project resolves via the given classloader.
+	 */
+	public static SchemaGrammarPool getGrammarPool(IProject project, ClassLoader namespaceResolvingClassLoader) {
+		return getEntry(project, namespaceResolvingClassLoader).getGrammarPool();
+	}
+
+	private static ResolverCacheEntry getEntry(IProject project, ClassLoader namespaceResolvingClassLoader) {
+		boolean fromClasspath = namespaceResolvingClassLoader != BeansCorePlugin.getClassLoader();
+		synchronized (RESOLVER_CACHE) {
+			ResolverCacheEntry entry = RESOLVER_CACHE.get(project);
+			if (entry != null && entry.isFromClasspath() != fromClasspath) {
+				// the namespace preferences of the project changed
+				removeResolverEntryFromCache(entry);
+				entry = null;
+			}
+			if (entry == null) {
+				entry = new ResolverCacheEntry(project, namespaceResolvingClassLoader, fromClasspath);
+				RESOLVER_CACHE.put(project, entry);
+			}
+			return entry;
+		}
+	}
+
+	/**
+	 * Drops the cached resolver of the given project.
+	 */
+	public static void removeEntityResolver(IProject project) {
+		synchronized (RESOLVER_CACHE) {
+			ResolverCacheEntry entry = RESOLVER_CACHE.get(project);
+			if (entry != null) {
+				removeResolverEntryFromCache(entry);
+			}
+		}
+	}
+
+	private static void removeResolverEntryFromCache(ResolverCacheEntry entry) {
+		synchronized (RESOLVER_CACHE) {
+			if (RESOLVER_CACHE.get(entry.getProject()) == entry) {
+				RESOLVER_CACHE.remove(entry.getProject());
+			}
+			entry.dispose();
+		}
+	}
+
+	/**
+	 * Internal cache entry
+	 */
+	private static class ResolverCacheEntry implements IElementChangedListener {
+
+		private final IProject project;
+
+		private final boolean fromClasspath;
+
+		private final EntityResolver resolver;
+
+		private final SchemaGrammarPool grammarPool;
+
+		public ResolverCacheEntry(IProject project, ClassLoader classLoader, boolean fromClasspath) {
+			this.project = project;
+			this.fromClasspath = fromClasspath;
+			this.resolver = new XmlCatalogDelegatingEntityResolver(new BeansDtdResolver(), new PluggableSchemaResolver(
+					classLoader));
+			// the plugin classloader is shared by all projects that don't load namespaces from their classpath
+			this.grammarPool = (fromClasspath ? new SchemaGrammarPool() : SchemaGrammarPool.getGrammarPool(classLoader));
+			JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE);
+		}
+
+		public void dispose() {
+			JavaCore.removeElementChangedListener(this);
+			if (fromClasspath) {
+				grammarPool.clear();
+			}
+		}
+
+		public void elementChanged(ElementChangedEvent event) {
+			if (!project.isAccessible()) {
+				removeResolverEntryFromCache(this);
+				return;
+			}
+			IJavaProject javaProject = JdtUtils.getJavaProject(project);
+			if (javaProject != null) {
+				for (IJavaElementDelta delta : event.getDelta().getAffectedChildren()) {
+					if ((delta.getFlags() & IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED) != 0
+							|| (delta.getFlags() & IJavaElementDelta.F_CLASSPATH_CHANGED) != 0) {
+						if (javaProject.equals(delta.getElement()) || javaProject.isOnClasspath(delta.getElement())) {
+							removeResolverEntryFromCache(this);
+							return;
+						}
+					}
+				}
+			}
+		}
+
+		public EntityResolver getResolver() {
+			return resolver;
+		}
+
+		public SchemaGrammarPool getGrammarPool() {
+			return grammarPool;
+		}
+
+		public boolean isFromClasspath() {
+			return fromClasspath;
+		}
+
+		public IProject getProject() {
+			return project;
+		}
+
+	}
+
+}
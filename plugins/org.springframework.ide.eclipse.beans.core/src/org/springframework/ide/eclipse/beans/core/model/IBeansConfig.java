@@ -11,6 +11,7 @@
 package org.springframework.ide.eclipse.beans.core.model;
 
 import java.util.Set;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.runtime.QualifiedName;
 import org.springframework.beans.factory.parsing.CompositeComponentDefinition;
@@ -115,4 +116,13 @@ public interface IBeansConfig extends IBeansModelElement, IResourceModelElement,
 	 */
 	BeanDefinitionRegistry getRawBeanDefinitions(CompositeComponentDefinition context);
 
+	/**
+	 * Loads this config in the background unless it is loaded already. Concurrent requests share a single load, so
+	 * that callers like views can show a loading state instead of blocking until the returned future is done. A load
+	 * that runs for longer than the configured loading timeout gets canceled.
+	 * @return future that provides this config once it is loaded
+	 * @since 3.9.5
+	 */
+	Future<IBeansConfig> loadAsync();
+
 }
@@ -16,6 +16,9 @@ import java.util.Set;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
 import org.springsource.ide.eclipse.commons.core.SpringCoreUtils;
 
@@ -53,5 +56,18 @@ public abstract class AbstractJavaConfigLocator implements IJavaConfigLocator {
 	public void configureBeansConfigSet(IBeansConfigSet configSet) {
 		// no-op
 	}
+
+	/**
+	 * Locates the types within the given search scope that should be {@link IBeansConfig}s.
+	 * <p>
+	 * Locators implementing this method can be re-run on changed compilation units only, see
+	 * {@link JavaConfigLocatorCache}. This method must find the same types in a scope of compilation units
+	 * as {@link #locateJavaConfigs(IProject, IProgressMonitor)} finds in these units.
+	 * @return a set of {@link IType} or <code>null</code> if this locator only supports project-wide searches
+	 * @since 3.9.5
+	 */
+	public Set<IType> locateJavaConfigs(IJavaSearchScope scope, IProgressMonitor monitor) {
+		return null;
+	}
 	
 }
@@ -10,17 +10,17 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.core.model.locate;
 
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.search.IJavaSearchConstants;
 import org.eclipse.jdt.core.search.IJavaSearchScope;
-import org.eclipse.jdt.core.search.SearchEngine;
 import org.eclipse.jdt.core.search.SearchPattern;
 import org.springsource.ide.eclipse.commons.core.JdtUtils;
 
@@ -29,34 +29,46 @@ import org.springsource.ide.eclipse.commons.core.JdtUtils;
  */
 public class AutoConfigurationJavaConfigLocator extends AbstractJavaConfigLocator {
 
+	private static final List<String> AUTO_CONFIG_ANNOTATIONS = Arrays.asList(
+			"org.springframework.boot.autoconfigure.EnableAutoConfiguration",
+			"org.springframework.boot.autoconfigure.SpringBootApplication",
+			"org.springframework.cloud.client.SpringCloudApplication");
+
 	@Override
 	public Set<IType> locateJavaConfigs(IProject project,
 			IProgressMonitor monitor) {
 		
-		Set<IType> types = new HashSet<IType>();
 		IJavaProject javaProj = JdtUtils.getJavaProject(project);
 		if (javaProj != null) {
-			IJavaSearchScope sources = SearchEngine.createJavaSearchScope(new IJavaElement[] { javaProj }, 
-					IJavaSearchScope.SOURCES);
-			
-			SearchPattern enableAutoConfigPattern = SearchPattern.createPattern("org.springframework.boot.autoconfigure.EnableAutoConfiguration",
-					IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-					SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-			SearchPattern bootAutoConfigPattern = SearchPattern.createPattern("org.springframework.boot.autoconfigure.SpringBootApplication",
-					IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-					SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-			SearchPattern cloudConfigPattern = SearchPattern.createPattern("org.springframework.cloud.client.SpringCloudApplication",
-					IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-					SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+			return filterCandidates(org.springframework.ide.eclipse.core.java.JdtUtils.findAnnotatedTypes(javaProj,
+					AUTO_CONFIG_ANNOTATIONS));
+		}
+		return new HashSet<IType>();
+	}
 
-			SearchPattern pattern = SearchPattern.createOrPattern(enableAutoConfigPattern, bootAutoConfigPattern);
-			pattern = SearchPattern.createOrPattern(pattern, cloudConfigPattern);
+	@Override
+	public Set<IType> locateJavaConfigs(IJavaSearchScope scope, IProgressMonitor monitor) {
+		SearchPattern enableAutoConfigPattern = SearchPattern.createPattern("org.springframework.boot.autoconfigure.EnableAutoConfiguration",
+				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
+				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+		SearchPattern bootAutoConfigPattern = SearchPattern.createPattern("org.springframework.boot.autoconfigure.SpringBootApplication",
+				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
+				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+		SearchPattern cloudConfigPattern = SearchPattern.createPattern("org.springframework.cloud.client.SpringCloudApplication",
+				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
+				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
 
-			Set<IType> candidates = org.springframework.ide.eclipse.core.java.JdtUtils.searchForJavaConfigs(pattern, sources);
-			for (IType candidate : candidates) {
-				if (!candidate.getElementName().contains("Test")) {
-					types.add(candidate);
-				}
+		SearchPattern pattern = SearchPattern.createOrPattern(enableAutoConfigPattern, bootAutoConfigPattern);
+		pattern = SearchPattern.createOrPattern(pattern, cloudConfigPattern);
+
+		return filterCandidates(org.springframework.ide.eclipse.core.java.JdtUtils.searchForJavaConfigs(pattern, scope));
+	}
+
+	private Set<IType> filterCandidates(Set<IType> candidates) {
+		Set<IType> types = new HashSet<IType>();
+		for (IType candidate : candidates) {
+			if (!candidate.getElementName().contains("Test")) {
+				types.add(candidate);
 			}
 		}
 		return types;
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.core.model.locate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.springframework.ide.eclipse.core.java.JavaProjectChangeTracker;
+import org.springsource.ide.eclipse.commons.core.JdtUtils;
+
+/**
+ * Caches the types located by {@link IJavaConfigLocator}s per project and compilation unit.
+ * <p>
+ * The first request for a project runs a project-wide search. Afterwards only the compilation units that changed
+ * since the last request are searched again, as far as the locator supports it (see
+ * {@link AbstractJavaConfigLocator#locateJavaConfigs(IJavaSearchScope, IProgressMonitor)}). Changes to the classpath
+ * or the package structure of a project drop all cached results of the project. Like the project-wide search, this
+ * only covers the compilation units of the project itself, not the ones of projects it depends on.
+ * @since 3.9.5
+ */
+public class JavaConfigLocatorCache {
+
+	private static final Map<IProject, ProjectCacheEntry> CACHE = new HashMap<IProject, ProjectCacheEntry>();
+
+	/**
+	 * Returns the types the given locator locates in the given project.
+	 */
+	public static Set<IType> locateJavaConfigs(IJavaConfigLocator locator, IProject project, IProgressMonitor monitor) {
+		if (!(locator instanceof AbstractJavaConfigLocator) || JdtUtils.getJavaProject(project) == null) {
+			return locator.locateJavaConfigs(project, monitor);
+		}
+		return getProjectCacheEntry(project).getLocatorResults((AbstractJavaConfigLocator) locator).locateJavaConfigs(
+				project, monitor);
+	}
+
+	/**
+	 * Drops all cached results of the given project.
+	 */
+	public static void clear(IProject project) {
+		synchronized (CACHE) {
+			ProjectCacheEntry entry = CACHE.remove(project);
+			if (entry != null) {
+				entry.dispose();
+			}
+		}
+	}
+
+	private static ProjectCacheEntry getProjectCacheEntry(IProject project) {
+		synchronized (CACHE) {
+			ProjectCacheEntry entry = CACHE.get(project);
+			if (entry == null) {
+				entry = new ProjectCacheEntry(project);
+				CACHE.put(project, entry);
+			}
+			return entry;
+		}
+	}
+
+	private static void removeProjectCacheEntry(ProjectCacheEntry entry) {
+		synchronized (CACHE) {
+			if (CACHE.get(entry.getProject()) == entry) {
+				CACHE.remove(entry.getProject());
+			}
+			entry.dispose();
+		}
+	}
+
+	/**
+	 * Internal cache entry of a project, keeping track of the changed compilation units of the project
+	 */
+	private static class ProjectCacheEntry implements JavaProjectChangeTracker.Listener {
+
+		private final IProject project;
+
+		private final IJavaProject javaProject;
+
+		private final Map<String, LocatorResults> locatorResults = new HashMap<String, LocatorResults>();
+
+		public ProjectCacheEntry(IProject project) {
+			this.project = project;
+			this.javaProject = JdtUtils.getJavaProject(project);
+			JavaProjectChangeTracker.addListener(javaProject, this);
+		}
+
+		public synchronized LocatorResults getLocatorResults(AbstractJavaConfigLocator locator) {
+			String key = locator.getClass().getName();
+			LocatorResults results = locatorResults.get(key);
+			if (results == null) {
+				results = new LocatorResults(locator);
+				locatorResults.put(key, results);
+			}
+			return results;
+		}
+
+		public IProject getProject() {
+			return project;
+		}
+
+		public void dispose() {
+			JavaProjectChangeTracker.removeListener(javaProject, this);
+		}
+
+		public void unitsChanged(Set<ICompilationUnit> units, boolean requiredProjectsChanged) {
+			// required projects are not part of the project-wide search either
+			if (!units.isEmpty()) {
+				synchronized (this) {
+					for (LocatorResults results : locatorResults.values()) {
+						results.markChanged(units);
+					}
+				}
+			}
+		}
+
+		public void projectChanged() {
+			removeProjectCacheEntry(this);
+		}
+	}
+
+	/**
+	 * Internal cache of the types located by one locator, by compilation unit
+	 */
+	private static class LocatorResults {
+
+		private final AbstractJavaConfigLocator locator;
+
+		private Map<ICompilationUnit, Set<IType>> typesByUnit;
+
+		// updated by element change notifications without waiting for a running search
+		private final Set<ICompilationUnit> changedUnits = Collections
+				.newSetFromMap(new ConcurrentHashMap<ICompilationUnit, Boolean>());
+
+		public LocatorResults(AbstractJavaConfigLocator locator) {
+			this.locator = locator;
+		}
+
+		public void markChanged(Set<ICompilationUnit> units) {
+			changedUnits.addAll(units);
+		}
+
+		public synchronized Set<IType> locateJavaConfigs(IProject project, IProgressMonitor monitor) {
+			try {
+				if (typesByUnit == null) {
+					changedUnits.clear();
+					Set<IType> types = locator.locateJavaConfigs(project, monitor);
+					Map<ICompilationUnit, Set<IType>> typesByUnit = new HashMap<ICompilationUnit, Set<IType>>();
+					if (!addTypes(typesByUnit, types)) {
+						// types outside of compilation units can't be tracked
+						return types;
+					}
+					this.typesByUnit = typesByUnit;
+				}
+				else if (!changedUnits.isEmpty()) {
+					List<ICompilationUnit> units = new ArrayList<ICompilationUnit>(changedUnits);
+					changedUnits.removeAll(units);
+					List<IJavaElement> existingUnits = new ArrayList<IJavaElement>();
+					for (ICompilationUnit unit : units) {
+						typesByUnit.remove(unit);
+						if (unit.exists()) {
+							existingUnits.add(unit);
+						}
+					}
+					if (!existingUnits.isEmpty()) {
+						IJavaSearchScope scope = SearchEngine.createJavaSearchScope(existingUnits
+								.toArray(new IJavaElement[existingUnits.size()]), IJavaSearchScope.SOURCES);
+						Set<IType> types = locator.locateJavaConfigs(scope, monitor);
+						if (types == null || !addTypes(typesByUnit, types)) {
+							// the locator doesn't support incremental searches
+							typesByUnit = null;
+							return locateJavaConfigs(project, monitor);
+						}
+					}
+				}
+			}
+			catch (RuntimeException e) {
+				typesByUnit = null;
+				throw e;
+			}
+
+			Set<IType> types = new LinkedHashSet<IType>();
+			for (Set<IType> unitTypes : typesByUnit.values()) {
+				types.addAll(unitTypes);
+			}
+			return types;
+		}
+
+		/**
+		 * Adds the given types to the compilation units declaring them.
+		 * @return <code>false</code> if one of the types is not declared in a compilation unit
+		 */
+		private boolean addTypes(Map<ICompilationUnit, Set<IType>> typesByUnit, Set<IType> types) {
+			for (IType type : types) {
+				ICompilationUnit unit = type.getCompilationUnit();
+				if (unit == null) {
+					return false;
+				}
+				Set<IType> unitTypes = typesByUnit.get(unit);
+				if (unitTypes == null) {
+					unitTypes = new HashSet<IType>();
+					typesByUnit.put(unit, unitTypes);
+				}
+				unitTypes.add(type);
+			}
+			return true;
+		}
+	}
+
+}
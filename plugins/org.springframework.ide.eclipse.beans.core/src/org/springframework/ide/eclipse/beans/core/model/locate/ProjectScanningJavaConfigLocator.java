@@ -15,11 +15,9 @@ import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.search.IJavaSearchScope;
-import org.eclipse.jdt.core.search.SearchEngine;
 import org.springsource.ide.eclipse.commons.core.JdtUtils;
 
 /**
@@ -29,16 +27,23 @@ public class ProjectScanningJavaConfigLocator extends AbstractJavaConfigLocator
 
 	@Override
 	public Set<IType> locateJavaConfigs(IProject project, IProgressMonitor monitor) {
-		Set<IType> types = new HashSet<IType>();
 		IJavaProject javaProj = JdtUtils.getJavaProject(project);
 		if (javaProj != null) {
-			IJavaSearchScope sources = SearchEngine.createJavaSearchScope(new IJavaElement[] { javaProj },
-					IJavaSearchScope.SOURCES);
-			Set<IType> candidates = org.springframework.ide.eclipse.core.java.JdtUtils.searchForJavaConfigs(sources);
-			for (IType candidate : candidates) {
-				if (!candidate.getElementName().contains("Test")) {
-					types.add(candidate);
-				}
+			return filterCandidates(org.springframework.ide.eclipse.core.java.JdtUtils.findJavaConfigs(javaProj));
+		}
+		return new HashSet<IType>();
+	}
+
+	@Override
+	public Set<IType> locateJavaConfigs(IJavaSearchScope scope, IProgressMonitor monitor) {
+		return filterCandidates(org.springframework.ide.eclipse.core.java.JdtUtils.searchForJavaConfigs(scope));
+	}
+
+	private Set<IType> filterCandidates(Set<IType> candidates) {
+		Set<IType> types = new HashSet<IType>();
+		for (IType candidate : candidates) {
+			if (!candidate.getElementName().contains("Test")) {
+				types.add(candidate);
 			}
 		}
 		return types;
@@ -11,6 +11,7 @@
 package org.springframework.ide.eclipse.beans.ui.live.model;
 
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
@@ -112,6 +113,17 @@ public class LiveBean extends AbstractLiveBeansModelElement {
 		injectedInto.add(bean);
 	}
 
+	void removeDependency(LiveBean dependency) {
+		dependencies.remove(dependency);
+		dependency.injectedInto.remove(this);
+	}
+
+	void setAttributes(Map<String, String> newAttributes) {
+		attributes.clear();
+		attributes.putAll(newAttributes);
+		displayName = null;
+	}
+
 	public boolean isInnerBean() {
 		return innerBean;
 	}
@@ -45,4 +45,9 @@ public class LiveBeansContext extends LiveBeansGroup<LiveBean> {
 		attributes.put(ATTR_PARENT, parent.getLabel());
 	}
 
+	void clearParent() {
+		this.parent = null;
+		attributes.remove(ATTR_PARENT);
+	}
+
 }
@@ -0,0 +1,480 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.beans.ui.live.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Structural difference between two snapshots of the beans of an application:
+ * the contexts, beans and dependency relations that were added, removed or changed.
+ * <p>
+ * Contexts are matched by label and beans by the label of their context and their id,
+ * so that beans with the same id in different contexts, e.g. a child context overriding
+ * a bean of its parent, are told apart. Inner beans, which only exist as the target of
+ * a dependency, are matched by the bean owning them and their id. A bean or context
+ * 'changed' when its attributes differ.
+ * <p>
+ * Viewers showing the old model can {@link #apply()} the delta to it, which updates
+ * the old model in place to match the new one. Elements that didn't change keep their
+ * identity so that viewers only need to add, remove and update the elements reported by
+ * the delta rather than rebuilding everything.
+ */
+public class LiveBeansModelDelta {
+
+	/**
+	 * A dependency of one bean on another.
+	 */
+	public static final class Relation {
+
+		private final LiveBean source;
+
+		private final LiveBean target;
+
+		private final String sourceKey;
+
+		private final String targetKey;
+
+		private Relation(LiveBean source, String sourceKey, LiveBean target, String targetKey) {
+			this.source = source;
+			this.target = target;
+			this.sourceKey = sourceKey;
+			this.targetKey = targetKey;
+		}
+
+		public LiveBean getSource() {
+			return source;
+		}
+
+		public LiveBean getTarget() {
+			return target;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof Relation) {
+				return getKey().equals(((Relation) obj).getKey());
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return getKey().hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return "Relation(" + getKey() + ")";
+		}
+
+		private String getKey() {
+			return sourceKey + " -> " + targetKey;
+		}
+	}
+
+	private final LiveBeansModel oldModel;
+
+	private List<LiveBeansContext> addedContexts = new ArrayList<>();
+
+	private final List<LiveBeansContext> removedContexts = new ArrayList<>();
+
+	private final Map<LiveBeansContext, LiveBeansContext> changedContexts = new LinkedHashMap<>();
+
+	private Map<String, LiveBean> addedBeans = new LinkedHashMap<>();
+
+	private final List<LiveBean> removedBeans = new ArrayList<>();
+
+	private final Map<LiveBean, LiveBean> changedBeans = new LinkedHashMap<>();
+
+	private List<Relation> addedRelations = new ArrayList<>();
+
+	private final List<Relation> removedRelations = new ArrayList<>();
+
+	private boolean applied = false;
+
+	private LiveBeansModelDelta(LiveBeansModel oldModel) {
+		this.oldModel = oldModel;
+	}
+
+	/**
+	 * Computes the changes that turn <code>oldModel</code> into <code>newModel</code>.
+	 * Neither model is modified.
+	 */
+	public static LiveBeansModelDelta compute(LiveBeansModel oldModel, LiveBeansModel newModel) {
+		LiveBeansModelDelta delta = new LiveBeansModelDelta(oldModel);
+		if (oldModel == newModel) {
+			return delta;
+		}
+
+		Map<String, LiveBeansContext> oldContexts = contextsByLabel(oldModel);
+		Map<String, LiveBeansContext> newContexts = contextsByLabel(newModel);
+		for (LiveBeansContext context : newContexts.values()) {
+			LiveBeansContext oldContext = oldContexts.get(context.getLabel());
+			if (oldContext == null) {
+				delta.addedContexts.add(context);
+			}
+			else if (!oldContext.getAttributes().equals(context.getAttributes())) {
+				delta.changedContexts.put(oldContext, context);
+			}
+		}
+		for (LiveBeansContext context : oldContexts.values()) {
+			if (!newContexts.containsKey(context.getLabel())) {
+				delta.removedContexts.add(context);
+			}
+		}
+
+		Map<String, LiveBean> oldBeans = beansByKey(oldModel);
+		Map<String, LiveBean> newBeans = beansByKey(newModel);
+		for (Map.Entry<String, LiveBean> entry : newBeans.entrySet()) {
+			LiveBean oldBean = oldBeans.get(entry.getKey());
+			if (oldBean == null) {
+				delta.addedBeans.put(entry.getKey(), entry.getValue());
+			}
+			else if (!oldBean.getAttributes().equals(entry.getValue().getAttributes())) {
+				delta.changedBeans.put(oldBean, entry.getValue());
+			}
+		}
+		for (Map.Entry<String, LiveBean> entry : oldBeans.entrySet()) {
+			if (!newBeans.containsKey(entry.getKey())) {
+				delta.removedBeans.add(entry.getValue());
+			}
+		}
+
+		Map<String, Relation> oldRelations = relationsByKey(oldModel);
+		Map<String, Relation> newRelations = relationsByKey(newModel);
+		for (Map.Entry<String, Relation> entry : newRelations.entrySet()) {
+			if (!oldRelations.containsKey(entry.getKey())) {
+				delta.addedRelations.add(entry.getValue());
+			}
+		}
+		for (Map.Entry<String, Relation> entry : oldRelations.entrySet()) {
+			if (!newRelations.containsKey(entry.getKey())) {
+				delta.removedRelations.add(entry.getValue());
+			}
+		}
+		return delta;
+	}
+
+	public boolean isEmpty() {
+		return addedContexts.isEmpty() && removedContexts.isEmpty() && changedContexts.isEmpty()
+				&& addedBeans.isEmpty() && removedBeans.isEmpty() && changedBeans.isEmpty()
+				&& addedRelations.isEmpty() && removedRelations.isEmpty();
+	}
+
+	/**
+	 * @return <code>true</code> if applying the delta adds or removes beans or
+	 * relations, as opposed to only changing attributes.
+	 */
+	public boolean isStructural() {
+		return !addedContexts.isEmpty() || !removedContexts.isEmpty()
+				|| !addedBeans.isEmpty() || !removedBeans.isEmpty()
+				|| !addedRelations.isEmpty() || !removedRelations.isEmpty();
+	}
+
+	/**
+	 * @return Added contexts. Once the delta is applied these are the contexts created in
+	 * the old model, before that they are the contexts of the new model.
+	 */
+	public List<LiveBeansContext> getAddedContexts() {
+		return Collections.unmodifiableList(addedContexts);
+	}
+
+	public List<LiveBeansContext> getRemovedContexts() {
+		return Collections.unmodifiableList(removedContexts);
+	}
+
+	/**
+	 * @return Contexts of the old model whose attributes changed.
+	 */
+	public Collection<LiveBeansContext> getChangedContexts() {
+		return Collections.unmodifiableSet(changedContexts.keySet());
+	}
+
+	/**
+	 * @return Added beans, including inner beans. Once the delta is applied these are the
+	 * beans created in the old model, before that they are the beans of the new model.
+	 */
+	public List<LiveBean> getAddedBeans() {
+		return Collections.unmodifiableList(new ArrayList<>(addedBeans.values()));
+	}
+
+	public List<LiveBean> getRemovedBeans() {
+		return Collections.unmodifiableList(removedBeans);
+	}
+
+	/**
+	 * @return Beans of the old model whose attributes changed.
+	 */
+	public Collection<LiveBean> getChangedBeans() {
+		return Collections.unmodifiableSet(changedBeans.keySet());
+	}
+
+	/**
+	 * @return Added relations. Once the delta is applied these relate beans of the old
+	 * model, before that they relate beans of the new model.
+	 */
+	public List<Relation> getAddedRelations() {
+		return Collections.unmodifiableList(addedRelations);
+	}
+
+	public List<Relation> getRemovedRelations() {
+		return Collections.unmodifiableList(removedRelations);
+	}
+
+	/**
+	 * Updates the old model in place so that it matches the new model. Added elements are
+	 * copied, the old model never shares elements with the new one. Like the models
+	 * themselves this isn't thread safe, viewers should apply deltas on the UI thread.
+	 * <p>
+	 * Like the parsed models, contexts keep all their beans while the beans of the model
+	 * and its resources only hold the last bean for each id, i.e. beans shadowed by a bean
+	 * with the same id in a later context are only found in their context.
+	 */
+	public void apply() {
+		if (applied) {
+			throw new IllegalStateException("Delta has already been applied");
+		}
+		applied = true;
+
+		Map<String, LiveBean> beans = beansByKey(oldModel);
+		Map<String, LiveBeansContext> contexts = contextsByLabel(oldModel);
+		Map<LiveBean, String> shownResources = new IdentityHashMap<>();
+		for (LiveBean bean : oldModel.getBeans()) {
+			shownResources.put(bean, bean.getResource());
+		}
+
+		for (Relation relation : removedRelations) {
+			relation.getSource().removeDependency(relation.getTarget());
+		}
+
+		for (LiveBean bean : removedBeans) {
+			if (!bean.isInnerBean()) {
+				removeFromContext(bean, contexts);
+			}
+		}
+
+		List<LiveBeansContext> copiedContexts = new ArrayList<>(addedContexts.size());
+		for (LiveBeansContext context : addedContexts) {
+			LiveBeansContext copy = new LiveBeansContext(context.getLabel());
+			copy.attributes.putAll(context.attributes);
+			contexts.put(copy.getLabel(), copy);
+			oldModel.getBeansByContext().add(copy);
+			copiedContexts.add(copy);
+		}
+		for (int i = 0; i < copiedContexts.size(); i++) {
+			updateParent(copiedContexts.get(i), addedContexts.get(i), contexts);
+		}
+		for (Map.Entry<LiveBeansContext, LiveBeansContext> entry : changedContexts.entrySet()) {
+			LiveBeansContext context = entry.getKey();
+			context.attributes.clear();
+			context.attributes.putAll(entry.getValue().attributes);
+			updateParent(context, entry.getValue(), contexts);
+		}
+
+		// beans are matched within their context, a bean never moves to another context
+		for (Map.Entry<LiveBean, LiveBean> entry : changedBeans.entrySet()) {
+			entry.getKey().setAttributes(entry.getValue().getAttributes());
+		}
+
+		for (LiveBeansContext context : removedContexts) {
+			contexts.remove(context.getLabel());
+			removeExact(oldModel.getBeansByContext(), context);
+		}
+
+		Map<String, LiveBean> copiedBeans = new LinkedHashMap<>();
+		for (Map.Entry<String, LiveBean> entry : addedBeans.entrySet()) {
+			LiveBean bean = entry.getValue();
+			LiveBean copy = new LiveBean(oldModel.getWorkspaceContext(), bean.getId(), bean.isInnerBean());
+			copy.setAttributes(bean.getAttributes());
+			beans.put(entry.getKey(), copy);
+			if (!copy.isInnerBean()) {
+				addToContext(copy, contexts);
+			}
+			copiedBeans.put(entry.getKey(), copy);
+		}
+		addedBeans = copiedBeans;
+		addedContexts = copiedContexts;
+
+		updateShownBeans(shownResources);
+
+		List<Relation> resolvedRelations = new ArrayList<>(addedRelations.size());
+		for (Relation relation : addedRelations) {
+			LiveBean source = beans.get(relation.sourceKey);
+			LiveBean target = beans.get(relation.targetKey);
+			if (source != null && target != null) {
+				source.addDependency(target);
+				resolvedRelations.add(new Relation(source, relation.sourceKey, target, relation.targetKey));
+			}
+		}
+		addedRelations = resolvedRelations;
+	}
+
+	/**
+	 * Recomputes the beans of the model from its contexts, keeping the last bean for each
+	 * id like the parsers do, and regroups the beans that were shown or hidden or whose
+	 * resource changed.
+	 * @param shownResources the beans of the model before applying the delta, mapped to
+	 * the resource they were grouped under
+	 */
+	private void updateShownBeans(Map<LiveBean, String> shownResources) {
+		Map<String, LiveBean> shown = new LinkedHashMap<>();
+		for (LiveBeansContext context : oldModel.getBeansByContext()) {
+			for (LiveBean bean : context.getElements()) {
+				shown.put(bean.getId(), bean);
+			}
+		}
+		Set<LiveBean> stillShown = Collections.newSetFromMap(new IdentityHashMap<>());
+		stillShown.addAll(shown.values());
+		for (Map.Entry<LiveBean, String> entry : shownResources.entrySet()) {
+			LiveBean bean = entry.getKey();
+			if (!stillShown.contains(bean) || !Objects.equals(entry.getValue(), bean.getResource())) {
+				removeFromResource(bean, entry.getValue());
+			}
+		}
+		for (LiveBean bean : shown.values()) {
+			if (!shownResources.containsKey(bean) || !Objects.equals(shownResources.get(bean), bean.getResource())) {
+				addToResource(bean);
+			}
+		}
+		oldModel.getBeans().clear();
+		oldModel.getBeans().addAll(shown.values());
+	}
+
+	private void updateParent(LiveBeansContext context, LiveBeansContext newContext, Map<String, LiveBeansContext> contexts) {
+		LiveBeansContext parent = newContext.getParent() == null ? null : contexts.get(newContext.getParent().getLabel());
+		if (parent == null) {
+			context.clearParent();
+		}
+		else {
+			context.setParent(parent);
+		}
+	}
+
+	private void removeFromContext(LiveBean bean, Map<String, LiveBeansContext> contexts) {
+		LiveBeansContext context = contexts.get(getContextLabel(bean));
+		if (context != null) {
+			removeExact(context.getElements(), bean);
+		}
+	}
+
+	private void addToContext(LiveBean bean, Map<String, LiveBeansContext> contexts) {
+		LiveBeansContext context = contexts.get(getContextLabel(bean));
+		if (context != null) {
+			context.addElement(bean);
+		}
+	}
+
+	private void removeFromResource(LiveBean bean, String label) {
+		LiveBeansResource resource = findResource(label);
+		if (resource != null) {
+			removeExact(resource.getElements(), bean);
+			if (resource.getElements().isEmpty()) {
+				removeExact(oldModel.getBeansByResource(), resource);
+			}
+		}
+	}
+
+	private void addToResource(LiveBean bean) {
+		LiveBeansResource resource = findResource(bean.getResource());
+		if (resource == null) {
+			resource = new LiveBeansResource(bean.getResource());
+			oldModel.getBeansByResource().add(resource);
+		}
+		resource.addElement(bean);
+	}
+
+	private LiveBeansResource findResource(String label) {
+		for (LiveBeansResource resource : oldModel.getBeansByResource()) {
+			if (Objects.equals(resource.getLabel(), label)) {
+				return resource;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Model elements compare by their contents, remove the exact instance.
+	 */
+	private static <T> void removeExact(List<T> elements, T element) {
+		elements.removeIf(e -> e == element);
+	}
+
+	private static String getContextLabel(LiveBean bean) {
+		return bean.getAttributes().get(LiveBeansContext.ATTR_CONTEXT);
+	}
+
+	private static String key(LiveBean bean) {
+		return "[" + getContextLabel(bean) + "] " + bean.getId();
+	}
+
+	/**
+	 * @return The key of a dependency of the bean with the given key. Inner beans are
+	 * created for each bean depending on them, they are only unique per owning bean.
+	 */
+	private static String key(String ownerKey, LiveBean dependency) {
+		return dependency.isInnerBean() ? ownerKey + " > (inner) " + dependency.getId() : key(dependency);
+	}
+
+	private static Map<String, LiveBeansContext> contextsByLabel(LiveBeansModel model) {
+		Map<String, LiveBeansContext> contexts = new LinkedHashMap<>();
+		for (LiveBeansContext context : model.getBeansByContext()) {
+			contexts.put(context.getLabel(), context);
+		}
+		return contexts;
+	}
+
+	/**
+	 * @return All the beans of the model, including the beans shadowed by a bean with the
+	 * same id in another context and the inner beans that are only reachable as dependencies.
+	 */
+	private static Map<String, LiveBean> beansByKey(LiveBeansModel model) {
+		Map<String, LiveBean> beans = new LinkedHashMap<>();
+		for (LiveBeansContext context : model.getBeansByContext()) {
+			for (LiveBean bean : context.getElements()) {
+				beans.put(key(bean), bean);
+			}
+		}
+		for (LiveBeansContext context : model.getBeansByContext()) {
+			for (LiveBean bean : context.getElements()) {
+				String key = key(bean);
+				for (LiveBean dependency : bean.getDependencies()) {
+					if (dependency.isInnerBean()) {
+						beans.put(key(key, dependency), dependency);
+					}
+				}
+			}
+		}
+		return beans;
+	}
+
+	private static Map<String, Relation> relationsByKey(LiveBeansModel model) {
+		Map<String, Relation> relations = new LinkedHashMap<>();
+		for (LiveBeansContext context : model.getBeansByContext()) {
+			for (LiveBean bean : context.getElements()) {
+				String key = key(bean);
+				for (LiveBean dependency : bean.getDependencies()) {
+					Relation relation = new Relation(bean, key, dependency, key(key, dependency));
+					relations.put(relation.getKey(), relation);
+				}
+			}
+		}
+		return relations;
+	}
+
+}
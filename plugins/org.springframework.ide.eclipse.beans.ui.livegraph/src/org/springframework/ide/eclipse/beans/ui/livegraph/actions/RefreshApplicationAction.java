@@ -38,7 +38,7 @@ public class RefreshApplicationAction extends Action {
 		try {
 			LiveBeansModel model = view.getInput();
 			if (model != null) {
-				view.setInput(LiveBeansModelGenerator.refreshModel(model));
+				view.updateInput(LiveBeansModelGenerator.refreshModel(model));
 			}
 		}
 		catch (CoreException e) {
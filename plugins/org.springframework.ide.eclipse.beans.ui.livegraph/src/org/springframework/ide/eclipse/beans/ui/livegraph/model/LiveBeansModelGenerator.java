@@ -12,8 +12,6 @@ package org.springframework.ide.eclipse.beans.ui.livegraph.model;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -23,8 +21,6 @@ import javax.management.MBeanServerInvocationHandler;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 import javax.management.remote.JMXConnector;
-import javax.management.remote.JMXConnectorFactory;
-import javax.management.remote.JMXServiceURL;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
@@ -38,7 +34,7 @@ import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansJsonParser;
 import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansModel;
 import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansModelCollection;
 import org.springframework.ide.eclipse.beans.ui.livegraph.LiveGraphUiPlugin;
-import org.springsource.ide.eclipse.commons.core.StatusHandler;
+import org.springframework.ide.eclipse.jmx.JMXConnectionPool;
 
 /**
  * Loads an MBean exposed by the Spring Framework and generates a
@@ -102,8 +98,9 @@ public class LiveBeansModelGenerator {
 
 	
 	/**
-	 * This method will attempt to create a {@link JMXConnector} from the given
-	 * parameters and will close it when it is finished. If the connection has
+	 * This method will attempt to lease a {@link JMXConnector} for the given
+	 * parameters from the shared {@link JMXConnectionPool} and will release it
+	 * when it is finished. If the connection has
 	 * failed, clients may capture the thrown {@link CoreException} and inform
 	 * the user. This method is UI safe, and will not block the UI with network
 	 * operations.
@@ -122,8 +119,9 @@ public class LiveBeansModelGenerator {
 	}
 	
 	/**
-	 * This method will attempt to create a {@link JMXConnector} from the given
-	 * parameters and will close it when it is finished. If the connection has
+	 * This method will attempt to lease a {@link JMXConnector} for the given
+	 * parameters from the shared {@link JMXConnectionPool} and will release it
+	 * when it is finished. If the connection has
 	 * failed, clients may capture the thrown {@link CoreException} and inform
 	 * the user. This method is UI safe, and will not block the UI with network
 	 * operations.
@@ -146,24 +144,24 @@ public class LiveBeansModelGenerator {
 		Job jmxOperation = new Job("Executing Server Command") {
 			@Override
 			protected IStatus run(IProgressMonitor monitor) {
-				JMXConnector connector = null;
+				JMXConnectionPool.Lease lease = null;
 				try {
-					connector = setupConnector(serviceUrl, username, password);
-					result[0] = connectToModel(connector, new LiveBeansSession(serviceUrl, username, password, appName, project));
+					lease = leaseConnector(serviceUrl, username, password);
+					if (lease != null) {
+						result[0] = connectToModel(lease.getConnector(), new LiveBeansSession(serviceUrl, username, password, appName, project));
+					}
 				}
 				catch (CoreException e) {
+					if (lease != null && e.getCause() instanceof IOException) {
+						// don't hand a broken connection to the next refresh
+						lease.invalidate();
+					}
 					status[0] = e;
 				}
 				finally {
 					latch.countDown();
-					if (connector != null) {
-						try {
-							connector.close();
-						}
-						catch (IOException e) {
-							StatusHandler.log(new Status(IStatus.ERROR, LiveGraphUiPlugin.PLUGIN_ID,
-									"An error occurred while closing connection to server.", e));
-						}
+					if (lease != null) {
+						lease.dispose();
 					}
 				}
 				return Status.OK_STATUS;
@@ -225,16 +223,11 @@ public class LiveBeansModelGenerator {
 		return originalModel;
 	}
 
-	private static JMXConnector setupConnector(String serviceUrl, String username, String password)
+	private static JMXConnectionPool.Lease leaseConnector(String serviceUrl, String username, String password)
 			throws CoreException {
 		try {
 			if (serviceUrl != null && serviceUrl.length() > 0) {
-				Map<String, String[]> env = new HashMap<String, String[]>();
-				if (username != null && password != null) {
-					String[] creds = new String[] { username, password };
-					env.put(JMXConnector.CREDENTIALS, creds);
-				}
-				return JMXConnectorFactory.connect(new JMXServiceURL(serviceUrl), env);
+				return JMXConnectionPool.getDefault().lease(serviceUrl, username, password);
 			}
 		}
 		catch (MalformedURLException e) {
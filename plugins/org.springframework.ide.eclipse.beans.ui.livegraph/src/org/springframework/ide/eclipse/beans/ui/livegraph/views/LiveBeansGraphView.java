@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.ui.livegraph.views;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Objects;
 import java.util.Set;
 
 import org.eclipse.jface.action.Action;
@@ -25,20 +29,25 @@ import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.ISelectionChangedListener;
 import org.eclipse.jface.viewers.ISelectionProvider;
 import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.StructuredViewer;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.ui.IActionBars;
 import org.eclipse.ui.actions.BaseSelectionListenerAction;
 import org.eclipse.ui.part.PageBook;
 import org.eclipse.ui.part.ViewPart;
+import org.eclipse.zest.core.viewers.EntityConnectionData;
 import org.eclipse.zest.core.viewers.GraphViewer;
 import org.eclipse.zest.core.widgets.ZestStyles;
 import org.eclipse.zest.layouts.LayoutStyles;
 import org.springframework.ide.eclipse.beans.ui.live.actions.OpenBeanClassAction;
+import org.springframework.ide.eclipse.beans.ui.live.model.LiveBean;
 import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansModel;
 import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansModelCollection;
+import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansModelDelta;
 import org.springframework.ide.eclipse.beans.ui.live.tree.ContextGroupedBeansContentProvider;
 import org.springframework.ide.eclipse.beans.ui.live.tree.InnerBeansViewerFilter;
 import org.springframework.ide.eclipse.beans.ui.live.tree.LiveBeansTreeLabelProvider;
@@ -318,6 +327,83 @@ public class LiveBeansGraphView extends ViewPart {
 		}
 	}
 
+	/**
+	 * Shows a refreshed model of the current input. When the new model is for the
+	 * same application, only the beans and dependencies that changed are
+	 * updated in the viewers, keeping the layout, expansion state and selection.
+	 */
+	public void updateInput(LiveBeansModel model) {
+		if (activeInput == null || model == null || activeInput == model
+				|| !Objects.equals(activeInput.getApplicationName(), model.getApplicationName())) {
+			setInput(model);
+			return;
+		}
+		LiveBeansModelDelta delta = LiveBeansModelDelta.compute(activeInput, model);
+		if (delta.isEmpty()) {
+			return;
+		}
+		Set<LiveBean> shownBefore = identitySet(activeInput.getBeans());
+		delta.apply();
+		Set<LiveBean> shown = identitySet(activeInput.getBeans());
+		Object[] changed = delta.getChangedBeans().toArray();
+		if (graphViewer != null) {
+			for (LiveBeansModelDelta.Relation relation : delta.getRemovedRelations()) {
+				graphViewer.removeRelationship(new EntityConnectionData(relation.getSource(), relation.getTarget()));
+			}
+			// only the last bean with a given id is a node, beans of other contexts with that id hide it
+			for (LiveBean bean : shownBefore) {
+				if (!shown.contains(bean)) {
+					graphViewer.removeNode(bean);
+				}
+			}
+			for (LiveBean bean : shown) {
+				if (!shownBefore.contains(bean) && isSelected(graphViewer, bean)) {
+					graphViewer.addNode(bean);
+				}
+			}
+			for (LiveBean bean : delta.getRemovedBeans()) {
+				if (bean.isInnerBean()) {
+					graphViewer.removeNode(bean);
+				}
+			}
+			for (LiveBean bean : delta.getAddedBeans()) {
+				if (bean.isInnerBean() && isSelected(graphViewer, bean)) {
+					graphViewer.addNode(bean);
+				}
+			}
+			for (LiveBeansModelDelta.Relation relation : delta.getAddedRelations()) {
+				LiveBean source = relation.getSource();
+				LiveBean target = relation.getTarget();
+				if (graphViewer.findGraphItem(source) != null && graphViewer.findGraphItem(target) != null) {
+					graphViewer.addRelationship(new EntityConnectionData(source, target), source, target);
+				}
+			}
+			graphViewer.update(changed, null);
+			if (delta.isStructural()) {
+				graphViewer.applyLayout();
+			}
+		}
+		if (treeViewer != null) {
+			treeViewer.refresh(false);
+			treeViewer.update(changed, null);
+		}
+	}
+
+	private static Set<LiveBean> identitySet(Collection<LiveBean> beans) {
+		Set<LiveBean> set = Collections.newSetFromMap(new IdentityHashMap<>());
+		set.addAll(beans);
+		return set;
+	}
+
+	private boolean isSelected(StructuredViewer viewer, Object element) {
+		for (ViewerFilter filter : viewer.getFilters()) {
+			if (!filter.select(viewer, activeInput, element)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	public void setFilterInnerBeans(boolean filtered) {
 		if (graphViewer != null) {
 			if (filtered) {
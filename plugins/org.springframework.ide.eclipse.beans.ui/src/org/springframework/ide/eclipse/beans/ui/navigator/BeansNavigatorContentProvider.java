@@ -10,8 +10,13 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.beans.ui.navigator;
 
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -25,6 +30,7 @@ import org.eclipse.ui.navigator.CommonNavigator;
 import org.eclipse.ui.navigator.ICommonContentExtensionSite;
 import org.eclipse.ui.navigator.ICommonContentProvider;
 import org.eclipse.ui.progress.IProgressConstants;
+import org.eclipse.ui.progress.PendingUpdateAdapter;
 import org.springframework.ide.eclipse.beans.core.BeansCorePlugin;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
 import org.springframework.ide.eclipse.beans.core.model.IBeansConfigSet;
@@ -88,6 +94,10 @@ public class BeansNavigatorContentProvider extends BeansModelContentProvider imp
 		else if (parentElement instanceof ILazyInitializedModelElement
 				&& !((ILazyInitializedModelElement) parentElement).isInitialized()) {
 			triggerDeferredElementLoading(parentElement, ((IModelElement) parentElement).getElementParent());
+			if (parentElement instanceof IBeansConfig) {
+				// render the loading state of the config until the job refreshes it
+				return new Object[] { new PendingUpdateAdapter() };
+			}
 			return IModelElement.NO_CHILDREN;
 		}
 		else if (parentElement instanceof IBeansImport) {
@@ -113,14 +123,21 @@ public class BeansNavigatorContentProvider extends BeansModelContentProvider imp
 	@Override
 	protected Object[] getConfigSetChildren(IBeansConfigSet configSet) {
 		Set<ISourceModelElement> children = new LinkedHashSet<ISourceModelElement>();
+		boolean loading = false;
 		for (final IBeansConfig config : configSet.getConfigs()) {
 			if (config instanceof ILazyInitializedModelElement
 					&& !((ILazyInitializedModelElement) config).isInitialized()) {
 				triggerDeferredElementLoading(config, configSet);
+				loading = true;
 				continue;
 			}
 			getConfigChildren(children, config);
 		}
+		if (loading) {
+			Set<Object> childrenAndLoadingState = new LinkedHashSet<Object>(children);
+			childrenAndLoadingState.add(new PendingUpdateAdapter());
+			return childrenAndLoadingState.toArray();
+		}
 		return children.toArray();
 	}
 
@@ -264,12 +281,22 @@ public class BeansNavigatorContentProvider extends BeansModelContentProvider imp
 				monitor.beginTask("Initializing Spring Project '"
 						+ ((IResourceModelElement) config).getElementResource().getFullPath().toString() + "'", bp
 						.getConfigs().size());
+				// queue all configs first, so that they are loaded in parallel
+				Map<IBeansConfig, Future<IBeansConfig>> loads = new LinkedHashMap<IBeansConfig, Future<IBeansConfig>>();
 				for (IBeansConfig beansConfig : bp.getConfigs()) {
-					monitor.setTaskName("Loading '" + beansConfig.getElementName() + "'");
-					beansConfig.getBeans();
+					loads.put(beansConfig, beansConfig.loadAsync());
+				}
+				for (Map.Entry<IBeansConfig, Future<IBeansConfig>> load : loads.entrySet()) {
+					monitor.setTaskName("Loading '" + load.getKey().getElementName() + "'");
+					awaitLoad(load.getValue());
 					monitor.worked(1);
 				}
 			}
+			else if (config instanceof IBeansConfig) {
+				monitor.beginTask("Loading '"
+						+ ((IResourceModelElement) config).getElementResource().getFullPath().toString() + "'", 1);
+				awaitLoad(((IBeansConfig) config).loadAsync());
+			}
 			else {
 				monitor.beginTask("Loading '"
 						+ ((IResourceModelElement) config).getElementResource().getFullPath().toString() + "'", 1);
@@ -295,6 +322,25 @@ public class BeansNavigatorContentProvider extends BeansModelContentProvider imp
 			return Status.OK_STATUS;
 		}
 
+		/**
+		 * Waits for the given load of a config; a failed or canceled load is refreshed as is. The config loader
+		 * cancels loads that run for longer than the configured timeout, so this doesn't wait forever.
+		 */
+		private void awaitLoad(Future<IBeansConfig> load) {
+			try {
+				load.get();
+			}
+			catch (CancellationException e) {
+				// the config is shown with whatever has been loaded
+			}
+			catch (ExecutionException e) {
+				BeansUIPlugin.log(e.getCause());
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
 		public boolean isCoveredBy(ModelJob other) {
 			return other.parent.equals(parent) && other.config.equals(config);
 		}
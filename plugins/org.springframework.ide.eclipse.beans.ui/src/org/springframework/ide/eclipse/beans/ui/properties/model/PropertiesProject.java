@@ -70,7 +70,7 @@ public class PropertiesProject extends BeansProject {
 					configSet.getType()));
 		}
 		
-		updateAllConfigsCache();
+		publishSnapshot();
 	}
 
 	@Override
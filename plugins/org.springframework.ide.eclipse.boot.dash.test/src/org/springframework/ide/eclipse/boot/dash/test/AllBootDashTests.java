@@ -28,6 +28,7 @@ import org.springframework.ide.eclipse.boot.dash.test.yaml.Yaml2DeploymentProper
 
 	//New: (move down the chain later based on runtime)
 	PropertyFileStoreTest.class,
+	ReadyStateMonitorTest.class,
 
 	// Manifest YAML/Deployment Properties tests (less than 2 seconds per suite)
 	DeploymentProperties2YamlTest.class,
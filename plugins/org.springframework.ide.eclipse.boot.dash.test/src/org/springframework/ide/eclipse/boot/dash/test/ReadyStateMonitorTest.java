@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.dash.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.ide.eclipse.boot.dash.util.AbstractPollingAppReadyStateMonitor;
+import org.springsource.ide.eclipse.commons.frameworks.test.util.ACondition;
+
+public class ReadyStateMonitorTest {
+
+	static class TestMonitor extends AbstractPollingAppReadyStateMonitor {
+
+		final AtomicInteger checks = new AtomicInteger();
+		final AtomicBoolean appReady = new AtomicBoolean();
+
+		@Override
+		protected boolean checkReady() {
+			checks.incrementAndGet();
+			return appReady.get();
+		}
+
+		void appBecameReady() {
+			appReady.set(true);
+			checkNow();
+		}
+	}
+
+	@Test
+	public void testPollsUntilReady() throws Exception {
+		TestMonitor monitor = new TestMonitor();
+		try {
+			monitor.startPolling();
+			ACondition.waitFor("first check", 2000, () -> assertTrue(monitor.checks.get() >= 1));
+			assertFalse(monitor.getReady().getValue());
+
+			monitor.appReady.set(true);
+			ACondition.waitFor("ready", 2 * AbstractPollingAppReadyStateMonitor.MAX_POLLING_INTERVAL,
+					() -> assertTrue(monitor.getReady().getValue()));
+			int checks = monitor.checks.get();
+			Thread.sleep(2 * AbstractPollingAppReadyStateMonitor.POLLING_INTERVAL);
+			assertEquals("Should stop polling once ready", checks, monitor.checks.get());
+		} finally {
+			monitor.dispose();
+		}
+	}
+
+	@Test
+	public void testCheckNowSkipsBackoff() throws Exception {
+		TestMonitor monitor = new TestMonitor();
+		try {
+			monitor.startPolling();
+			//let polling back off to its maximum interval
+			ACondition.waitFor("backed off", 10000, () -> assertTrue(monitor.checks.get() >= 5));
+
+			long start = System.currentTimeMillis();
+			monitor.appBecameReady();
+			ACondition.waitFor("ready", 2000, () -> assertTrue(monitor.getReady().getValue()));
+			assertTrue(System.currentTimeMillis() - start < AbstractPollingAppReadyStateMonitor.MAX_POLLING_INTERVAL);
+		} finally {
+			monitor.dispose();
+		}
+	}
+
+	@Test
+	public void testBlockingChecksDontHoldUpOtherMonitors() throws Exception {
+		CountDownLatch unblock = new CountDownLatch(1);
+		List<AbstractPollingAppReadyStateMonitor> blocked = new ArrayList<>();
+		TestMonitor monitor = new TestMonitor();
+		try {
+			//e.g. JMX connects to apps that don't respond
+			for (int i = 0; i < AbstractPollingAppReadyStateMonitor.MAX_CHECK_THREADS - 1; i++) {
+				AbstractPollingAppReadyStateMonitor blocking = new AbstractPollingAppReadyStateMonitor() {
+					@Override
+					protected boolean checkReady() {
+						try {
+							unblock.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						return false;
+					}
+				};
+				blocked.add(blocking);
+				blocking.startPolling();
+			}
+			monitor.appReady.set(true);
+			monitor.startPolling();
+			ACondition.waitFor("ready", 2000, () -> assertTrue(monitor.getReady().getValue()));
+		} finally {
+			unblock.countDown();
+			monitor.dispose();
+			for (AbstractPollingAppReadyStateMonitor blocking : blocked) {
+				blocking.dispose();
+			}
+		}
+	}
+
+	@Test
+	public void testDisposeStopsPolling() throws Exception {
+		TestMonitor monitor = new TestMonitor();
+		monitor.startPolling();
+		ACondition.waitFor("first check", 2000, () -> assertTrue(monitor.checks.get() >= 1));
+		monitor.dispose();
+		Thread.sleep(AbstractPollingAppReadyStateMonitor.MIN_POLLING_INTERVAL); //a check may have been in flight
+		int checks = monitor.checks.get();
+		Thread.sleep(2 * AbstractPollingAppReadyStateMonitor.POLLING_INTERVAL);
+		assertEquals(checks, monitor.checks.get());
+	}
+
+}
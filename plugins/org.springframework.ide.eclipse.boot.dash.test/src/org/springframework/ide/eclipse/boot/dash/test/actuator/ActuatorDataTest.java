@@ -11,10 +11,16 @@
 package org.springframework.ide.eclipse.boot.dash.test.actuator;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -22,6 +28,8 @@ import org.junit.Test;
 import org.springframework.ide.eclipse.beans.ui.live.model.LiveBean;
 import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansContext;
 import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansModel;
+import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansModelDelta;
+import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansResource;
 import org.springframework.ide.eclipse.beans.ui.live.model.TypeLookup;
 import org.springframework.ide.eclipse.boot.dash.model.actuator.ActuatorClient;
 import org.springframework.ide.eclipse.boot.dash.model.actuator.RequestMapping;
@@ -159,4 +167,133 @@ public class ActuatorDataTest {
 		);
 	}
 
+	@Test public void testModelDeltaChangedBean() throws Exception {
+		LiveBeansModel model = new TestActuatorClient(null).beansJson(ActuatorClientTest.getContents("beans-sample.json")).version("1").getBeans();
+		LiveBeansModel newModel = new TestActuatorClient(null).beansJson(ActuatorClientTest.getContents("beans-sample-diff1.json")).version("1").getBeans();
+		LiveBean bean = model.getBeans().get(0);
+
+		LiveBeansModelDelta delta = LiveBeansModelDelta.compute(model, newModel);
+		assertFalse(delta.isStructural());
+		assertEquals(ImmutableSet.of(bean), ImmutableSet.copyOf(delta.getChangedBeans()));
+		assertTrue(delta.getAddedRelations().isEmpty());
+
+		delta.apply();
+		assertEquals(newModel, model);
+		assertSame(bean, model.getBeans().get(0));
+		assertEquals(newModel.getBeans().get(0).getResource(), bean.getResource());
+		assertEquals(
+				newModel.getBeansByResource().stream().map(LiveBeansResource::getLabel).collect(Collectors.toSet()),
+				model.getBeansByResource().stream().map(LiveBeansResource::getLabel).collect(Collectors.toSet())
+		);
+		assertTrue(LiveBeansModelDelta.compute(model, newModel).isEmpty());
+	}
+
+	@Test public void testModelDeltaAddedRemovedBeans() throws Exception {
+		LiveBeansModel model = new TestActuatorClient(null).version("1").beansJson("[{\"context\": \"app\", \"parent\": null, \"beans\": ["
+				+ "{\"bean\": \"a\", \"type\": \"A\", \"resource\": \"r1\", \"dependencies\": [\"b\"]},"
+				+ "{\"bean\": \"b\", \"type\": \"B\", \"resource\": \"r2\", \"dependencies\": []},"
+				+ "{\"bean\": \"c\", \"type\": \"C\", \"resource\": \"r1\", \"dependencies\": [\"inner\"]}"
+				+ "]}]").getBeans();
+		LiveBeansModel newModel = new TestActuatorClient(null).version("1").beansJson("[{\"context\": \"app\", \"parent\": null, \"beans\": ["
+				+ "{\"bean\": \"a\", \"type\": \"A\", \"resource\": \"r1\", \"dependencies\": [\"d\"]},"
+				+ "{\"bean\": \"c\", \"type\": \"C\", \"resource\": \"r1\", \"dependencies\": []},"
+				+ "{\"bean\": \"d\", \"type\": \"D\", \"resource\": \"r3\", \"dependencies\": []}"
+				+ "]}]").getBeans();
+		LiveBean a = model.getBeans().get(0);
+		LiveBean c = model.getBeans().get(2);
+
+		LiveBeansModelDelta delta = LiveBeansModelDelta.compute(model, newModel);
+		assertTrue(delta.isStructural());
+		assertEquals(ImmutableSet.of("d"), beanIds(delta.getAddedBeans()));
+		assertEquals(ImmutableSet.of("b", "inner"), beanIds(delta.getRemovedBeans()));
+		assertTrue(delta.getChangedBeans().isEmpty());
+		assertEquals(2, delta.getRemovedRelations().size());
+		assertEquals(1, delta.getAddedRelations().size());
+
+		delta.apply();
+		assertSame(a, model.getBeans().get(0));
+		assertSame(c, model.getBeans().get(1));
+		assertEquals(ImmutableSet.of("a", "c", "d"), beanIds(model.getBeans()));
+		assertEquals(ImmutableSet.of("a", "c", "d"), beanIds(model.getBeansByContext().get(0).getElements()));
+		assertEquals(ImmutableSet.of("r1", "r3"), model.getBeansByResource().stream().map(LiveBeansResource::getLabel).collect(Collectors.toSet()));
+
+		LiveBean d = model.getBeans().get(2);
+		assertSame(d, delta.getAddedBeans().get(0));
+		assertNotSame(newModel.getBeans().get(2), d);
+		assertEquals(ImmutableSet.of(d), a.getDependencies());
+		assertEquals(ImmutableSet.of(a), d.getInjectedInto());
+		assertTrue(c.getDependencies().isEmpty());
+		assertSame(a, delta.getAddedRelations().get(0).getSource());
+		assertSame(d, delta.getAddedRelations().get(0).getTarget());
+
+		assertEquals(newModel, model);
+		assertTrue(LiveBeansModelDelta.compute(model, newModel).isEmpty());
+	}
+
+	@Test public void testModelDeltaMultipleContexts() throws Exception {
+		String app = "{\"context\": \"app\", \"parent\": null, \"beans\": ["
+				+ "{\"bean\": \"a\", \"type\": \"A\", \"resource\": \"r1\", \"dependencies\": []},"
+				+ "{\"bean\": \"b\", \"type\": \"B\", \"resource\": \"r1\", \"dependencies\": [\"inner\"]}"
+				+ "]}";
+		LiveBeansModel model = new TestActuatorClient(null).version("1").beansJson("[" + app + ","
+				+ "{\"context\": \"child\", \"parent\": \"app\", \"beans\": ["
+				+ "{\"bean\": \"a\", \"type\": \"A2\", \"resource\": \"r2\", \"dependencies\": [\"b\"]}"
+				+ "]}]").getBeans();
+		LiveBeansModel newModel = new TestActuatorClient(null).version("1").beansJson("[" + app + ","
+				+ "{\"context\": \"child\", \"parent\": \"app\", \"beans\": ["
+				+ "{\"bean\": \"a\", \"type\": \"A3\", \"resource\": \"r2\", \"dependencies\": [\"b\"]},"
+				+ "{\"bean\": \"c\", \"type\": \"C\", \"resource\": \"r3\", \"dependencies\": [\"inner\"]}"
+				+ "]}]").getBeans();
+		LiveBean appA = model.getBeansByContext().get(0).getElements().get(0);
+		LiveBean childA = model.getBeansByContext().get(1).getElements().get(0);
+		assertNotSame(appA, childA);
+		assertSame(childA, model.getBeans().get(0));
+
+		// a copy keeps the bean of the parent context hidden by the bean of the child context
+		LiveBeansModel copy = new LiveBeansModel(null);
+		LiveBeansModelDelta.compute(copy, model).apply();
+		assertEquals(model, copy);
+		assertEquals(ImmutableSet.of("a", "b"), beanIds(copy.getBeansByContext().get(0).getElements()));
+		assertEquals(2, copy.getBeans().size());
+
+		// beans with the same id in different contexts and inner beans of different beans are told apart
+		LiveBeansModelDelta delta = LiveBeansModelDelta.compute(model, newModel);
+		assertEquals(1, delta.getChangedBeans().size());
+		assertSame(childA, delta.getChangedBeans().iterator().next());
+		assertEquals(ImmutableSet.of("c", "inner"), beanIds(delta.getAddedBeans()));
+		assertTrue(delta.getRemovedBeans().isEmpty());
+		assertEquals(1, delta.getAddedRelations().size());
+		assertSame(delta.getAddedBeans().get(0), delta.getAddedRelations().get(0).getSource());
+		assertTrue(delta.getRemovedRelations().isEmpty());
+
+		delta.apply();
+		assertEquals("A3", childA.getBeanType());
+		assertEquals("A", appA.getBeanType());
+		assertSame(appA, model.getBeansByContext().get(0).getElements().get(0));
+		assertSame(childA, model.getBeans().get(0));
+		assertEquals(ImmutableSet.of("a", "b", "c"), beanIds(model.getBeans()));
+		LiveBean b = model.getBeans().get(1);
+		LiveBean c = model.getBeans().get(2);
+		assertNotSame(b.getDependencies().iterator().next(), c.getDependencies().iterator().next());
+		assertEquals(newModel, model);
+		assertTrue(LiveBeansModelDelta.compute(model, newModel).isEmpty());
+
+		// removing the child context shows the bean of the parent context again
+		LiveBeansModel appModel = new TestActuatorClient(null).version("1").beansJson("[" + app + "]").getBeans();
+		delta = LiveBeansModelDelta.compute(model, appModel);
+		assertEquals(ImmutableSet.of("a", "c", "inner"), beanIds(delta.getRemovedBeans()));
+		assertTrue(delta.getChangedBeans().isEmpty());
+
+		delta.apply();
+		assertSame(appA, model.getBeans().get(0));
+		assertSame(b, model.getBeans().get(1));
+		assertEquals(2, model.getBeans().size());
+		assertEquals(ImmutableSet.of("r1"), model.getBeansByResource().stream().map(LiveBeansResource::getLabel).collect(Collectors.toSet()));
+		assertEquals(appModel, model);
+	}
+
+	private static Set<String> beanIds(Collection<LiveBean> beans) {
+		return beans.stream().map(LiveBean::getId).collect(Collectors.toSet());
+	}
+
 }
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.dash.model.actuator;
 
+import java.io.IOException;
 import java.util.Set;
 
 import javax.inject.Provider;
@@ -54,9 +55,6 @@ public class JMXActuatorClient extends ActuatorClient {
 			new OperationInfo("org.springframework.boot:type=Endpoint,name=beansEndpoint", "getData", "1") //Boot 1.x
 	};
 
-	private JMXClient client = null;
-	private Integer port = null;
-
 	public JMXActuatorClient(TypeLookup typeLookup, Provider<Integer> jmxPort) {
 		super(typeLookup);
 		this.portProvider = jmxPort;
@@ -64,50 +62,48 @@ public class JMXActuatorClient extends ActuatorClient {
 
 	@Override
 	protected ImmutablePair<String, String> getRequestMappingData() throws Exception {
-		try {
-			JMXClient client = getClient();
-			if (client!=null) {
-				for (OperationInfo op : REQUEST_MAPPINGS_OPERATIONS) {
-					try {
-						Object obj = client.callOperation(op.objectName, op.operationName);
-						if (obj!=null) {
-							return ImmutablePair.of(new ObjectMapper().writeValueAsString(obj), op.version);
-						}
-					} catch (InstanceNotFoundException e) {
-						//Ignore and try other mbean
-					}
-				}
-			}
-		} catch (Exception e) {
-			disposeClient(); //Client may be in broken state, do not reuse.
-			if (!isExpectedException(e)) {
-				throw e;
-			}
-		}
-		return null;
+		return callFirstAvailable(REQUEST_MAPPINGS_OPERATIONS);
 	}
 
 	@Override
 	protected ImmutablePair<String, String> getBeansData() throws Exception {
+		return callFirstAvailable(BEANS_OPERATIONS);
+	}
+
+	/**
+	 * Calls the first of the given operations whose mbean exists. The JMX connection
+	 * is only leased for the duration of the call, between calls it stays in the pool
+	 * where it is shared with the other clients of the same application.
+	 */
+	private ImmutablePair<String, String> callFirstAvailable(OperationInfo[] operations) throws Exception {
+		Integer port = portProvider.get();
+		if (port==null) {
+			return null;
+		}
+		JMXClient client = null;
 		try {
-			JMXClient client = getClient();
-			if (client!=null) {
-				for (OperationInfo op : BEANS_OPERATIONS) {
-					try {
-						Object obj = client.callOperation(op.objectName, op.operationName);
-						if (obj!=null) {
-							return ImmutablePair.of(new ObjectMapper().writeValueAsString(obj), op.version);
-						}
-					} catch (InstanceNotFoundException e) {
-						//Ignore and try other mbean
+			client = new JMXClient(port);
+			for (OperationInfo op : operations) {
+				try {
+					Object obj = client.callOperation(op.objectName, op.operationName);
+					if (obj!=null) {
+						return ImmutablePair.of(new ObjectMapper().writeValueAsString(obj), op.version);
 					}
+				} catch (InstanceNotFoundException e) {
+					//Ignore and try other mbean
 				}
 			}
 		} catch (Exception e) {
-			disposeClient(); //Client may be in broken state, do not reuse.
+			if (client!=null && e instanceof IOException) {
+				client.invalidate(); //Connection may be in broken state, do not reuse.
+			}
 			if (!isExpectedException(e)) {
 				throw e;
 			}
+		} finally {
+			if (client!=null) {
+				client.dispose();
+			}
 		}
 		return null;
 	}
@@ -123,23 +119,4 @@ public class JMXActuatorClient extends ActuatorClient {
 		return EXPECTED_EXCEPTIONS.contains(className);
 	}
 
-	private synchronized JMXClient getClient() throws Exception {
-		Integer currentPort = portProvider.get();
-		if (currentPort==null) return null;
-		if (!currentPort.equals(port) || client==null) {
-			disposeClient();
-			port = currentPort;
-			client = new JMXClient(currentPort);
-		}
-		return client;
-	}
-
-	private void disposeClient() {
-		JMXClient client = this.client;
-		if (client!=null) {
-			this.client = null;
-			client.dispose();
-		}
-	}
-
 }
@@ -10,10 +10,17 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.dash.util;
 
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.Job;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.ide.eclipse.boot.util.Log;
 import org.springsource.ide.eclipse.commons.livexp.core.LiveExpression;
 import org.springsource.ide.eclipse.commons.livexp.core.LiveVariable;
 
@@ -21,8 +28,18 @@ import org.springsource.ide.eclipse.commons.livexp.core.LiveVariable;
  * Polling ready state monitor.
  *
  * An instance of this class starts checking an application's lifecyle
- * repeatedly with a short delay between polls. This continues until either the
- * monitor object is disposed, or the application enters the 'ready' state.
+ * repeatedly until either the monitor object is disposed, or the application
+ * enters the 'ready' state.
+ * <p>
+ * A single shared scheduler times the checks of all monitors, the checks
+ * themselves may block (e.g. connecting to the application) and run on a
+ * small shared pool of {@link #MAX_CHECK_THREADS} worker threads. A monitor
+ * never has more than one check queued or running. The delay between
+ * polls starts at {@link #POLLING_INTERVAL} and backs off up to
+ * {@link #MAX_POLLING_INTERVAL}. Subclasses that can observe the application
+ * (e.g. through JMX notifications) call {@link #checkNow()} when something
+ * happens, which checks right away and resets the delay to
+ * {@link #MIN_POLLING_INTERVAL}; polling is then merely a fallback.
  * <p>
  * When the application reaches ready state then its 'ready' LiveExp will change
  * value from false to true. Clients who wish to respond to this 'event' can
@@ -35,41 +52,142 @@ import org.springsource.ide.eclipse.commons.livexp.core.LiveVariable;
 public abstract class AbstractPollingAppReadyStateMonitor implements ReadyStateMonitor {
 
 	public static final long POLLING_INTERVAL = 500/*ms*/;
+	public static final long MIN_POLLING_INTERVAL = 100/*ms*/;
+	public static final long MAX_POLLING_INTERVAL = 1000/*ms*/;
+
+	public static final int MAX_CHECK_THREADS = 4;
+
+	private static ScheduledExecutorService scheduler;
+
+	private static ExecutorService workers;
+
+	private static synchronized ScheduledExecutorService getScheduler() {
+		if (scheduler==null) {
+			ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, daemonThreads("Ready state poller"));
+			executor.setRemoveOnCancelPolicy(true);
+			scheduler = executor;
+		}
+		return scheduler;
+	}
+
+	private static synchronized ExecutorService getWorkers() {
+		if (workers==null) {
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_CHECK_THREADS, MAX_CHECK_THREADS, 30, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(), daemonThreads("Ready state checker"));
+			executor.allowCoreThreadTimeOut(true);
+			workers = executor;
+		}
+		return workers;
+	}
+
+	private static ThreadFactory daemonThreads(String name) {
+		final AtomicInteger count = new AtomicInteger();
+		return new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, name+" "+count.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}
+		};
+	}
 
-	private Job job;
 	private LiveVariable<Boolean> ready = new LiveVariable<>(false);
+	private ScheduledFuture<?> nextCheck;
+	private long interval = POLLING_INTERVAL;
+
+	/**
+	 * Whether a check is queued or running on the worker pool.
+	 */
+	private boolean checking = false;
+
+	/**
+	 * Whether another check was due while one was in progress; it runs right after.
+	 */
+	private boolean recheck = false;
 
 	final public void startPolling() {
-		initPollingJob();
+		schedule(0);
+	}
+
+	/**
+	 * Checks right away and polls at the minimum interval again for a while. Called
+	 * by subclasses when they see activity in the application. Safe to call from any thread.
+	 */
+	protected final synchronized void checkNow() {
+		if (ready!=null && !ready.getValue()) {
+			interval = MIN_POLLING_INTERVAL;
+			if (nextCheck==null || nextCheck.isDone() || nextCheck.getDelay(TimeUnit.MILLISECONDS) > MIN_POLLING_INTERVAL) {
+				schedule(0);
+			} //else: a check is coming up soon anyway. Events tend to come in bursts, don't check for every one of them.
+		}
+	}
+
+	private synchronized void schedule(long delay) {
+		if (ready!=null) { //null means disposed.
+			if (nextCheck!=null) {
+				nextCheck.cancel(false);
+			}
+			nextCheck = getScheduler().schedule(this::submitCheck, delay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Runs on the scheduler, which must never block, and hands the check to the worker pool.
+	 */
+	private synchronized void submitCheck() {
+		if (ready==null) {
+			return;
+		}
+		if (checking) {
+			recheck = true;
+		} else {
+			checking = true;
+			getWorkers().execute(this::poll);
+		}
 	}
 
-	private void initPollingJob() {
-		this.job = new Job("Ready state poller") {
-			protected IStatus run(IProgressMonitor monitor) {
-				LiveVariable<Boolean> r = ready;
-				if (r!=null) { //null means disposed. Job may be lagging behind
-					r.setValue(checkReady());
-					if (!r.getValue()) {
-						this.schedule(POLLING_INTERVAL);
-					} else {
-						// don't reschedule
-					}
+	private void poll() {
+		try {
+			LiveVariable<Boolean> r = ready;
+			if (r!=null && !r.getValue()) { //null means disposed. Check may be lagging behind
+				if (checkReady()) {
+					r.setValue(true);
 				}
-				return Status.OK_STATUS;
 			}
-		};
-		job.setSystem(true);
-		job.schedule();
+		} catch (Throwable e) {
+			Log.log(e);
+		} finally {
+			checkDone();
+		}
+	}
+
+	private synchronized void checkDone() {
+		checking = false;
+		if (ready==null || ready.getValue()) {
+			return;
+		}
+		if (recheck) {
+			recheck = false;
+			schedule(0);
+		} else {
+			scheduleNextPoll();
+		}
+	}
+
+	private synchronized void scheduleNextPoll() {
+		long delay = interval;
+		interval = Math.min(interval * 2, MAX_POLLING_INTERVAL);
+		schedule(delay);
 	}
 
 	final public LiveExpression<Boolean> getReady() {
 		return ready;
 	}
 
-	public void dispose() {
-		if (job!=null) {
-			job.cancel();
-			job = null;
+	public synchronized void dispose() {
+		if (nextCheck!=null) {
+			nextCheck.cancel(false);
+			nextCheck = null;
 		}
 		ready = null;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2017 Pivotal Software, Inc.
+ * Copyright (c) 2015, 2018 Pivotal Software, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -26,6 +26,7 @@ import org.eclipse.debug.core.ILaunchManager;
 import org.eclipse.debug.core.model.IProcess;
 import org.springframework.ide.eclipse.boot.dash.model.RunState;
 import org.springframework.ide.eclipse.boot.launch.BootLaunchConfigurationDelegate;
+import org.springframework.ide.eclipse.boot.launch.cds.CdsArchive;
 import org.springframework.ide.eclipse.boot.launch.cli.CloudCliServiceLaunchConfigurationDelegate;
 import org.springframework.ide.eclipse.boot.launch.util.BootLaunchUtils;
 import org.springframework.ide.eclipse.boot.util.Log;
@@ -137,21 +138,27 @@ public abstract class RunStateTracker<T> extends ProcessListenerAdapter implemen
 		ReadyStateMonitor tracker = readyStateTrackers.get(l);
 		if (tracker==null) {
 			readyStateTrackers.put(l, tracker = createReadyStateTracker(l));
-			tracker.getReady().addListener(readyStateListener);
+			tracker.getReady().addListener(readyStateListener(l));
 //		} else {
 //			debug("getReadyState["+l+"] "+BootLaunchUtils.getProject(l)+" FROM CACHE");
 		}
 		return tracker.getReady();
 	}
 
-	private ValueListener<Boolean> readyStateListener = new ValueListener<Boolean>() {
-		public void gotValue(LiveExpression<Boolean> exp, Boolean value) {
-			if (value) {
-				//ready state tracker detected a launch just entered the 'ready' state
-				updateOwnerStatesAndFireEvents();
+	private ValueListener<Boolean> readyStateListener(final ILaunch l) {
+		return new ValueListener<Boolean>() {
+			public void gotValue(LiveExpression<Boolean> exp, Boolean value) {
+				if (value) {
+					//ready state tracker detected a launch just entered the 'ready' state
+					if (BootLaunchConfigurationDelegate.canUseLifeCycle(l)) {
+						//Only a real ready state tracker tells us how long startup took.
+						CdsArchive.recordStartupTime(l);
+					}
+					updateOwnerStatesAndFireEvents();
+				}
 			}
-		}
-	};
+		};
+	}
 	private boolean updateInProgress;
 
 	protected final ReadyStateMonitor createReadyStateTracker(ILaunch l) {
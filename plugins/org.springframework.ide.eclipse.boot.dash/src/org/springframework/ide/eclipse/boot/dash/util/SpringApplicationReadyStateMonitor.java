@@ -10,15 +10,23 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.dash.util;
 
+import javax.management.NotificationListener;
+
 import org.eclipse.debug.core.ILaunch;
 import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifeCycleClientManager;
 import org.springframework.ide.eclipse.boot.launch.util.SpringApplicationLifecycleClient;
 
 /**
  * An instance of this class starts checking a spring application's lifecyle using
- * a JMX bean protocol. Checks are performed repeatedly with a short delay between
- * polls. This continues until either the  SpringApplicationReadyStateMonitor is disposed,
- * or the application enters the 'ready' state.
+ * a JMX bean protocol. This continues until either the SpringApplicationReadyStateMonitor
+ * is disposed, or the application enters the 'ready' state.
+ * <p>
+ * Once connected it listens for mbean registrations in the application, which happen
+ * in bursts while the application context starts, and checks right away when it sees
+ * one. The JMX connection comes from the shared pool, so it is reused by whoever
+ * talks to the application next. Polling with backoff only covers the time before the JMX connection is up and
+ * the short gap between the last registration and the application becoming ready. The listener is removed
+ * again as soon as the application is ready.
  * <p>
  * When the application reaches ready state then its 'ready' LiveExp will change value from
  * false to true. Clients who wish to respond to this 'event' can attach a listener to
@@ -30,29 +38,81 @@ public class SpringApplicationReadyStateMonitor extends AbstractPollingAppReadyS
 
 	private SpringApplicationLifeCycleClientManager clientManager;
 
+	/**
+	 * The client we registered our notification listener with. When the manager hands out
+	 * a new client (i.e. it had to reconnect) we need to register again.
+	 */
+	private SpringApplicationLifecycleClient subscribedClient;
+
+	private boolean disposed = false;
+
+	private final NotificationListener registrationListener = (notification, handback) -> checkNow();
+
 	public SpringApplicationReadyStateMonitor(ILaunch launch) {
 		super();
 		clientManager = new SpringApplicationLifeCycleClientManager(launch);
 	}
 
 	public void dispose() {
+		super.dispose();
 		if (clientManager != null) {
-			clientManager.disposeClient();
+			synchronized (clientManager) {
+				disposed = true;
+				unsubscribe();
+				clientManager.disposeClient();
+			}
+		}
+	}
+
+	/**
+	 * The JMX connection is shared with other clients and outlives this monitor, so our
+	 * listener must be removed explicitly.
+	 */
+	private void unsubscribe() {
+		SpringApplicationLifecycleClient client = subscribedClient;
+		if (client!=null) {
+			subscribedClient = null;
+			try {
+				client.removeMBeanRegistrationListener(registrationListener);
+			} catch (Exception e) {
+				//Ignore, connection is most likely gone
+			}
 		}
-		super.dispose();
 	}
 
 	protected boolean checkReady() {
 		try {
-			SpringApplicationLifecycleClient client = clientManager.getLifeCycleClient();
-			if (client!=null) {
-				return client.isReady();
+			SpringApplicationLifecycleClient client;
+			synchronized (clientManager) {
+				if (disposed) {
+					return false;
+				}
+				client = clientManager.getLifeCycleClient();
+				if (client!=null && client!=subscribedClient) {
+					unsubscribe();
+					subscribedClient = client;
+					try {
+						client.addMBeanRegistrationListener(registrationListener);
+					} catch (Exception e) {
+						//Not fatal, polling will still get there
+					}
+				}
+			}
+			if (client!=null && client.isReady()) {
+				//Nothing left to listen for; the shared connection may live on for much longer
+				synchronized (clientManager) {
+					unsubscribe();
+				}
+				return true;
 			}
 		} catch (Exception e) {
 			//Something went wrong asking client for ready state.
 			// most likely process died.
 			if (clientManager != null) {
-				clientManager.disposeClient();
+				synchronized (clientManager) {
+					unsubscribe();
+					clientManager.invalidateClient();
+				}
 			}
 		}
 		return false;
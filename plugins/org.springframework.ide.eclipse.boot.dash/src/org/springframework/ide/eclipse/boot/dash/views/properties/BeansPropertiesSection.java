@@ -10,6 +10,11 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.dash.views.properties;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Supplier;
+
 import org.eclipse.jface.layout.GridDataFactory;
 import org.eclipse.jface.layout.GridLayoutFactory;
 import org.eclipse.jface.viewers.ISelection;
@@ -23,9 +28,13 @@ import org.eclipse.swt.events.TreeListener;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Text;
+import org.eclipse.swt.widgets.TreeItem;
 import org.eclipse.ui.IWorkbenchPart;
 import org.eclipse.ui.views.properties.tabbed.ITabbedPropertyConstants;
 import org.eclipse.ui.views.properties.tabbed.TabbedPropertySheetPage;
+import org.springframework.ide.eclipse.beans.ui.live.model.LiveBean;
+import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansModel;
+import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansModelDelta;
 import org.springframework.ide.eclipse.beans.ui.live.tree.ContextGroupedBeansContentProvider;
 import org.springframework.ide.eclipse.beans.ui.live.tree.LiveBeansTreeLabelProvider;
 import org.springframework.ide.eclipse.boot.dash.model.BootDashElement;
@@ -50,6 +59,15 @@ public class BeansPropertiesSection extends AbstractBdePropertiesSection {
 	private Text searchBox;
 	private Composite treeViewerComposite;
 
+	/**
+	 * Private copy of the element's live beans, kept up to date by applying
+	 * {@link LiveBeansModelDelta}s so that the tree items for unchanged beans
+	 * keep their identity between polls.
+	 */
+	private LiveBeansModel displayedModel;
+	private LiveBeansModel lastPolledModel;
+	private BootDashElement displayedElement;
+
 	@Override
 	public void createControls(Composite parent, TabbedPropertySheetPage aTabbedPropertySheetPage) {
 		super.createControls(parent, aTabbedPropertySheetPage);
@@ -84,7 +102,7 @@ public class BeansPropertiesSection extends AbstractBdePropertiesSection {
 		// polling the model often to show changes in the model it's best to refresh the
 		// tree viewer rather then set the whole input that would remove the selection
 		// and collapse expanded nodes
-		ITreeContentProvider treeContent = new TreeElementWrappingContentProvider(new BeansContentProvider(ContextGroupedBeansContentProvider.INSTANCE));
+		ITreeContentProvider treeContent = new TreeElementWrappingContentProvider(new BeansContentProvider(ContextGroupedBeansContentProvider.INSTANCE, () -> displayedModel));
 		LabelProvider labelProvider = LiveBeansTreeLabelProvider.INSTANCE;
 
 		treeViewer.setContentProvider(treeContent);
@@ -110,7 +128,13 @@ public class BeansPropertiesSection extends AbstractBdePropertiesSection {
 
 	public void setInput(IWorkbenchPart part, ISelection selection) {
 		super.setInput(part, selection);
-		treeViewer.setInput(getBootDashElement());
+		BootDashElement bde = getBootDashElement();
+		if (bde != displayedElement) {
+			displayedElement = null;
+			displayedModel = null;
+			lastPolledModel = null;
+		}
+		treeViewer.setInput(bde);
 	}
 
 	public void refresh() {
@@ -125,7 +149,7 @@ public class BeansPropertiesSection extends AbstractBdePropertiesSection {
 		}
 		// No tree widgets means that BootDashElement probably wasn't "running" or had no beans
 		boolean firstTimeTreePopulated = treeViewer.getTree().getItems().length == 0;
-		treeViewer.refresh();
+		refreshBeans(bde);
 		if (firstTimeTreePopulated) {
 			// If tree is populated for the first time then auto expand to level 2 manually because new input is not set in this case
 			treeViewer.expandToLevel(2);
@@ -133,6 +157,54 @@ public class BeansPropertiesSection extends AbstractBdePropertiesSection {
 		SectionStackLayout.reflow(page);
 	}
 
+	private void refreshBeans(BootDashElement bde) {
+		LiveBeansModel latest = bde == null ? null : bde.getLiveBeans();
+		if (bde != displayedElement || latest == null || displayedModel == null) {
+			displayedElement = bde;
+			lastPolledModel = latest;
+			displayedModel = latest == null ? null : copy(latest);
+			treeViewer.refresh();
+		} else if (latest != lastPolledModel) {
+			lastPolledModel = latest;
+			LiveBeansModelDelta delta = LiveBeansModelDelta.compute(displayedModel, latest);
+			if (!delta.isEmpty()) {
+				delta.apply();
+				treeViewer.refresh(false);
+				Set<LiveBean> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+				changed.addAll(delta.getChangedBeans());
+				updateLabels(treeViewer.getTree().getItems(), changed);
+			}
+		}
+	}
+
+	/**
+	 * Copies all the beans of the model, including the beans shadowed by beans with the
+	 * same id in other contexts, which are only found in their context.
+	 */
+	private static LiveBeansModel copy(LiveBeansModel model) {
+		LiveBeansModel copy = new LiveBeansModel(model.getWorkspaceContext());
+		LiveBeansModelDelta.compute(copy, model).apply();
+		return copy;
+	}
+
+	/**
+	 * Items are wrapped by {@link TreeElementWrappingContentProvider} so the changed
+	 * beans themselves can't be passed to the viewer for a label update.
+	 */
+	private void updateLabels(TreeItem[] items, Set<LiveBean> changed) {
+		if (changed.isEmpty()) {
+			return;
+		}
+		for (TreeItem item : items) {
+			Object data = item.getData();
+			if (data instanceof TreeElementWrappingContentProvider.TreeNode
+					&& changed.contains(((TreeElementWrappingContentProvider.TreeNode) data).getWrappedValue())) {
+				treeViewer.update(data, null);
+			}
+			updateLabels(item.getItems(), changed);
+		}
+	}
+
 	private void refreshControlsVisibility() {
 		BootDashElement bde = getBootDashElement();
 		if (bde == null || bde.getLiveRequestMappings() == null) {
@@ -145,16 +217,17 @@ public class BeansPropertiesSection extends AbstractBdePropertiesSection {
 	private static class BeansContentProvider implements ITreeContentProvider {
 
 		private ITreeContentProvider delegateContentProvider;
+		private Supplier<LiveBeansModel> model;
 
-		BeansContentProvider(ITreeContentProvider delegate) {
+		BeansContentProvider(ITreeContentProvider delegate, Supplier<LiveBeansModel> model) {
 			this.delegateContentProvider = delegate;
+			this.model = model;
 		}
 
 		@Override
 		public Object[] getElements(Object inputElement) {
 			if (inputElement instanceof BootDashElement) {
-				BootDashElement bde = (BootDashElement) inputElement;
-				return delegateContentProvider.getElements(bde.getLiveBeans());
+				return delegateContentProvider.getElements(model.get());
 			}
 			return new Object[0];
 		}
@@ -11,6 +11,7 @@
 package org.springframework.ide.eclipse.boot.dash.views.properties;
 
 import org.springframework.ide.eclipse.boot.dash.model.BootDashElement;
+import org.springframework.ide.eclipse.boot.launch.cds.CdsArchive;
 
 /**
  * General properties section for Local apps
@@ -30,7 +31,8 @@ public class LocalGeneralPropertiesSection extends AbstractBdeGeneralPropertiesS
 				new UrlPropertyControl<>(BootDashElement.class, "URL:", (e) -> e.getUrl()),
 				new DefaultPathPropertyControl(),
 				new TagsPropertyControl(),
-				new ExposedPropertyControl()
+				new ExposedPropertyControl(),
+				new BdeReadOnlyTextPropertyControl<>(BootDashElement.class, "Startup:", (e) -> CdsArchive.getStartupSummary(e.getActiveConfig()))
 		};
 	}
 
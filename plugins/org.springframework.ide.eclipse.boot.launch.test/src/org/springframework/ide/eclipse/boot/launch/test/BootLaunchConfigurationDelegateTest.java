@@ -14,28 +14,38 @@ import static org.springframework.ide.eclipse.boot.test.BootProjectTestHarness.w
 
 import java.io.File;
 import java.net.URL;
+import java.nio.file.Files;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
 import org.eclipse.debug.internal.core.IInternalDebugCoreConstants;
 import org.eclipse.jdt.launching.IJavaLaunchConfigurationConstants;
 import org.eclipse.jdt.launching.JavaLaunchDelegate;
+import org.eclipse.jdt.launching.JavaRuntime;
 import org.springframework.ide.eclipse.boot.core.BootActivator;
 import org.springframework.ide.eclipse.boot.core.BootPreferences;
 import org.springframework.ide.eclipse.boot.launch.AbstractBootLaunchConfigurationDelegate.PropVal;
+import org.springframework.ide.eclipse.boot.launch.BootLaunchActivator;
 import org.springframework.ide.eclipse.boot.launch.BootLaunchConfigurationDelegate;
+import org.springframework.ide.eclipse.boot.launch.cds.CdsArchive;
 import org.springframework.ide.eclipse.boot.launch.livebean.JmxBeanSupport;
 import org.springframework.ide.eclipse.boot.launch.process.BootProcessFactory;
+import org.springframework.ide.eclipse.boot.launch.util.BootLaunchUtils;
+import org.springframework.ide.eclipse.boot.launch.util.LaunchClasspathCache;
+import org.springframework.ide.eclipse.boot.launch.util.LaunchClasspathCache.Resolver;
 import org.springframework.ide.eclipse.boot.test.util.LaunchResult;
 import org.springframework.ide.eclipse.boot.test.util.LaunchUtil;
 import org.springsource.ide.eclipse.commons.frameworks.test.util.Timewatch;
@@ -157,6 +167,123 @@ public class BootLaunchConfigurationDelegateTest extends BootLaunchTestCase {
 		assertEquals(false, BootLaunchConfigurationDelegate.getFastStartup(wc));
 	}
 
+	public void testSetGetClassDataSharing() throws Exception {
+		ILaunchConfigurationWorkingCopy wc = createWorkingCopy();
+		assertEquals(false, BootLaunchConfigurationDelegate.getEnableClassDataSharing(wc));
+
+		BootLaunchConfigurationDelegate.setEnableClassDataSharing(wc, true);
+		assertEquals(true, BootLaunchConfigurationDelegate.getEnableClassDataSharing(wc));
+
+		BootLaunchConfigurationDelegate.setEnableClassDataSharing(wc, false);
+		assertEquals(false, BootLaunchConfigurationDelegate.getEnableClassDataSharing(wc));
+	}
+
+	public void testJavaMajorVersion() throws Exception {
+		assertEquals(8, BootLaunchUtils.getJavaMajorVersion("1.8.0_181"));
+		assertEquals(9, BootLaunchUtils.getJavaMajorVersion("9"));
+		assertEquals(11, BootLaunchUtils.getJavaMajorVersion("11.0.2"));
+		assertEquals(12, BootLaunchUtils.getJavaMajorVersion("12-ea"));
+		assertEquals(-1, BootLaunchUtils.getJavaMajorVersion(null));
+	}
+
+	public void testClassDataSharingVmArgs() throws Exception {
+		createLaunchReadyProject(TEST_PROJECT);
+		ILaunchConfigurationWorkingCopy wc = createBaseWorkingCopy();
+		BootLaunchConfigurationDelegate.setEnableLifeCycle(wc, false);
+		BootLaunchConfigurationDelegate.setEnableLiveBeanSupport(wc, false);
+		BootLaunchConfigurationDelegate.setEnableJMX(wc, false);
+		BootLaunchConfigurationDelegate.setFastStartup(wc, false);
+		BootLaunchConfigurationDelegate.setEnableClassDataSharing(wc, true);
+		CdsArchive.forConfig(wc).invalidate();
+
+		BootLaunchConfigurationDelegate delegate = new BootLaunchConfigurationDelegate();
+		String vmArgs = delegate.getVMArguments(wc);
+		if (CdsArchive.isSupported(delegate.getVMInstall(wc))) {
+			//First launch records the class list
+			assertTrue(vmArgs, vmArgs.contains("-XX:DumpLoadedClassList="));
+		} else {
+			assertFalse(vmArgs, vmArgs.contains("-XX:"));
+		}
+
+		BootLaunchConfigurationDelegate.setEnableClassDataSharing(wc, false);
+		vmArgs = delegate.getVMArguments(wc);
+		assertFalse(vmArgs, vmArgs.contains("-XX:DumpLoadedClassList="));
+		assertFalse(vmArgs, vmArgs.contains("-XX:SharedArchiveFile="));
+	}
+
+	public void testClassDataSharingClasspath() throws Exception {
+		File jar1 = File.createTempFile("first", ".jar");
+		File jar2 = File.createTempFile("second", ".jar");
+		File classes = Files.createTempDirectory("classes").toFile();
+		try {
+			String[] classpath = { classes.getAbsolutePath(), jar1.getAbsolutePath(), "missing", jar2.getAbsolutePath() };
+			assertEquals(Arrays.asList(jar1.getAbsolutePath(), jar2.getAbsolutePath(), classes.getAbsolutePath(), "missing"),
+					Arrays.asList(CdsArchive.getSharingClasspath(classpath)));
+		} finally {
+			jar1.delete();
+			jar2.delete();
+			FileUtils.deleteQuietly(classes);
+		}
+	}
+
+	public void testClassDataSharingArchiveUsedByLaterLaunches() throws Exception {
+		createLaunchReadyProject(TEST_PROJECT);
+		ILaunchConfigurationWorkingCopy wc = createBaseWorkingCopy();
+		BootLaunchConfigurationDelegate.setEnableLifeCycle(wc, false);
+		BootLaunchConfigurationDelegate.setEnableLiveBeanSupport(wc, false);
+		BootLaunchConfigurationDelegate.setEnableJMX(wc, false);
+		BootLaunchConfigurationDelegate.setFastStartup(wc, false);
+		BootLaunchConfigurationDelegate.setEnableClassDataSharing(wc, true);
+		wc.setAttribute(IJavaLaunchConfigurationConstants.ATTR_VM_ARGUMENTS, "-Xlog:class+load=info");
+		ILaunchConfiguration conf = wc.doSave();
+		BootLaunchConfigurationDelegate delegate = new BootLaunchConfigurationDelegate();
+		if (!CdsArchive.isSupported(delegate.getVMInstall(conf))) {
+			conf.delete();
+			return;
+		}
+		CdsArchive.forConfig(conf).invalidate();
+
+		//The project's own classes come after the jars the archive is dumped with
+		String[] classpath = delegate.getRuntimeClasspath(conf);
+		assertTrue(classpath[0], new File(classpath[0]).isFile());
+		assertTrue(classpath[classpath.length-1], new File(classpath[classpath.length-1]).isDirectory());
+
+		LaunchResult result = LaunchUtil.synchLaunch(conf);
+		assertOk(result);
+		Job.getJobManager().join(CdsArchive.class, null);
+
+		String vmArgs = delegate.getVMArguments(conf);
+		assertTrue(vmArgs, vmArgs.contains("-XX:SharedArchiveFile="));
+		result = LaunchUtil.synchLaunch(conf);
+		assertOk(result);
+		assertContains("org.springframework.boot.SpringApplication source: shared objects file", result.out);
+
+		//Deleting the configuration deletes its archive
+		assertTrue(CdsArchive.forConfig(conf).exists());
+		conf.delete();
+		assertFalse(CdsArchive.forConfig(conf).exists());
+	}
+
+	public void testClassDataSharingArchiveFollowsRenamedConfiguration() throws Exception {
+		ILaunchConfigurationWorkingCopy wc = createWorkingCopy();
+		ILaunchConfiguration conf = wc.doSave();
+		CdsArchive archive = CdsArchive.forConfig(conf);
+		archive.invalidate();
+		archive.getVMArguments(JavaRuntime.getDefaultVMInstall(), new String[0], null);
+		assertTrue(archive.exists());
+
+		wc = conf.getWorkingCopy();
+		wc.rename(conf.getName()+"-renamed");
+		ILaunchConfiguration renamed = wc.doSave();
+		try {
+			assertFalse(archive.exists());
+			assertTrue(CdsArchive.forConfig(renamed).exists());
+		} finally {
+			renamed.delete();
+		}
+		assertFalse(CdsArchive.forConfig(renamed).exists());
+	}
+
 	public void testClearProperties() throws Exception {
 		ILaunchConfigurationWorkingCopy wc = createWorkingCopy();
 		BootLaunchConfigurationDelegate.setProperties(wc, Arrays.asList(
@@ -396,6 +523,44 @@ public class BootLaunchConfigurationDelegateTest extends BootLaunchTestCase {
 		);
 	}
 
+	public void testShortenCommandLine() throws Exception {
+		createLaunchReadyProject(TEST_PROJECT);
+		ILaunchConfigurationWorkingCopy wc = createBaseWorkingCopy();
+		BootLaunchConfigurationDelegate.setShortenCommandLine(wc, true);
+		BootLaunchConfigurationDelegate delegate = new BootLaunchConfigurationDelegate();
+
+		String[] runtimeClasspath = delegate.getRuntimeClasspath(wc);
+		assertTrue(runtimeClasspath.length > 1);
+		String[] cp = delegate.getClasspath(wc);
+		boolean argFile = BootLaunchUtils.getJavaMajorVersion(delegate.getVMInstall(wc)) >= 9;
+		if (argFile) {
+			assertEquals(0, cp.length);
+			assertTrue(delegate.getVMArguments(wc).contains("@"));
+		} else {
+			assertEquals(1, cp.length);
+			assertTrue(cp[0].endsWith(".jar"));
+		}
+
+		LaunchResult result = LaunchUtil.synchLaunch(wc);
+		assertOk(result);
+	}
+
+	public void testClasspathCacheInvalidatedByConfigChange() throws Exception {
+		createLaunchReadyProject(TEST_PROJECT);
+		ILaunchConfiguration conf = createBaseWorkingCopy().doSave();
+		LaunchClasspathCache cache = BootLaunchActivator.getInstance().getClasspathCache();
+		AtomicInteger resolved = new AtomicInteger();
+		Resolver<String> resolver = () -> "resolved-" + resolved.incrementAndGet();
+
+		assertEquals("resolved-1", cache.get(conf, "test", resolver));
+		assertEquals("resolved-1", cache.get(conf, "test", resolver));
+
+		ILaunchConfigurationWorkingCopy wc = conf.getWorkingCopy();
+		BootLaunchConfigurationDelegate.setProfile(wc, "changed");
+		conf = wc.doSave();
+		assertEquals("resolved-2", cache.get(conf, "test", resolver));
+	}
+
 	private static void assertClasspath(String[] _cp, Predicate<String> ignoring, String... expected) {
 		List<String> cpList = new ArrayList<String>(_cp.length);
 		for (int i = 0; i < _cp.length; i++) {
@@ -15,7 +15,9 @@ import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.springframework.ide.eclipse.boot.launch.cds.CdsArchiveCleaner;
 import org.springframework.ide.eclipse.boot.launch.util.BootLaunchConfDeleter;
+import org.springframework.ide.eclipse.boot.launch.util.LaunchClasspathCache;
 
 /**
  * @author Kris De Volder
@@ -26,6 +28,10 @@ public class BootLaunchActivator extends AbstractUIPlugin {
 
 	private BootLaunchConfDeleter workspaceListener;
 
+	private LaunchClasspathCache classpathCache;
+
+	private CdsArchiveCleaner cdsArchiveCleaner;
+
 	public BootLaunchActivator() {
 	}
 
@@ -33,6 +39,8 @@ public class BootLaunchActivator extends AbstractUIPlugin {
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		workspaceListener = new BootLaunchConfDeleter(ResourcesPlugin.getWorkspace(), DebugPlugin.getDefault().getLaunchManager());
+		classpathCache = new LaunchClasspathCache(DebugPlugin.getDefault().getLaunchManager());
+		cdsArchiveCleaner = new CdsArchiveCleaner(DebugPlugin.getDefault().getLaunchManager());
 		instance = this;
 	}
 
@@ -42,6 +50,12 @@ public class BootLaunchActivator extends AbstractUIPlugin {
 		if (workspaceListener!=null) {
 			workspaceListener.dispose();
 		}
+		if (classpathCache!=null) {
+			classpathCache.dispose();
+		}
+		if (cdsArchiveCleaner!=null) {
+			cdsArchiveCleaner.dispose();
+		}
 		super.stop(context);
 	}
 
@@ -49,6 +63,10 @@ public class BootLaunchActivator extends AbstractUIPlugin {
 		return instance;
 	}
 
+	public LaunchClasspathCache getClasspathCache() {
+		return classpathCache;
+	}
+
 	private static final String LIVEBEAN_SUPPORT_BUNDLE_ID = "org.springframework.ide.eclipse.boot.launch.livebean";
 	public boolean isLiveBeanSupported() {
 		for (Bundle bndl : getBundle().getBundleContext().getBundles()) {
@@ -16,6 +16,7 @@ import static org.springsource.ide.eclipse.commons.core.util.StringUtil.hasText;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
@@ -42,16 +43,21 @@ import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.launching.IRuntimeClasspathEntry;
+import org.eclipse.jdt.launching.IVMInstall;
 import org.eclipse.jdt.launching.JavaRuntime;
 import org.osgi.framework.Bundle;
 import org.springframework.ide.eclipse.boot.core.BootActivator;
 import org.springframework.ide.eclipse.boot.core.BootPreferences;
 import org.springframework.ide.eclipse.boot.core.BootPropertyTester;
 import org.springframework.ide.eclipse.boot.core.SpringBootCore;
+import org.springframework.ide.eclipse.boot.launch.cds.CdsArchive;
 import org.springframework.ide.eclipse.boot.launch.livebean.JmxBeanSupport;
 import org.springframework.ide.eclipse.boot.launch.livebean.JmxBeanSupport.Feature;
 import org.springframework.ide.eclipse.boot.launch.process.BootProcessFactory;
 import org.springframework.ide.eclipse.boot.launch.profiles.ProfileHistory;
+import org.springframework.ide.eclipse.boot.launch.util.BootLaunchUtils;
+import org.springframework.ide.eclipse.boot.launch.util.ClasspathShortener;
+import org.springframework.ide.eclipse.boot.launch.util.LaunchClasspathCache.Resolver;
 import org.springframework.ide.eclipse.boot.launch.util.PortFinder;
 import org.springframework.ide.eclipse.boot.util.Log;
 import org.springsource.ide.eclipse.commons.core.util.OsUtils;
@@ -130,6 +136,20 @@ public class BootLaunchConfigurationDelegate extends AbstractBootLaunchConfigura
 	public static final String USE_THIN_WRAPPER = "spring.boot.thinwrapper.enable";
 	public static final boolean DEFAULT_USE_THIN_WRAPPER = false;
 
+	/**
+	 * Record a class list on the first launch and reuse a Class Data Sharing archive built from it
+	 * on later launches. See {@link CdsArchive}.
+	 */
+	public static final String ENABLE_CDS = "spring.boot.cds.enable";
+	public static final boolean DEFAULT_ENABLE_CDS = false;
+
+	/**
+	 * Pass the classpath through an '@argfile' (Java 9+) or a pathing jar instead of the command line.
+	 * See {@link ClasspathShortener}.
+	 */
+	public static final String SHORTEN_COMMAND_LINE = "spring.boot.classpath.shorten";
+	public static final boolean DEFAULT_SHORTEN_COMMAND_LINE = false;
+
 	private ProfileHistory profileHistory = new ProfileHistory();
 
 	/**
@@ -148,7 +168,13 @@ public class BootLaunchConfigurationDelegate extends AbstractBootLaunchConfigura
 		CURRENT_LAUNCH.set(launch);
 		try {
 			profileHistory.updateHistory(getProject(conf), getProfile(conf));
+			if (getEnableClassDataSharing(conf)) {
+				launch.setAttribute(CdsArchive.LAUNCH_START_TIME, ""+System.currentTimeMillis());
+			}
 			super.launch(conf, mode, launch, monitor);
+			if (launch.getAttribute(CdsArchive.LAUNCH_MODE)!=null) {
+				CdsArchive.forConfig(conf).dumpWhenTerminated(launch, getVMInstall(conf), getRuntimeClasspath(conf));
+			}
 		} finally {
 			CURRENT_LAUNCH.remove();
 		}
@@ -187,6 +213,10 @@ public class BootLaunchConfigurationDelegate extends AbstractBootLaunchConfigura
 	}
 
 	private String getThinArchive(ILaunchConfiguration conf) throws CoreException {
+		return cached(conf, "thinArchive", () -> resolveThinArchive(conf));
+	}
+
+	private String resolveThinArchive(ILaunchConfiguration conf) throws CoreException {
 		IRuntimeClasspathEntry[] entries = {
 			JavaRuntime.newProjectRuntimeClasspathEntry(getJavaProject(conf))
 		};
@@ -235,6 +265,22 @@ public class BootLaunchConfigurationDelegate extends AbstractBootLaunchConfigura
 				vmArgs.append('\n');
 				vmArgs.append(fastStartupArgs);
 			}
+			// Class data sharing VM args
+			if (getEnableClassDataSharing(conf)) {
+				IVMInstall vm = getVMInstall(conf);
+				if (CdsArchive.isSupported(vm)) {
+					String cdsArgs = CdsArchive.forConfig(conf).getVMArguments(vm, getRuntimeClasspath(conf), CURRENT_LAUNCH.get());
+					if (!cdsArgs.isEmpty()) {
+						vmArgs.append('\n');
+						vmArgs.append(cdsArgs);
+					}
+				}
+			}
+			// Classpath argfile, written by getClasspath
+			if (getShortenCommandLine(conf) && useArgFile(conf)) {
+				vmArgs.append('\n');
+				vmArgs.append(new ClasspathShortener(conf).getArgFileVMArgument());
+			}
 			return vmArgs.toString();
 		} catch (Exception e) {
 			Log.log(e);
@@ -295,6 +341,32 @@ public class BootLaunchConfigurationDelegate extends AbstractBootLaunchConfigura
 		return defaultValue;
 	}
 
+	public static boolean getShortenCommandLine(ILaunchConfiguration conf) {
+		try {
+			return conf.getAttribute(SHORTEN_COMMAND_LINE, DEFAULT_SHORTEN_COMMAND_LINE);
+		} catch (Exception e) {
+			Log.log(e);
+		}
+		return DEFAULT_SHORTEN_COMMAND_LINE;
+	}
+
+	public static void setShortenCommandLine(ILaunchConfigurationWorkingCopy wc, boolean enable) {
+		wc.setAttribute(SHORTEN_COMMAND_LINE, enable);
+	}
+
+	public static boolean getEnableClassDataSharing(ILaunchConfiguration conf) {
+		try {
+			return conf.getAttribute(ENABLE_CDS, DEFAULT_ENABLE_CDS);
+		} catch (Exception e) {
+			Log.log(e);
+		}
+		return DEFAULT_ENABLE_CDS;
+	}
+
+	public static void setEnableClassDataSharing(ILaunchConfigurationWorkingCopy wc, boolean enable) {
+		wc.setAttribute(ENABLE_CDS, enable);
+	}
+
 	public static void setEnableJMX(ILaunchConfigurationWorkingCopy wc, boolean enable) {
 		wc.setAttribute(ENABLE_JMX, enable);
 	}
@@ -549,13 +621,21 @@ public class BootLaunchConfigurationDelegate extends AbstractBootLaunchConfigura
 	//@Override Don't add override tag. Method doesn't exist in older eclipse api
 	public String[][] getClasspathAndModulepath(ILaunchConfiguration conf) throws CoreException {
 		//with Java 9 Beta installed we need this method, because getClasspath is no longer called.
+		if (useThinWrapper(conf)) {
+			return new String[][] {
+				getClasspath(conf),
+				new String[] {}
+			};
+		}
+		String[][] paths = cached(conf, "classpathAndModulepath", () -> superGetClasspathAndModulepath(conf));
+		return new String[][] {
+			shortenClasspath(conf, orderForSharing(conf, paths[0].clone())),
+			paths[1].clone()
+		};
+	}
+
+	private String[][] superGetClasspathAndModulepath(ILaunchConfiguration conf) throws CoreException {
 		try {
-			if (useThinWrapper(conf)) {
-				return new String[][] {
-					getClasspath(conf),
-					new String[] {}
-				};
-	 		};
 	 		//Can't 'just' do super call because that wouldn't compile on older Eclipse. So we use 'MethodHandles' to
 	 		//call super dynamically. See https://stackoverflow.com/questions/5411434/how-to-call-a-superclass-method-using-java-reflection
 			MethodHandle m = MethodHandles.lookup().findSpecial(BootLaunchConfigurationDelegate.class.getSuperclass(),
@@ -571,6 +651,17 @@ public class BootLaunchConfigurationDelegate extends AbstractBootLaunchConfigura
 
 	@Override
 	public String[] getClasspath(ILaunchConfiguration conf) throws CoreException {
+		return shortenClasspath(conf, getRuntimeClasspath(conf));
+	}
+
+	/**
+	 * The classpath the app runs with. Unlike {@link #getClasspath(ILaunchConfiguration)} this is never
+	 * moved into an argfile or pathing jar. Resolved entries are cached until the classpath of
+	 * a Java project or the launch configuration changes.
+	 * <p>
+	 * With class data sharing enabled the jars come before the directories, see {@link CdsArchive}.
+	 */
+	public String[] getRuntimeClasspath(ILaunchConfiguration conf) throws CoreException {
 		if (useThinWrapper(conf)) {
 			File thinWrapper = BootPreferences.getInstance().getThinWrapper();
 			Assert.isLegal(thinWrapper!=null, "'Use thin wrapper' option is selected, but thin wrapper is not defined");
@@ -579,7 +670,45 @@ public class BootLaunchConfigurationDelegate extends AbstractBootLaunchConfigura
 					thinWrapper.getAbsolutePath()
 			};
 		}
-		return super.getClasspath(conf);
+		return orderForSharing(conf, cached(conf, "classpath", () -> super.getClasspath(conf)).clone());
+	}
+
+	private String[] orderForSharing(ILaunchConfiguration conf, String[] classpath) throws CoreException {
+		if (getEnableClassDataSharing(conf) && CdsArchive.isSupported(getVMInstall(conf))) {
+			return CdsArchive.getSharingClasspath(classpath);
+		}
+		return classpath;
+	}
+
+	private String[] shortenClasspath(ILaunchConfiguration conf, String[] classpath) throws CoreException {
+		if (!getShortenCommandLine(conf)) {
+			return classpath;
+		}
+		try {
+			ClasspathShortener shortener = new ClasspathShortener(conf);
+			if (useArgFile(conf)) {
+				//getVMArguments points the JVM to the argfile
+				shortener.writeArgFile(classpath);
+				return new String[0];
+			}
+			return new String[] {
+					shortener.writePathingJar(classpath).getAbsolutePath()
+			};
+		} catch (IOException e) {
+			throw ExceptionUtil.coreException(e);
+		}
+	}
+
+	private boolean useArgFile(ILaunchConfiguration conf) throws CoreException {
+		return ClasspathShortener.supportsArgFile(BootLaunchUtils.getJavaMajorVersion(getVMInstall(conf)));
+	}
+
+	private static <T> T cached(ILaunchConfiguration conf, String key, Resolver<T> resolver) throws CoreException {
+		BootLaunchActivator activator = BootLaunchActivator.getInstance();
+		if (activator!=null) {
+			return activator.getClasspathCache().get(conf, key, resolver);
+		}
+		return resolver.resolve();
 	}
 
 	@Override
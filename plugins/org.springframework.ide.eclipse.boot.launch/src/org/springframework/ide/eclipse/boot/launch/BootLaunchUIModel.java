@@ -73,6 +73,8 @@ public class BootLaunchUIModel {
 	public final LaunchTabSelectionModel<Boolean> hideFromDash;
 	public final LaunchTabSelectionModel<Boolean> ansiConsoleOutput;
 	public final LaunchTabSelectionModel<Boolean> fastStartup;
+	public final LaunchTabSelectionModel<Boolean> enableCds;
+	public final LaunchTabSelectionModel<Boolean> shortenCommandLine;
 	public final LaunchTabSelectionModel<Boolean> useThinWrapper;
 
 	public BootLaunchUIModel(IProfileHistory profileHistory) {
@@ -85,6 +87,8 @@ public class BootLaunchUIModel {
 		ansiConsoleOutput = CheckboxLaunchTabModel.create(ANSI_CONSOLE_OUTPUT, BootLaunchConfigurationDelegate.supportsAnsiConsoleOutput());
 		fastStartup = CheckboxLaunchTabModel.create(FAST_STARTUP, BootActivator.getDefault().getPreferenceStore()
 				.getBoolean(BootPreferences.PREF_BOOT_FAST_STARTUP_DEFAULT));
+		enableCds = CheckboxLaunchTabModel.create(ENABLE_CDS, DEFAULT_ENABLE_CDS);
+		shortenCommandLine = CheckboxLaunchTabModel.create(SHORTEN_COMMAND_LINE, DEFAULT_SHORTEN_COMMAND_LINE);
 		Validator thinWrapperValidator = new Validator() {
 			@Override
 			protected ValidationResult compute() {
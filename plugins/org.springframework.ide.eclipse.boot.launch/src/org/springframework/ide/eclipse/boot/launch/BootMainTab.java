@@ -54,6 +54,8 @@ public class BootMainTab extends LaunchConfigurationTabWithSections implements I
 		jvmArgsSections.add(new EnableDebugSection(this, model.enableDebug));
 		jvmArgsSections.add(new HideFromBootDashSection(this, model.hideFromDash));
 		jvmArgsSections.add(new FastStartupLaunchTabSection(this, model.fastStartup));
+		jvmArgsSections.add(new DelegatingLaunchConfigurationTabSection(this, model.enableCds, new CheckboxSection(this, model.enableCds, "Class data sharing archive (Java 11+)")));
+		jvmArgsSections.add(new DelegatingLaunchConfigurationTabSection(this, model.shortenCommandLine, new CheckboxSection(this, model.shortenCommandLine, "Shorten command line (@argfile or classpath jar)")));
 		/*
 		 * Show UI for enabling/disabling ANSI console output only if
 		 * IDE supports ANSI console output
@@ -0,0 +1,627 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.launch.cds;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventSetListener;
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.jdt.launching.IVMInstall;
+import org.eclipse.jdt.launching.IVMInstall2;
+import org.springframework.ide.eclipse.boot.launch.BootLaunchActivator;
+import org.springframework.ide.eclipse.boot.launch.util.BootLaunchUtils;
+import org.springframework.ide.eclipse.boot.util.Log;
+import org.springsource.ide.eclipse.commons.core.util.OsUtils;
+
+/**
+ * Per launch configuration Class Data Sharing (AppCDS) archive.
+ * <p>
+ * The first launch of a configuration records the list of loaded classes
+ * (<code>-XX:DumpLoadedClassList</code>). Once that process terminates the
+ * archive is dumped in the background (<code>-Xshare:dump</code>) and later
+ * launches map it with <code>-XX:SharedArchiveFile</code>. Everything is keyed
+ * by the resolved runtime classpath and the JVM, so the archive is thrown away
+ * and recorded again as soon as either changes.
+ * <p>
+ * The JVM only archives classes from jars and refuses to dump with a non-empty
+ * directory on the classpath. The archive is therefore dumped with the jars of
+ * the classpath only, and apps using the archive have to run with a classpath
+ * that starts with exactly those jars, see {@link #getSharingClasspath(String[])}.
+ * <p>
+ * The time from launch to 'ready' is recorded for the recording run and for
+ * runs that use the archive so the Boot Dashboard can show the difference.
+ * <p>
+ * Instances are cheap handles created per use; all instances for the same
+ * launch configuration share one lock.
+ */
+public class CdsArchive {
+
+	public enum Mode {
+		/**
+		 * No archive yet: record the class list.
+		 */
+		RECORD,
+		/**
+		 * Archive exists: use it.
+		 */
+		SHARED,
+		/**
+		 * Archive is being dumped, or dumping failed for the current classpath.
+		 */
+		NONE
+	}
+
+	/**
+	 * Launch attribute holding the {@link Mode} a launch was started with.
+	 */
+	public static final String LAUNCH_MODE = "spring.boot.cds.mode";
+
+	/**
+	 * Launch attribute holding the time (in millis) a launch was started.
+	 */
+	public static final String LAUNCH_START_TIME = "spring.boot.cds.start";
+
+	/**
+	 * AppCDS for application classes is available without commercial flags since Java 11.
+	 */
+	private static final int MIN_JAVA_VERSION = 11;
+
+	private static final String CDS_DIR = "cds";
+	private static final String KEY_FILE = "classpath.key";
+	private static final String CLASS_LIST_FILE = "classes.lst";
+	private static final String ARCHIVE_FILE = "app.jsa";
+	private static final String DUMP_FILE = "app.jsa.tmp";
+	private static final String FAILED_FILE = "dump.failed";
+	private static final String STARTUP_FILE = "startup.properties";
+	private static final String DUMP_LOG_FILE = "dump.log";
+
+	private static final String STARTUP_WITHOUT_ARCHIVE = "withoutArchive";
+	private static final String STARTUP_WITH_ARCHIVE = "withArchive";
+
+	/**
+	 * One lock per archive directory, shared by all instances for the same launch configuration.
+	 */
+	private static final ConcurrentMap<File, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+	private final File dir;
+	private final String name;
+	private final ReentrantLock lock;
+
+	private CdsArchive(File dir, String name) {
+		this.dir = dir;
+		this.name = name;
+		this.lock = LOCKS.computeIfAbsent(dir, d -> new ReentrantLock());
+	}
+
+	public static CdsArchive forConfig(ILaunchConfiguration conf) {
+		return forName(conf.getName());
+	}
+
+	private static CdsArchive forName(String name) {
+		File root = BootLaunchActivator.getInstance().getStateLocation().append(CDS_DIR).toFile();
+		return new CdsArchive(new File(root, sha1(name)), name);
+	}
+
+	public static boolean isSupported(IVMInstall vm) {
+		return BootLaunchUtils.getJavaMajorVersion(vm) >= MIN_JAVA_VERSION
+				&& getJavaExecutable(vm) != null;
+	}
+
+	/**
+	 * Orders the given classpath the way apps run when class data sharing is
+	 * enabled: all jars first, then the directories, each in their original order.
+	 * The jars are what the archive is dumped with, and the JVM only maps an archive
+	 * if the runtime classpath starts with the classpath it was dumped with.
+	 * <p>
+	 * Classes in directories no longer shadow classes of the same name in jars.
+	 */
+	public static String[] getSharingClasspath(String[] classpath) {
+		List<String> jars = new ArrayList<>();
+		List<String> others = new ArrayList<>();
+		for (String entry : classpath) {
+			if (new File(entry).isFile()) {
+				jars.add(entry);
+			} else {
+				others.add(entry);
+			}
+		}
+		jars.addAll(others);
+		return jars.toArray(new String[jars.size()]);
+	}
+
+	/**
+	 * Determines how the next launch should use the archive and returns the
+	 * VM arguments for it. Invalidates the archive first if the classpath or
+	 * the JVM changed since it was recorded.
+	 */
+	public String getVMArguments(IVMInstall vm, String[] classpath, ILaunch launch) throws IOException {
+		lock.lock();
+		try {
+			Mode mode = getMode(vm, classpath);
+			if (launch != null) {
+				launch.setAttribute(LAUNCH_MODE, mode.name());
+			}
+			switch (mode) {
+			case RECORD:
+				return "-Xshare:off -XX:DumpLoadedClassList=" + quote(getClassList());
+			case SHARED:
+				return "-Xshare:auto -XX:SharedArchiveFile=" + quote(getArchive());
+			default:
+				return "";
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Mode getMode(IVMInstall vm, String[] classpath) throws IOException {
+		String key = computeKey(vm, classpath);
+		if (!key.equals(readKey())) {
+			// a dump still running for the old key must not publish its archive next to the new key
+			cancelDumping();
+			invalidate();
+			dir.mkdirs();
+			Files.write(new File(dir, KEY_FILE).toPath(), key.getBytes(StandardCharsets.UTF_8));
+		}
+		if (getArchive().isFile()) {
+			return Mode.SHARED;
+		}
+		if (new File(dir, FAILED_FILE).exists() || isDumping()) {
+			return Mode.NONE;
+		}
+		return Mode.RECORD;
+	}
+
+	/**
+	 * @return The key of the classpath the current class list and archive belong to, or null if there is none.
+	 */
+	private String readKey() throws IOException {
+		File keyFile = new File(dir, KEY_FILE);
+		if (!keyFile.isFile()) {
+			return null;
+		}
+		return new String(Files.readAllBytes(keyFile.toPath()), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Deletes the class list, the archive and the startup times recorded against them.
+	 */
+	public void invalidate() {
+		lock.lock();
+		try {
+			for (String file : new String[] { KEY_FILE, CLASS_LIST_FILE, ARCHIVE_FILE, DUMP_FILE, FAILED_FILE, STARTUP_FILE }) {
+				new File(dir, file).delete();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return Whether anything is kept for the launch configuration.
+	 */
+	public boolean exists() {
+		return dir.exists();
+	}
+
+	/**
+	 * Deletes everything kept for the launch configuration, e.g. because the
+	 * configuration got deleted.
+	 */
+	public void delete() {
+		lock.lock();
+		try {
+			cancelDumping();
+			invalidate();
+			new File(dir, DUMP_LOG_FILE).delete();
+			dir.delete();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Moves everything kept for a launch configuration that got renamed. The
+	 * archive stays valid as it doesn't depend on the name of the configuration.
+	 */
+	public static void rename(String oldName, String newName) {
+		CdsArchive from = forName(oldName);
+		CdsArchive to = forName(newName);
+		if (from.dir.equals(to.dir)) {
+			return;
+		}
+		// always lock in the same order, so that two concurrent renames can't deadlock
+		boolean fromFirst = from.dir.compareTo(to.dir) < 0;
+		ReentrantLock first = fromFirst ? from.lock : to.lock;
+		ReentrantLock second = fromFirst ? to.lock : from.lock;
+		first.lock();
+		second.lock();
+		try {
+			from.cancelDumping();
+			if (from.dir.isDirectory() && !to.dir.exists()) {
+				if (!from.dir.renameTo(to.dir)) {
+					from.delete();
+				}
+			} else {
+				from.delete();
+			}
+		} finally {
+			second.unlock();
+			first.unlock();
+		}
+	}
+
+	/**
+	 * If the launch was a recording run, dumps the archive once its process terminated.
+	 */
+	public void dumpWhenTerminated(final ILaunch launch, final IVMInstall vm, final String[] classpath) {
+		if (!Mode.RECORD.name().equals(launch.getAttribute(LAUNCH_MODE))) {
+			return;
+		}
+		final DebugPlugin debugPlugin = DebugPlugin.getDefault();
+		class TerminationListener implements IDebugEventSetListener {
+
+			private final AtomicBoolean scheduled = new AtomicBoolean();
+
+			@Override
+			public void handleDebugEvents(DebugEvent[] events) {
+				for (DebugEvent e : events) {
+					if (e.getKind() == DebugEvent.TERMINATE && e.getSource() instanceof IProcess
+							&& ((IProcess) e.getSource()).getLaunch() == launch) {
+						dumpIfTerminated();
+						return;
+					}
+				}
+			}
+
+			void dumpIfTerminated() {
+				if (launch.isTerminated() && scheduled.compareAndSet(false, true)) {
+					debugPlugin.removeDebugEventListener(this);
+					try {
+						String key = readKey();
+						if (key != null) {
+							new DumpJob(vm, classpath, key).schedule();
+						}
+					} catch (IOException e) {
+						Log.log(e);
+					}
+				}
+			}
+		}
+		TerminationListener listener = new TerminationListener();
+		debugPlugin.addDebugEventListener(listener);
+		//The process may already be gone (e.g. app failed to start) before we got to listen.
+		listener.dumpIfTerminated();
+	}
+
+	private boolean isDumping() {
+		return !getDumpJobs().isEmpty();
+	}
+
+	/**
+	 * Cancels the dump jobs of this archive and waits for them to finish. Dump jobs
+	 * never block on the lock while canceled, so this may be called holding it.
+	 */
+	private void cancelDumping() {
+		for (Job job : getDumpJobs()) {
+			job.cancel();
+			try {
+				job.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private List<Job> getDumpJobs() {
+		List<Job> jobs = new ArrayList<>();
+		for (Job job : Job.getJobManager().find(CdsArchive.class)) {
+			if (job instanceof DumpJob && ((DumpJob) job).archive().equals(getArchive())) {
+				jobs.add(job);
+			}
+		}
+		return jobs;
+	}
+
+	private class DumpJob extends Job {
+
+		private final IVMInstall vm;
+		private final String[] classpath;
+		private final String key;
+
+		/**
+		 * @param key The key of the classpath the class list was recorded for. The
+		 *    dump is only published if it is still the current key when it is done.
+		 */
+		DumpJob(IVMInstall vm, String[] classpath, String key) {
+			super("Create class data sharing archive for " + name);
+			this.vm = vm;
+			this.classpath = classpath;
+			this.key = key;
+			setSystem(true);
+		}
+
+		File archive() {
+			return getArchive();
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == CdsArchive.class;
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			File classList = getClassList();
+			if (!classList.isFile() || classList.length() == 0) {
+				// app died before it loaded anything worth sharing; try again next launch
+				return Status.OK_STATUS;
+			}
+			List<String> jars = getJars(classpath);
+			if (jars.isEmpty()) {
+				// nothing the JVM can archive for this classpath
+				return publish(false, monitor);
+			}
+			File dump = new File(dir, DUMP_FILE);
+			try {
+				List<String> command = Arrays.asList(getJavaExecutable(vm).getAbsolutePath(),
+						"-Xshare:dump",
+						"-XX:SharedClassListFile=" + classList.getAbsolutePath(),
+						"-XX:SharedArchiveFile=" + dump.getAbsolutePath(),
+						"-cp", String.join(File.pathSeparator, jars));
+				Process process = new ProcessBuilder(command).redirectErrorStream(true)
+						.redirectOutput(new File(dir, DUMP_LOG_FILE)).start();
+				while (!process.waitFor(500, TimeUnit.MILLISECONDS)) {
+					if (monitor.isCanceled()) {
+						process.destroy();
+						dump.delete();
+						return Status.CANCEL_STATUS;
+					}
+				}
+				if (process.exitValue() != 0 || !dump.isFile()) {
+					dump.delete();
+					Log.warn("Could not create class data sharing archive for '" + name + "', see " + new File(dir, DUMP_LOG_FILE));
+					return publish(false, monitor);
+				}
+				return publish(true, monitor);
+			} catch (Exception e) {
+				dump.delete();
+				Log.log(e);
+			}
+			return Status.OK_STATUS;
+		}
+
+		/**
+		 * Moves the dumped archive in place, or records that dumping failed, unless
+		 * the classpath changed since the class list was recorded.
+		 */
+		private IStatus publish(boolean dumped, IProgressMonitor monitor) {
+			File dump = new File(dir, DUMP_FILE);
+			try {
+				// whoever holds the lock may be waiting for this job to finish after canceling it
+				while (!lock.tryLock(100, TimeUnit.MILLISECONDS)) {
+					if (monitor.isCanceled()) {
+						dump.delete();
+						return Status.CANCEL_STATUS;
+					}
+				}
+			} catch (InterruptedException e) {
+				dump.delete();
+				Thread.currentThread().interrupt();
+				return Status.CANCEL_STATUS;
+			}
+			try {
+				if (!key.equals(readKey())) {
+					dump.delete();
+				} else if (!dumped) {
+					createFailedFile();
+				} else if (!dump.renameTo(archive())) {
+					dump.delete();
+					createFailedFile();
+				}
+			} catch (IOException e) {
+				dump.delete();
+				Log.log(e);
+			} finally {
+				lock.unlock();
+			}
+			return Status.OK_STATUS;
+		}
+
+		/**
+		 * The leading jars of the classpath. Directories can't be archived, and dumping
+		 * fails if one that isn't empty is on the classpath.
+		 */
+		private List<String> getJars(String[] classpath) {
+			List<String> jars = new ArrayList<>();
+			for (String entry : classpath) {
+				if (!new File(entry).isFile()) {
+					break;
+				}
+				jars.add(entry);
+			}
+			return jars;
+		}
+
+		private void createFailedFile() {
+			try {
+				new File(dir, FAILED_FILE).createNewFile();
+			} catch (IOException e) {
+				Log.log(e);
+			}
+		}
+	}
+
+	/**
+	 * Records the time it took the given launch to become ready, if it was started with
+	 * a class list recording or a shared archive. Only the first call for a launch counts.
+	 */
+	public static void recordStartupTime(ILaunch launch) {
+		ILaunchConfiguration conf = launch.getLaunchConfiguration();
+		String mode = launch.getAttribute(LAUNCH_MODE);
+		String start = launch.getAttribute(LAUNCH_START_TIME);
+		if (conf == null || mode == null || start == null) {
+			return;
+		}
+		launch.setAttribute(LAUNCH_START_TIME, null);
+		String key;
+		if (Mode.RECORD.name().equals(mode)) {
+			key = STARTUP_WITHOUT_ARCHIVE;
+		} else if (Mode.SHARED.name().equals(mode)) {
+			key = STARTUP_WITH_ARCHIVE;
+		} else {
+			return;
+		}
+		try {
+			long millis = System.currentTimeMillis() - Long.parseLong(start);
+			forConfig(conf).setStartupTime(key, millis);
+		} catch (Exception e) {
+			Log.log(e);
+		}
+	}
+
+	private void setStartupTime(String key, long millis) throws IOException {
+		lock.lock();
+		try {
+			if (!dir.isDirectory()) {
+				return;
+			}
+			Properties props = loadStartupTimes();
+			props.setProperty(key, Long.toString(millis));
+			try (OutputStream out = new FileOutputStream(new File(dir, STARTUP_FILE))) {
+				props.store(out, null);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Properties loadStartupTimes() throws IOException {
+		Properties props = new Properties();
+		File file = new File(dir, STARTUP_FILE);
+		if (file.isFile()) {
+			try (InputStream in = new FileInputStream(file)) {
+				props.load(in);
+			}
+		}
+		return props;
+	}
+
+	/**
+	 * @return A short description of the startup time with and without the archive,
+	 *    or null if nothing was recorded for the given launch configuration.
+	 */
+	public static String getStartupSummary(ILaunchConfiguration conf) {
+		if (conf == null || BootLaunchActivator.getInstance() == null) {
+			return null;
+		}
+		try {
+			Properties props = forConfig(conf).loadStartupTimes();
+			String without = props.getProperty(STARTUP_WITHOUT_ARCHIVE);
+			String with = props.getProperty(STARTUP_WITH_ARCHIVE);
+			if (with != null && without != null) {
+				long withMillis = Long.parseLong(with);
+				long withoutMillis = Long.parseLong(without);
+				long delta = withoutMillis > 0 ? (withMillis - withoutMillis) * 100 / withoutMillis : 0;
+				return String.format("%.1f s with CDS archive, %.1f s without (%+d%%)", withMillis / 1000.0,
+						withoutMillis / 1000.0, delta);
+			} else if (without != null) {
+				return String.format("%.1f s without CDS archive (archive pending)", Long.parseLong(without) / 1000.0);
+			} else if (with != null) {
+				return String.format("%.1f s with CDS archive", Long.parseLong(with) / 1000.0);
+			}
+		} catch (Exception e) {
+			Log.log(e);
+		}
+		return null;
+	}
+
+	private File getClassList() {
+		return new File(dir, CLASS_LIST_FILE);
+	}
+
+	private File getArchive() {
+		return new File(dir, ARCHIVE_FILE);
+	}
+
+	/**
+	 * Key of the classpath an archive is valid for. Jar size and modification time are part
+	 * of it as the JVM refuses an archive if any of its jars changed.
+	 */
+	private static String computeKey(IVMInstall vm, String[] classpath) {
+		StringBuilder key = new StringBuilder();
+		key.append(vm.getInstallLocation()).append(';');
+		if (vm instanceof IVMInstall2) {
+			key.append(((IVMInstall2) vm).getJavaVersion()).append(';');
+		}
+		for (String entry : classpath) {
+			key.append(entry).append(';');
+			File file = new File(entry);
+			if (file.isFile()) {
+				key.append(file.length()).append(':').append(file.lastModified()).append(';');
+			}
+		}
+		return sha1(key.toString());
+	}
+
+	private static File getJavaExecutable(IVMInstall vm) {
+		File installLocation = vm.getInstallLocation();
+		if (installLocation != null) {
+			File java = new File(installLocation, OsUtils.isWindows() ? "bin/java.exe" : "bin/java");
+			if (java.isFile()) {
+				return java;
+			}
+		}
+		return null;
+	}
+
+	private static String quote(File file) {
+		String path = file.getAbsolutePath();
+		return path.indexOf(' ') >= 0 ? '"' + path + '"' : path;
+	}
+
+	private static String sha1(String value) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			return String.format("%040x", new BigInteger(1, digest.digest(value.getBytes(StandardCharsets.UTF_8))));
+		} catch (Exception e) {
+			return Integer.toHexString(value.hashCode());
+		}
+	}
+
+}
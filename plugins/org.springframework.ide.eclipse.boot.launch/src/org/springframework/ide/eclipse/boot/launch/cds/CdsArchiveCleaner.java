@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.launch.cds;
+
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationListener;
+import org.eclipse.debug.core.ILaunchManager;
+import org.springframework.ide.eclipse.boot.util.Log;
+
+/**
+ * Listens for deleted and renamed launch configurations and deletes or moves
+ * the {@link CdsArchive} kept for them in the plugin's state location.
+ */
+public class CdsArchiveCleaner implements ILaunchConfigurationListener {
+
+	private final ILaunchManager lm;
+
+	public CdsArchiveCleaner(ILaunchManager lm) {
+		this.lm = lm;
+		this.lm.addLaunchConfigurationListener(this);
+	}
+
+	@Override
+	public void launchConfigurationAdded(ILaunchConfiguration conf) {
+		//Renames are reported as the new configuration being added and the old one removed
+		ILaunchConfiguration movedFrom = lm.getMovedFrom(conf);
+		if (movedFrom!=null) {
+			rename(movedFrom, conf);
+		}
+	}
+
+	@Override
+	public void launchConfigurationChanged(ILaunchConfiguration conf) {
+		//don't care
+	}
+
+	@Override
+	public void launchConfigurationRemoved(ILaunchConfiguration conf) {
+		ILaunchConfiguration movedTo = lm.getMovedTo(conf);
+		if (movedTo!=null) {
+			rename(conf, movedTo);
+		} else if (!conf.isWorkingCopy()) {
+			CdsArchive.forConfig(conf).delete();
+		}
+	}
+
+	private void rename(ILaunchConfiguration from, ILaunchConfiguration to) {
+		try {
+			if (!from.getName().equals(to.getName())) {
+				CdsArchive.rename(from.getName(), to.getName());
+			}
+		} catch (Exception e) {
+			Log.log(e);
+		}
+	}
+
+	public void dispose() {
+		lm.removeLaunchConfigurationListener(this);
+	}
+
+}
@@ -25,6 +25,8 @@ import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
 import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.jdt.launching.IVMInstall;
+import org.eclipse.jdt.launching.IVMInstall2;
 import org.springframework.ide.eclipse.boot.core.BootActivator;
 import org.springframework.ide.eclipse.boot.launch.BootLaunchConfigurationDelegate;
 
@@ -131,4 +133,33 @@ public class BootLaunchUtils {
 		return selected;
 	}
 
+	/**
+	 * @return The major version of the given JVM, e.g. 8 or 11, or -1 if unknown.
+	 */
+	public static int getJavaMajorVersion(IVMInstall vm) {
+		if (vm instanceof IVMInstall2) {
+			return getJavaMajorVersion(((IVMInstall2) vm).getJavaVersion());
+		}
+		return -1;
+	}
+
+	/**
+	 * Major version of a 'java.version' string, e.g. 8 for '1.8.0_181' and 11 for '11.0.2'.
+	 */
+	public static int getJavaMajorVersion(String javaVersion) {
+		if (javaVersion == null) {
+			return -1;
+		}
+		String[] parts = javaVersion.split("[._\\-+]");
+		try {
+			int major = Integer.parseInt(parts[0]);
+			if (major == 1 && parts.length > 1) {
+				major = Integer.parseInt(parts[1]);
+			}
+			return major;
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
 }
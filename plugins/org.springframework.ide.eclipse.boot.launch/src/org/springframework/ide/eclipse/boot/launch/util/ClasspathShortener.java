@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.launch.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.springframework.ide.eclipse.boot.launch.BootLaunchActivator;
+
+/**
+ * Moves a long classpath off the command line, either into an '@argfile'
+ * (Java 9 and later) or into the manifest 'Class-Path' of a small 'pathing jar'
+ * (older JVMs). Both files are kept per launch configuration in the plugin's
+ * state location and only rewritten when the classpath changed.
+ */
+public class ClasspathShortener {
+
+	private static final String CLASSPATH_DIR = "classpath";
+
+	/**
+	 * Java 9 is the first JVM that reads options from '@argfiles'.
+	 */
+	private static final int MIN_ARGFILE_JAVA_VERSION = 9;
+
+	private final File argFile;
+	private final File pathingJar;
+
+	public ClasspathShortener(ILaunchConfiguration conf) {
+		File dir = BootLaunchActivator.getInstance().getStateLocation().append(CLASSPATH_DIR).toFile();
+		String baseName = conf.getName().replaceAll("[^\\w.-]", "_") + "-" + Integer.toHexString(conf.getName().hashCode());
+		this.argFile = new File(dir, baseName + ".args");
+		this.pathingJar = new File(dir, baseName + ".jar");
+	}
+
+	public static boolean supportsArgFile(int javaMajorVersion) {
+		return javaMajorVersion >= MIN_ARGFILE_JAVA_VERSION;
+	}
+
+	/**
+	 * @return The VM argument that makes the JVM read the argfile.
+	 */
+	public String getArgFileVMArgument() {
+		String arg = "@" + argFile.getAbsolutePath();
+		return arg.indexOf(' ') >= 0 ? '"' + arg + '"' : arg;
+	}
+
+	/**
+	 * Writes the '-classpath' option for the given classpath to the argfile.
+	 */
+	public File writeArgFile(String[] classpath) throws IOException {
+		String content = "-classpath\n\"" + escape(String.join(File.pathSeparator, classpath)) + "\"\n";
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		if (!argFile.isFile() || !Arrays.equals(bytes, Files.readAllBytes(argFile.toPath()))) {
+			argFile.getParentFile().mkdirs();
+			Files.write(argFile.toPath(), bytes);
+		}
+		return argFile;
+	}
+
+	/**
+	 * Writes a jar that has nothing but the given classpath in its manifest.
+	 */
+	public File writePathingJar(String[] classpath) throws IOException {
+		StringBuilder classPathAttribute = new StringBuilder();
+		for (String entry : classpath) {
+			if (classPathAttribute.length() > 0) {
+				classPathAttribute.append(' ');
+			}
+			//toURI adds the trailing slash directories need to be treated as directories
+			classPathAttribute.append(new File(entry).toURI().toString());
+		}
+		String value = classPathAttribute.toString();
+		if (!value.equals(readClassPathAttribute(pathingJar))) {
+			Manifest manifest = new Manifest();
+			manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+			manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, value);
+			pathingJar.getParentFile().mkdirs();
+			try (OutputStream out = new JarOutputStream(new FileOutputStream(pathingJar), manifest)) {
+				//manifest only
+			}
+		}
+		return pathingJar;
+	}
+
+	private static String readClassPathAttribute(File jar) {
+		if (jar.isFile()) {
+			try (JarFile jarFile = new JarFile(jar)) {
+				Manifest manifest = jarFile.getManifest();
+				if (manifest != null) {
+					return manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+				}
+			} catch (IOException e) {
+				//rewrite it
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Escapes backslashes and quotes as required inside a quoted argfile option.
+	 */
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+}
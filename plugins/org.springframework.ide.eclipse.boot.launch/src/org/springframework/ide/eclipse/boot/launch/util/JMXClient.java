@@ -19,10 +19,8 @@ import javax.management.MBeanServerConnection;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 import javax.management.ReflectionException;
-import javax.management.remote.JMXConnector;
-import javax.management.remote.JMXConnectorFactory;
-import javax.management.remote.JMXServiceURL;
 
+import org.springframework.ide.eclipse.jmx.JMXConnectionPool;
 import org.springsource.ide.eclipse.commons.livexp.ui.Disposable;
 
 /**
@@ -36,29 +34,30 @@ public class JMXClient implements Disposable {
 	private static final Object[] NO_PARAMS = new Object[0];
 	private static final String[] NO_SIGNATURES = new String[0];
 
-	private JMXConnector connector;
-	private MBeanServerConnection connection;
+	private final JMXConnectionPool.Lease lease;
+	private final MBeanServerConnection connection;
 
+	/**
+	 * Creates a client for an {@link javax.management.MBeanServer} exposed on the
+	 * current machine on the given port. The connection is taken from (and, when the
+	 * client is disposed, left open in) the shared {@link JMXConnectionPool}.
+	 */
 	public JMXClient(int port) throws IOException {
-		this(createLocalJmxConnector(port));
-	}
-
-	private JMXClient(JMXConnector connector) throws IOException {
-		this(connector, connector.getMBeanServerConnection());
+		this.lease = JMXConnectionPool.getDefault().lease(port);
+		this.connection = lease.getConnection();
 	}
 
 	@Override
 	public void dispose() {
-		try {
-			this.connector.close();
-		} catch (IOException e) {
-			//Ignore
-		}
+		lease.dispose();
 	}
 
-	private JMXClient(JMXConnector connector, MBeanServerConnection connection) {
-		this.connector = connector;
-		this.connection = connection;
+	/**
+	 * Call when an operation failed because of the connection, rather than because of
+	 * the mbean. The pooled connection is closed so that the next client reconnects.
+	 */
+	public void invalidate() {
+		lease.invalidate();
 	}
 
 	@SuppressWarnings("unchecked")
@@ -89,17 +88,4 @@ public class JMXClient implements Disposable {
 		}
 	}
 
-	/**
-	 * Create a connector for an {@link javax.management.MBeanServer} exposed on the
-	 * current machine and the current port. Security should be disabled.
-	 * @param port the port on which the mbean server is exposed
-	 * @return a connection
-	 * @throws IOException if the connection to that server failed
-	 */
-	public static JMXConnector createLocalJmxConnector(int port) throws IOException {
-		String url = "service:jmx:rmi:///jndi/rmi://127.0.0.1:" + port + "/jmxrmi";
-		JMXServiceURL serviceUrl = new JMXServiceURL(url);
-		return JMXConnectorFactory.connect(serviceUrl, null);
-	}
-
 }
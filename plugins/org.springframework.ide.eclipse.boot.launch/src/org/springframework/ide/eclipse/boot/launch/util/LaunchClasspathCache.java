@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.launch.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationListener;
+import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * Caches resolved runtime classpaths of launch configurations so that relaunching
+ * doesn't re-resolve hundreds of classpath entries every time.
+ * <p>
+ * A configuration's entries are dropped when the configuration changes and all
+ * entries are dropped when JDT reports a classpath change for any Java project
+ * (a project's runtime classpath includes the classpaths of the projects it depends on).
+ * Working copies are never cached as their attributes change without notification.
+ */
+public class LaunchClasspathCache {
+
+	@FunctionalInterface
+	public interface Resolver<T> {
+		T resolve() throws CoreException;
+	}
+
+	private static final int CLASSPATH_CHANGED_FLAGS =
+			IJavaElementDelta.F_CLASSPATH_CHANGED |
+			IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED |
+			IJavaElementDelta.F_OPENED |
+			IJavaElementDelta.F_CLOSED;
+
+	private final Map<ILaunchConfiguration, Map<String, Object>> cache = new ConcurrentHashMap<>();
+
+	private final ILaunchManager launchManager;
+
+	private final IElementChangedListener javaListener = new IElementChangedListener() {
+		@Override
+		public void elementChanged(ElementChangedEvent event) {
+			if (affectsClasspath(event.getDelta())) {
+				cache.clear();
+			}
+		}
+	};
+
+	private final ILaunchConfigurationListener launchConfListener = new ILaunchConfigurationListener() {
+		@Override
+		public void launchConfigurationAdded(ILaunchConfiguration conf) {
+		}
+
+		@Override
+		public void launchConfigurationChanged(ILaunchConfiguration conf) {
+			cache.remove(conf);
+		}
+
+		@Override
+		public void launchConfigurationRemoved(ILaunchConfiguration conf) {
+			cache.remove(conf);
+		}
+	};
+
+	public LaunchClasspathCache(ILaunchManager launchManager) {
+		this.launchManager = launchManager;
+		JavaCore.addElementChangedListener(javaListener, ElementChangedEvent.POST_CHANGE);
+		launchManager.addLaunchConfigurationListener(launchConfListener);
+	}
+
+	/**
+	 * Returns the value cached for the given configuration under the given key, or
+	 * computes and caches it with the resolver.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(ILaunchConfiguration conf, String key, Resolver<T> resolver) throws CoreException {
+		if (conf.isWorkingCopy()) {
+			return resolver.resolve();
+		}
+		Map<String, Object> entries = cache.computeIfAbsent(conf, (c) -> new ConcurrentHashMap<>());
+		Object value = entries.get(key);
+		if (value == null) {
+			value = resolver.resolve();
+			if (value != null && cache.get(conf) == entries) {
+				//Only keep it if nothing got invalidated while we were resolving.
+				entries.put(key, value);
+			}
+		}
+		return (T) value;
+	}
+
+	public void invalidate(ILaunchConfiguration conf) {
+		cache.remove(conf);
+	}
+
+	private static boolean affectsClasspath(IJavaElementDelta delta) {
+		IJavaElement element = delta.getElement();
+		if (element.getElementType() == IJavaElement.JAVA_PROJECT) {
+			return delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & CLASSPATH_CHANGED_FLAGS) != 0;
+		}
+		if (element.getElementType() == IJavaElement.JAVA_MODEL) {
+			for (IJavaElementDelta child : delta.getAffectedChildren()) {
+				if (affectsClasspath(child)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	public void dispose() {
+		JavaCore.removeElementChangedListener(javaListener);
+		launchManager.removeLaunchConfigurationListener(launchConfListener);
+		cache.clear();
+	}
+}
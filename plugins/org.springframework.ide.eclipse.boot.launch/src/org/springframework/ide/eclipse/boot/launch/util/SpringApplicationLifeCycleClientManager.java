@@ -10,82 +10,84 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.launch.util;
 
-import java.io.IOException;
-
 import javax.inject.Provider;
-import javax.management.remote.JMXConnector;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.debug.core.ILaunch;
 import org.springframework.ide.eclipse.boot.launch.BootLaunchConfigurationDelegate;
+import org.springframework.ide.eclipse.jmx.JMXConnectionPool;
 
 /**
  * Creates and manages an instance of {@link SpringApplicationLifecycleClient}.
+ * <p>
+ * The JMX connection is leased from the shared {@link JMXConnectionPool} so that
+ * managers, actuator clients and ready state monitors for the same application
+ * all talk to it over a single connection.
  *
  * @author Kris De Volder
  */
 public class SpringApplicationLifeCycleClientManager {
 
-	private Provider<JMXConnector> connectionProvider;
-	private JMXConnector connector;
+	private Provider<Integer> jmxPortProvider;
+	private JMXConnectionPool.Lease lease;
 	private SpringApplicationLifecycleClient client;
 
-	public SpringApplicationLifeCycleClientManager(Provider<JMXConnector> connectionProvider) {
-		Assert.isNotNull(connectionProvider);
-		this.connectionProvider = connectionProvider;
+	public SpringApplicationLifeCycleClientManager(Provider<Integer> jmxPortProvider) {
+		Assert.isNotNull(jmxPortProvider);
+		this.jmxPortProvider = jmxPortProvider;
 	}
 
 	/**
 	 * Convenenience method, use ILaunch as the jmxPort provider.
 	 */
 	public SpringApplicationLifeCycleClientManager(ILaunch l) {
-		this(() -> createJMXConnection(BootLaunchConfigurationDelegate.getJMXPortAsInt(l)));
-	}
-
-	private static JMXConnector createJMXConnection(int port) {
-		if (port <=0) {
-			throw new IllegalStateException("JMX port not specified");
-		}
-		try {
-			return JMXClient.createLocalJmxConnector(port);
-		} catch (IOException e) {
-			return null;
-		}
+		this(() -> BootLaunchConfigurationDelegate.getJMXPortAsInt(l));
 	}
 
 	/**
 	 * Convenenience method, use a given fixed port.
 	 */
 	public SpringApplicationLifeCycleClientManager(int resolvedPort) {
-		this(() -> createJMXConnection(resolvedPort));
+		this(() -> resolvedPort);
 	}
 
 	/**
-	 * Dispose of current client and JMX connection. This does not
+	 * Dispose of current client and release its JMX connection. This does not
 	 * make the manager itself unusable, as an attempt will be made to
 	 * re-establish the connection the next time it is needed.
 	 */
 	public synchronized void disposeClient() {
-		try {
-			if (connector!=null) {
-				connector.close();
-			}
-		} catch (Exception e) {
-			//ignore
+		if (lease!=null) {
+			lease.dispose();
 		}
 		client = null;
-		connector = null;
+		lease = null;
+	}
+
+	/**
+	 * Like {@link #disposeClient()} but also closes the pooled JMX connection. Use this when
+	 * talking to the client failed, the connection may be broken.
+	 */
+	public synchronized void invalidateClient() {
+		if (lease!=null) {
+			lease.invalidate();
+		}
+		disposeClient();
 	}
 
 	/**
 	 * Try to obtain a client, may return null if a connection could not be established.
 	 */
-	public SpringApplicationLifecycleClient getLifeCycleClient() {
+	public synchronized SpringApplicationLifecycleClient getLifeCycleClient() {
 		try {
 			if (client==null) {
-				connector = connectionProvider.get();
+				Integer port = jmxPortProvider.get();
+				if (port==null || port <=0) {
+					throw new IllegalStateException("JMX port not specified");
+				}
+				lease = JMXConnectionPool.getDefault().lease(port);
 				client = new SpringApplicationLifecycleClient(
-						connector.getMBeanServerConnection(),
+						lease.getConnection(),
 						SpringApplicationLifecycleClient.DEFAULT_OBJECT_NAME
 				);
 			}
@@ -94,7 +96,7 @@ public class SpringApplicationLifeCycleClientManager {
 			//e.printStackTrace();
 			//Someting went wrong creating client (most likely process we are trying to connect
 			// doesn't exist yet or has been terminated.
-			disposeClient();
+			invalidateClient();
 		}
 		return null;
 	}
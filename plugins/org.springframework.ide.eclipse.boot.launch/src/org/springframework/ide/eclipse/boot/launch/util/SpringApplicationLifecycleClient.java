@@ -14,9 +14,12 @@ import java.io.IOException;
 
 import javax.management.AttributeNotFoundException;
 import javax.management.InstanceNotFoundException;
+import javax.management.ListenerNotFoundException;
 import javax.management.MBeanException;
 import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerDelegate;
 import javax.management.MalformedObjectNameException;
+import javax.management.NotificationListener;
 import javax.management.ObjectName;
 import javax.management.ReflectionException;
 
@@ -71,6 +74,20 @@ public class SpringApplicationLifecycleClient {
 		}
 	}
 
+	/**
+	 * Registers a listener that is notified whenever an mbean is registered or unregistered
+	 * in the application's mbean server. This is how we can tell an application is making
+	 * progress starting up without repeatedly asking it.
+	 * @throws IOException if the JMX service could not be contacted
+	 */
+	public void addMBeanRegistrationListener(NotificationListener listener) throws InstanceNotFoundException, IOException {
+		this.connection.addNotificationListener(MBeanServerDelegate.DELEGATE_NAME, listener, null, null);
+	}
+
+	public void removeMBeanRegistrationListener(NotificationListener listener) throws InstanceNotFoundException, ListenerNotFoundException, IOException {
+		this.connection.removeNotificationListener(MBeanServerDelegate.DELEGATE_NAME, listener);
+	}
+
 	public int getProperty(String prop, int defaultValue) throws InstanceNotFoundException, MBeanException, ReflectionException, IOException {
 		Object o = this.connection.invoke(this.objectName,"getProperty",
 				new String[] {prop},
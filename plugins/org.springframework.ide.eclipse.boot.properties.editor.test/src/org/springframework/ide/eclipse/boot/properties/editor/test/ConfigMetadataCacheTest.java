@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.boot.properties.editor.ConfigMetadataCache;
+import org.springframework.ide.eclipse.org.json.JSONObject;
+
+public class ConfigMetadataCacheTest {
+
+	private static final String METADATA = "META-INF/spring-configuration-metadata.json";
+
+	private static final String ADDITIONAL_METADATA = "META-INF/additional-spring-configuration-metadata.json";
+
+	private static final String JSON = "{\"properties\": [{\"name\": \"server.port\", \"type\": \"java.lang.Integer\"}]}";
+
+	private File tmp;
+	private File persistenceFolder;
+
+	@Before
+	public void setup() throws Exception {
+		tmp = Files.createTempDirectory("config-metadata-cache").toFile();
+		persistenceFolder = new File(tmp, "cache");
+	}
+
+	@After
+	public void teardown() throws Exception {
+		delete(tmp);
+	}
+
+	@Test
+	public void persistedDocumentReused() throws Exception {
+		File jar = jar("lib-1.0.jar", JSON);
+		assertNotNull(new ConfigMetadataCache(persistenceFolder).get(jar, METADATA)[0]);
+		assertEquals(1, cacheFiles());
+
+		//A new cache (e.g. after a restart) reads the persisted document
+		JSONObject json = new ConfigMetadataCache(persistenceFolder).get(jar, METADATA)[0];
+		assertEquals(1, json.getJSONArray("properties").length());
+		assertNull(new ConfigMetadataCache(persistenceFolder).get(jar, "META-INF/no-such-entry.json")[0]);
+	}
+
+	@Test
+	public void entriesOfJarCachedTogether() throws Exception {
+		File jar = jar("lib-1.0.jar", JSON);
+		JSONObject[] json = new ConfigMetadataCache(persistenceFolder).get(jar, METADATA, ADDITIONAL_METADATA);
+		assertEquals(2, json.length);
+		assertEquals(1, json[0].getJSONArray("properties").length());
+		assertEquals(0, json[1].getJSONArray("properties").length());
+		assertEquals(1, cacheFiles());
+
+		json = new ConfigMetadataCache(persistenceFolder).get(jar, METADATA, "META-INF/no-such-entry.json");
+		assertNotNull(json[0]);
+		assertNull(json[1]);
+	}
+
+	@Test
+	public void purgeDeletesDocumentsOfRemovedJars() throws Exception {
+		File removed = jar("lib-1.0.jar", JSON);
+		File kept = jar("other-1.0.jar", JSON);
+		ConfigMetadataCache cache = new ConfigMetadataCache(persistenceFolder);
+		cache.get(removed, METADATA);
+		cache.get(kept, METADATA);
+		assertEquals(2, cacheFiles());
+
+		assertEquals(0, cache.purge());
+		assertTrue(removed.delete());
+		assertEquals(1, cache.purge());
+		assertEquals(1, cacheFiles());
+		assertNotNull(new ConfigMetadataCache(persistenceFolder).get(kept, METADATA)[0]);
+	}
+
+	@Test
+	public void purgeDeletesDocumentsOfChangedJars() throws Exception {
+		File jar = jar("lib-1.0.jar", JSON);
+		ConfigMetadataCache cache = new ConfigMetadataCache(persistenceFolder);
+		cache.get(jar, METADATA);
+
+		jar("lib-1.0.jar", "{\"properties\": []}");
+		assertTrue(jar.setLastModified(jar.lastModified() + 2000));
+		assertEquals(1, cache.purge());
+		assertEquals(0, cacheFiles());
+	}
+
+	@Test
+	public void purgeDeletesUnreadableFiles() throws Exception {
+		persistenceFolder.mkdirs();
+		Files.write(new File(persistenceFolder, "garbage.bin").toPath(), new byte[] {1, 2, 3});
+		Files.write(new File(persistenceFolder, "leftover.bin.tmp").toPath(), new byte[] {1, 2, 3});
+		assertEquals(2, new ConfigMetadataCache(persistenceFolder).purge());
+	}
+
+	@Test
+	public void weightEstimatesParsedSize() throws Exception {
+		JSONObject small = new JSONObject("{\"a\": \"b\"}");
+		JSONObject large = new JSONObject(JSON);
+		assertTrue(ConfigMetadataCache.estimateSize(small) < ConfigMetadataCache.estimateSize(large));
+		//The parsed document takes considerably more heap than its json text
+		assertTrue(ConfigMetadataCache.estimateSize(large) > JSON.length());
+	}
+
+	private File jar(String name, String metadata) throws IOException {
+		File jar = new File(tmp, name);
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			out.putNextEntry(new ZipEntry(METADATA));
+			out.write(metadata.getBytes(StandardCharsets.UTF_8));
+			out.closeEntry();
+			out.putNextEntry(new ZipEntry(ADDITIONAL_METADATA));
+			out.write("{\"properties\": []}".getBytes(StandardCharsets.UTF_8));
+			out.closeEntry();
+		} finally {
+			out.close();
+		}
+		return jar;
+	}
+
+	private int cacheFiles() {
+		String[] names = persistenceFolder.list();
+		return names == null ? 0 : names.length;
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+}
@@ -10,9 +10,13 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.properties.editor.test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 import junit.framework.TestCase;
 
@@ -65,6 +69,71 @@ public class FuzzyMapTests extends TestCase {
 		);
 	}
 
+	public void testFindIsIdenticalToSequentialScan() {
+		TestMap map = new TestMap(createCorpus(20000));
+		for (String pattern : PATTERNS) {
+			List<Match<String>> found = map.find(pattern);
+			List<Match<String>> expected = sequentialFind(map, pattern);
+			assertEquals(pattern, expected.size(), found.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(pattern, expected.get(i).data, found.get(i).data);
+				assertEquals(pattern, expected.get(i).score, found.get(i).score);
+			}
+		}
+	}
+
+	public void testFindAfterAdd() {
+		TestMap map = new TestMap("server.port", "spring.application.name");
+		assertEquals(1, map.find("sport").size());
+		map.add("spring.port");
+		assertEquals(2, map.find("sport").size());
+		map.add("Spring.\u00d6ffnen");
+		assertEquals(1, map.find("\u00d6ff").size());
+	}
+
+	private static final String[] PATTERNS = {
+		"s", "sp", "spr", "server.port", "sport", "datasrc", "jpa.hib", "mgmt", "x", "zq", "logging.level", "Sec", "-"
+	};
+
+	private static final String[] WORDS = {
+		"spring", "server", "port", "datasource", "url", "jpa", "hibernate", "ddl-auto", "management",
+		"security", "user", "password", "logging", "level", "cache", "redis", "host", "timeout", "mvc",
+		"view", "prefix", "suffix", "jackson", "serialization", "mail", "smtp", "kafka", "consumer",
+		"group-id", "rabbitmq", "listener", "retry", "max-attempts", "actuator", "endpoints", "enabled",
+		"thymeleaf", "mode", "flyway", "locations", "liquibase", "quartz", "scheduler", "batch", "job"
+	};
+
+	private static String[] createCorpus(int size) {
+		Random random = new Random(4711);
+		Set<String> keys = new LinkedHashSet<>();
+		while (keys.size() < size) {
+			int segments = 2 + random.nextInt(4);
+			StringBuilder key = new StringBuilder();
+			for (int i = 0; i < segments; i++) {
+				if (i > 0) {
+					key.append('.');
+				}
+				key.append(WORDS[random.nextInt(WORDS.length)]);
+			}
+			if (random.nextInt(10) == 0) {
+				key.append("[").append(random.nextInt(10)).append("]");
+			}
+			keys.add(key.toString());
+		}
+		return keys.toArray(new String[keys.size()]);
+	}
+
+	private static List<Match<String>> sequentialFind(TestMap map, String pattern) {
+		List<Match<String>> matches = new ArrayList<>();
+		for (String key : map) {
+			double score = FuzzyMatcher.matchScore(pattern, key);
+			if (score != 0.0) {
+				matches.add(new Match<>(pattern, score, key));
+			}
+		}
+		return matches;
+	}
+
 	public class TestMap extends FuzzyMap<String> {
 		public TestMap(String... entries) {
 			for (String e : entries) {
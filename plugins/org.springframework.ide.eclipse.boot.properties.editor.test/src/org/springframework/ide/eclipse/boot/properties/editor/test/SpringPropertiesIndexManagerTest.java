@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor.test;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.junit.Test;
+import org.springframework.ide.eclipse.boot.properties.editor.FuzzyMap;
+import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertyIndex;
+import org.springframework.ide.eclipse.boot.properties.editor.metadata.PropertyInfo;
+import org.springframework.ide.eclipse.boot.properties.editor.metadata.ValueProviderRegistry;
+import org.springframework.ide.eclipse.boot.properties.editor.util.SpringPropertiesIndexManager;
+
+public class SpringPropertiesIndexManagerTest {
+
+	/**
+	 * Index manager that doesn't read any metadata and fails the rebuilds it is told to fail.
+	 */
+	private static class TestIndexManager extends SpringPropertiesIndexManager {
+
+		final AtomicInteger failures = new AtomicInteger();
+		final Semaphore changes = new Semaphore(0);
+
+		TestIndexManager() {
+			super(ValueProviderRegistry.getDefault());
+			addListener(info -> changes.release());
+		}
+
+		@Override
+		protected SpringPropertyIndex createIndex(IJavaProject jp) {
+			if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+				throw new IllegalStateException("Simulated failure while building index");
+			}
+			return new SpringPropertyIndex(ValueProviderRegistry.getDefault(), null);
+		}
+	}
+
+	private final IJavaProject project = JavaCore.create(ResourcesPlugin.getWorkspace().getRoot().getProject("index-manager-test"));
+
+	@Test
+	public void rebuildReplacesIndex() throws Exception {
+		TestIndexManager manager = new TestIndexManager();
+		FuzzyMap<PropertyInfo> index = manager.get(project);
+		assertSame(index, manager.get(project));
+
+		manager.classpathChanged(project);
+		assertTrue(manager.changes.tryAcquire(10, TimeUnit.SECONDS));
+		assertNotSame(index, manager.get(project));
+	}
+
+	@Test
+	public void failedRebuildDoesNotBlockLaterRebuilds() throws Exception {
+		TestIndexManager manager = new TestIndexManager();
+		FuzzyMap<PropertyInfo> index = manager.get(project);
+
+		manager.failures.set(1);
+		manager.classpathChanged(project);
+		long timeout = System.currentTimeMillis() + 10000;
+		while (manager.failures.get() > 0) {
+			assertTrue(System.currentTimeMillis() < timeout);
+			Thread.sleep(10);
+		}
+		//The previous index is still served
+		assertSame(index, manager.get(project));
+
+		//Later changes still get the index rebuilt
+		while (!manager.changes.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+			assertTrue("Index not rebuilt after failure", System.currentTimeMillis() < timeout);
+			manager.classpathChanged(project);
+		}
+		assertNotSame(index, manager.get(project));
+	}
+
+}
@@ -26,6 +26,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.ide.eclipse.org.json.JSONException;
+import org.springframework.ide.eclipse.org.json.JSONObject;
 
 /**
  * Load a {@link ConfigurationMetadataRepository} from the content of arbitrary
@@ -87,6 +88,56 @@ public final class ConfigurationMetadataRepositoryJsonBuilder {
 		return this;
 	}
 
+	/**
+	 * Add the content of a {@link ConfigurationMetadataRepository} defined by an
+	 * already parsed json document (see {@link #parseJson(InputStream, Charset)}). The
+	 * document is only read, so the same document may be added to several builders.
+	 * @param json the parsed json document
+	 * @return this builder
+	 * @throws IOException in case of errors reading the document
+	 */
+	public ConfigurationMetadataRepositoryJsonBuilder withJson(JSONObject json)
+			throws IOException {
+		if (json == null) {
+			throw new IllegalArgumentException("JSONObject must not be null.");
+		}
+		try {
+			this.rawDatas.add(this.reader.read(json));
+		}
+		catch (JSONException ex) {
+			throw new IllegalArgumentException(
+					"Invalid configuration " + "metadata document", ex);
+		}
+		return this;
+	}
+
+	/**
+	 * Parse a json metadata document without converting it to metadata items, so that
+	 * the result can be cached and added to builders with {@link #withJson(JSONObject)}.
+	 * <p>
+	 * Closes the stream when done.
+	 * @param inputStream the source input stream
+	 * @param charset the charset of the input
+	 * @return the parsed document
+	 * @throws IOException in case of I/O errors
+	 */
+	public static JSONObject parseJson(InputStream inputStream, Charset charset)
+			throws IOException {
+		try {
+			return new JsonReader().readJson(inputStream, charset);
+		}
+		catch (IOException ex) {
+			throw ex;
+		}
+		catch (JSONException ex) {
+			throw new IllegalArgumentException(
+					"Invalid configuration " + "metadata document", ex);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
 	/**
 	 * Build a {@link ConfigurationMetadataRepository} with the current state of this
 	 * builder.
@@ -42,7 +42,25 @@ class JsonReader {
 	public RawConfigurationMetadata read(InputStream in, Charset charset)
 			throws IOException {
 		try {
-			JSONObject json = readJson(in, charset);
+			return read(readJson(in, charset));
+		}
+		catch (Exception ex) {
+			if (ex instanceof IOException) {
+				throw (IOException) ex;
+			}
+			if (ex instanceof RuntimeException) {
+				throw (RuntimeException) ex;
+			}
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Read an already parsed json document. The document is not modified, so it may be
+	 * shared and read again.
+	 */
+	public RawConfigurationMetadata read(JSONObject json) throws IOException {
+		try {
 			List<ConfigurationMetadataSource> groups = parseAllSources(json);
 			List<ConfigurationMetadataItem> items = parseAllItems(json);
 			List<ConfigurationMetadataHint> hints = parseAllHints(json);
@@ -204,7 +222,7 @@ class JsonReader {
 		return value;
 	}
 
-	private JSONObject readJson(InputStream in, Charset charset) throws Exception {
+	JSONObject readJson(InputStream in, Charset charset) throws Exception {
 		try {
 			StringBuilder out = new StringBuilder();
 			InputStreamReader reader = new InputStreamReader(in, charset);
@@ -0,0 +1,353 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.boot.properties.editor;
+
+import static org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesCompletionEngine.debug;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepositoryJsonBuilder;
+import org.springframework.ide.eclipse.org.json.JSONArray;
+import org.springframework.ide.eclipse.org.json.JSONObject;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
+/**
+ * Workspace-wide cache of the parsed config metadata json documents found in jar files.
+ * <p>
+ * Entries are keyed by jar path and hold all the requested metadata entries of the jar,
+ * which are read in a single pass over the jar. They are only used while the size and
+ * modification time of the jar file are unchanged. Jars without metadata are
+ * cached as well, so they don't have to be opened again. The documents are held in
+ * memory up to a limit on their estimated heap size; if a persistence folder is given,
+ * the raw json is also written to disk, so that after a restart the jar files don't have
+ * to be opened again. Persisted documents of jars that no longer exist or have changed
+ * are removed by {@link #purge()}.
+ * <p>
+ * The cached documents are shared between projects and must only be read, see
+ * {@link ConfigurationMetadataRepositoryJsonBuilder#withJson(JSONObject)}.
+ */
+public class ConfigMetadataCache {
+
+	/**
+	 * Upper limit for the estimated heap size (in bytes) of all parsed documents held in memory.
+	 */
+	private static final long MAX_WEIGHT = 64 * 1024 * 1024;
+
+	private static final String PERSISTENCE_FILE_EXTENSION = ".bin";
+
+	private static final String TEMP_FILE_EXTENSION = ".tmp";
+
+	private static final String ENTRY_SEPARATOR = "!/";
+
+	private static final String ENTRY_NAME_SEPARATOR = ",";
+
+	private static final int FORMAT_VERSION = 2;
+
+	private final Cache<String, Entry> cache = CacheBuilder.newBuilder()
+			.maximumWeight(MAX_WEIGHT)
+			.weigher(new Weigher<String, Entry>() {
+				@Override
+				public int weigh(String key, Entry entry) {
+					return Math.max(1, entry.weight);
+				}
+			})
+			.build();
+
+	private final File persistenceFolder;
+
+	/**
+	 * @param persistenceFolder Folder to persist the raw json to, or null to keep the cache in memory only.
+	 */
+	public ConfigMetadataCache(File persistenceFolder) {
+		this.persistenceFolder = persistenceFolder;
+	}
+
+	/**
+	 * Get the parsed metadata documents stored in the given jar file. All the entries are
+	 * read in one pass over the jar and are cached together.
+	 *
+	 * @return The parsed documents in the order of the given entry names, with null for
+	 *         the entries the jar doesn't contain.
+	 */
+	public JSONObject[] get(File jarFile, String... entryNames) throws IOException {
+		String key = jarFile.getAbsolutePath()+ENTRY_SEPARATOR+String.join(ENTRY_NAME_SEPARATOR, entryNames);
+		long size = jarFile.length();
+		long lastModified = jarFile.lastModified();
+
+		Entry entry = cache.getIfPresent(key);
+		if (entry==null || !entry.isValid(size, lastModified)) {
+			entry = loadPersisted(key, size, lastModified, entryNames.length);
+			if (entry==null) {
+				byte[][] contents = readFromJar(jarFile, entryNames);
+				persist(key, size, lastModified, contents);
+				entry = new Entry(size, lastModified, contents);
+			}
+			cache.put(key, entry);
+		}
+		return entry.json.clone();
+	}
+
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * Deletes the persisted documents of jar files that no longer exist or have changed
+	 * since the document was persisted, as well as unreadable and left-over temporary files.
+	 *
+	 * @return The number of deleted files.
+	 */
+	public int purge() {
+		if (persistenceFolder==null) {
+			return 0;
+		}
+		File[] files = persistenceFolder.listFiles();
+		if (files==null) {
+			return 0;
+		}
+		int deleted = 0;
+		for (File file : files) {
+			String name = file.getName();
+			boolean obsolete;
+			if (name.endsWith(TEMP_FILE_EXTENSION)) {
+				obsolete = true;
+			} else if (name.endsWith(PERSISTENCE_FILE_EXTENSION)) {
+				obsolete = !isUpToDate(file);
+			} else {
+				obsolete = false;
+			}
+			if (obsolete && file.delete()) {
+				deleted++;
+			}
+		}
+		debug("purged config metadata cache files: "+deleted);
+		return deleted;
+	}
+
+	/**
+	 * @return Whether the jar file the given persisted document was read from still exists and is unchanged.
+	 */
+	private static boolean isUpToDate(File file) {
+		try {
+			DataInputStream in = new DataInputStream(new FileInputStream(file));
+			try {
+				if (in.readInt()!=FORMAT_VERSION) {
+					return false;
+				}
+				String key = in.readUTF();
+				int separator = key.indexOf(ENTRY_SEPARATOR);
+				if (separator<0) {
+					return false;
+				}
+				File jarFile = new File(key.substring(0, separator));
+				return jarFile.isFile() && in.readLong()==jarFile.length() && in.readLong()==jarFile.lastModified();
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return The raw content of the given entries, with null for the entries the jar doesn't contain.
+	 */
+	private byte[][] readFromJar(File f, String[] entryNames) throws IOException {
+		debug("load from jar: "+f);
+		byte[][] contents = new byte[entryNames.length][];
+		JarFile jarFile = new JarFile(f);
+		try {
+			for (int i = 0; i < entryNames.length; i++) {
+				ZipEntry e = jarFile.getEntry(entryNames[i]);
+				if (e!=null) {
+					contents[i] = readAll(jarFile.getInputStream(e));
+				}
+			}
+			return contents;
+		} finally {
+			jarFile.close();
+		}
+	}
+
+	private Entry loadPersisted(String key, long size, long lastModified, int count) {
+		File file = getPersistenceFile(key);
+		if (file==null || !file.isFile()) {
+			return null;
+		}
+		try {
+			DataInputStream in = new DataInputStream(new FileInputStream(file));
+			try {
+				if (in.readInt()!=FORMAT_VERSION || !key.equals(in.readUTF())
+						|| in.readLong()!=size || in.readLong()!=lastModified || in.readInt()!=count) {
+					return null;
+				}
+				byte[][] contents = new byte[count][];
+				for (int i = 0; i < count; i++) {
+					int length = in.readInt();
+					if (length>=0) {
+						contents[i] = new byte[length];
+						in.readFully(contents[i]);
+					}
+				}
+				return new Entry(size, lastModified, contents);
+			} finally {
+				in.close();
+			}
+		} catch (Exception e) {
+			//Corrupt or outdated, just read the jar again.
+			file.delete();
+			return null;
+		}
+	}
+
+	private void persist(String key, long size, long lastModified, byte[][] contents) {
+		File file = getPersistenceFile(key);
+		if (file==null) {
+			return;
+		}
+		try {
+			if (!persistenceFolder.isDirectory() && !persistenceFolder.mkdirs()) {
+				return;
+			}
+			File tmp = new File(persistenceFolder, file.getName()+TEMP_FILE_EXTENSION);
+			DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp));
+			try {
+				out.writeInt(FORMAT_VERSION);
+				out.writeUTF(key);
+				out.writeLong(size);
+				out.writeLong(lastModified);
+				out.writeInt(contents.length);
+				for (byte[] content : contents) {
+					if (content==null) {
+						out.writeInt(-1);
+					} else {
+						out.writeInt(content.length);
+						out.write(content);
+					}
+				}
+			} finally {
+				out.close();
+			}
+			if (!tmp.renameTo(file)) {
+				file.delete();
+				if (!tmp.renameTo(file)) {
+					tmp.delete();
+				}
+			}
+		} catch (IOException e) {
+			SpringPropertiesEditorPlugin.log(e);
+		}
+	}
+
+	private File getPersistenceFile(String key) {
+		if (persistenceFolder==null) {
+			return null;
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+			return new File(persistenceFolder, String.format("%040x", new BigInteger(1, hash))+PERSISTENCE_FILE_EXTENSION);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	private static JSONObject parse(byte[] content) throws IOException {
+		return ConfigurationMetadataRepositoryJsonBuilder.parseJson(new ByteArrayInputStream(content),
+				ConfigurationMetadataRepositoryJsonBuilder.UTF_8);
+	}
+
+	/**
+	 * Rough estimate of the heap used by a parsed json value, in bytes. Takes the object headers,
+	 * the hash map entries of json objects and the char arrays of strings into account.
+	 */
+	public static long estimateSize(Object value) {
+		if (value instanceof JSONObject) {
+			JSONObject object = (JSONObject) value;
+			long size = 64 + 40L * object.length();
+			for (Iterator<?> keys = object.keys(); keys.hasNext();) {
+				String key = (String) keys.next();
+				size += estimateSize(key) + estimateSize(object.opt(key));
+			}
+			return size;
+		} else if (value instanceof JSONArray) {
+			JSONArray array = (JSONArray) value;
+			long size = 40 + 8L * array.length();
+			for (int i = 0; i < array.length(); i++) {
+				size += estimateSize(array.opt(i));
+			}
+			return size;
+		} else if (value instanceof String) {
+			return 40 + 2L * ((String) value).length();
+		}
+		return 16;
+	}
+
+	private static byte[] readAll(InputStream is) throws IOException {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = is.read(buffer))!=-1) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		} finally {
+			is.close();
+		}
+	}
+
+	private static class Entry {
+		final long size;
+		final long lastModified;
+		final JSONObject[] json;
+		final int weight;
+
+		/**
+		 * @param contents The raw json of each entry, or null if the jar doesn't contain the entry.
+		 */
+		Entry(long size, long lastModified, byte[][] contents) throws IOException {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.json = new JSONObject[contents.length];
+			long weight = 1;
+			for (int i = 0; i < contents.length; i++) {
+				if (contents[i]!=null) {
+					json[i] = parse(contents[i]);
+					weight += estimateSize(json[i]);
+				}
+			}
+			this.weight = (int) Math.min(Integer.MAX_VALUE, weight);
+		}
+
+		boolean isValid(long size, long lastModified) {
+			return this.size==size && this.lastModified==lastModified;
+		}
+	}
+
+}
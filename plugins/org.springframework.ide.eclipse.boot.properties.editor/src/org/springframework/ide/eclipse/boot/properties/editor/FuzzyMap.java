@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 Pivotal, Inc.
+ * Copyright (c) 2014, 2018 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,7 @@
 package org.springframework.ide.eclipse.boot.properties.editor;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -68,6 +69,12 @@ public abstract class FuzzyMap<E> implements Iterable<E> {
 
 	private TreeMap<String,E> entries = new TreeMap<>();
 
+	/**
+	 * Index used by {@link #find(String)} to prune candidates before scoring them. Created lazily
+	 * and discarded whenever an entry is added.
+	 */
+	private volatile SearchIndex<E> index;
+
 	protected abstract String getKey(E entry);
 
 	public void add(E value) {
@@ -76,6 +83,7 @@ public abstract class FuzzyMap<E> implements Iterable<E> {
 		E existing = entries.get(key);
 		if (existing==null) {
 			entries.put(getKey(value), value);
+			index = null;
 		} else {
 			SpringPropertiesEditorPlugin.warning(FuzzyMap.class.getName()+": Multiple entries for key "+key+" some entries discarded");
 		}
@@ -99,19 +107,112 @@ public abstract class FuzzyMap<E> implements Iterable<E> {
 			}
 			return matches;
 		} else {
-			//TODO: optimize somehow with a smarter index? (right now searches all map entries sequentially)
+			//Only keys that contain all characters of the pattern can match, so only those are scored.
+			SearchIndex<E> index = getIndex();
 			ArrayList<Match<E>> matches = new ArrayList<>();
-			for (Entry<String, E> e : entries.entrySet()) {
-				String key = e.getKey();
-				double score = FuzzyMatcher.matchScore(pattern, key);
+			BitSet candidates = index.getCandidates(pattern);
+			for (int i = candidates.nextSetBit(0); i>=0; i = candidates.nextSetBit(i+1)) {
+				double score = FuzzyMatcher.matchScore(pattern, index.keys[i]);
 				if (score!=0.0) {
-					matches.add(new Match<>(pattern, score, e.getValue()));
+					matches.add(new Match<>(pattern, score, index.values[i]));
 				}
 			}
 			return matches;
 		}
 	}
 
+	private SearchIndex<E> getIndex() {
+		SearchIndex<E> index = this.index;
+		if (index==null) {
+			synchronized (this) {
+				index = this.index;
+				if (index==null) {
+					this.index = index = new SearchIndex<>(entries);
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Inverted index from characters to the keys containing them. Keys are numbered in
+	 * the (sorted) iteration order of the entries, so candidates are visited in the
+	 * same order as a sequential scan of all entries would visit them.
+	 * <p>
+	 * The index is conservative: characters are compared case-insensitively and
+	 * characters without a slot of their own share one, so a candidate may still not match.
+	 * Keys with non-ascii characters are candidates for every pattern.
+	 */
+	private static class SearchIndex<E> {
+
+		private static final int SLOTS = 64;
+
+		final String[] keys;
+		final E[] values;
+		private final BitSet[] postings = new BitSet[SLOTS];
+		private final BitSet all;
+
+		@SuppressWarnings("unchecked")
+		SearchIndex(TreeMap<String, E> entries) {
+			int size = entries.size();
+			keys = new String[size];
+			values = (E[]) new Object[size];
+			for (int slot = 0; slot < SLOTS; slot++) {
+				postings[slot] = new BitSet(size);
+			}
+			all = new BitSet(size);
+			all.set(0, size);
+
+			int i = 0;
+			for (Entry<String, E> e : entries.entrySet()) {
+				String key = e.getKey();
+				keys[i] = key;
+				values[i] = e.getValue();
+				for (int j = 0; j < key.length(); j++) {
+					int slot = slot(key.charAt(j));
+					if (slot<0) {
+						//can't reason about case-insensitive matching of this one
+						for (BitSet posting : postings) {
+							posting.set(i);
+						}
+						break;
+					}
+					postings[slot].set(i);
+				}
+				i++;
+			}
+		}
+
+		BitSet getCandidates(String pattern) {
+			BitSet candidates = (BitSet) all.clone();
+			long seen = 0;
+			for (int i = 0; i < pattern.length() && !candidates.isEmpty(); i++) {
+				int slot = slot(pattern.charAt(i));
+				if (slot>=0 && (seen & (1L<<slot))==0) {
+					seen |= 1L<<slot;
+					candidates.and(postings[slot]);
+				}
+			}
+			return candidates;
+		}
+
+		/**
+		 * @return the slot of the given character, or -1 for non-ascii characters.
+		 */
+		private static int slot(char c) {
+			if (c>='a' && c<='z') {
+				return c-'a';
+			} else if (c>='A' && c<='Z') {
+				return c-'A';
+			} else if (c>='0' && c<='9') {
+				return 26+c-'0';
+			} else if (c<128) {
+				return 36+c%(SLOTS-36);
+			}
+			return -1;
+		}
+	}
+
 	/**
 	 * Searches the index for the longest string which is both
 	 *  - a prefix of propertyName
@@ -10,8 +10,12 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.properties.editor;
 
+import java.io.File;
+
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.preferences.DefaultScope;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
@@ -92,6 +96,38 @@ public class SpringPropertiesEditorPlugin extends AbstractUIPlugin {
 		return indexManager;
 	}
 
+	private static ConfigMetadataCache configMetadataCache;
+
+	/**
+	 * Folder in the plugin state location where parsed config metadata of jar files is persisted.
+	 */
+	private static final String CONFIG_METADATA_CACHE_FOLDER_NAME = "config-metadata";
+
+	public static synchronized ConfigMetadataCache getConfigMetadataCache() {
+		if (configMetadataCache==null) {
+			File persistenceFolder = null;
+			SpringPropertiesEditorPlugin plugin = getDefault();
+			if (plugin!=null) {
+				persistenceFolder = plugin.getStateLocation().append(CONFIG_METADATA_CACHE_FOLDER_NAME).toFile();
+			}
+			configMetadataCache = new ConfigMetadataCache(persistenceFolder);
+			if (persistenceFolder!=null) {
+				final ConfigMetadataCache cache = configMetadataCache;
+				Job purgeJob = new Job("Purge Spring Boot config metadata cache") {
+					@Override
+					protected IStatus run(IProgressMonitor monitor) {
+						cache.purge();
+						return Status.OK_STATUS;
+					}
+				};
+				purgeJob.setSystem(true);
+				purgeJob.setPriority(Job.DECORATE);
+				purgeJob.schedule();
+			}
+		}
+		return configMetadataCache;
+	}
+
 	public IEclipsePreferences getDefaultPreferences() {
 		return DefaultScope.INSTANCE.getNode(PLUGIN_ID);
 	}
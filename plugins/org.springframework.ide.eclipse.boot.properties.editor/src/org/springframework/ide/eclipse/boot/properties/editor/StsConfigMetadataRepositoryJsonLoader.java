@@ -15,8 +15,6 @@ import static org.springframework.ide.eclipse.boot.properties.editor.SpringPrope
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.jar.JarFile;
-import java.util.zip.ZipEntry;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -30,6 +28,7 @@ import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaCore;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepository;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepositoryJsonBuilder;
+import org.springframework.ide.eclipse.org.json.JSONObject;
 import org.springsource.ide.eclipse.commons.frameworks.core.util.FileUtil;
 
 /**
@@ -143,44 +142,15 @@ public class StsConfigMetadataRepositoryJsonLoader {
 	}
 
 	private void loadFromJar(File f) {
-		debug("load from jar: "+f);
-		JarFile jarFile = null;
 		try {
-			jarFile = new JarFile(f);
-			//jarDump(jarFile);
-			for (String loc : JAR_META_DATA_LOCATIONS) {
-				ZipEntry e = jarFile.getEntry(loc);
-				if (e!=null) {
-					loadFrom(jarFile, e);
+			ConfigMetadataCache cache = SpringPropertiesEditorPlugin.getConfigMetadataCache();
+			for (JSONObject json : cache.get(f, JAR_META_DATA_LOCATIONS)) {
+				if (json!=null) {
+					builder.withJson(json);
 				}
 			}
 		} catch (Throwable e) {
 			SpringPropertiesEditorPlugin.log(e);
-		} finally {
-			if (jarFile!=null) {
-				try {
-					jarFile.close();
-				} catch (IOException e) {
-				}
-			}
-		}
-	}
-
-
-	private void loadFrom(JarFile jarFile, ZipEntry ze) {
-		InputStream is = null;
-		try {
-			is = jarFile.getInputStream(ze);
-			loadFromInputStream(jarFile.getName()+"["+ze.getName()+"]", is);
-		} catch (Throwable e) {
-			SpringPropertiesEditorPlugin.log(e);
-		} finally {
-			if (is!=null) {
-				try {
-					is.close();
-				} catch (IOException e) {
-				}
-			}
 		}
 	}
 
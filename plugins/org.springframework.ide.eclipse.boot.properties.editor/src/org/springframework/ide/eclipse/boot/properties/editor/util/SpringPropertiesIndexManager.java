@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 Pivotal, Inc.
+ * Copyright (c) 2014, 2018 Pivotal, Inc.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,8 +10,12 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.boot.properties.editor.util;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -20,11 +24,17 @@ import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
 import org.springframework.ide.eclipse.boot.properties.editor.FuzzyMap;
 import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertiesEditorPlugin;
 import org.springframework.ide.eclipse.boot.properties.editor.SpringPropertyIndex;
@@ -37,17 +47,28 @@ import org.springframework.ide.eclipse.boot.properties.editor.metadata.ValueProv
  * file all make use of a per-project index of spring properties metadata extracted
  * from project's classpath. This Index manager is responsible for keeping at most
  * one index per-project and to keep the index up-to-date.
+ * <p>
+ * A change only invalidates the index of the affected project and the indexes of
+ * projects that (transitively) depend on it. Invalidated indexes are rebuilt in a
+ * background job; until the new index is ready, the previous one is served.
  *
  * @author Kris De Volder
  */
 public class SpringPropertiesIndexManager extends ListenerManager<Listener<SpringPropertiesIndexManager>> implements ClasspathListener {
 
-	//TODO: More precise cache flushing?
-	// right now, any detected change that may affect the cached metadata results.
-	// in clearing the entire cache.
-	// Probably this is okay, since reading the data is pretty fast.
+	private final Map<String, SpringPropertyIndex> indexes = new HashMap<>();
+
+	/**
+	 * Incremented every time the index of a project is invalidated. A rebuild only
+	 * replaces the current index if no invalidation happened while it was running.
+	 */
+	private final Map<String, Integer> generations = new HashMap<>();
+
+	/**
+	 * Projects with a rebuild job that is scheduled or running.
+	 */
+	private final Set<String> rebuilding = new HashSet<>();
 
-	private Map<String, SpringPropertyIndex> indexes = null;
 	final private ValueProviderRegistry valueProviders;
 
 	public SpringPropertiesIndexManager(ValueProviderRegistry valueProviders) {
@@ -56,34 +77,38 @@ public class SpringPropertiesIndexManager extends ListenerManager<Listener<Sprin
 		ResourcesPlugin.getWorkspace().addResourceChangeListener(new LiveMetadataListener(), IResourceChangeEvent.POST_CHANGE);
 	}
 
-	public synchronized FuzzyMap<PropertyInfo> get(IJavaProject jp) {
+	public FuzzyMap<PropertyInfo> get(IJavaProject jp) {
 		String key = jp.getElementName();
-		if (indexes==null) {
-			indexes = new HashMap<>();
+		int generation;
+		synchronized (this) {
+			SpringPropertyIndex index = indexes.get(key);
+			if (index!=null) {
+				return index;
+			}
+			generation = getGeneration(key);
 		}
-		SpringPropertyIndex index = indexes.get(key);
-		if (index==null) {
-			index = new SpringPropertyIndex(valueProviders, jp);
+		//No previous index we could serve. So build it right here, but without
+		// holding the lock, so that other projects' indexes remain available.
+		SpringPropertyIndex index = createIndex(jp);
+		synchronized (this) {
+			SpringPropertyIndex existing = indexes.get(key);
+			if (existing!=null) {
+				return existing;
+			}
 			indexes.put(key, index);
+			if (generation!=getGeneration(key)) {
+				//Invalidated while we were building it.
+				scheduleRebuild(jp);
+			}
+			return index;
 		}
-		return index;
 	}
 
 	@Override
-	public synchronized void classpathChanged(IJavaProject jp) {
-		clear();
-	}
-
-	private void clear() {
-		if (indexes!=null) {
-			indexes.clear();
-			for (Listener<SpringPropertiesIndexManager> l : getListeners()) {
-				l.changed(this);
-			}
-		}
+	public void classpathChanged(IJavaProject jp) {
+		invalidate(jp);
 	}
 
-
 	/**
 	 * Called by LiveMetadataListener when a change to live json metadata file in the
 	 * output folder of a IJavaProject is detected.
@@ -91,8 +116,150 @@ public class SpringPropertiesIndexManager extends ListenerManager<Listener<Sprin
 	 * @param The project on which the metadata change was detected.
 	 * @param jsonFile The IFile in project's output folder that was changed.
 	 */
-	public synchronized void liveMetadataChanged(IJavaProject jp, IFile jsonFile) {
-		clear();
+	public void liveMetadataChanged(IJavaProject jp, IFile jsonFile) {
+		invalidate(jp);
+	}
+
+	/**
+	 * Marks the index of the given project, and of all indexed projects that depend on
+	 * it, as out-of-date and schedules their rebuild.
+	 */
+	private void invalidate(IJavaProject jp) {
+		String changed = jp.getElementName();
+		List<String> keys;
+		synchronized (this) {
+			generations.put(changed, getGeneration(changed)+1);
+			keys = new ArrayList<>(indexes.keySet());
+		}
+		//Resolving project dependencies calls into JDT, don't do that while holding the lock.
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		List<IJavaProject> affected = new ArrayList<>();
+		for (String key : keys) {
+			IJavaProject indexed = JavaCore.create(root.getProject(key));
+			if (key.equals(changed) || dependsOn(indexed, changed, new HashSet<String>())) {
+				affected.add(indexed);
+			}
+		}
+		synchronized (this) {
+			for (IJavaProject indexed : affected) {
+				String key = indexed.getElementName();
+				if (!key.equals(changed)) {
+					generations.put(key, getGeneration(key)+1);
+				}
+				scheduleRebuild(indexed);
+			}
+		}
+	}
+
+	/**
+	 * Drops the index of a project that was closed or deleted.
+	 */
+	private void projectRemoved(IProject project) {
+		synchronized (this) {
+			String key = project.getName();
+			if (indexes.remove(key)==null) {
+				return;
+			}
+			generations.put(key, getGeneration(key)+1);
+		}
+		notifyListeners();
+	}
+
+	private static boolean dependsOn(IJavaProject jp, String projectName, Set<String> visited) {
+		if (!visited.add(jp.getElementName()) || !jp.exists()) {
+			return false;
+		}
+		try {
+			IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+			for (String required : jp.getRequiredProjectNames()) {
+				if (required.equals(projectName)
+						|| dependsOn(JavaCore.create(root.getProject(required)), projectName, visited)) {
+					return true;
+				}
+			}
+		} catch (JavaModelException e) {
+			SpringPropertiesEditorPlugin.log(e);
+		}
+		return false;
+	}
+
+	private int getGeneration(String key) {
+		Integer generation = generations.get(key);
+		return generation==null ? 0 : generation;
+	}
+
+	private void scheduleRebuild(final IJavaProject jp) {
+		final String key = jp.getElementName();
+		if (!rebuilding.add(key)) {
+			//The running job checks the generation when it is done and rebuilds again if needed.
+			return;
+		}
+		Job job = new Job("Rebuilding Spring properties index for '"+key+"'") {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				boolean changed = rebuild(jp);
+				if (changed) {
+					notifyListeners();
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		job.setPriority(Job.SHORT);
+		job.schedule();
+	}
+
+	/**
+	 * Rebuilds the index of the given project until no invalidation happens while building.
+	 * @return true if a new index was installed.
+	 */
+	private boolean rebuild(IJavaProject jp) {
+		String key = jp.getElementName();
+		boolean done = false;
+		try {
+			while (true) {
+				int generation;
+				synchronized (this) {
+					if (!indexes.containsKey(key)) {
+						//Removed in the meantime, nobody needs it anymore.
+						rebuilding.remove(key);
+						done = true;
+						return false;
+					}
+					generation = getGeneration(key);
+				}
+				SpringPropertyIndex index = createIndex(jp);
+				synchronized (this) {
+					if (generation==getGeneration(key)) {
+						rebuilding.remove(key);
+						done = true;
+						if (!indexes.containsKey(key)) {
+							return false;
+						}
+						indexes.put(key, index);
+						return true;
+					}
+				}
+			}
+		} finally {
+			if (!done) {
+				//Building the index failed. Keep serving the previous index, but let the next
+				//invalidation schedule a new rebuild.
+				synchronized (this) {
+					rebuilding.remove(key);
+				}
+			}
+		}
+	}
+
+	protected SpringPropertyIndex createIndex(IJavaProject jp) {
+		return new SpringPropertyIndex(valueProviders, jp);
+	}
+
+	private void notifyListeners() {
+		for (Listener<SpringPropertiesIndexManager> l : getListeners()) {
+			l.changed(this);
+		}
 	}
 
 	private class LiveMetadataListener implements IResourceChangeListener, IResourceDeltaVisitor {
@@ -123,9 +290,9 @@ public class SpringPropertiesIndexManager extends ListenerManager<Listener<Sprin
 							liveMetadataChanged(jp, jsonFile);
 						}
 					}
-				} else {
-					//TODO: not accessible (closed or deleted?)
-					//  Do we need to do something with these?
+				} else if (!p.isAccessible()) {
+					//closed or deleted
+					projectRemoved(p);
 				}
 				return false;
 			default:
@@ -24,12 +24,15 @@ import org.eclipse.core.runtime.Status;
 import org.osgi.framework.BundleContext;
 import org.springframework.ide.eclipse.core.internal.model.SpringModel;
 import org.springframework.ide.eclipse.core.java.ITypeStructureCache;
+import org.springframework.ide.eclipse.core.java.ProjectClassLoaderCache;
 import org.springframework.ide.eclipse.core.java.TypeStructureCache;
 import org.springframework.ide.eclipse.core.java.typehierarchy.BytecodeTypeHierarchyClassReaderFactory;
 import org.springframework.ide.eclipse.core.java.typehierarchy.DirectTypeHierarchyElementCacheFactory;
 import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyIndex;
 import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyResourceChangeListener;
 import org.springframework.ide.eclipse.core.model.ISpringModel;
+import org.springframework.ide.eclipse.core.model.validation.AbstractValidator;
 
 /**
  * Central access point for the Spring IDE core plug-in (id <code>"org.springframework.ide.eclipse.core"</code>).
@@ -65,6 +68,8 @@ public class SpringCore extends Plugin {
 
 	private static final String RESOURCE_NAME = PLUGIN_ID + ".messages";
 
+	private static final String TYPE_HIERARCHY_INDEX_FOLDER_NAME = "typehierarchy";
+
 	/** The identifier for enablement of project versus workspace settings */
 	public static final String PROJECT_PROPERTY_ID = "enable.project.preferences";
 
@@ -74,6 +79,21 @@ public class SpringCore extends Plugin {
 	/** Temporally setting to enable or disable the use of XBean's non-locking classloader infrastructure */
 	public static final String USE_NON_LOCKING_CLASSLOADER = PLUGIN_ID + ".useNonLockingClassLoader";
 
+	/** Estimated memory (in MB) the cached project class loaders may occupy */
+	public static final String CLASSLOADER_CACHE_SIZE = PLUGIN_ID + ".classLoaderCacheSize";
+
+	/** Setting to enable or disable the concurrent validation of independent resources */
+	public static final String ENABLE_PARALLEL_VALIDATION = PLUGIN_ID + ".enableParallelValidation";
+
+	/** Setting to enable or disable the collection of per-rule validation timings */
+	public static final String ENABLE_VALIDATION_PROFILING = PLUGIN_ID + ".enableValidationProfiling";
+
+	/** Time in ms a single validation rule may spend on one resource before a warning is logged; 0 disables it */
+	public static final String VALIDATION_RULE_BUDGET = PLUGIN_ID + ".validationRuleBudget";
+
+	/** Folder in the plug-in state location that holds the validation profiling reports */
+	public static final String VALIDATION_PROFILE_FOLDER_NAME = "validationprofile";
+
 	/** The shared instance */
 	private static SpringCore plugin;
 
@@ -87,6 +107,8 @@ public class SpringCore extends Plugin {
 	
 	private static TypeHierarchyEngine typeHierarchyEngine;
 
+	private static TypeHierarchyIndex typeHierarchyIndex;
+
 	/**
 	 * Creates the Spring core plug-in.
 	 * <p>
@@ -117,16 +139,28 @@ public class SpringCore extends Plugin {
 		super.start(context);
 		model.startup();
 		typeStructureCache.startup();
+		typeHierarchyIndex = new TypeHierarchyIndex(getStateLocation().append(TYPE_HIERARCHY_INDEX_FOLDER_NAME).toFile());
+		typeHierarchyEngine.setPersistentIndex(typeHierarchyIndex);
 		// install default for incremtal compilation
 		plugin.getPluginPreferences().setDefault(USE_CHANGE_DETECTION_IN_JAVA_FILES, true);
 		// non.locking classloader is not enabled by default
 		plugin.getPluginPreferences().setDefault(USE_NON_LOCKING_CLASSLOADER, false);
+		plugin.getPluginPreferences().setDefault(CLASSLOADER_CACHE_SIZE, ProjectClassLoaderCache.DEFAULT_CACHE_SIZE);
+		// parallel validation is not enabled by default
+		plugin.getPluginPreferences().setDefault(ENABLE_PARALLEL_VALIDATION, false);
+		// validation profiling is not enabled by default
+		plugin.getPluginPreferences().setDefault(ENABLE_VALIDATION_PROFILING, false);
+		plugin.getPluginPreferences().setDefault(VALIDATION_RULE_BUDGET, 0);
 	}
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
 		model.shutdown();
 		typeStructureCache.shutdown();
+		AbstractValidator.shutdownValidationPool();
+		if (typeHierarchyIndex != null) {
+			typeHierarchyIndex.save();
+		}
 		super.stop(context);
 	}
 
@@ -152,6 +186,15 @@ public class SpringCore extends Plugin {
 		return typeHierarchyEngine;
 	}
 
+	/**
+	 * Returns the workspace-wide persistent type hierarchy index, or <code>null</code> if the plug-in
+	 * has not been started yet.
+	 * @since 3.9.5
+	 */
+	public static final TypeHierarchyIndex getTypeHierarchyIndex() {
+		return typeHierarchyIndex;
+	}
+
 	/**
 	 * Returns the workspace instance.
 	 */
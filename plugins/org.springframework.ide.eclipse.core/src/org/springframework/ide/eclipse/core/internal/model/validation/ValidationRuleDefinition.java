@@ -43,6 +43,8 @@ public class ValidationRuleDefinition extends PersistablePreferenceObjectSupport
 
 	private static final String ENABLED_BY_DEFAULT_ATTRIBUTE = "enabledByDefault";
 
+	private static final String THREAD_SAFE_ATTRIBUTE = "threadSafe";
+
 	private static final String ENABLEMENT_PREFIX = "validator.rule.enable.";
 
 	private static final String PROPERTY_PREFIX = "validator.rule.property.";
@@ -87,6 +89,8 @@ public class ValidationRuleDefinition extends PersistablePreferenceObjectSupport
 
 	private boolean rulePropertiesInitialized;
 
+	private boolean threadSafe = false;
+
 	public ValidationRuleDefinition(String validatorID, IConfigurationElement element) throws CoreException {
 		this.validatorId = validatorID;
 		init(element);
@@ -116,7 +120,7 @@ public class ValidationRuleDefinition extends PersistablePreferenceObjectSupport
 		return ENABLEMENT_PREFIX + id;
 	}
 
-	public IValidationRule getRule() {
+	public synchronized IValidationRule getRule() {
 		if (propertyValues.size() > 0 && !rulePropertiesInitialized) {
 			BeanWrapper wrapper = new BeanWrapperImpl(rule);
 			for (Map.Entry<String, String> entry : propertyValues.entrySet()) {
@@ -136,6 +140,15 @@ public class ValidationRuleDefinition extends PersistablePreferenceObjectSupport
 		return validatorId;
 	}
 
+	/**
+	 * Returns <code>true</code> if the rule declared that it can be invoked concurrently from different
+	 * threads. Rules that don't declare it are treated as not thread-safe.
+	 * @since 3.9.5
+	 */
+	public boolean isThreadSafe() {
+		return threadSafe;
+	}
+
 	private void init(IConfigurationElement element) throws CoreException {
 		Object executable = element.createExecutableExtension(CLASS_ATTRIBUTE);
 		if (executable instanceof IValidationRule) {
@@ -151,6 +164,10 @@ public class ValidationRuleDefinition extends PersistablePreferenceObjectSupport
 		else {
 			setEnabledByDefault(true);
 		}
+		String threadSafeValue = element.getAttribute(THREAD_SAFE_ATTRIBUTE);
+		if (threadSafeValue != null) {
+			threadSafe = Boolean.valueOf(threadSafeValue);
+		}
 
 		// get configuration data
 		propertyValues = new HashMap<String, String>();
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.internal.project;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.QualifiedName;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.java.JdtUtils;
+
+/**
+ * Fingerprint of the resolved classpath of a project: the kind and path of every entry, plus size and modification
+ * time of every library jar. The classpath includes the entries that required projects export, transitively, the
+ * same as the Java builder sees them.
+ * <p>
+ * {@link SpringProjectContributionManager} stores the fingerprint each contributor last ran a full build against as
+ * a persistent project property, so that classpath change events that don't change the resolved classpath don't
+ * trigger another full build.
+ * @since 3.9.5
+ */
+public final class ClasspathFingerprint {
+
+	private static final String PROPERTY_PREFIX = "classpathFingerprint.";
+
+	private ClasspathFingerprint() {
+	}
+
+	/**
+	 * Computes the fingerprint of the resolved classpath of the given project.
+	 * @return the fingerprint or <code>null</code> if the classpath can't be resolved
+	 */
+	public static String compute(IProject project) {
+		StringBuilder fingerprint = new StringBuilder();
+		IJavaProject javaProject = JdtUtils.getJavaProject(project);
+		if (javaProject != null) {
+			try {
+				for (IClasspathEntry entry : getClasspath(javaProject)) {
+					fingerprint.append(entry.getEntryKind()).append(entry.getPath()).append(';');
+					if (entry.getEntryKind() == IClasspathEntry.CPE_LIBRARY) {
+						File library = getFile(entry.getPath());
+						if (library != null && library.isFile()) {
+							fingerprint.append(library.length()).append(':').append(library.lastModified()).append(';');
+						}
+					}
+				}
+				fingerprint.append(javaProject.getOutputLocation());
+			}
+			catch (CoreException e) {
+				return null;
+			}
+		}
+		return hash(fingerprint.toString());
+	}
+
+	/**
+	 * Returns the resolved classpath of the given project, followed by the source entries and the exported entries of
+	 * the projects it requires, transitively. Each project contributes its entries only once.
+	 */
+	public static List<IClasspathEntry> getClasspath(IJavaProject javaProject) throws JavaModelException {
+		List<IClasspathEntry> classpath = new ArrayList<IClasspathEntry>();
+		addClasspath(javaProject, false, classpath, new HashSet<IJavaProject>());
+		return classpath;
+	}
+
+	private static void addClasspath(IJavaProject javaProject, boolean exportedOnly, List<IClasspathEntry> classpath,
+			Set<IJavaProject> visited) throws JavaModelException {
+		if (javaProject == null || !visited.add(javaProject)) {
+			return;
+		}
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		for (IClasspathEntry entry : javaProject.getResolvedClasspath(true)) {
+			// the sources of a required project are always visible, its libraries only if exported
+			if (exportedOnly && !entry.isExported() && entry.getEntryKind() != IClasspathEntry.CPE_SOURCE) {
+				continue;
+			}
+			classpath.add(entry);
+			if (entry.getEntryKind() == IClasspathEntry.CPE_PROJECT) {
+				addClasspath(JdtUtils.getJavaProject(root.getProject(entry.getPath().lastSegment())), true,
+						classpath, visited);
+			}
+		}
+	}
+
+	/**
+	 * Returns the fingerprint the given contributor last ran a full build against, or <code>null</code> if unknown.
+	 */
+	public static String getLastBuilt(IProject project, String contributorId) {
+		if (contributorId == null) {
+			return null;
+		}
+		try {
+			return project.getPersistentProperty(getPropertyName(contributorId));
+		}
+		catch (CoreException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Records that the given contributor ran a full build against the given fingerprint.
+	 */
+	public static void setLastBuilt(IProject project, String contributorId, String fingerprint) {
+		if (contributorId == null || !project.isAccessible()) {
+			return;
+		}
+		try {
+			project.setPersistentProperty(getPropertyName(contributorId), fingerprint);
+		}
+		catch (CoreException e) {
+			SpringCore.log(e);
+		}
+	}
+
+	private static QualifiedName getPropertyName(String contributorId) {
+		return new QualifiedName(SpringCore.PLUGIN_ID, PROPERTY_PREFIX + contributorId);
+	}
+
+	/**
+	 * Returns the file in the local file system a classpath entry path refers to, or <code>null</code> if the path
+	 * denotes a workspace resource without local location.
+	 */
+	public static File getFile(IPath path) {
+		IResource member = ResourcesPlugin.getWorkspace().getRoot().findMember(path);
+		if (member != null) {
+			IPath location = member.getLocation();
+			return location != null ? location.toFile() : null;
+		}
+		return path.toFile();
+	}
+
+	/**
+	 * Returns the hex encoded SHA-1 hash of the given value.
+	 */
+	public static String hash(String value) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			return String.format("%040x", new BigInteger(1, digest.digest(value.getBytes(StandardCharsets.UTF_8))));
+		}
+		catch (Exception e) {
+			return Integer.toHexString(value.hashCode());
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.internal.project;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.ide.eclipse.core.SpringCore;
+
+/**
+ * Workspace-wide counters of the contributor runs of {@link SpringProjectContributionManager}, per project.
+ * <p>
+ * Besides full and incremental runs this counts the full builds that have been avoided because a classpath change
+ * event didn't change the {@link ClasspathFingerprint}, and the runs that have been skipped altogether because such
+ * a downgraded build had nothing to do. With the debug option
+ * <code>org.springframework.ide.eclipse.core/project/builder/debug</code> the counters of a project are dumped to
+ * <code>System.out</code> after every build.
+ * @since 3.9.5
+ */
+public final class ProjectBuildStatistics {
+
+	public static final String DEBUG_OPTION = SpringCore.PLUGIN_ID + "/project/builder/debug";
+
+	public static final boolean DEBUG = SpringCore.isDebug(DEBUG_OPTION);
+
+	private static final ConcurrentMap<String, Counters> PROJECTS = new ConcurrentHashMap<String, Counters>();
+
+	private ProjectBuildStatistics() {
+	}
+
+	/**
+	 * Records a full run of a contributor.
+	 */
+	public static void recordFullBuild(String projectName) {
+		getCounters(projectName).fullBuilds.incrementAndGet();
+	}
+
+	/**
+	 * Records an incremental run of a contributor.
+	 */
+	public static void recordIncrementalBuild(String projectName) {
+		getCounters(projectName).incrementalBuilds.incrementAndGet();
+	}
+
+	/**
+	 * Records a full run of a contributor that has been downgraded as the classpath didn't change.
+	 */
+	public static void recordAvoidedFullBuild(String projectName) {
+		getCounters(projectName).avoidedFullBuilds.incrementAndGet();
+	}
+
+	/**
+	 * Records a downgraded run of a contributor that has been skipped as there were no affected resources.
+	 */
+	public static void recordSkippedBuild(String projectName) {
+		getCounters(projectName).skippedBuilds.incrementAndGet();
+	}
+
+	public static long getFullBuilds(String projectName) {
+		Counters counters = PROJECTS.get(projectName);
+		return counters != null ? counters.fullBuilds.get() : 0;
+	}
+
+	public static long getIncrementalBuilds(String projectName) {
+		Counters counters = PROJECTS.get(projectName);
+		return counters != null ? counters.incrementalBuilds.get() : 0;
+	}
+
+	public static long getAvoidedFullBuilds(String projectName) {
+		Counters counters = PROJECTS.get(projectName);
+		return counters != null ? counters.avoidedFullBuilds.get() : 0;
+	}
+
+	public static long getSkippedBuilds(String projectName) {
+		Counters counters = PROJECTS.get(projectName);
+		return counters != null ? counters.skippedBuilds.get() : 0;
+	}
+
+	public static void reset() {
+		PROJECTS.clear();
+	}
+
+	/**
+	 * Writes the counters of all projects.
+	 */
+	public static void dump(PrintStream out) {
+		out.println("Spring project builds (project, full, incremental, avoided full, skipped):");
+		for (Map.Entry<String, Counters> entry : new TreeMap<String, Counters>(PROJECTS).entrySet()) {
+			dump(out, entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Writes the counters of the given project.
+	 */
+	public static void dump(PrintStream out, String projectName) {
+		Counters counters = PROJECTS.get(projectName);
+		if (counters != null) {
+			dump(out, projectName, counters);
+		}
+	}
+
+	private static void dump(PrintStream out, String projectName, Counters counters) {
+		out.println(String.format("  %s, %d, %d, %d, %d", projectName, counters.fullBuilds.get(),
+				counters.incrementalBuilds.get(), counters.avoidedFullBuilds.get(), counters.skippedBuilds.get()));
+	}
+
+	private static Counters getCounters(String projectName) {
+		Counters counters = PROJECTS.get(projectName);
+		if (counters == null) {
+			Counters newCounters = new Counters();
+			counters = PROJECTS.putIfAbsent(projectName, newCounters);
+			if (counters == null) {
+				counters = newCounters;
+			}
+		}
+		return counters;
+	}
+
+	private static class Counters {
+
+		final AtomicLong fullBuilds = new AtomicLong();
+		final AtomicLong incrementalBuilds = new AtomicLong();
+		final AtomicLong avoidedFullBuilds = new AtomicLong();
+		final AtomicLong skippedBuilds = new AtomicLong();
+	}
+
+}
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.internal.project;
 
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -102,8 +103,26 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 		final IProjectContributorState state = prepareState(project, builderDefinitions, validatorDefinitions);
 		
 		// check for classpath changes (that require a full build)
-		Object removed = classpathChanged.remove(project.getName());
-		final int buildKind = removed != null ? IncrementalProjectBuilder.FULL_BUILD : kind;
+		final boolean classpathChangedSinceLastBuild = classpathChanged.remove(project.getName()) != null;
+		final String fingerprint = classpathChangedSinceLastBuild || kind == IncrementalProjectBuilder.FULL_BUILD
+				? ClasspathFingerprint.compute(project) : null;
+
+		// Only contributors that last built against a different classpath need a full build
+		final Map<IProjectContributor, Integer> contributorKinds = new IdentityHashMap<IProjectContributor, Integer>();
+		for (ProjectBuilderDefinition builderDefinition : builderDefinitions) {
+			if (builderDefinition.isEnabled(project)) {
+				contributorKinds.put(builderDefinition.getProjectBuilder(), getContributorBuildKind(project,
+						builderDefinition.getId(), kind, classpathChangedSinceLastBuild, fingerprint));
+			}
+		}
+		for (ValidatorDefinition validatorDefinition : validatorDefinitions) {
+			if (validatorDefinition.isEnabled(project)) {
+				contributorKinds.put(validatorDefinition.getValidator(), getContributorBuildKind(project,
+						validatorDefinition.getID(), kind, classpathChangedSinceLastBuild, fingerprint));
+			}
+		}
+		final int buildKind = contributorKinds.containsValue(IncrementalProjectBuilder.FULL_BUILD)
+				? IncrementalProjectBuilder.FULL_BUILD : kind;
 		
 		// Fire start event on listeners
 		for (final IProjectContributionEventListener listener : listeners) {
@@ -118,17 +137,26 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 		// At first run all builders
 		for (ProjectBuilderDefinition builderDefinition : builderDefinitions) {
 			if (builderDefinition.isEnabled(project)) {
+				int contributorKind = contributorKinds.get(builderDefinition.getProjectBuilder());
 				Set<IResource> affectedResources = getAffectedResources(builderDefinition.getProjectBuilder(), project,
-						buildKind, delta);
-				runBuilder(builderDefinition, affectedResources, buildKind, monitor, listeners);
+						contributorKind, delta);
+				if (prepareRun(project, contributorKind, classpathChangedSinceLastBuild, delta, affectedResources)) {
+					runBuilder(builderDefinition, affectedResources, contributorKind, monitor, listeners);
+					finishRun(project, builderDefinition.getId(), contributorKind, fingerprint);
+				}
 			}
 		}
 
 		// Finally run all validators
 		for (ValidatorDefinition validatorDefinition : validatorDefinitions) {
 			if (validatorDefinition.isEnabled(project)) {
-				Set<IResource> affectedResources = getAffectedResources(validatorDefinition.getValidator(), project, buildKind, delta);
-				runValidator(validatorDefinition, affectedResources, buildKind, monitor, listeners);
+				int contributorKind = contributorKinds.get(validatorDefinition.getValidator());
+				Set<IResource> affectedResources = getAffectedResources(validatorDefinition.getValidator(), project,
+						contributorKind, delta);
+				if (prepareRun(project, contributorKind, classpathChangedSinceLastBuild, delta, affectedResources)) {
+					runValidator(validatorDefinition, affectedResources, contributorKind, monitor, listeners);
+					finishRun(project, validatorDefinition.getID(), contributorKind, fingerprint);
+				}
 			}
 		}
 
@@ -141,9 +169,61 @@ public class SpringProjectContributionManager extends IncrementalProjectBuilder
 			}, monitor);
 		}
 
+		if (ProjectBuildStatistics.DEBUG) {
+			ProjectBuildStatistics.dump(System.out, project.getName());
+		}
+
 		return null;
 	}
 
+	/**
+	 * Returns the kind of build the given contributor has to run. After a classpath change a full build is only
+	 * required if the contributor didn't run its last full build against the current {@link ClasspathFingerprint};
+	 * otherwise the requested kind of build is sufficient.
+	 */
+	private int getContributorBuildKind(IProject project, String contributorId, int kind, boolean classpathChanged,
+			String fingerprint) {
+		if (classpathChanged && kind != IncrementalProjectBuilder.FULL_BUILD
+				&& (fingerprint == null || !fingerprint.equals(ClasspathFingerprint.getLastBuilt(project, contributorId)))) {
+			return IncrementalProjectBuilder.FULL_BUILD;
+		}
+		return kind;
+	}
+
+	/**
+	 * Updates the build statistics for a contributor run.
+	 * <p>
+	 * A run only counts as an avoided full build if it has been downgraded after a classpath change and works off a
+	 * resource delta. Without a delta the run visits all resources of the project, the same as a full build does.
+	 * @return <code>false</code> if the run can be skipped as it has been downgraded from a full build and there are
+	 * no affected resources
+	 */
+	private boolean prepareRun(IProject project, int kind, boolean classpathChanged, IResourceDelta delta,
+			Set<IResource> affectedResources) {
+		if (kind == IncrementalProjectBuilder.FULL_BUILD) {
+			ProjectBuildStatistics.recordFullBuild(project.getName());
+			return true;
+		}
+		if (classpathChanged && delta != null) {
+			ProjectBuildStatistics.recordAvoidedFullBuild(project.getName());
+			if (affectedResources.isEmpty()) {
+				ProjectBuildStatistics.recordSkippedBuild(project.getName());
+				return false;
+			}
+		}
+		ProjectBuildStatistics.recordIncrementalBuild(project.getName());
+		return true;
+	}
+
+	/**
+	 * Remembers the classpath a contributor ran a full build against.
+	 */
+	private void finishRun(IProject project, String contributorId, int kind, String fingerprint) {
+		if (kind == IncrementalProjectBuilder.FULL_BUILD && fingerprint != null) {
+			ClasspathFingerprint.setLastBuilt(project, contributorId, fingerprint);
+		}
+	}
+
 	/**
 	 * Collects all affected resources from the given {@link IResourceDelta} and {@link IProjectContributor}.
 	 */
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.io.xml;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.apache.xerces.xni.grammars.XMLSchemaDescription;
+
+/**
+ * Thread-safe Xerces {@link XMLGrammarPool} that holds compiled XML Schema grammars,
+ * so that the XSDs referenced by XML documents are only resolved and compiled once.
+ * <p>
+ * Grammars are keyed by target namespace and schema location, as different versions of a schema (e.g.
+ * <code>spring-beans-3.0.xsd</code> and <code>spring-beans-4.0.xsd</code>) share the same namespace. Only schemas
+ * referenced by an absolute location are pooled; relative locations depend on the referencing document.
+ * <p>
+ * As the grammar behind a schema location depends on the classloader used to resolve it, a pool must only be used
+ * with one classpath. {@link #getGrammarPool(ClassLoader)} returns a shared pool for long-living classloaders, e.g.
+ * bundle classloaders; clients working with short-living classloaders over a given classpath keep their own pool
+ * and {@link #clear()} it when the classpath changes.
+ * @since 3.9.5
+ */
+public class SchemaGrammarPool implements XMLGrammarPool {
+
+	private static final Grammar[] NO_GRAMMARS = new Grammar[0];
+
+	private static final Map<ClassLoader, SchemaGrammarPool> POOLS = new WeakHashMap<ClassLoader, SchemaGrammarPool>();
+
+	private final Map<String, Grammar> grammars = new HashMap<String, Grammar>();
+
+	private boolean locked = false;
+
+	/**
+	 * Returns the workspace-wide grammar pool for schemas resolved by the given classloader.
+	 */
+	public static SchemaGrammarPool getGrammarPool(ClassLoader namespaceResolvingClassLoader) {
+		synchronized (POOLS) {
+			SchemaGrammarPool pool = POOLS.get(namespaceResolvingClassLoader);
+			if (pool == null) {
+				pool = new SchemaGrammarPool();
+				POOLS.put(namespaceResolvingClassLoader, pool);
+			}
+			return pool;
+		}
+	}
+
+	public Grammar[] retrieveInitialGrammarSet(String grammarType) {
+		// grammars are handed out on request only, as they can't be told apart by namespace
+		return NO_GRAMMARS;
+	}
+
+	public void cacheGrammars(String grammarType, Grammar[] newGrammars) {
+		if (!XMLGrammarDescription.XML_SCHEMA.equals(grammarType)) {
+			return;
+		}
+		synchronized (grammars) {
+			if (locked) {
+				return;
+			}
+			for (Grammar grammar : newGrammars) {
+				String key = getKey(grammar.getGrammarDescription());
+				if (key != null && !grammars.containsKey(key)) {
+					grammars.put(key, grammar);
+				}
+			}
+		}
+	}
+
+	public Grammar retrieveGrammar(XMLGrammarDescription description) {
+		String key = getKey(description);
+		if (key == null) {
+			return null;
+		}
+		synchronized (grammars) {
+			return grammars.get(key);
+		}
+	}
+
+	public void lockPool() {
+		synchronized (grammars) {
+			locked = true;
+		}
+	}
+
+	public void unlockPool() {
+		synchronized (grammars) {
+			locked = false;
+		}
+	}
+
+	public void clear() {
+		synchronized (grammars) {
+			grammars.clear();
+		}
+	}
+
+	public int size() {
+		synchronized (grammars) {
+			return grammars.size();
+		}
+	}
+
+	/**
+	 * Returns the key of the schema described by the given description, or <code>null</code> if the schema should
+	 * not be pooled.
+	 */
+	private static String getKey(XMLGrammarDescription description) {
+		if (!(description instanceof XMLSchemaDescription)) {
+			return null;
+		}
+		String location = description.getLiteralSystemId();
+		if (location == null) {
+			String[] hints = ((XMLSchemaDescription) description).getLocationHints();
+			if (hints != null && hints.length > 0) {
+				location = hints[0];
+			}
+		}
+		if (location == null || !isAbsolute(location)) {
+			return null;
+		}
+		String namespace = description.getNamespace();
+		return (namespace != null ? namespace : "") + " " + location;
+	}
+
+	private static boolean isAbsolute(String location) {
+		try {
+			return new URI(location).isAbsolute();
+		}
+		catch (Exception e) {
+			return false;
+		}
+	}
+
+}
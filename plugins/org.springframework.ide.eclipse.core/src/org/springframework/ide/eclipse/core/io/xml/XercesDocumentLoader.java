@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.io.xml;
 
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
 import org.springframework.beans.factory.xml.DocumentLoader;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
 import org.springframework.ide.eclipse.core.SpringCore;
@@ -29,6 +30,23 @@ import org.xml.sax.SAXNotSupportedException;
  */
 public class XercesDocumentLoader implements DocumentLoader {
 
+	private static final String GRAMMAR_POOL = "http://apache.org/xml/properties/internal/grammar-pool";
+
+	private final XMLGrammarPool grammarPool;
+
+	public XercesDocumentLoader() {
+		this(null);
+	}
+
+	/**
+	 * Creates a loader that takes compiled XML Schema grammars from and adds them to the given pool.
+	 * @param grammarPool the pool to share grammars with other loaders; can be <code>null</code>
+	 * @since 3.9.5
+	 */
+	public XercesDocumentLoader(XMLGrammarPool grammarPool) {
+		this.grammarPool = grammarPool;
+	}
+
 	public Document loadDocument(InputSource inputSource, EntityResolver entityResolver, ErrorHandler errorHandler,
 			int validationMode, boolean namespaceAware) throws Exception {
 		try {
@@ -43,6 +61,9 @@ public class XercesDocumentLoader implements DocumentLoader {
 				parser.setFeature("http://apache.org/xml/features/validation/dynamic", false);
 				if (validationMode == XmlBeanDefinitionReader.VALIDATION_XSD) {
 					parser.setFeature("http://apache.org/xml/features/validation/schema", true);
+					if (grammarPool != null) {
+						parser.setProperty(GRAMMAR_POOL, grammarPool);
+					}
 				}
 			}
 			parser.parse(inputSource);
@@ -0,0 +1,411 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.IAnnotation;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IImportDeclaration;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * Index of the annotations used in the sources of a Java project, mapping annotation types to the types annotated
+ * with them.
+ * <p>
+ * A type counts as annotated with an annotation if the annotation is present on the type itself or on one of its
+ * methods. This matches what a JDT search for annotation references finds for the <code>@Configuration</code> and
+ * <code>@Bean</code> style annotations. Only the source folders of the project itself are indexed, the same as a
+ * {@link org.eclipse.jdt.core.search.IJavaSearchScope#SOURCES} scope of the project covers. Class files of libraries
+ * and output folders are not indexed, so types that are only available in compiled form are never returned.
+ * <p>
+ * The index is built on first access and afterwards kept up to date from the changes the
+ * {@link JavaProjectChangeTracker} reports: only the compilation units changed since the last access are read
+ * again. Meta-annotations are resolved from source and binary annotation types on the classpath of the project.
+ * @since 3.9.5
+ */
+public class JavaAnnotationIndex implements JavaProjectChangeTracker.Listener {
+
+	private static final Map<IJavaProject, JavaAnnotationIndex> INDEXES = new HashMap<IJavaProject, JavaAnnotationIndex>();
+
+	private static final String JAVA_LANG_ANNOTATION_PACKAGE = "java.lang.annotation.";
+
+	private static final String JAVA_LANG_PACKAGE = "java.lang.";
+
+	private static final Set<String> JAVA_LANG_ANNOTATIONS = new HashSet<String>(Arrays.asList("Override",
+			"Deprecated", "SuppressWarnings", "SafeVarargs", "FunctionalInterface"));
+
+	private final IJavaProject javaProject;
+
+	private boolean initialized = false;
+
+	private final Map<ICompilationUnit, Map<IType, Set<String>>> annotationsByUnit = new HashMap<ICompilationUnit, Map<IType, Set<String>>>();
+
+	private final Map<String, Set<IType>> typesByAnnotation = new HashMap<String, Set<IType>>();
+
+	private final Set<ICompilationUnit> annotationDeclaringUnits = new HashSet<ICompilationUnit>();
+
+	private final Map<String, Set<String>> metaAnnotations = new HashMap<String, Set<String>>();
+
+	// updated by element change notifications without waiting for a running query
+	private final Set<ICompilationUnit> changedUnits = Collections
+			.newSetFromMap(new ConcurrentHashMap<ICompilationUnit, Boolean>());
+
+	private volatile boolean reset = false;
+
+	private volatile boolean annotationTypesChanged = false;
+
+	/**
+	 * Returns the annotation index of the given project.
+	 */
+	public static JavaAnnotationIndex getIndex(IJavaProject javaProject) {
+		synchronized (INDEXES) {
+			JavaAnnotationIndex index = INDEXES.get(javaProject);
+			if (index == null) {
+				index = new JavaAnnotationIndex(javaProject);
+				INDEXES.put(javaProject, index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Drops the annotation index of the given project.
+	 */
+	public static void removeIndex(IJavaProject javaProject) {
+		JavaAnnotationIndex index;
+		synchronized (INDEXES) {
+			index = INDEXES.remove(javaProject);
+		}
+		if (index != null) {
+			index.dispose();
+		}
+	}
+
+	private JavaAnnotationIndex(IJavaProject javaProject) {
+		this.javaProject = javaProject;
+		JavaProjectChangeTracker.addListener(javaProject, this);
+	}
+
+	private void dispose() {
+		JavaProjectChangeTracker.removeListener(javaProject, this);
+	}
+
+	/**
+	 * Returns the types annotated with the given annotation type.
+	 * @param annotationType the fully qualified name of the annotation type
+	 * @param includeMetaAnnotations if <code>true</code>, types annotated with annotations that are (transitively)
+	 * annotated with the given annotation type are returned as well
+	 */
+	public Set<IType> getAnnotatedTypes(String annotationType, boolean includeMetaAnnotations) {
+		return getAnnotatedTypes(Collections.singleton(annotationType), includeMetaAnnotations);
+	}
+
+	/**
+	 * Returns the types annotated with any of the given annotation types.
+	 * @param annotationTypes the fully qualified names of the annotation types
+	 * @param includeMetaAnnotations if <code>true</code>, types annotated with annotations that are (transitively)
+	 * annotated with one of the given annotation types are returned as well
+	 */
+	public synchronized Set<IType> getAnnotatedTypes(Collection<String> annotationTypes,
+			boolean includeMetaAnnotations) {
+		update();
+
+		Set<IType> types = new LinkedHashSet<IType>();
+		if (includeMetaAnnotations) {
+			for (Map.Entry<String, Set<IType>> annotatedTypes : typesByAnnotation.entrySet()) {
+				if (!Collections.disjoint(getMetaAnnotations(annotatedTypes.getKey()), annotationTypes)) {
+					types.addAll(annotatedTypes.getValue());
+				}
+			}
+		}
+		else {
+			for (String annotationType : annotationTypes) {
+				Set<IType> annotatedTypes = typesByAnnotation.get(annotationType);
+				if (annotatedTypes != null) {
+					types.addAll(annotatedTypes);
+				}
+			}
+		}
+		return types;
+	}
+
+	/**
+	 * Returns the given annotation type together with all annotation types it is (transitively) annotated with.
+	 */
+	public synchronized Set<String> getMetaAnnotations(String annotationType) {
+		Set<String> annotationTypes = metaAnnotations.get(annotationType);
+		if (annotationTypes == null) {
+			annotationTypes = new HashSet<String>();
+			collectMetaAnnotations(annotationType, annotationTypes);
+			metaAnnotations.put(annotationType, annotationTypes);
+		}
+		return annotationTypes;
+	}
+
+	private void collectMetaAnnotations(String annotationType, Set<String> annotationTypes) {
+		if (!annotationTypes.add(annotationType) || annotationType.startsWith(JAVA_LANG_ANNOTATION_PACKAGE)) {
+			return;
+		}
+		try {
+			IType type = javaProject.findType(annotationType);
+			if (type != null && type.exists()) {
+				for (IAnnotation annotation : type.getAnnotations()) {
+					String name = type.isBinary() ? annotation.getElementName() : resolveAnnotationType(type,
+							annotation);
+					if (name != null) {
+						collectMetaAnnotations(name, annotationTypes);
+					}
+				}
+			}
+		}
+		catch (JavaModelException e) {
+			// treat as not meta-annotated
+		}
+	}
+
+	/**
+	 * Brings the index up to date with the changes reported since the last call.
+	 */
+	private void update() {
+		if (reset) {
+			reset = false;
+			initialized = false;
+		}
+		if (annotationTypesChanged) {
+			annotationTypesChanged = false;
+			metaAnnotations.clear();
+		}
+		if (!initialized) {
+			annotationsByUnit.clear();
+			typesByAnnotation.clear();
+			annotationDeclaringUnits.clear();
+			metaAnnotations.clear();
+			changedUnits.clear();
+			for (ICompilationUnit unit : getSourceUnits()) {
+				addUnit(unit);
+			}
+			initialized = true;
+		}
+		else if (!changedUnits.isEmpty()) {
+			List<ICompilationUnit> units = new ArrayList<ICompilationUnit>(changedUnits);
+			changedUnits.removeAll(units);
+			for (ICompilationUnit unit : units) {
+				if (removeUnit(unit)) {
+					metaAnnotations.clear();
+				}
+				if (unit.exists() && addUnit(unit)) {
+					metaAnnotations.clear();
+				}
+			}
+		}
+	}
+
+	private List<ICompilationUnit> getSourceUnits() {
+		List<ICompilationUnit> units = new ArrayList<ICompilationUnit>();
+		try {
+			for (IPackageFragmentRoot root : javaProject.getPackageFragmentRoots()) {
+				if (root.getKind() == IPackageFragmentRoot.K_SOURCE) {
+					for (IJavaElement child : root.getChildren()) {
+						if (child instanceof IPackageFragment) {
+							units.addAll(Arrays.asList(((IPackageFragment) child).getCompilationUnits()));
+						}
+					}
+				}
+			}
+		}
+		catch (JavaModelException e) {
+			// index what has been found so far
+		}
+		return units;
+	}
+
+	/**
+	 * Indexes the annotations of the given compilation unit.
+	 * @return <code>true</code> if the unit declares annotation types
+	 */
+	private boolean addUnit(ICompilationUnit unit) {
+		Map<IType, Set<String>> annotationsByType = new HashMap<IType, Set<String>>();
+		boolean declaresAnnotations = false;
+		try {
+			IType[] allTypes = unit.getAllTypes();
+			AnnotationTypeResolver resolver = new AnnotationTypeResolver(unit, allTypes);
+			for (IType type : allTypes) {
+				Set<String> annotations = new HashSet<String>();
+				addAnnotations(resolver, type, type.getAnnotations(), annotations);
+				for (IMethod method : type.getMethods()) {
+					addAnnotations(resolver, type, method.getAnnotations(), annotations);
+				}
+				if (!annotations.isEmpty()) {
+					annotationsByType.put(type, annotations);
+				}
+				declaresAnnotations |= type.isAnnotation();
+			}
+		}
+		catch (JavaModelException e) {
+			// unit can't be read; skip it
+		}
+
+		annotationsByUnit.put(unit, annotationsByType);
+		for (Map.Entry<IType, Set<String>> annotations : annotationsByType.entrySet()) {
+			for (String annotation : annotations.getValue()) {
+				Set<IType> types = typesByAnnotation.get(annotation);
+				if (types == null) {
+					types = new LinkedHashSet<IType>();
+					typesByAnnotation.put(annotation, types);
+				}
+				types.add(annotations.getKey());
+			}
+		}
+		if (declaresAnnotations) {
+			annotationDeclaringUnits.add(unit);
+		}
+		return declaresAnnotations;
+	}
+
+	/**
+	 * Removes the annotations of the given compilation unit from the index.
+	 * @return <code>true</code> if the unit declared annotation types
+	 */
+	private boolean removeUnit(ICompilationUnit unit) {
+		Map<IType, Set<String>> annotationsByType = annotationsByUnit.remove(unit);
+		if (annotationsByType != null) {
+			for (Map.Entry<IType, Set<String>> annotations : annotationsByType.entrySet()) {
+				for (String annotation : annotations.getValue()) {
+					Set<IType> types = typesByAnnotation.get(annotation);
+					if (types != null) {
+						types.remove(annotations.getKey());
+						if (types.isEmpty()) {
+							typesByAnnotation.remove(annotation);
+						}
+					}
+				}
+			}
+		}
+		return annotationDeclaringUnits.remove(unit);
+	}
+
+	private void addAnnotations(AnnotationTypeResolver resolver, IType type, IAnnotation[] annotations,
+			Set<String> annotationTypes) throws JavaModelException {
+		for (IAnnotation annotation : annotations) {
+			String name = resolver.resolve(type, annotation);
+			if (name != null) {
+				annotationTypes.add(name);
+			}
+		}
+	}
+
+	/**
+	 * Resolves the fully qualified name of the given annotation used in the source of the given type.
+	 * @return the name, or <code>null</code> if the annotation type can't be resolved unambiguously
+	 */
+	private static String resolveAnnotationType(IType type, IAnnotation annotation) throws JavaModelException {
+		String[][] resolvedNames = type.resolveType(annotation.getElementName());
+		if (resolvedNames == null || resolvedNames.length != 1) {
+			return null;
+		}
+		String packageName = resolvedNames[0][0];
+		String typeName = resolvedNames[0][1];
+		return packageName != null && packageName.length() > 0 ? packageName + "." + typeName : typeName;
+	}
+
+	/**
+	 * Resolves the annotation types used in the source of one compilation unit.
+	 * <p>
+	 * Most annotations are referenced by a simple name the unit imports explicitly, or are declared in
+	 * <code>java.lang</code>. These are resolved from the import declarations of the unit, as the compiler would do
+	 * unless a member type inherited from a supertype hides the import. Only the remaining annotations need the
+	 * considerably more expensive {@link IType#resolveType(String)}.
+	 */
+	private static class AnnotationTypeResolver {
+
+		private final ICompilationUnit unit;
+
+		private final Map<String, String> singleTypeImports = new HashMap<String, String>();
+
+		private final Set<String> declaredTypes = new HashSet<String>();
+
+		private boolean onDemandImports = false;
+
+		public AnnotationTypeResolver(ICompilationUnit unit, IType[] allTypes) throws JavaModelException {
+			this.unit = unit;
+			for (IImportDeclaration declaration : unit.getImports()) {
+				if (Flags.isStatic(declaration.getFlags())) {
+					continue;
+				}
+				if (declaration.isOnDemand()) {
+					onDemandImports = true;
+				}
+				else {
+					String name = declaration.getElementName();
+					singleTypeImports.put(name.substring(name.lastIndexOf('.') + 1), name);
+				}
+			}
+			for (IType type : allTypes) {
+				declaredTypes.add(type.getElementName());
+			}
+		}
+
+		/**
+		 * Resolves the fully qualified name of the given annotation used in the source of the given type.
+		 * @return the name, or <code>null</code> if the annotation type can't be resolved unambiguously
+		 */
+		public String resolve(IType type, IAnnotation annotation) throws JavaModelException {
+			String name = annotation.getElementName();
+			if (name.indexOf('.') < 0 && !declaredTypes.contains(name)) {
+				String importedName = singleTypeImports.get(name);
+				if (importedName != null) {
+					return importedName;
+				}
+				if (!onDemandImports && JAVA_LANG_ANNOTATIONS.contains(name)
+						&& !((IPackageFragment) unit.getParent()).getCompilationUnit(name + ".java").exists()) {
+					return JAVA_LANG_PACKAGE + name;
+				}
+			}
+			return resolveAnnotationType(type, annotation);
+		}
+	}
+
+	public void unitsChanged(Set<ICompilationUnit> units, boolean requiredProjectsChanged) {
+		changedUnits.addAll(units);
+		if (requiredProjectsChanged) {
+			// annotation types declared in required projects may have changed
+			annotationTypesChanged = true;
+		}
+	}
+
+	public void projectChanged() {
+		if (!javaProject.getProject().isAccessible()) {
+			removeIndex(javaProject);
+		}
+		else {
+			reset = true;
+		}
+	}
+
+}
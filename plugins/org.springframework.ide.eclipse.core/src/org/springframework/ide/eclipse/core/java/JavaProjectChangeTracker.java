@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * Tracks the changed compilation units of a Java project for the caches that keep per compilation unit results of
+ * the project, e.g. the {@link JavaAnnotationIndex}.
+ * <p>
+ * Only saved changes are reported: the caches read the primary compilation units, so the edits of working copies
+ * that haven't been saved yet are of no interest to them.
+ * <p>
+ * There is a single element changed listener per project, walking each Java element delta once no matter how many
+ * caches are registered for the project.
+ * @since 3.9.5
+ */
+public class JavaProjectChangeTracker implements IElementChangedListener {
+
+	/**
+	 * Listener notified about the changes of a project.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called with the changed compilation units of the project.
+		 * @param units the changed units of the project itself; may be empty
+		 * @param requiredProjectsChanged <code>true</code> if compilation units of projects on the classpath of the
+		 * project changed as well
+		 */
+		void unitsChanged(Set<ICompilationUnit> units, boolean requiredProjectsChanged);
+
+		/**
+		 * Called if the changes can't be tracked per compilation unit, e.g. because the classpath of the project
+		 * changed, a source folder or package got added or removed, the content of a library jar changed, or the
+		 * project is no longer accessible.
+		 */
+		void projectChanged();
+	}
+
+	private static final Map<IJavaProject, JavaProjectChangeTracker> TRACKERS = new HashMap<IJavaProject, JavaProjectChangeTracker>();
+
+	private final IJavaProject javaProject;
+
+	private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+	/**
+	 * Registers the given listener for the changes of the given project.
+	 */
+	public static void addListener(IJavaProject javaProject, Listener listener) {
+		synchronized (TRACKERS) {
+			JavaProjectChangeTracker tracker = TRACKERS.get(javaProject);
+			if (tracker == null) {
+				tracker = new JavaProjectChangeTracker(javaProject);
+				TRACKERS.put(javaProject, tracker);
+				JavaCore.addElementChangedListener(tracker, ElementChangedEvent.POST_CHANGE);
+			}
+			tracker.listeners.add(listener);
+		}
+	}
+
+	/**
+	 * Removes the given listener; the project is no longer tracked once its last listener got removed.
+	 */
+	public static void removeListener(IJavaProject javaProject, Listener listener) {
+		synchronized (TRACKERS) {
+			JavaProjectChangeTracker tracker = TRACKERS.get(javaProject);
+			if (tracker != null && tracker.listeners.remove(listener) && tracker.listeners.isEmpty()) {
+				TRACKERS.remove(javaProject);
+				JavaCore.removeElementChangedListener(tracker);
+			}
+		}
+	}
+
+	private JavaProjectChangeTracker(IJavaProject javaProject) {
+		this.javaProject = javaProject;
+	}
+
+	public void elementChanged(ElementChangedEvent event) {
+		Set<ICompilationUnit> units = new HashSet<ICompilationUnit>();
+		Set<ICompilationUnit> requiredUnits = new HashSet<ICompilationUnit>();
+		if (!javaProject.getProject().isAccessible() || !collectChangedUnits(event.getDelta(), units, requiredUnits)) {
+			for (Listener listener : listeners) {
+				listener.projectChanged();
+			}
+		}
+		else if (!units.isEmpty() || !requiredUnits.isEmpty()) {
+			for (Listener listener : listeners) {
+				listener.unitsChanged(units, !requiredUnits.isEmpty());
+			}
+		}
+	}
+
+	/**
+	 * Collects the compilation units affected by the given delta.
+	 * @return <code>false</code> if the delta can't be tracked per compilation unit
+	 */
+	private boolean collectChangedUnits(IJavaElementDelta delta, Set<ICompilationUnit> units,
+			Set<ICompilationUnit> requiredUnits) {
+		IJavaElement element = delta.getElement();
+		if (element instanceof ICompilationUnit) {
+			ICompilationUnit unit = (ICompilationUnit) element;
+			if (javaProject.equals(element.getJavaProject())) {
+				units.add(unit);
+			}
+			else if (javaProject.isOnClasspath(element)) {
+				requiredUnits.add(unit);
+			}
+			return true;
+		}
+		if (element.getElementType() > IJavaElement.COMPILATION_UNIT) {
+			// changes within a compilation unit are reported on the unit itself
+			return true;
+		}
+		if (element.getElementType() >= IJavaElement.JAVA_PROJECT && delta.getKind() != IJavaElementDelta.CHANGED
+				&& isOnClasspath(element)) {
+			// a whole project, source folder or package got added or removed
+			return false;
+		}
+		if ((delta.getFlags() & (IJavaElementDelta.F_CLASSPATH_CHANGED
+				| IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED
+				| IJavaElementDelta.F_CLOSED)) != 0
+				&& isOnClasspath(element)) {
+			return false;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (!collectChangedUnits(child, units, requiredUnits)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isOnClasspath(IJavaElement element) {
+		return javaProject.equals(element.getJavaProject()) || javaProject.isOnClasspath(element);
+	}
+
+}
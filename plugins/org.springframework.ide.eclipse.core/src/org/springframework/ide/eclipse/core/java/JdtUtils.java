@@ -16,6 +16,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -1011,6 +1012,16 @@ public class JdtUtils {
 		}
 	}
 	
+	/**
+	 * The annotations marking a type as a Java config, used by both {@link #searchForJavaConfigs(IJavaSearchScope)}
+	 * and {@link #findJavaConfigs(IJavaProject)}
+	 */
+	private static final List<String> JAVA_CONFIG_ANNOTATIONS = Arrays.asList(
+			"org.springframework.context.annotation.Configuration", "org.springframework.stereotype.Component",
+			"org.springframework.context.annotation.Bean", "org.springframework.context.annotation.Import",
+			"org.springframework.boot.autoconfigure.EnableAutoConfiguration",
+			"org.springframework.boot.autoconfigure.SpringBootApplication");
+
 	public static Set<IType> searchForJavaConfigs(SearchPattern pattern, IJavaSearchScope scope) {
 		final Set<IType> annotatedTypes = new HashSet<IType>();
 		SearchRequestor requestor = new SearchRequestor() {
@@ -1041,32 +1052,34 @@ public class JdtUtils {
 	}
 	
 	public static Set<IType> searchForJavaConfigs(IJavaSearchScope scope) {
-		SearchPattern configurationPattern = SearchPattern.createPattern("org.springframework.context.annotation.Configuration",
-				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-		SearchPattern componentPattern = SearchPattern.createPattern( "org.springframework.stereotype.Component",
-				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-		SearchPattern beanPattern = SearchPattern.createPattern("org.springframework.context.annotation.Bean",
-				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-		SearchPattern importPattern = SearchPattern.createPattern("org.springframework.context.annotation.Import",
-				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-		SearchPattern enableAutoConfigPattern = SearchPattern.createPattern("org.springframework.boot.autoconfigure.EnableAutoConfiguration",
-				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-		SearchPattern bootAutoConfigPattern = SearchPattern.createPattern("org.springframework.boot.autoconfigure.SpringBootApplication",
-				IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
-				SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
-
-		SearchPattern pattern = SearchPattern.createOrPattern(configurationPattern, componentPattern);
-		pattern = SearchPattern.createOrPattern(pattern, beanPattern);
-		pattern = SearchPattern.createOrPattern(pattern, importPattern);
-		pattern = SearchPattern.createOrPattern(pattern, enableAutoConfigPattern);
-		pattern = SearchPattern.createOrPattern(pattern, bootAutoConfigPattern);
+		SearchPattern pattern = null;
+		for (String annotationType : JAVA_CONFIG_ANNOTATIONS) {
+			SearchPattern annotationPattern = SearchPattern.createPattern(annotationType,
+					IJavaSearchConstants.ANNOTATION_TYPE, IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
+					SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+			pattern = pattern == null ? annotationPattern : SearchPattern.createOrPattern(pattern, annotationPattern);
+		}
 		return searchForJavaConfigs(pattern, scope);
 	}
 
+	/**
+	 * Returns the types in the sources of the given project that are annotated with one of the annotations
+	 * {@link #searchForJavaConfigs(IJavaSearchScope)} searches for, using the {@link JavaAnnotationIndex} of the
+	 * project instead of a search.
+	 * @since 3.9.5
+	 */
+	public static Set<IType> findJavaConfigs(IJavaProject javaProject) {
+		return findAnnotatedTypes(javaProject, JAVA_CONFIG_ANNOTATIONS);
+	}
+
+	/**
+	 * Returns the types in the sources of the given project that are directly annotated with one of the given
+	 * annotation types, or have a method annotated with one of them.
+	 * @since 3.9.5
+	 */
+	public static Set<IType> findAnnotatedTypes(IJavaProject javaProject, Collection<String> annotationTypes) {
+		return JavaAnnotationIndex.getIndex(javaProject).getAnnotatedTypes(annotationTypes, false);
+	}
+
 
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 Spring IDE Developers
+ * Copyright (c) 2009, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,10 +17,16 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.xbean.classloader.NonLockingJarFileClassLoader;
 import org.eclipse.core.resources.IFolder;
@@ -49,6 +55,16 @@ import org.springframework.ide.eclipse.core.SpringCore;
 
 /**
  * Internal cache of classpath urls and corresponding classloaders.
+ * <p>
+ * The cache is bounded by the estimated memory weight of the cached class loaders (jar count and jar sizes), see
+ * {@link SpringCore#CLASSLOADER_CACHE_SIZE}, and evicts the least recently used entries first.
+ * <p>
+ * Projects with identical library sets and parent class loader share one jar class loader; each project gets its
+ * own class loader for its source and output folders on top of it. As a consequence, static state of library classes
+ * (e.g. caches or registries held in static fields) is shared between these projects, just like the static state of
+ * the libraries provided by the parent class loader always was. Classes from source and output folders are never
+ * shared. Clients must not keep project specific information in static state of library classes; the loaders are
+ * meant for introspection and for instantiating namespace handlers and other tooling extensions.
  * @author Christian Dupuis
  * @author Martin Lippert
  * @since 2.2.5
@@ -56,9 +72,44 @@ import org.springframework.ide.eclipse.core.SpringCore;
 @SuppressWarnings("deprecation")
 public class ProjectClassLoaderCache {
 
+	/**
+	 * Listener notified when a cached class loader of a project is dropped from the cache, e.g. because it got evicted
+	 * or the classpath of the project changed. Clients holding on to class loaders of the project should release them.
+	 * @since 3.9.5
+	 */
+	public interface RemovalListener {
+
+		void classLoaderRemoved(IProject project);
+	}
+
 	private static final String FILE_SCHEME = "file";
-	private static final int CACHE_SIZE = 12;
-	private static final List<ClassLoaderCacheEntry> CLASSLOADER_CACHE = new ArrayList<ClassLoaderCacheEntry>(CACHE_SIZE);
+
+	/** Default for the {@link SpringCore#CLASSLOADER_CACHE_SIZE} preference in MB */
+	public static final int DEFAULT_CACHE_SIZE = 1024;
+
+	/** Estimated weight of a jar in addition to its size, e.g. for its central directory and loader structures */
+	private static final long JAR_WEIGHT = 64 * 1024;
+
+	/** Estimated weight of a directory class path entry */
+	private static final long DIRECTORY_WEIGHT = 16 * 1024;
+
+	/** Cached entries, keyed by project and parent class loader; also used as lock for inserts and evictions */
+	private static final ConcurrentMap<CacheKey, ClassLoaderCacheEntry> CLASSLOADER_CACHE = new ConcurrentHashMap<CacheKey, ClassLoaderCacheEntry>();
+
+	/** Jar class loaders shared by all entries with identical library sets */
+	private static final Map<SharedJarClassLoaderKey, SharedJarClassLoader> JAR_CLASSLOADERS = new HashMap<SharedJarClassLoaderKey, SharedJarClassLoader>();
+
+	private static final List<RemovalListener> REMOVAL_LISTENERS = new CopyOnWriteArrayList<RemovalListener>();
+
+	private static final AtomicLong ACCESS_COUNTER = new AtomicLong();
+
+	private static final AtomicLong HITS = new AtomicLong();
+	private static final AtomicLong MISSES = new AtomicLong();
+	private static final AtomicLong EVICTIONS = new AtomicLong();
+	private static final AtomicLong SHARED_JAR_CLASSLOADERS = new AtomicLong();
+
+	/** Estimated weight of all cached directory entries and shared jar class loaders in bytes, guarded by CLASSLOADER_CACHE */
+	private static long totalWeight = 0;
 
 	private static final String DEBUG_OPTION = SpringCore.PLUGIN_ID + "/java/classloader/debug";
 	private static final boolean DEBUG_CLASSLOADER = SpringCore.isDebug(DEBUG_OPTION);
@@ -69,38 +120,81 @@ public class ProjectClassLoaderCache {
 
 	private static ClassLoader addClassLoaderToCache(IProject project, List<URL> urls, ClassLoader parentClassLoader) {
 		synchronized (CLASSLOADER_CACHE) {
-			int nEntries = CLASSLOADER_CACHE.size();
-			if (nEntries >= CACHE_SIZE) {
-				// find obsolete entries or remove entry that was least recently accessed
-				ClassLoaderCacheEntry oldest = null;
-				List<ClassLoaderCacheEntry> obsoleteClassLoaders = new ArrayList<ClassLoaderCacheEntry>(CACHE_SIZE);
-				for (int i = 0; i < nEntries; i++) {
-					ClassLoaderCacheEntry entry = (ClassLoaderCacheEntry) CLASSLOADER_CACHE.get(i);
-					IProject curr = entry.getProject();
-					if (!curr.exists() || !curr.isAccessible() || !curr.isOpen()) {
-						obsoleteClassLoaders.add(entry);
+			CacheKey key = new CacheKey(project, parentClassLoader);
+			ClassLoaderCacheEntry entry = CLASSLOADER_CACHE.get(key);
+			if (entry == null) {
+				// remove entries of projects that are gone before evicting anything else
+				for (ClassLoaderCacheEntry existing : new ArrayList<ClassLoaderCacheEntry>(CLASSLOADER_CACHE.values())) {
+					if (!isAccessible(existing.getProject())) {
+						removeClassLoaderEntryFromCache(existing);
 					}
-					else {
-						if (oldest == null || entry.getLastAccess() < oldest.getLastAccess()) {
-							oldest = entry;
-						}
+				}
+
+				entry = new ClassLoaderCacheEntry(project, urls, parentClassLoader);
+				CLASSLOADER_CACHE.put(key, entry);
+				totalWeight += entry.getWeight();
+				evictIfRequired(entry);
+			}
+			entry.markAsAccessed();
+			return entry.getClassLoader();
+		}
+	}
+
+	/**
+	 * Evicts least recently accessed entries until the estimated weight of the cache fits into the configured
+	 * size. The given entry is never evicted.
+	 * <p>
+	 * Entries sharing a jar class loader are evicted together: the weight of the shared loader is only released
+	 * with its last entry, so evicting a single one of them would free little more than its directories. Such a
+	 * group is as recent as its most recently accessed entry. The group of the given entry isn't evicted either.
+	 */
+	private static void evictIfRequired(ClassLoaderCacheEntry keep) {
+		synchronized (CLASSLOADER_CACHE) {
+			long maxWeight = getMaxWeight();
+			while (totalWeight > maxWeight && CLASSLOADER_CACHE.size() > 1) {
+				Map<SharedJarClassLoader, List<ClassLoaderCacheEntry>> groups = new HashMap<SharedJarClassLoader, List<ClassLoaderCacheEntry>>();
+				Map<SharedJarClassLoader, Long> groupAccess = new HashMap<SharedJarClassLoader, Long>();
+				for (ClassLoaderCacheEntry entry : CLASSLOADER_CACHE.values()) {
+					SharedJarClassLoader jarClassLoader = entry.getJarClassLoader();
+					if (keep != null && jarClassLoader == keep.getJarClassLoader()) {
+						continue;
 					}
+					List<ClassLoaderCacheEntry> group = groups.get(jarClassLoader);
+					if (group == null) {
+						group = new ArrayList<ClassLoaderCacheEntry>();
+						groups.put(jarClassLoader, group);
+						groupAccess.put(jarClassLoader, entry.getLastAccess());
+					}
+					group.add(entry);
+					groupAccess.put(jarClassLoader, Math.max(groupAccess.get(jarClassLoader), entry.getLastAccess()));
 				}
-				if (!obsoleteClassLoaders.isEmpty()) {
-					for (int i = 0; i < obsoleteClassLoaders.size(); i++) {
-						removeClassLoaderEntryFromCache((ClassLoaderCacheEntry) obsoleteClassLoaders.get(i));
+
+				SharedJarClassLoader oldest = null;
+				for (Map.Entry<SharedJarClassLoader, Long> group : groupAccess.entrySet()) {
+					if (oldest == null || group.getValue() < groupAccess.get(oldest)) {
+						oldest = group.getKey();
 					}
 				}
-				else if (oldest != null) {
-					removeClassLoaderEntryFromCache(oldest);
+				if (oldest == null) {
+					break;
+				}
+				for (ClassLoaderCacheEntry entry : groups.get(oldest)) {
+					EVICTIONS.incrementAndGet();
+					removeClassLoaderEntryFromCache(entry);
 				}
 			}
-			ClassLoaderCacheEntry newEntry = new ClassLoaderCacheEntry(project, urls, parentClassLoader);
-			CLASSLOADER_CACHE.add(newEntry);
-			return newEntry.getClassLoader();
 		}
 	}
 
+	private static long getMaxWeight() {
+		int size = SpringCore.getDefault().getPluginPreferences().getInt(SpringCore.CLASSLOADER_CACHE_SIZE);
+		return (size > 0 ? size : DEFAULT_CACHE_SIZE) * 1024L * 1024L;
+	}
+
+	private static boolean isAccessible(IProject project) {
+		return project != null && project.exists() && project.isAccessible() && project.isOpen();
+	}
+
 	/**
 	 * Add {@link URL}s to the given set of <code>paths</code>.
 	 */
@@ -210,25 +304,18 @@ public class ProjectClassLoaderCache {
 	}
 
 	private static ClassLoader findClassLoaderInCache(IProject project, ClassLoader parentClassLoader) {
-		synchronized (CLASSLOADER_CACHE) {
-			for (int i = CLASSLOADER_CACHE.size() - 1; i >= 0; i--) {
-				ClassLoaderCacheEntry entry = (ClassLoaderCacheEntry) CLASSLOADER_CACHE.get(i);
-				IProject curr = entry.getProject();
-				if (curr == null || !curr.exists() || !curr.isAccessible() || !curr.isOpen()) {
-					removeClassLoaderEntryFromCache(entry);
-					if (DEBUG_CLASSLOADER) {
-						System.out.println(String.format("> removing classloader for '%s' : total %s",
-								entry.getProject(), CLASSLOADER_CACHE.size()));
-					}
-				}
-				else {
-					if (entry.matches(project, parentClassLoader)) {
-						entry.markAsAccessed();
-						return entry.getClassLoader();
-					}
-				}
+		ClassLoaderCacheEntry entry = CLASSLOADER_CACHE.get(new CacheKey(project, parentClassLoader));
+		if (entry != null) {
+			if (!isAccessible(entry.getProject())) {
+				removeClassLoaderEntryFromCache(entry);
+			}
+			else {
+				entry.markAsAccessed();
+				HITS.incrementAndGet();
+				return entry.getClassLoader();
 			}
 		}
+		MISSES.incrementAndGet();
 		return null;
 	}
 
@@ -271,15 +358,79 @@ public class ProjectClassLoaderCache {
 	 */
 	private static void removeClassLoaderEntryFromCache(ClassLoaderCacheEntry entry) {
 		synchronized (CLASSLOADER_CACHE) {
-			if (DEBUG_CLASSLOADER) {
-				System.out.println(String.format("> removing classloader for '%s' : total %s", entry.getProject()
-						.getName(), CLASSLOADER_CACHE.size()));
+			if (!CLASSLOADER_CACHE.remove(entry.getKey(), entry)) {
+				// already removed and disposed
+				return;
 			}
+			totalWeight -= entry.getWeight();
 			entry.dispose();
-			CLASSLOADER_CACHE.remove(entry);
+			for (RemovalListener listener : REMOVAL_LISTENERS) {
+				listener.classLoaderRemoved(entry.getProject());
+			}
+			if (DEBUG_CLASSLOADER) {
+				System.out.println(String.format("> removing classloader for '%s' : total %s, %s", entry.getProject()
+						.getName(), CLASSLOADER_CACHE.size(), getStatistics()));
+			}
+		}
+	}
+
+	/**
+	 * Registers a listener that is notified whenever a class loader of a project is dropped from the cache.
+	 * @since 3.9.5
+	 */
+	public static void addRemovalListener(RemovalListener listener) {
+		REMOVAL_LISTENERS.add(listener);
+	}
+
+	public static void removeRemovalListener(RemovalListener listener) {
+		REMOVAL_LISTENERS.remove(listener);
+	}
+
+	/**
+	 * Removes all cached entries.
+	 */
+	private static void clear() {
+		synchronized (CLASSLOADER_CACHE) {
+			for (ClassLoaderCacheEntry entry : new ArrayList<ClassLoaderCacheEntry>(CLASSLOADER_CACHE.values())) {
+				removeClassLoaderEntryFromCache(entry);
+			}
+		}
+	}
+
+	/**
+	 * Returns a short summary of the cache metrics: hits, misses, evictions, jar class loaders shared between
+	 * projects with identical library sets and the estimated weight of the cache.
+	 */
+	public static String getStatistics() {
+		synchronized (CLASSLOADER_CACHE) {
+			return String.format("hits %d, misses %d, evictions %d, shared jar classloaders %d, weight %d of %d MB",
+					HITS.get(), MISSES.get(), EVICTIONS.get(), SHARED_JAR_CLASSLOADERS.get(),
+					totalWeight / (1024 * 1024), getMaxWeight() / (1024 * 1024));
 		}
 	}
 
+	/**
+	 * Returns the estimated weight of all cached entries in bytes; a jar class loader shared by several entries is
+	 * counted once.
+	 */
+	public static long getWeight() {
+		synchronized (CLASSLOADER_CACHE) {
+			return totalWeight;
+		}
+	}
+
+	public static long getHitCount() {
+		return HITS.get();
+	}
+
+	public static long getMissCount() {
+		return MISSES.get();
+	}
+
+	public static long getEvictionCount() {
+		return EVICTIONS.get();
+	}
+
 	public static boolean shouldFilter(String name) {
 		if ("commons-logging.properties".equals(name)) return true;
 		if (name != null && name.startsWith("META-INF/services/")) {
@@ -333,8 +484,8 @@ public class ProjectClassLoaderCache {
 			List<URL> urls = getClassPathUrls(project, parentClassLoader);
 			classLoader = addClassLoaderToCache(project, urls, parentClassLoader);
 			if (DEBUG_CLASSLOADER) {
-				System.out.println(String.format("> creating new classloader for '%s' with parent '%s' : total %s",
-						project.getName(), parentClassLoader, CLASSLOADER_CACHE.size()));
+				System.out.println(String.format("> creating new classloader for '%s' with parent '%s' : total %s, %s",
+						project.getName(), parentClassLoader, CLASSLOADER_CACHE.size(), getStatistics()));
 			}
 		}
 		return classLoader;
@@ -350,10 +501,9 @@ public class ProjectClassLoaderCache {
 				System.out.println(String.format("> removing classloader for '%s' : total %s", project.getName(),
 						CLASSLOADER_CACHE.size()));
 			}
-			for (ClassLoaderCacheEntry entry : new ArrayList<ClassLoaderCacheEntry>(CLASSLOADER_CACHE)) {
+			for (ClassLoaderCacheEntry entry : new ArrayList<ClassLoaderCacheEntry>(CLASSLOADER_CACHE.values())) {
 				if (project.equals(entry.getProject())) {
-					entry.dispose();
-					CLASSLOADER_CACHE.remove(entry);
+					removeClassLoaderEntryFromCache(entry);
 				}
 			}
 		}
@@ -364,30 +514,46 @@ public class ProjectClassLoaderCache {
 	 */
 	static class ClassLoaderCacheEntry implements IElementChangedListener {
 
-		private URL[] directories;
+		private final CacheKey key;
 
-		private ClassLoader jarClassLoader;
+		private final URL[] directories;
 
-		private long lastAccess;
+		private final SharedJarClassLoader jarClassLoader;
 
-		private ClassLoader parentClassLoader;
+		private final long weight;
 
-		private IProject project;
+		private volatile long lastAccess;
 
-		private URL[] urls;
+		private final IProject project;
 
 		public ClassLoaderCacheEntry(IProject project, List<URL> urls, ClassLoader parentClassLoader) {
 			this.project = project;
-			this.urls = urls.toArray(new URL[urls.size()]);
-			this.parentClassLoader = parentClassLoader;
+			this.key = new CacheKey(project, parentClassLoader);
+
+			List<URL> jars = new ArrayList<URL>();
+			List<URL> dirs = new ArrayList<URL>();
+			for (URL url : new LinkedHashSet<URL>(urls)) {
+				if (shouldLoadFromParent(url)) {
+					jars.add(url);
+				}
+				else {
+					dirs.add(url);
+				}
+			}
+			this.directories = dirs.toArray(new URL[dirs.size()]);
+
+			// We use the parent class loader of the org.springframework.ide.eclipse.beans.core bundle
+			ClassLoader parent = (parentClassLoader != null ? parentClassLoader : cachedParentClassLoader);
+			this.jarClassLoader = acquireJarClassLoader(project, jars, parent);
+			this.weight = directories.length * DIRECTORY_WEIGHT;
+
 			markAsAccessed();
 			JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE);
 		}
 
 		public void dispose() {
 			JavaCore.removeElementChangedListener(this);
-			this.urls = null;
-			this.jarClassLoader = null;
+			releaseJarClassLoader(jarClassLoader);
 		}
 
 		public void elementChanged(ElementChangedEvent event) {
@@ -405,7 +571,7 @@ public class ProjectClassLoaderCache {
 		}
 
 		public ClassLoader getClassLoader() {
-			ClassLoader parent = getJarClassLoader();
+			ClassLoader parent = jarClassLoader.getClassLoader();
 			if (useNonLockingClassLoader()) {
 				return new FilteringNonLockingJarFileClassLoader(String.format("ClassLoader for '%s'", project.getName()),
 						directories, parent);
@@ -415,6 +581,14 @@ public class ProjectClassLoaderCache {
 			}
 		}
 
+		public CacheKey getKey() {
+			return key;
+		}
+
+		public SharedJarClassLoader getJarClassLoader() {
+			return jarClassLoader;
+		}
+
 		public long getLastAccess() {
 			return lastAccess;
 		}
@@ -423,52 +597,12 @@ public class ProjectClassLoaderCache {
 			return this.project;
 		}
 
-		public void markAsAccessed() {
-			lastAccess = System.currentTimeMillis();
+		public long getWeight() {
+			return weight;
 		}
 
-		public boolean matches(IProject project, ClassLoader parentClassLoader) {
-			return this.project.equals(project)
-					&& ((parentClassLoader == null && this.parentClassLoader == null) || (parentClassLoader != null && parentClassLoader
-							.equals(this.parentClassLoader)));
-		}
-
-		private synchronized ClassLoader getJarClassLoader() {
-			if (jarClassLoader == null) {
-				Set<URL> jars = new LinkedHashSet<URL>();
-				List<URL> dirs = new ArrayList<URL>();
-				for (URL url : urls) {
-					if (shouldLoadFromParent(url)) {
-						jars.add(url);
-					}
-					else {
-						dirs.add(url);
-					}
-				}
-				if (parentClassLoader != null) {
-					// We use the parent class loader of the org.springframework.ide.eclipse.beans.core bundle
-					if (useNonLockingClassLoader()) {
-						jarClassLoader = new FilteringNonLockingJarFileClassLoader(String.format("ClassLoader for '%s'",
-								project.getName()), (URL[]) jars.toArray(new URL[jars.size()]), parentClassLoader);
-					}
-					else {
-						jarClassLoader = new FilteringURLClassLoader((URL[]) jars.toArray(new URL[jars.size()]),
-								parentClassLoader);
-					}
-				}
-				else {
-					if (useNonLockingClassLoader()) {
-						jarClassLoader = new FilteringNonLockingJarFileClassLoader(String.format("ClassLoader for '%s'",
-								project.getName()), (URL[]) jars.toArray(new URL[jars.size()]), cachedParentClassLoader);
-					}
-					else {
-						jarClassLoader = new FilteringURLClassLoader((URL[]) jars.toArray(new URL[jars.size()]),
-								cachedParentClassLoader);
-					}
-				}
-				directories = dirs.toArray(new URL[dirs.size()]);
-			}
-			return jarClassLoader;
+		public void markAsAccessed() {
+			lastAccess = ACCESS_COUNTER.incrementAndGet();
 		}
 
 		private boolean shouldLoadFromParent(URL url) {
@@ -482,9 +616,150 @@ public class ProjectClassLoaderCache {
 			return false;
 		}
 	}
+
+	/**
+	 * Returns the shared jar class loader for the given library set, creating it if required. The weight of a jar
+	 * class loader is accounted once, no matter how many entries share it. Must be called while holding the cache
+	 * lock.
+	 */
+	private static SharedJarClassLoader acquireJarClassLoader(IProject project, List<URL> jars, ClassLoader parent) {
+		boolean nonLocking = useNonLockingClassLoader();
+		SharedJarClassLoaderKey key = new SharedJarClassLoaderKey(jars, parent, nonLocking);
+		SharedJarClassLoader loader = JAR_CLASSLOADERS.get(key);
+		if (loader == null) {
+			URL[] urls = jars.toArray(new URL[jars.size()]);
+			ClassLoader classLoader;
+			if (nonLocking) {
+				classLoader = new FilteringNonLockingJarFileClassLoader(String.format("ClassLoader for '%s'",
+						project.getName()), urls, parent);
+			}
+			else {
+				classLoader = new FilteringURLClassLoader(urls, parent);
+			}
+			loader = new SharedJarClassLoader(classLoader, estimateWeight(jars));
+			JAR_CLASSLOADERS.put(key, loader);
+			totalWeight += loader.getWeight();
+		}
+		else {
+			SHARED_JAR_CLASSLOADERS.incrementAndGet();
+		}
+		loader.referenceCount++;
+		return loader;
+	}
+
+	/**
+	 * Releases the given shared jar class loader; it is dropped once no entry uses it anymore. Must be called while
+	 * holding the cache lock.
+	 */
+	private static void releaseJarClassLoader(SharedJarClassLoader loader) {
+		if (--loader.referenceCount <= 0) {
+			JAR_CLASSLOADERS.values().remove(loader);
+			totalWeight -= loader.getWeight();
+		}
+	}
+
+	private static long estimateWeight(List<URL> jars) {
+		long weight = 0;
+		for (URL jar : jars) {
+			weight += JAR_WEIGHT;
+			if (FILE_SCHEME.equalsIgnoreCase(jar.getProtocol())) {
+				try {
+					weight += new File(jar.toURI()).length();
+				}
+				catch (Exception e) {
+					// ignore, just an estimate
+				}
+			}
+		}
+		return weight;
+	}
+
+	/**
+	 * Jar class loader shared between cache entries; guarded by the cache lock.
+	 */
+	static class SharedJarClassLoader {
+
+		private final ClassLoader classLoader;
+
+		private final long weight;
+
+		private int referenceCount;
+
+		SharedJarClassLoader(ClassLoader classLoader, long weight) {
+			this.classLoader = classLoader;
+			this.weight = weight;
+		}
+
+		public ClassLoader getClassLoader() {
+			return classLoader;
+		}
+
+		public long getWeight() {
+			return weight;
+		}
+	}
+
+	static class SharedJarClassLoaderKey {
+
+		private final List<URL> jars;
+
+		private final ClassLoader parent;
+
+		private final boolean nonLocking;
+
+		SharedJarClassLoaderKey(List<URL> jars, ClassLoader parent, boolean nonLocking) {
+			this.jars = new ArrayList<URL>(jars);
+			this.parent = parent;
+			this.nonLocking = nonLocking;
+		}
+
+		@Override
+		public int hashCode() {
+			return jars.toString().hashCode() * 31 + (parent != null ? parent.hashCode() : 0) + (nonLocking ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof SharedJarClassLoaderKey)) {
+				return false;
+			}
+			SharedJarClassLoaderKey other = (SharedJarClassLoaderKey) obj;
+			// compare the external forms, URL.equals resolves host names
+			return nonLocking == other.nonLocking && parent == other.parent
+					&& jars.toString().equals(other.jars.toString());
+		}
+	}
+
+	static class CacheKey {
+
+		private final IProject project;
+
+		private final ClassLoader parentClassLoader;
+
+		CacheKey(IProject project, ClassLoader parentClassLoader) {
+			this.project = project;
+			this.parentClassLoader = parentClassLoader;
+		}
+
+		@Override
+		public int hashCode() {
+			return project.hashCode() * 31 + (parentClassLoader != null ? parentClassLoader.hashCode() : 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey other = (CacheKey) obj;
+			return project.equals(other.project)
+					&& ((parentClassLoader == null && other.parentClassLoader == null) || (parentClassLoader != null && parentClassLoader
+							.equals(other.parentClassLoader)));
+		}
+	}
 	
 	/**
-	 * {@link IPropertyChangeListener} to clear the cache whenever the setting is changed.
+	 * {@link IPropertyChangeListener} to clear or shrink the cache whenever the settings are changed.
 	 * @since 2.5.0
 	 */
 	static class EnablementPropertyChangeListener implements IPropertyChangeListener {
@@ -494,9 +769,10 @@ public class ProjectClassLoaderCache {
 		 */
 		public void propertyChange(PropertyChangeEvent event) {
 			if (SpringCore.USE_NON_LOCKING_CLASSLOADER.equals(event.getProperty())) {
-				synchronized (CLASSLOADER_CACHE) {
-					CLASSLOADER_CACHE.clear();
-				}
+				clear();
+			}
+			else if (SpringCore.CLASSLOADER_CACHE_SIZE.equals(event.getProperty())) {
+				evictIfRequired(null);
 			}
 		}
 	}
@@ -82,6 +82,9 @@ class TypeStructure extends org.eclipse.jdt.internal.core.hierarchy.HierarchyBin
 
 	IBinaryAnnotation[] annotations;
 
+	// fingerprint of the class file this structure has been read from; null if the class file couldn't be scanned
+	TypeStructureFingerprint fingerprint;
+
 	public TypeStructure(ClassFileReader cfr) {
 		//It shouldn't really matter what arguments we provide to the constructor
 		// since this class implements all the methods, except for getTypeAnnotations,
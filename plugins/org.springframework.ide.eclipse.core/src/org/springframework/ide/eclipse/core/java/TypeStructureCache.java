@@ -10,18 +10,17 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.java;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Files;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
@@ -62,6 +61,10 @@ import org.springsource.ide.eclipse.commons.core.SpringCoreUtils;
  * {@link IResource} which represents a class file has structural changes.
  * <p>
  * For this implementation a change of class and method level annotation is considered a structural change.
+ * <p>
+ * Every recorded type structure carries a {@link TypeStructureFingerprint} of its class file. Class files whose
+ * fingerprint didn't change are neither parsed again when recording nor compared in detail when checking for
+ * structural changes. The cache is backed by concurrent maps per project and doesn't need a global lock.
  * 
  * @author Christian Dupuis
  * @author Martin Lippert
@@ -75,13 +78,10 @@ public class TypeStructureCache implements ITypeStructureCache {
 	private IElementChangedListener changedListener = null;
 
 	/** {@link TypeStructure} instances keyed by full-qualified class names */
-	private Map<IProject, Map<String, TypeStructure>> typeStructuresByProject = new ConcurrentHashMap<IProject, Map<String, TypeStructure>>();
-
-	protected final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
-
-	protected final Lock r = rwl.readLock();
+	private ConcurrentMap<IProject, Map<String, TypeStructure>> typeStructuresByProject = new ConcurrentHashMap<IProject, Map<String, TypeStructure>>();
 
-	protected final Lock w = rwl.writeLock();
+	/** Cleared {@link TypeStructure} instances that can be reused while recording the project again */
+	private ConcurrentMap<IProject, Map<String, TypeStructure>> clearedTypeStructuresByProject = new ConcurrentHashMap<IProject, Map<String, TypeStructure>>();
 
 	public void startup() {
 		changedListener = new TypeRemovingJavaElementChangeListener();
@@ -92,18 +92,19 @@ public class TypeStructureCache implements ITypeStructureCache {
 		JavaCore.removeElementChangedListener(changedListener);
 		changedListener = null;
 		typeStructuresByProject = null;
+		clearedTypeStructuresByProject = null;
 	}
 
 	/**
 	 * Removes {@link TypeStructure}s for a given project.
+	 * <p>
+	 * The removed instances are kept until the project is recorded the next time, so that the structures of
+	 * unchanged class files can be reused by a full rebuild.
 	 */
 	public void clearStateForProject(IProject project) {
-		try {
-			w.lock();
-			typeStructuresByProject.remove(project);
-		}
-		finally {
-			w.unlock();
+		Map<String, TypeStructure> typeStructures = typeStructuresByProject.remove(project);
+		if (typeStructures != null) {
+			clearedTypeStructuresByProject.put(project, typeStructures);
 		}
 	}
 
@@ -111,150 +112,181 @@ public class TypeStructureCache implements ITypeStructureCache {
 	 * Checks if {@link TypeStructure} instances exist for a given project.
 	 */
 	public boolean hasRecordedTypeStructures(IProject project) {
-		try {
-			r.lock();
-			return typeStructuresByProject.containsKey(project);
-		}
-		finally {
-			r.unlock();
-		}
+		return typeStructuresByProject.containsKey(project);
 	}
 
 	/**
 	 * Record {@link TypeStructure} instances of the given <code>resources</code>.
 	 */
 	public void recordTypeStructures(IProject project, IResource... resources) {
-		try {
-			w.lock();
-			Map<String, TypeStructure> typeStructures = null;
-			if (!typeStructuresByProject.containsKey(project)) {
-				typeStructures = new ConcurrentHashMap<String, TypeStructure>();
-				typeStructuresByProject.put(project, typeStructures);
-			}
-			else {
-				typeStructures = typeStructuresByProject.get(project);
-			}
+		Map<String, TypeStructure> typeStructures = typeStructuresByProject.get(project);
+		if (typeStructures == null) {
+			typeStructures = new ConcurrentHashMap<String, TypeStructure>();
+			Map<String, TypeStructure> existingTypeStructures = typeStructuresByProject.putIfAbsent(project,
+					typeStructures);
+			if (existingTypeStructures != null) {
+				typeStructures = existingTypeStructures;
+			}
+		}
+		Map<String, TypeStructure> clearedTypeStructures = clearedTypeStructuresByProject.remove(project);
+
+		for (IResource resource : resources) {
+			if ("class".equals(resource.getFileExtension()) && resource instanceof IFile) {
+				byte[] bytes = readContents((IFile) resource);
+				if (bytes == null) {
+					continue;
+				}
 
-			for (IResource resource : resources) {
-				if (resource.getFileExtension().equals("class") && resource instanceof IFile) {
-					InputStream input = null;
-					try {
-						input = ((IFile) resource).getContents();
-						ClassFileReader reader = ClassFileReader.read(input, resource.getName());
-						TypeStructure typeStructure = new TypeStructure(reader);
-						typeStructures.put(new String(reader.getName()).replace('/', '.'), typeStructure);
+				// class files with unchanged structure don't need to be parsed again
+				TypeStructureFingerprint fingerprint = TypeStructureFingerprint.create(bytes);
+				if (fingerprint != null) {
+					TypeStructure existingTypeStructure = typeStructures.get(fingerprint.getClassName());
+					if (existingTypeStructure != null && fingerprint.matches(existingTypeStructure.fingerprint)) {
+						continue;
 					}
-					catch (CoreException e) {
-					}
-					catch (ClassFormatException e) {
-					}
-					catch (IOException e) {
-					}
-					finally {
-						if (input != null) {
-							try {
-								input.close();
-							}
-							catch (IOException e) {
-							}
-						}
+					existingTypeStructure = clearedTypeStructures != null ? clearedTypeStructures.get(fingerprint
+							.getClassName()) : null;
+					if (existingTypeStructure != null && fingerprint.matches(existingTypeStructure.fingerprint)) {
+						typeStructures.put(fingerprint.getClassName(), existingTypeStructure);
+						continue;
 					}
 				}
+
+				try {
+					ClassFileReader reader = new ClassFileReader(bytes, resource.getName().toCharArray());
+					TypeStructure typeStructure = new TypeStructure(reader);
+					typeStructure.fingerprint = fingerprint;
+					typeStructures.put(new String(reader.getName()).replace('/', '.'), typeStructure);
+				}
+				catch (ClassFormatException e) {
+				}
 			}
 		}
-		finally {
-			w.unlock();
-		}
 	}
 
 	/**
 	 * Check if a given {@link IResource} representing a class file has structural changes.
 	 */
 	public boolean hasStructuralChanges(IResource resource, int flags) {
-		try {
-			r.lock();
-			if (!hasRecordedTypeStructures(resource.getProject())) {
-				return true;
-			}
+		Map<String, TypeStructure> typeStructures = typeStructuresByProject.get(resource.getProject());
+		if (typeStructures == null) {
+			return true;
+		}
 
-			Map<String, TypeStructure> typeStructures = typeStructuresByProject.get(resource.getProject());
-
-			if (resource != null && resource.getFileExtension() != null && resource.getFileExtension().equals("java")) {
-				IJavaElement element = JavaCore.create(resource);
-				if (element instanceof ICompilationUnit && ((ICompilationUnit) element).isOpen()) {
-					try {
-						IType[] types = ((ICompilationUnit) element).getAllTypes();
-						for (IType type : types) {
-							String fqn = type.getFullyQualifiedName();
-							TypeStructure typeStructure = typeStructures.get(fqn);
-							if (typeStructure == null) {
-								return true;
-							}
-							ClassFileReader reader = getClassFileReaderForClassName(type.getFullyQualifiedName(),
-									resource.getProject());
-							if (reader != null && hasStructuralChanges(reader, typeStructure, flags)) {
+		if (resource != null && resource.getFileExtension() != null && resource.getFileExtension().equals("java")) {
+			IJavaElement element = JavaCore.create(resource);
+			if (element instanceof ICompilationUnit && ((ICompilationUnit) element).isOpen()) {
+				try {
+					IType[] types = ((ICompilationUnit) element).getAllTypes();
+					for (IType type : types) {
+						String fqn = type.getFullyQualifiedName();
+						TypeStructure typeStructure = typeStructures.get(fqn);
+						if (typeStructure == null) {
+							return true;
+						}
+						File classFile = getClassFileForClassName(fqn, resource.getProject());
+						byte[] bytes = classFile != null ? readContents(classFile) : null;
+						if (bytes == null) {
+							continue;
+						}
+						if (typeStructure.fingerprint != null
+								&& typeStructure.fingerprint.matches(TypeStructureFingerprint.create(bytes))) {
+							continue;
+						}
+						try {
+							ClassFileReader reader = new ClassFileReader(bytes, classFile.getAbsolutePath()
+									.toCharArray());
+							if (hasStructuralChanges(reader, typeStructure, flags)) {
 								return true;
 							}
 						}
-						return false;
-					}
-					catch (JavaModelException e) {
-						SpringCore.log(e);
-					}
-					catch (MalformedURLException e) {
-						SpringCore.log(e);
+						catch (ClassFormatException e) {
+						}
 					}
+					return false;
+				}
+				catch (JavaModelException e) {
+					SpringCore.log(e);
+				}
+				catch (MalformedURLException e) {
+					SpringCore.log(e);
 				}
 			}
-			return true;
-		}
-		finally {
-			r.unlock();
 		}
+		return true;
 	}
 
 	/**
 	 * Removes cached type structures by the given className.
 	 */
 	protected void removeRecordedTyeStructures(IProject project, String className) {
-		try {
-			w.lock();
-			if (!hasRecordedTypeStructures(project)) {
-				return;
+		Map<String, TypeStructure> typeStructures = typeStructuresByProject.get(project);
+		if (typeStructures == null) {
+			return;
+		}
+
+		// the concurrent key set tolerates removal while iterating
+		String innerClassName = className + "$";
+		for (String recordedClassName : typeStructures.keySet()) {
+			if (className.equals(recordedClassName) || recordedClassName.startsWith(innerClassName)) {
+				typeStructures.remove(recordedClassName);
 			}
+		}
+	}
 
-			String innerClassName = className + "$";
-			List<String> typeStructuresToRemove = new ArrayList<String>();
+	/**
+	 * Drops all recorded and cleared {@link TypeStructure}s of a project that got closed or deleted.
+	 */
+	private void removeProject(IProject project) {
+		typeStructuresByProject.remove(project);
+		clearedTypeStructuresByProject.remove(project);
+	}
 
-			Map<String, TypeStructure> typeStructures = typeStructuresByProject.get(project);
-			for (String recordedClassName : typeStructures.keySet()) {
-				if (className.equals(recordedClassName) || recordedClassName.startsWith(innerClassName)) {
-					typeStructuresToRemove.add(recordedClassName);
-				}
-			}
-			for (String recordedClassName : typeStructuresToRemove) {
-				typeStructures.remove(recordedClassName);
+	private static byte[] readContents(IFile file) {
+		InputStream input = null;
+		try {
+			input = file.getContents();
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = input.read(buffer)) != -1) {
+				output.write(buffer, 0, read);
 			}
+			return output.toByteArray();
+		}
+		catch (CoreException e) {
+		}
+		catch (IOException e) {
 		}
 		finally {
-			w.unlock();
+			if (input != null) {
+				try {
+					input.close();
+				}
+				catch (IOException e) {
+				}
+			}
+		}
+		return null;
+	}
+
+	private static byte[] readContents(File file) {
+		try {
+			return Files.readAllBytes(file.toPath());
+		}
+		catch (IOException e) {
+			return null;
 		}
 	}
 
-	private static ClassFileReader getClassFileReaderForClassName(String className, IProject project)
-			throws JavaModelException, MalformedURLException {
+	private static File getClassFileForClassName(String className, IProject project) throws JavaModelException,
+			MalformedURLException {
 		IJavaProject jp = JavaCore.create(project);
 
 		File outputDirectory = convertPathToFile(project, jp.getOutputLocation());
 		File classFile = new File(outputDirectory, ClassUtils.getClassFileName(className));
 		if (classFile.exists() && classFile.canRead()) {
-			try {
-				return ClassFileReader.read(classFile);
-			}
-			catch (ClassFormatException e) {
-			}
-			catch (IOException e) {
-			}
+			return classFile;
 		}
 
 		IClasspathEntry[] classpath = jp.getRawClasspath();
@@ -264,13 +296,7 @@ public class TypeStructureCache implements ITypeStructureCache {
 				outputDirectory = convertPathToFile(project, path.getOutputLocation());
 				classFile = new File(outputDirectory, ClassUtils.getClassFileName(className));
 				if (classFile.exists() && classFile.canRead()) {
-					try {
-						return ClassFileReader.read(classFile);
-					}
-					catch (ClassFormatException e) {
-					}
-					catch (IOException e) {
-					}
+					return classFile;
 				}
 			}
 		}
@@ -636,6 +662,11 @@ public class TypeStructureCache implements ITypeStructureCache {
 			for (IJavaElementDelta delta : deltas) {
 				if (delta.getElement() instanceof IJavaProject) {
 					javaProject[0] = (IJavaProject) delta.getElement();
+					if (delta.getKind() == IJavaElementDelta.REMOVED
+							|| (delta.getFlags() & IJavaElementDelta.F_CLOSED) != 0) {
+						removeProject(javaProject[0].getProject());
+						continue;
+					}
 				}
 				// process removed element
 				IJavaElementDelta[] removedDeltas = delta.getRemovedChildren();
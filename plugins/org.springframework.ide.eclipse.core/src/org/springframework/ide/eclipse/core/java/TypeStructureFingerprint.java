@@ -0,0 +1,391 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Digest of the structural parts of a class file, as compared by {@link TypeStructureCache}.
+ * <p>
+ * The digest is computed by a single pass over the class file bytes, without materializing the class file: it
+ * covers the modifiers, the generic signature, the super types, the class level annotations and the names,
+ * descriptors, modifiers and annotations of all fields and methods. Constant pool references are resolved, so that
+ * method body changes that only shift the constant pool don't change the digest, whereas code attributes and debug
+ * information are skipped.
+ * <p>
+ * Equal digests imply that two class files have no structural differences. Different digests don't necessarily
+ * imply structural changes, they just require a full comparison.
+ * @since 3.9.5
+ */
+public final class TypeStructureFingerprint {
+
+	private static final int CONSTANT_UTF8 = 1;
+
+	private static final int CONSTANT_INTEGER = 3;
+
+	private static final int CONSTANT_FLOAT = 4;
+
+	private static final int CONSTANT_LONG = 5;
+
+	private static final int CONSTANT_DOUBLE = 6;
+
+	private static final int CONSTANT_CLASS = 7;
+
+	private static final int CONSTANT_STRING = 8;
+
+	private static final int CONSTANT_FIELDREF = 9;
+
+	private static final int CONSTANT_METHODREF = 10;
+
+	private static final int CONSTANT_INTERFACE_METHODREF = 11;
+
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+	private static final int CONSTANT_METHOD_HANDLE = 15;
+
+	private static final int CONSTANT_METHOD_TYPE = 16;
+
+	private static final int CONSTANT_DYNAMIC = 17;
+
+	private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+
+	private static final int CONSTANT_MODULE = 19;
+
+	private static final int CONSTANT_PACKAGE = 20;
+
+	private final String className;
+
+	private final byte[] digest;
+
+	private TypeStructureFingerprint(String className, byte[] digest) {
+		this.className = className;
+		this.digest = digest;
+	}
+
+	/**
+	 * Returns the fully-qualified name of the scanned class, using dots as separators.
+	 */
+	public String getClassName() {
+		return className;
+	}
+
+	/**
+	 * Returns <code>true</code> if the given fingerprint has been created from a structurally equal class file.
+	 */
+	public boolean matches(TypeStructureFingerprint other) {
+		return other != null && className.equals(other.className) && Arrays.equals(digest, other.digest);
+	}
+
+	/**
+	 * Creates the fingerprint of the given class file bytes.
+	 * @return the fingerprint or <code>null</code> if the bytes don't represent a valid class file
+	 */
+	public static TypeStructureFingerprint create(byte[] classFile) {
+		try {
+			return new Scanner(classFile).scan();
+		}
+		catch (IndexOutOfBoundsException e) {
+			return null;
+		}
+		catch (NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Streaming scanner over the bytes of one class file.
+	 */
+	private static class Scanner {
+
+		private final byte[] bytes;
+
+		private final MessageDigest digest;
+
+		private int[] constantPoolOffsets;
+
+		private int position;
+
+		public Scanner(byte[] bytes) throws NoSuchAlgorithmException {
+			this.bytes = bytes;
+			this.digest = MessageDigest.getInstance("SHA-1");
+		}
+
+		public TypeStructureFingerprint scan() {
+			if (u4() != 0xCAFEBABE) {
+				return null;
+			}
+			position += 4; // minor and major version
+			readConstantPool();
+
+			int modifiers = u2();
+			int thisClass = u2();
+			int superClass = u2();
+			String className = className(thisClass);
+			updateInt(modifiers);
+			updateString(className);
+			updateString(superClass == 0 ? null : className(superClass));
+			int interfaceCount = u2();
+			updateInt(interfaceCount);
+			for (int i = 0; i < interfaceCount; i++) {
+				updateString(className(u2()));
+			}
+
+			scanMembers(); // fields
+			scanMembers(); // methods
+			scanAttributes(thisClass);
+
+			return new TypeStructureFingerprint(className.replace('/', '.'), digest.digest());
+		}
+
+		private void readConstantPool() {
+			int count = u2();
+			constantPoolOffsets = new int[count];
+			for (int i = 1; i < count; i++) {
+				constantPoolOffsets[i] = position;
+				int tag = u1();
+				switch (tag) {
+				case CONSTANT_UTF8:
+					int length = u2();
+					position += length;
+					break;
+				case CONSTANT_LONG:
+				case CONSTANT_DOUBLE:
+					// takes up two constant pool entries
+					position += 8;
+					i++;
+					break;
+				case CONSTANT_METHOD_HANDLE:
+					position += 3;
+					break;
+				case CONSTANT_CLASS:
+				case CONSTANT_STRING:
+				case CONSTANT_METHOD_TYPE:
+				case CONSTANT_MODULE:
+				case CONSTANT_PACKAGE:
+					position += 2;
+					break;
+				case CONSTANT_INTEGER:
+				case CONSTANT_FLOAT:
+				case CONSTANT_FIELDREF:
+				case CONSTANT_METHODREF:
+				case CONSTANT_INTERFACE_METHODREF:
+				case CONSTANT_NAME_AND_TYPE:
+				case CONSTANT_DYNAMIC:
+				case CONSTANT_INVOKE_DYNAMIC:
+					position += 4;
+					break;
+				default:
+					throw new IndexOutOfBoundsException("Unknown constant pool tag " + tag);
+				}
+			}
+		}
+
+		private void scanMembers() {
+			int count = u2();
+			updateInt(count);
+			for (int i = 0; i < count; i++) {
+				updateInt(u2()); // modifiers
+				updateUtf8(u2()); // name
+				updateUtf8(u2()); // descriptor
+				scanAttributes(0);
+			}
+		}
+
+		private void scanAttributes(int thisClass) {
+			int count = u2();
+			for (int i = 0; i < count; i++) {
+				String name = utf8(u2());
+				int length = u4();
+				int end = position + length;
+				if ("Signature".equals(name)) {
+					updateString(name);
+					updateUtf8(u2());
+				}
+				else if ("RuntimeVisibleAnnotations".equals(name) || "RuntimeInvisibleAnnotations".equals(name)) {
+					updateString(name);
+					scanAnnotations();
+				}
+				else if ("RuntimeVisibleParameterAnnotations".equals(name)
+						|| "RuntimeInvisibleParameterAnnotations".equals(name)) {
+					updateString(name);
+					int parameters = u1();
+					updateInt(parameters);
+					for (int j = 0; j < parameters; j++) {
+						scanAnnotations();
+					}
+				}
+				else if ("AnnotationDefault".equals(name)) {
+					updateString(name);
+					scanElementValue();
+				}
+				else if ("Deprecated".equals(name) || "Synthetic".equals(name)) {
+					updateString(name);
+				}
+				else if ("InnerClasses".equals(name) && thisClass != 0) {
+					// only the entry of the class itself contributes the modifiers of member types
+					int classes = u2();
+					for (int j = 0; j < classes; j++) {
+						int innerClass = u2();
+						int outerClass = u2();
+						int innerName = u2();
+						int modifiers = u2();
+						if (innerClass == thisClass) {
+							updateString(name);
+							updateString(outerClass == 0 ? null : className(outerClass));
+							updateString(innerName == 0 ? null : utf8(innerName));
+							updateInt(modifiers);
+						}
+					}
+				}
+				position = end;
+			}
+		}
+
+		private void scanAnnotations() {
+			int count = u2();
+			updateInt(count);
+			for (int i = 0; i < count; i++) {
+				scanAnnotation();
+			}
+		}
+
+		private void scanAnnotation() {
+			updateUtf8(u2()); // type
+			int pairs = u2();
+			updateInt(pairs);
+			for (int i = 0; i < pairs; i++) {
+				updateUtf8(u2()); // element name
+				scanElementValue();
+			}
+		}
+
+		private void scanElementValue() {
+			int tag = u1();
+			updateInt(tag);
+			switch (tag) {
+			case 'e':
+				updateUtf8(u2()); // type name
+				updateUtf8(u2()); // constant name
+				break;
+			case 'c':
+				updateUtf8(u2());
+				break;
+			case '@':
+				scanAnnotation();
+				break;
+			case '[':
+				int count = u2();
+				updateInt(count);
+				for (int i = 0; i < count; i++) {
+					scanElementValue();
+				}
+				break;
+			default:
+				updateConstant(u2());
+			}
+		}
+
+		private void updateConstant(int index) {
+			int offset = constantPoolOffsets[index];
+			int tag = bytes[offset] & 0xFF;
+			int length;
+			switch (tag) {
+			case CONSTANT_UTF8:
+				length = 2 + (((bytes[offset + 1] & 0xFF) << 8) | (bytes[offset + 2] & 0xFF));
+				break;
+			case CONSTANT_LONG:
+			case CONSTANT_DOUBLE:
+				length = 8;
+				break;
+			default:
+				length = 4;
+			}
+			digest.update(bytes, offset, length + 1);
+		}
+
+		private void updateUtf8(int index) {
+			int offset = constantPoolOffsets[index];
+			int length = ((bytes[offset + 1] & 0xFF) << 8) | (bytes[offset + 2] & 0xFF);
+			// tag and length prefix keep adjacent strings apart
+			digest.update(bytes, offset, length + 3);
+		}
+
+		private void updateString(String value) {
+			if (value == null) {
+				digest.update((byte) 0);
+			}
+			else {
+				digest.update((byte) 1);
+				updateInt(value.length());
+				for (int i = 0; i < value.length(); i++) {
+					char c = value.charAt(i);
+					digest.update((byte) (c >> 8));
+					digest.update((byte) c);
+				}
+			}
+		}
+
+		private void updateInt(int value) {
+			digest.update((byte) (value >>> 24));
+			digest.update((byte) (value >>> 16));
+			digest.update((byte) (value >>> 8));
+			digest.update((byte) value);
+		}
+
+		private String className(int classIndex) {
+			int offset = constantPoolOffsets[classIndex];
+			return utf8(((bytes[offset + 1] & 0xFF) << 8) | (bytes[offset + 2] & 0xFF));
+		}
+
+		private String utf8(int index) {
+			int offset = constantPoolOffsets[index];
+			int length = ((bytes[offset + 1] & 0xFF) << 8) | (bytes[offset + 2] & 0xFF);
+			// class file names and attribute names are plain ASCII in practice; decode modified UTF-8 leniently
+			char[] chars = new char[length];
+			int count = 0;
+			int i = offset + 3;
+			int end = i + length;
+			while (i < end) {
+				int b = bytes[i++] & 0xFF;
+				if (b < 0x80) {
+					chars[count++] = (char) b;
+				}
+				else if ((b & 0xE0) == 0xC0) {
+					chars[count++] = (char) (((b & 0x1F) << 6) | (bytes[i++] & 0x3F));
+				}
+				else {
+					chars[count++] = (char) (((b & 0x0F) << 12) | ((bytes[i++] & 0x3F) << 6) | (bytes[i++] & 0x3F));
+				}
+			}
+			return new String(chars, 0, count);
+		}
+
+		private int u1() {
+			return bytes[position++] & 0xFF;
+		}
+
+		private int u2() {
+			int value = ((bytes[position] & 0xFF) << 8) | (bytes[position + 1] & 0xFF);
+			position += 2;
+			return value;
+		}
+
+		private int u4() {
+			int value = ((bytes[position] & 0xFF) << 24) | ((bytes[position + 1] & 0xFF) << 16)
+					| ((bytes[position + 2] & 0xFF) << 8) | (bytes[position + 3] & 0xFF);
+			position += 4;
+			return value;
+		}
+	}
+
+}
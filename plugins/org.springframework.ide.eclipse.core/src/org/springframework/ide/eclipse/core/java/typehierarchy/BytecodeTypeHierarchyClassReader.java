@@ -24,7 +24,7 @@ import org.springframework.ide.eclipse.core.SpringCore;
  * @since 3.3.0
  */
 @SuppressWarnings("restriction")
-public class BytecodeTypeHierarchyClassReader implements TypeHierarchyClassReader {
+public class BytecodeTypeHierarchyClassReader implements TypeHierarchyClassReader, TypeHierarchyClassLocator {
 	
 	private ClasspathLookup lookup;
 
@@ -62,6 +62,21 @@ public class BytecodeTypeHierarchyClassReader implements TypeHierarchyClassReade
 		return null;
 	}
 
+	public String getClassLocation(char[] fullyQualifiedClassName) {
+		String fullyQualifiedClassFileName = new String(fullyQualifiedClassName) + ".class";
+
+		String packageName = "";
+		String className = fullyQualifiedClassFileName;
+
+		int lastIndexOf = fullyQualifiedClassFileName.lastIndexOf('/');
+		if (lastIndexOf > -1) {
+			packageName = fullyQualifiedClassFileName.substring(0, lastIndexOf);
+			className = fullyQualifiedClassFileName.substring(lastIndexOf + 1);
+		}
+
+		return lookup.getLocation(fullyQualifiedClassFileName, packageName, className);
+	}
+
 	public void cleanup() {
 		lookup.close();
 	}
@@ -19,6 +19,7 @@ import java.io.InputStream;
 public interface ClasspathElement {
 
 	public InputStream getStream(String fullyQualifiedClassFileName, String packageName, String classFileName) throws Exception;
+	public String getLocation(String fullyQualifiedClassFileName, String packageName, String classFileName);
 	public void cleanup();
 
 }
@@ -45,6 +45,11 @@ public class ClasspathElementDirectory implements ClasspathElement {
 		}
 	}
 
+	public String getLocation(String fullyQualifiedClassFileName, String packageName, String classFileName) {
+		if (!doesFileExist(fullyQualifiedClassFileName, packageName, classFileName)) return null;
+		return this.directoryPath + File.separatorChar + fullyQualifiedClassFileName;
+	}
+
 	public void cleanup() {
 		this.directoryCache.clear();
 	}
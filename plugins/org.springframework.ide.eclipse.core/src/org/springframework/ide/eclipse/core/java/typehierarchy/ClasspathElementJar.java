@@ -46,6 +46,15 @@ public class ClasspathElementJar implements ClasspathElement {
 		return null;
 	}
 
+	public String getLocation(String fullyQualifiedClassFileName, String packageName, String classFileName) {
+		if (!isPackage(packageName)) return null;
+
+		if (jarFile.getEntry(fullyQualifiedClassFileName) != null) {
+			return this.jarFileName;
+		}
+		return null;
+	}
+
 	public void cleanup() {
 		synchronized(this) {
 			if (this.jarFile != null) {
@@ -18,6 +18,13 @@ import java.io.InputStream;
 public interface ClasspathLookup {
 
 	InputStream getStream(String fullyQualifiedClassFileName, String packageName, String className);
+
+	/**
+	 * Returns the file system location (jar file or class file) the given class file would be loaded from,
+	 * or <code>null</code> if the location is unknown or not a local file.
+	 */
+	String getLocation(String fullyQualifiedClassFileName, String packageName, String className);
+
 	void close();
 
 }
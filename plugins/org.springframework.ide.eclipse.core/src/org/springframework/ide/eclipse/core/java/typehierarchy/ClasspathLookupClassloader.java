@@ -10,7 +10,9 @@
 *******************************************************************************/
 package org.springframework.ide.eclipse.core.java.typehierarchy;
 
+import java.io.File;
 import java.io.InputStream;
+import java.net.URL;
 
 /**
  * @author Martin Lippert
@@ -27,6 +29,31 @@ public class ClasspathLookupClassloader implements ClasspathLookup {
 		return loader.getResourceAsStream(fullyQualifiedClassFileName);
 	}
 
+	public String getLocation(String fullyQualifiedClassFileName, String packageName, String className) {
+		URL url = loader.getResource(fullyQualifiedClassFileName);
+		if (url == null) {
+			return null;
+		}
+
+		try {
+			String protocol = url.getProtocol();
+			if ("jar".equals(protocol)) {
+				String path = url.getPath();
+				int separator = path.indexOf("!/");
+				if (separator > -1) {
+					return new File(new URL(path.substring(0, separator)).toURI()).getAbsolutePath();
+				}
+			}
+			else if ("file".equals(protocol)) {
+				return new File(url.toURI()).getAbsolutePath();
+			}
+		}
+		catch (Exception e) {
+			// no local file location available
+		}
+		return null;
+	}
+
 	public void close() {
 	}
 
@@ -84,6 +84,21 @@ public class ClasspathLookupDirect implements ClasspathLookup {
 		return null;
 	}
 
+	public String getLocation(String fullyQualifiedClassFileName, String packageName, String className) {
+		for (int i = 0; i < cpElements.length; i++) {
+			synchronized(cpElements[i]) {
+				try {
+					String location = cpElements[i].getLocation(fullyQualifiedClassFileName, packageName, className);
+					if (location != null) {
+						return location;
+					}
+				} catch (Exception e) {
+				}
+			}
+		}
+		return null;
+	}
+
 	public void close() {
 		for (int i = 0; i < cpElements.length; i++) {
 			synchronized(cpElements[i]) {
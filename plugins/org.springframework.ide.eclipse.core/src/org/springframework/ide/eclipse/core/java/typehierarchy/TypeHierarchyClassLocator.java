@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+/**
+ * Optional extension for {@link TypeHierarchyClassReader} implementations that are able to tell
+ * where a class is read from. Used to key entries of the {@link TypeHierarchyIndex}.
+ *
+ * @since 3.9.5
+ */
+public interface TypeHierarchyClassLocator {
+
+	/**
+	 * Returns the jar file or class file the given class is read from, or <code>null</code>
+	 * if the class cannot be found or has no local file location.
+	 */
+	public String getClassLocation(char[] fullyQualifiedClassName);
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013 Spring IDE Developers
+ * Copyright (c) 2013, 2018 Spring IDE Developers
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,35 +10,214 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.java.typehierarchy;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
 
 /**
+ * Symbol table for type hierarchy elements. Class names are interned and mapped to dense
+ * int ids. The superclass and the interfaces of an element are stored as ids in int arrays,
+ * so the hierarchy can be walked without any allocation, and every class name is kept only
+ * once no matter how many types refer to it. Lookups compare the full class name, so two
+ * classes whose names share a hash code never alias each other.
+ * <p>
+ * Reads are lock-free. Writers are serialized and publish new names through the volatile
+ * slots of the probing table and new elements through the volatile element slots. When the
+ * table has to grow, a new table is built and published as a whole; the old one is never
+ * modified again, so readers that still hold on to it see a consistent (if slightly outdated)
+ * state.
+ *
  * @author Martin Lippert
  * @since 3.3.0
  */
 public class TypeHierarchyElementCache {
-	
-	private Map<Integer, TypeHierarchyElement> cache;
-	
+
+	public static final int NO_ID = -1;
+
+	private static final int[] NO_IDS = new int[0];
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private volatile Table table;
+
 	public TypeHierarchyElementCache() {
-		this.cache = new ConcurrentHashMap<Integer, TypeHierarchyElement>();
+		this.table = new Table(INITIAL_CAPACITY);
 	}
 
 	public TypeHierarchyElement get(char[] fullyQualifiedClassName) {
-		return cache.get(charArrayToHashcode(fullyQualifiedClassName));
+		Table t = this.table;
+		int id = t.lookup(fullyQualifiedClassName, hash(fullyQualifiedClassName));
+		return id != NO_ID ? t.elements.get(id) : null;
+	}
+
+	/**
+	 * Stores the given element and returns the element that is actually kept by the cache,
+	 * which refers to the interned class names.
+	 */
+	public TypeHierarchyElement put(char[] fullyQualifiedClassName, TypeHierarchyElement typeElement) {
+		synchronized (this) {
+			int id = intern(fullyQualifiedClassName);
+
+			int superclassId = typeElement.superclassName != null ? intern(typeElement.superclassName) : NO_ID;
+			int[] interfaceIds = NO_IDS;
+			char[][] interfaceNames = null;
+			if (typeElement.interfaces != null) {
+				interfaceIds = new int[typeElement.interfaces.length];
+				interfaceNames = new char[interfaceIds.length][];
+				for (int i = 0; i < interfaceIds.length; i++) {
+					interfaceIds[i] = intern(typeElement.interfaces[i]);
+				}
+			}
+
+			// interning might have replaced the table
+			Table t = this.table;
+			if (interfaceNames != null) {
+				for (int i = 0; i < interfaceIds.length; i++) {
+					interfaceNames[i] = t.names[interfaceIds[i]];
+				}
+			}
+			TypeHierarchyElement element = new TypeHierarchyElement(t.names[id],
+					superclassId != NO_ID ? t.names[superclassId] : null, interfaceNames);
+
+			t.superclassIds[id] = superclassId;
+			t.interfaceIds[id] = interfaceIds;
+			// volatile write, publishes the links above
+			t.elements.set(id, element);
+			return element;
+		}
+	}
+
+	/**
+	 * Returns the id of the given class name, or {@link #NO_ID} if the name is unknown. A name
+	 * gets an id as soon as it is stored or referenced by a stored element, the element itself
+	 * might not be known yet.
+	 */
+	public int getId(char[] fullyQualifiedClassName) {
+		return this.table.lookup(fullyQualifiedClassName, hash(fullyQualifiedClassName));
+	}
+
+	public char[] getName(int id) {
+		return this.table.names[id];
+	}
+
+	/**
+	 * Returns the element for the given id, or <code>null</code> if the type hasn't been read yet.
+	 */
+	public TypeHierarchyElement getElement(int id) {
+		return this.table.elements.get(id);
+	}
+
+	/**
+	 * Returns the id of the superclass of the given element, or {@link #NO_ID} if there is none.
+	 * Only valid if {@link #getElement(int)} returned the element before.
+	 */
+	public int getSuperclassId(int id) {
+		return this.table.superclassIds[id];
 	}
 
-	public void put(char[] fullyQualifiedClassName, TypeHierarchyElement typeElement) {
-		cache.put(charArrayToHashcode(fullyQualifiedClassName), typeElement);
+	/**
+	 * Returns the ids of the interfaces of the given element. Only valid if
+	 * {@link #getElement(int)} returned the element before.
+	 */
+	public int[] getInterfaceIds(int id) {
+		int[] ids = this.table.interfaceIds[id];
+		return ids != null ? ids : NO_IDS;
 	}
-	
-	private int charArrayToHashcode(char[] characters) {
+
+	public int size() {
+		return this.table.size;
+	}
+
+	private int intern(char[] name) {
+		int hash = hash(name);
+		Table t = this.table;
+		int id = t.lookup(name, hash);
+		if (id != NO_ID) {
+			return id;
+		}
+
+		if (t.size == t.names.length) {
+			t = t.grow();
+			this.table = t;
+		}
+
+		id = t.size;
+		t.names[id] = name;
+		t.hashes[id] = hash;
+		t.superclassIds[id] = NO_ID;
+		// volatile write, publishes the name to readers probing the table
+		t.insert(id, hash);
+		t.size = id + 1;
+		return id;
+	}
+
+	private static int hash(char[] characters) {
 		int h = 0;
 		for (int i = 0; i < characters.length; i++) {
 			h = 31*h + characters[i];
 		}
-        return h;
+		// spread the bits, the table size is a power of two
+		return h ^ (h >>> 16);
+	}
+
+	private static class Table {
+
+		final char[][] names;
+		final int[] hashes;
+		final int[] superclassIds;
+		final int[][] interfaceIds;
+		final AtomicReferenceArray<TypeHierarchyElement> elements;
+		final AtomicIntegerArray slots; // open addressing, holds id + 1, 0 means empty slot
+		volatile int size;
+
+		Table(int capacity) {
+			this.names = new char[capacity][];
+			this.hashes = new int[capacity];
+			this.superclassIds = new int[capacity];
+			this.interfaceIds = new int[capacity][];
+			this.elements = new AtomicReferenceArray<TypeHierarchyElement>(capacity);
+			// keep the load factor of the probing table at or below 0.5
+			this.slots = new AtomicIntegerArray(capacity * 2);
+		}
+
+		int lookup(char[] name, int hash) {
+			int mask = slots.length() - 1;
+			int slot = hash & mask;
+			int entry;
+			while ((entry = slots.get(slot)) != 0) {
+				int id = entry - 1;
+				if (hashes[id] == hash && CharOperation.equals(names[id], name)) {
+					return id;
+				}
+				slot = (slot + 1) & mask;
+			}
+			return NO_ID;
+		}
+
+		void insert(int id, int hash) {
+			int mask = slots.length() - 1;
+			int slot = hash & mask;
+			while (slots.get(slot) != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots.set(slot, id + 1);
+		}
+
+		Table grow() {
+			Table grown = new Table(names.length * 2);
+			int n = size;
+			System.arraycopy(names, 0, grown.names, 0, n);
+			System.arraycopy(hashes, 0, grown.hashes, 0, n);
+			System.arraycopy(superclassIds, 0, grown.superclassIds, 0, n);
+			System.arraycopy(interfaceIds, 0, grown.interfaceIds, 0, n);
+			for (int id = 0; id < n; id++) {
+				grown.elements.set(id, elements.get(id));
+				grown.insert(id, hashes[id]);
+			}
+			grown.size = n;
+			return grown;
+		}
 	}
 
 }
@@ -10,7 +10,7 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.java.typehierarchy;
 
-import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -30,6 +30,7 @@ public class TypeHierarchyEngine {
 	
 	private TypeHierarchyClassReaderFactory classReaderFactory;
 	private TypeHierarchyElementCacheFactory elementCacheFactory;
+	private TypeHierarchyIndex persistentIndex;
 
 	private final Map<IProject, TypeHierarchyElementCache> cache;
 	private final Map<IProject, TypeHierarchyClassReader> readers;
@@ -50,6 +51,14 @@ public class TypeHierarchyEngine {
 		this.elementCacheFactory = elementCacheFactory;
 	}
 	
+	/**
+	 * Sets the persistent index that is consulted before class files are read and that
+	 * records everything that got read. Optional, may be <code>null</code>.
+	 */
+	public void setPersistentIndex(TypeHierarchyIndex persistentIndex) {
+		this.persistentIndex = persistentIndex;
+	}
+
 	public void cleanup(IProject project) {
 		TypeHierarchyClassReader reader = this.readers.get(project);
 		if (reader != null) {
@@ -67,6 +76,9 @@ public class TypeHierarchyEngine {
 		cleanup(project);
 		this.readers.remove(project);
 		this.cache.remove(project);
+		if (persistentIndex != null) {
+			persistentIndex.invalidateStamps(project);
+		}
 	}
 	
 	public void clearCache() {
@@ -134,36 +146,27 @@ public class TypeHierarchyEngine {
 		TypeHierarchyElementCache elementCache = getTypeHierarchyElementCache(project);
 		
 		try {
-			TypeHierarchyElement typeElement = null;
-			TypeHierarchyElement previousTypeElement = null;
-
-			do {
-				if (CharOperation.equals(typeName, superTypeName)) {
-					return true;
-				}
-				else {
-					if (typeElement == null) {
-						typeElement = getTypeElement(typeName, project, elementCache);
-						if (previousTypeElement != null) {
-							previousTypeElement.superclassElement = typeElement;
-						}
+			char[] name = typeName;
+			int id = TypeHierarchyElementCache.NO_ID;
+			while (!CharOperation.equals(name, superTypeName)) {
+				if (id == TypeHierarchyElementCache.NO_ID || elementCache.getElement(id) == null) {
+					if (getTypeElement(name, project, elementCache) == null) {
+						return false;
 					}
-					previousTypeElement = typeElement;
+					id = elementCache.getId(name);
+				}
 
-					if (typeElement != null) {
-						typeName = typeElement.superclassName;
-						typeElement = typeElement.superclassElement;
-					}
-					else {
-						typeName = null;
-					}
+				id = elementCache.getSuperclassId(id);
+				if (id == TypeHierarchyElementCache.NO_ID) {
+					return false;
 				}
-			} while (typeName != null);
+				name = elementCache.getName(id);
+			}
+			return true;
 		}
 		finally {
 			if (autoCleanup) cleanup(project);
 		}
-		return false;
 	}
 	
 	public boolean doesImplement(final IType type, final String interfaceName) {
@@ -195,65 +198,78 @@ public class TypeHierarchyEngine {
 	protected boolean doesImplement(final IProject project, char[] classTypeName, final char[] interfaceTypeName,
 			final boolean cachedItemsOnly, TypeHierarchyElementCache elementCache) {
 		
-		TypeHierarchyElement classTypeElement = getTypeElement(classTypeName, project, elementCache);
-		do {
-			if (classTypeElement != null) {
-				if (classTypeElement.interfaces != null) {
-					ArrayDeque<TypeHierarchyElement> elementStack = new ArrayDeque<TypeHierarchyElement>();
-					elementStack.add(classTypeElement);
+		if (getTypeElement(classTypeName, project, elementCache) == null) {
+			return false;
+		}
+		int classId = elementCache.getId(classTypeName);
 
-					while (!elementStack.isEmpty()) {
-						TypeHierarchyElement element = elementStack.pop();
-						for (char[] interfaceToAnalyze : element.interfaces) {
-							if (CharOperation.equals(interfaceToAnalyze, interfaceTypeName)) {
-								return true;
-							}
-						}
+		int[] stack = null;
+		while (classId != TypeHierarchyElementCache.NO_ID) {
+			int[] interfaceIds = elementCache.getInterfaceIds(classId);
+			if (interfaceIds.length > 0) {
+				if (stack == null) {
+					stack = new int[16];
+				}
+				int stackSize = 0;
+				stack[stackSize++] = classId;
 
-						for (int i = 0; i < element.interfaces.length; i++) {
-							char[] interfaceToAnalyze = element.interfaces[i];
-							TypeHierarchyElement interfaceToAnalyzeElement = element.interfacesElements[i];
+				while (stackSize > 0) {
+					interfaceIds = elementCache.getInterfaceIds(stack[--stackSize]);
+					for (int interfaceId : interfaceIds) {
+						if (CharOperation.equals(elementCache.getName(interfaceId), interfaceTypeName)) {
+							return true;
+						}
+					}
 
-							if (!cachedItemsOnly || interfaceToAnalyzeElement != null || elementCache.get(interfaceToAnalyze) != null) {
-								if (interfaceToAnalyzeElement == null) {
-									interfaceToAnalyzeElement = getTypeElement(interfaceToAnalyze, project, elementCache);
-									element.interfacesElements[i] = interfaceToAnalyzeElement;
-								}
-								if (interfaceToAnalyzeElement != null && interfaceToAnalyzeElement.interfaces != null) {
-									elementStack.add(interfaceToAnalyzeElement);
-								}
+					for (int interfaceId : interfaceIds) {
+						if (resolve(interfaceId, project, cachedItemsOnly, elementCache) && elementCache.getInterfaceIds(interfaceId).length > 0) {
+							if (stackSize == stack.length) {
+								stack = Arrays.copyOf(stack, stackSize * 2);
 							}
+							stack[stackSize++] = interfaceId;
 						}
 					}
 				}
-				
-				classTypeName = classTypeElement.superclassName;
-				
-				TypeHierarchyElement superClassTypeElement = classTypeElement.superclassElement;
-				if (superClassTypeElement == null && classTypeName != null && (!cachedItemsOnly || elementCache.get(classTypeName) != null)) {
-					superClassTypeElement = getTypeElement(classTypeName, project, elementCache);
-					classTypeElement.superclassElement = superClassTypeElement;
-				}
-				
-				classTypeElement = superClassTypeElement;
-				
-				if (cachedItemsOnly && classTypeName != null && classTypeElement == null && elementCache.get(classTypeName) == null) {
-					classTypeName = null;
-				}
-			}
-			else {
-				classTypeName = null;
 			}
-		} while (classTypeName != null);
+
+			int superclassId = elementCache.getSuperclassId(classId);
+			classId = superclassId != TypeHierarchyElementCache.NO_ID && resolve(superclassId, project, cachedItemsOnly, elementCache)
+					? superclassId : TypeHierarchyElementCache.NO_ID;
+		}
 		return false;
 	}
+
+	/**
+	 * Makes sure the element for the given id is known, reading it if necessary and allowed.
+	 */
+	private boolean resolve(int id, IProject project, boolean cachedItemsOnly, TypeHierarchyElementCache elementCache) {
+		if (elementCache.getElement(id) != null) {
+			return true;
+		}
+		return !cachedItemsOnly && getTypeElement(elementCache.getName(id), project, elementCache) != null;
+	}
 	
 	private TypeHierarchyElement getTypeElement(char[] fullyQualifiedClassName, IProject project, TypeHierarchyElementCache elementCache) {
 		TypeHierarchyElement result = elementCache.get(fullyQualifiedClassName);
 		if (result == null) {
-			result = getClassReader(project).readTypeHierarchyInformation(fullyQualifiedClassName, project);
+			TypeHierarchyClassReader reader = getClassReader(project);
+
+			// the persistent index is only asked for the location the current classpath resolves the class from
+			String location = null;
+			if (persistentIndex != null && reader instanceof TypeHierarchyClassLocator) {
+				location = ((TypeHierarchyClassLocator) reader).getClassLocation(fullyQualifiedClassName);
+				result = persistentIndex.get(project, fullyQualifiedClassName, location);
+			}
+
+			if (result == null) {
+				result = reader.readTypeHierarchyInformation(fullyQualifiedClassName, project);
+				if (result != null && location != null) {
+					persistentIndex.put(project, result, location);
+				}
+			}
+
 			if (result != null) {
-				elementCache.put(fullyQualifiedClassName, result);
+				result = elementCache.put(fullyQualifiedClassName, result);
 			}
 		}
 		return result;
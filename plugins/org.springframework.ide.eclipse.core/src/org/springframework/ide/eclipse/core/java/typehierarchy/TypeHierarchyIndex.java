@@ -0,0 +1,429 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.java.typehierarchy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IProject;
+import org.springframework.ide.eclipse.core.SpringCore;
+
+/**
+ * Persistent, versioned index of type hierarchy information that survives workspace restarts.
+ * <p>
+ * Entries are stored per project and remember the location they have been read from (a jar file
+ * or a single class file in an output folder) together with the size and modification stamp of
+ * that location. An entry is only handed out again if the class is still resolved from that
+ * location and the location is unchanged, so stale information caused by rebuilt output folders,
+ * updated jars or a reordered classpath is never used.
+ * <p>
+ * Locations are verified at most once between two calls to {@link #invalidateStamps(IProject)},
+ * which is triggered by {@link TypeHierarchyEngine#clearCache(IProject)}. Clearing the in-memory
+ * caches of the engine therefore does not throw away the persistent information.
+ *
+ * @since 3.9.5
+ */
+public class TypeHierarchyIndex {
+
+	private static final int MAGIC = 0x53544849; // "STHI"
+	private static final int VERSION = 1;
+
+	private static final String INDEX_FILE_EXTENSION = ".index";
+
+	private final File indexDirectory;
+	private final Map<String, ProjectIndex> projectIndexes;
+
+	public TypeHierarchyIndex(File indexDirectory) {
+		this.indexDirectory = indexDirectory;
+		this.projectIndexes = new ConcurrentHashMap<String, ProjectIndex>();
+	}
+
+	/**
+	 * Returns the hierarchy information for the given class if the index contains a still valid
+	 * entry for it, <code>null</code> otherwise. An entry is only valid if it got recorded from
+	 * the location the class is currently resolved from and that location is unchanged, so
+	 * changing the version of a dependency or the order of the classpath is picked up even if
+	 * the previously used jar still exists.
+	 *
+	 * @param location the jar file or class file the current classpath of the project resolves
+	 * the class from
+	 */
+	public TypeHierarchyElement get(IProject project, char[] fullyQualifiedClassName, String location) {
+		if (location == null) {
+			return null;
+		}
+
+		ProjectIndex index = getProjectIndex(project);
+		String className = new String(fullyQualifiedClassName);
+		IndexEntry entry = index.entries.get(className);
+		if (entry == null) {
+			return null;
+		}
+
+		if (!location.equals(entry.location)) {
+			index.entries.remove(className, entry);
+			index.dirty = true;
+			return null;
+		}
+
+		if (!index.isValid(entry.location)) {
+			index.removeLocation(entry.location);
+			return null;
+		}
+		return entry.toElement(fullyQualifiedClassName);
+	}
+
+	/**
+	 * Records the given type hierarchy information that got read from the given location
+	 * (jar file or class file).
+	 */
+	public void put(IProject project, TypeHierarchyElement element, String location) {
+		if (element == null || location == null) {
+			return;
+		}
+
+		ProjectIndex index = getProjectIndex(project);
+		LocationStamp stamp = index.getCurrentStamp(location);
+		if (stamp == null) {
+			return;
+		}
+
+		index.entries.put(new String(element.className), new IndexEntry(location, element));
+		index.dirty = true;
+	}
+
+	/**
+	 * Forces the index to re-check the stamps of all known locations of the given project the next
+	 * time entries are requested. The entries themselves are kept.
+	 */
+	public void invalidateStamps(IProject project) {
+		ProjectIndex index = projectIndexes.get(project.getName());
+		if (index != null) {
+			index.verifiedLocations.clear();
+		}
+	}
+
+	/**
+	 * Removes all information for the given project, in memory and on disk.
+	 */
+	public void remove(IProject project) {
+		projectIndexes.remove(project.getName());
+		File file = getIndexFile(project.getName());
+		if (file.exists()) {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Writes all modified project indexes to disk.
+	 */
+	public void save() {
+		for (Map.Entry<String, ProjectIndex> entry : projectIndexes.entrySet()) {
+			ProjectIndex index = entry.getValue();
+			if (index.dirty) {
+				try {
+					write(entry.getKey(), index);
+					index.dirty = false;
+				}
+				catch (IOException e) {
+					SpringCore.log("Error writing type hierarchy index for project " + entry.getKey(), e);
+				}
+			}
+		}
+	}
+
+	private ProjectIndex getProjectIndex(IProject project) {
+		String projectName = project.getName();
+		ProjectIndex index = projectIndexes.get(projectName);
+		if (index == null) {
+			synchronized (projectIndexes) {
+				index = projectIndexes.get(projectName);
+				if (index == null) {
+					index = read(projectName);
+					projectIndexes.put(projectName, index);
+				}
+			}
+		}
+		return index;
+	}
+
+	private File getIndexFile(String projectName) {
+		return new File(indexDirectory, projectName + INDEX_FILE_EXTENSION);
+	}
+
+	private ProjectIndex read(String projectName) {
+		ProjectIndex index = new ProjectIndex();
+
+		File file = getIndexFile(projectName);
+		if (!file.exists()) {
+			return index;
+		}
+
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				// unknown or outdated format, start from scratch
+				return index;
+			}
+
+			int locationCount = in.readInt();
+			String[] locations = new String[locationCount];
+			for (int i = 0; i < locationCount; i++) {
+				locations[i] = in.readUTF();
+				long size = in.readLong();
+				long lastModified = in.readLong();
+				index.locationStamps.put(locations[i], new LocationStamp(size, lastModified));
+			}
+
+			int entryCount = in.readInt();
+			for (int i = 0; i < entryCount; i++) {
+				String className = in.readUTF();
+				String location = locations[in.readInt()];
+				String superclassName = in.readBoolean() ? in.readUTF() : null;
+				int interfaceCount = in.readInt();
+				String[] interfaces = null;
+				if (interfaceCount >= 0) {
+					interfaces = new String[interfaceCount];
+					for (int j = 0; j < interfaceCount; j++) {
+						interfaces[j] = in.readUTF();
+					}
+				}
+				index.entries.put(className, new IndexEntry(location, superclassName, interfaces));
+			}
+		}
+		catch (Exception e) {
+			SpringCore.log("Error reading type hierarchy index for project " + projectName, e);
+			return new ProjectIndex();
+		}
+		finally {
+			if (in != null) {
+				try {
+					in.close();
+				}
+				catch (IOException e) {
+				}
+			}
+		}
+		return index;
+	}
+
+	private void write(String projectName, ProjectIndex index) throws IOException {
+		if (!indexDirectory.exists()) {
+			indexDirectory.mkdirs();
+		}
+
+		File file = getIndexFile(projectName);
+		File tempFile = new File(indexDirectory, projectName + INDEX_FILE_EXTENSION + ".tmp");
+
+		// take a consistent copy of the current state first
+		Map<String, IndexEntry> entries = new HashMap<String, IndexEntry>(index.entries);
+		Map<String, Integer> locationIds = new HashMap<String, Integer>();
+		List<String> locations = new ArrayList<String>();
+		List<LocationStamp> stamps = new ArrayList<LocationStamp>();
+		for (Iterator<IndexEntry> iterator = entries.values().iterator(); iterator.hasNext();) {
+			IndexEntry entry = iterator.next();
+			if (!locationIds.containsKey(entry.location)) {
+				LocationStamp stamp = index.locationStamps.get(entry.location);
+				if (stamp == null) {
+					iterator.remove();
+					continue;
+				}
+				locationIds.put(entry.location, locations.size());
+				locations.add(entry.location);
+				stamps.add(stamp);
+			}
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+
+			out.writeInt(locations.size());
+			for (int i = 0; i < locations.size(); i++) {
+				out.writeUTF(locations.get(i));
+				out.writeLong(stamps.get(i).size);
+				out.writeLong(stamps.get(i).lastModified);
+			}
+
+			out.writeInt(entries.size());
+			for (Map.Entry<String, IndexEntry> mapEntry : entries.entrySet()) {
+				IndexEntry entry = mapEntry.getValue();
+				out.writeUTF(mapEntry.getKey());
+				out.writeInt(locationIds.get(entry.location));
+				out.writeBoolean(entry.superclassName != null);
+				if (entry.superclassName != null) {
+					out.writeUTF(entry.superclassName);
+				}
+				if (entry.interfaces != null) {
+					out.writeInt(entry.interfaces.length);
+					for (String interfaceName : entry.interfaces) {
+						out.writeUTF(interfaceName);
+					}
+				}
+				else {
+					out.writeInt(-1);
+				}
+			}
+		}
+		finally {
+			out.close();
+		}
+
+		if (file.exists()) {
+			file.delete();
+		}
+		if (!tempFile.renameTo(file)) {
+			throw new IOException("Unable to rename " + tempFile + " to " + file);
+		}
+	}
+
+	private static class ProjectIndex {
+
+		final Map<String, IndexEntry> entries = new ConcurrentHashMap<String, IndexEntry>();
+		final Map<String, LocationStamp> locationStamps = new ConcurrentHashMap<String, LocationStamp>();
+		final Set<String> verifiedLocations = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+		volatile boolean dirty;
+
+		boolean isValid(String location) {
+			if (verifiedLocations.contains(location)) {
+				return true;
+			}
+
+			LocationStamp recorded = locationStamps.get(location);
+			LocationStamp current = LocationStamp.of(location);
+			if (recorded != null && recorded.equals(current)) {
+				verifiedLocations.add(location);
+				return true;
+			}
+			return false;
+		}
+
+		LocationStamp getCurrentStamp(String location) {
+			if (verifiedLocations.contains(location)) {
+				return locationStamps.get(location);
+			}
+
+			LocationStamp current = LocationStamp.of(location);
+			if (current != null) {
+				LocationStamp recorded = locationStamps.put(location, current);
+				if (recorded != null && !recorded.equals(current)) {
+					removeEntries(location);
+				}
+				verifiedLocations.add(location);
+			}
+			return current;
+		}
+
+		void removeLocation(String location) {
+			locationStamps.remove(location);
+			verifiedLocations.remove(location);
+			removeEntries(location);
+		}
+
+		private void removeEntries(String location) {
+			for (Iterator<IndexEntry> iterator = entries.values().iterator(); iterator.hasNext();) {
+				if (location.equals(iterator.next().location)) {
+					iterator.remove();
+				}
+			}
+			dirty = true;
+		}
+	}
+
+	private static class IndexEntry {
+
+		final String location;
+		final String superclassName;
+		final String[] interfaces;
+
+		IndexEntry(String location, String superclassName, String[] interfaces) {
+			this.location = location;
+			this.superclassName = superclassName;
+			this.interfaces = interfaces;
+		}
+
+		IndexEntry(String location, TypeHierarchyElement element) {
+			this.location = location;
+			this.superclassName = element.superclassName != null ? new String(element.superclassName) : null;
+			if (element.interfaces != null) {
+				this.interfaces = new String[element.interfaces.length];
+				for (int i = 0; i < element.interfaces.length; i++) {
+					this.interfaces[i] = new String(element.interfaces[i]);
+				}
+			}
+			else {
+				this.interfaces = null;
+			}
+		}
+
+		TypeHierarchyElement toElement(char[] className) {
+			char[][] interfaceNames = null;
+			if (interfaces != null) {
+				interfaceNames = new char[interfaces.length][];
+				for (int i = 0; i < interfaces.length; i++) {
+					interfaceNames[i] = interfaces[i].toCharArray();
+				}
+			}
+			return new TypeHierarchyElement(className, superclassName != null ? superclassName.toCharArray() : null, interfaceNames);
+		}
+	}
+
+	private static class LocationStamp {
+
+		final long size;
+		final long lastModified;
+
+		LocationStamp(long size, long lastModified) {
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		static LocationStamp of(String location) {
+			File file = new File(location);
+			if (!file.isFile()) {
+				return null;
+			}
+			return new LocationStamp(file.length(), file.lastModified());
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (size ^ (size >>> 32)) * 31 + (int) (lastModified ^ (lastModified >>> 32));
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof LocationStamp))
+				return false;
+			LocationStamp other = (LocationStamp) obj;
+			return size == other.size && lastModified == other.lastModified;
+		}
+	}
+
+}
@@ -40,6 +40,9 @@ public class TypeHierarchyResourceChangeListener implements IResourceChangeListe
 			IResource res = delta.getResource();
 			if (res instanceof IProject) {
 				SpringCore.getTypeHierarchyEngine().clearCache((IProject) res);
+				if (delta.getKind() == IResourceDelta.REMOVED && SpringCore.getTypeHierarchyIndex() != null) {
+					SpringCore.getTypeHierarchyIndex().remove((IProject) res);
+				}
 				return false;
 			}
 			return true;
@@ -15,6 +15,7 @@ import java.util.List;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResourceDelta;
 import org.springframework.core.Ordered;
+import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.internal.model.validation.ValidatorDefinition;
 import org.springframework.ide.eclipse.core.project.IProjectContributionEventListener;
 import org.springframework.ide.eclipse.core.project.IProjectContributorState;
@@ -39,6 +40,7 @@ public class TypeHierarchyStateRegisteringEventListener extends ProjectContribut
 		TypeHierarchyEngine engine = new TypeHierarchyEngine(false);
 		engine.setClassReaderFactory(new BytecodeTypeHierarchyClassReaderFactory());
 		engine.setTypeHierarchyElementCacheFactory(new DirectTypeHierarchyElementCacheFactory());
+		engine.setPersistentIndex(SpringCore.getTypeHierarchyIndex());
 		state.hold(engine);
 	}
 
@@ -49,6 +51,11 @@ public class TypeHierarchyStateRegisteringEventListener extends ProjectContribut
 			List<ValidatorDefinition> validatorDefinitions, IProjectContributorState state, IProject project) {
 		TypeHierarchyEngine engine = state.get(TypeHierarchyEngine.class);
 		engine.cleanup();
+
+		TypeHierarchyIndex index = SpringCore.getTypeHierarchyIndex();
+		if (index != null) {
+			index.save();
+		}
 	}
 
 	/**
@@ -10,16 +10,32 @@
  *******************************************************************************/
 package org.springframework.ide.eclipse.core.model.validation;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubProgressMonitor;
 import org.springframework.ide.eclipse.core.MarkerUtils;
+import org.springframework.ide.eclipse.core.SpringCore;
 import org.springframework.ide.eclipse.core.internal.model.validation.ValidationRuleDefinition;
 import org.springframework.ide.eclipse.core.internal.model.validation.ValidationRuleDefinitionFactory;
 import org.springframework.ide.eclipse.core.model.IModelElement;
@@ -28,6 +44,7 @@ import org.springframework.ide.eclipse.core.model.IResourceModelElement;
 import org.springframework.ide.eclipse.core.project.DefaultProjectContributorState;
 import org.springframework.ide.eclipse.core.project.IProjectContributorState;
 import org.springframework.ide.eclipse.core.project.IProjectContributorStateAware;
+import org.springsource.ide.eclipse.commons.core.SpringCorePreferences;
 
 /**
  * Base {@link IValidator} implementation that abstracts model visiting and provides implementation hooks for sub
@@ -39,6 +56,9 @@ import org.springframework.ide.eclipse.core.project.IProjectContributorStateAwar
  */
 public abstract class AbstractValidator implements IValidator, IProjectContributorStateAware {
 
+	/** Shared pool for parallel validation; bounded by the number of available processors */
+	private static ForkJoinPool validationPool;
+
 	/** Internal state object */
 	private IProjectContributorState contributorState;
 
@@ -78,6 +98,23 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 	 */
 	public final void validate(Set<IResource> affectedResources, int kind, IProgressMonitor monitor)
 			throws CoreException {
+		try {
+			if (affectedResources.size() > 1 && isParallelValidationEnabled(affectedResources)) {
+				validateInParallel(affectedResources, kind, monitor);
+			}
+			else {
+				validateSequentially(affectedResources, kind, monitor);
+			}
+		}
+		finally {
+			if (ValidationRuleStatistics.isEnabled()) {
+				ValidationRuleStatistics.scheduleReports();
+			}
+		}
+	}
+
+	private void validateSequentially(Set<IResource> affectedResources, int kind, IProgressMonitor monitor)
+			throws CoreException {
 		SubProgressMonitor subMonitor = new SubProgressMonitor(monitor, affectedResources.size());
 		try {
 			for (IResource resource : affectedResources) {
@@ -101,24 +138,213 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 
 				Set<ValidationRuleDefinition> ruleDefinitions = getRuleDefinitions(resource);
 				if (rootElement != null && ruleDefinitions != null && ruleDefinitions.size() > 0) {
-					Set<ValidationProblem> problems = validate(callback, ruleDefinitions, subMonitor);
+					Set<ValidationProblem> problems = validate(callback, ruleDefinitions, new SubProgressMonitor(
+							subMonitor, 1));
 					ValidationUtils.createProblemMarkers(resource, problems, getMarkerId());
 				}
+				else {
+					subMonitor.worked(1);
+				}
 
 				// call close on callback to execute any required resource cleanup in template
 				callback.destroy();
 
+				if (subMonitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+			}
+		}
+		finally {
+			subMonitor.done();
+		}
+	}
+
+	/**
+	 * Validates the given resources concurrently on the shared validation pool. Every resource gets its own
+	 * {@link IValidationElementLifecycleManager} and {@link IValidationContext}s. Marker changes are kept on the
+	 * calling thread: markers are removed before the validation starts and created in one batch afterwards, in
+	 * the iteration order of the given resources.
+	 * <p>
+	 * The calling thread doesn't just wait for the pool: it validates resources itself, taking them from the same
+	 * queue as the pool workers, and only waits for the resources still in progress on other threads at the end.
+	 */
+	private void validateInParallel(Set<IResource> affectedResources, final int kind, IProgressMonitor monitor)
+			throws CoreException {
+		SubProgressMonitor subMonitor = new SubProgressMonitor(monitor, affectedResources.size() * 2);
+		List<Future<?>> workers = new ArrayList<Future<?>>();
+		try {
+			final List<IResource> resources = new ArrayList<IResource>(affectedResources);
+			for (IResource resource : resources) {
+				cleanup(resource, subMonitor);
 				subMonitor.worked(1);
 				if (subMonitor.isCanceled()) {
 					throw new OperationCanceledException();
 				}
 			}
+
+			// worker threads must not report against the (non thread-safe) monitor, but they honor its cancel state
+			final IProgressMonitor workerMonitor = new CancelStateProgressMonitor(subMonitor);
+			final ValidationQueue queue = new ValidationQueue(resources, kind);
+			ForkJoinPool pool = getValidationPool();
+			int workerCount = Math.min(pool.getParallelism(), resources.size() - 1);
+			try {
+				for (int i = 0; i < workerCount; i++) {
+					workers.add(pool.submit(new Runnable() {
+						public void run() {
+							queue.drain(workerMonitor);
+						}
+					}));
+				}
+			}
+			catch (RejectedExecutionException e) {
+				// pool has been shut down concurrently; the calling thread validates the remaining resources
+			}
+
+			int validated = 0;
+			int index;
+			while ((index = queue.next()) != -1) {
+				reportProgress("Validating '" + resources.get(index).getFullPath().toString().substring(1) + "'",
+						subMonitor);
+				queue.validate(index, new SubProgressMonitor(subMonitor, 1));
+				validated++;
+				if (subMonitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+			}
+
+			for (Future<?> worker : workers) {
+				await(worker, subMonitor);
+			}
+			queue.checkFailure();
+			subMonitor.worked(resources.size() - validated);
+
+			Map<IResource, Set<ValidationProblem>> problems = new LinkedHashMap<IResource, Set<ValidationProblem>>();
+			for (int i = 0; i < resources.size(); i++) {
+				Set<ValidationProblem> resourceProblems = queue.getProblems(i);
+				if (resourceProblems != null) {
+					problems.put(resources.get(i), resourceProblems);
+				}
+			}
+			ValidationUtils.createProblemMarkers(problems, getMarkerId());
 		}
 		finally {
+			for (Future<?> worker : workers) {
+				worker.cancel(false);
+			}
 			subMonitor.done();
 		}
 	}
 
+	/**
+	 * Validates a single resource and returns the found problems, or <code>null</code> if the resource has not
+	 * been validated. May be called concurrently for different resources.
+	 */
+	private Set<ValidationProblem> validate(IResource resource, int kind, IProgressMonitor monitor) {
+		if (monitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+
+		IValidationElementLifecycleManager callback = initValidationElementCallback(resource, kind);
+		try {
+			IResourceModelElement rootElement = callback.getRootElement();
+
+			// Check if resource model element is external to the workspace -> if so, do not validate the resource
+			if (rootElement == null || rootElement.isExternal()) {
+				return null;
+			}
+
+			Set<ValidationRuleDefinition> ruleDefinitions = getRuleDefinitions(resource);
+			if (ruleDefinitions != null && ruleDefinitions.size() > 0) {
+				return validate(callback, ruleDefinitions, monitor);
+			}
+			return null;
+		}
+		finally {
+			// call close on callback to execute any required resource cleanup in template
+			callback.destroy();
+		}
+	}
+
+	/**
+	 * Waits for the given worker to finish while checking the cancel state of the build.
+	 */
+	private void await(Future<?> worker, IProgressMonitor monitor) {
+		while (true) {
+			if (monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			try {
+				worker.get(100, TimeUnit.MILLISECONDS);
+				return;
+			}
+			catch (TimeoutException e) {
+				// check cancel state and wait again
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			}
+			catch (ExecutionException e) {
+				if (e.getCause() instanceof OperationCanceledException) {
+					throw (OperationCanceledException) e.getCause();
+				}
+				// failures of the validation itself are recorded in the queue
+				SpringCore.log(e.getCause());
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the given resources should be validated concurrently. This is the case if
+	 * parallel validation has been enabled for all projects the resources belong to.
+	 * @since 3.9.5
+	 */
+	protected boolean isParallelValidationEnabled(Set<IResource> resources) {
+		Set<IProject> projects = new LinkedHashSet<IProject>();
+		for (IResource resource : resources) {
+			projects.add(resource.getProject());
+		}
+		for (IProject project : projects) {
+			if (!isParallelValidationEnabled(project)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isParallelValidationEnabled(IProject project) {
+		if (project != null && SpringCorePreferences.getProjectPreferences(project, SpringCore.PLUGIN_ID).getBoolean(
+				SpringCore.PROJECT_PROPERTY_ID, false)) {
+			return SpringCorePreferences.getProjectPreferences(project, SpringCore.PLUGIN_ID).getBoolean(
+					SpringCore.ENABLE_PARALLEL_VALIDATION, false);
+		}
+		return SpringCore.getDefault().getPluginPreferences().getBoolean(SpringCore.ENABLE_PARALLEL_VALIDATION);
+	}
+
+	private static synchronized ForkJoinPool getValidationPool() {
+		if (validationPool == null) {
+			validationPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+		}
+		return validationPool;
+	}
+
+	/**
+	 * Shuts down the pool used for parallel validation. Called when the core plug-in is stopped; a later
+	 * parallel validation creates a new pool.
+	 * @since 3.9.5
+	 */
+	public static void shutdownValidationPool() {
+		ForkJoinPool pool;
+		synchronized (AbstractValidator.class) {
+			pool = validationPool;
+			validationPool = null;
+		}
+		if (pool != null) {
+			pool.shutdownNow();
+		}
+	}
+
 	private IValidationElementLifecycleManager initValidationElementCallback(IResource resource, int kind) {
 		IValidationElementLifecycleManager callback = createValidationElementLifecycleManager();
 		if (callback instanceof IValidationElementLifecycleManagerExtension) {
@@ -129,16 +355,38 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 	}
 
 	private Set<ValidationProblem> validate(IValidationElementLifecycleManager callback,
-			Set<ValidationRuleDefinition> ruleDefinitions, SubProgressMonitor subMonitor) {
+			Set<ValidationRuleDefinition> ruleDefinitions, IProgressMonitor subMonitor) {
+		Set<IResourceModelElement> contextElements = callback.getContextElements();
+		// worker threads don't report progress, so there is no need to walk the tree for them
+		if (!(subMonitor instanceof CancelStateProgressMonitor)) {
+			subMonitor.beginTask("", countElements(callback.getRootElement(), subMonitor) * contextElements.size());
+		}
+		try {
+			return validateContexts(callback, contextElements, ruleDefinitions, subMonitor);
+		}
+		finally {
+			subMonitor.done();
+		}
+	}
+
+	private Set<ValidationProblem> validateContexts(IValidationElementLifecycleManager callback,
+			Set<IResourceModelElement> contextElements, Set<ValidationRuleDefinition> ruleDefinitions,
+			IProgressMonitor subMonitor) {
+		IResource resource = callback.getRootElement().getElementResource();
+		boolean profile = ValidationRuleStatistics.isEnabled();
+		long budget = ValidationRuleStatistics.getBudgetNanos();
+		Map<String, Long> ruleTimes = (profile || budget > 0) ? new LinkedHashMap<String, Long>() : null;
+
 		Set<ValidationProblem> problems = new LinkedHashSet<ValidationProblem>();
-		for (IResourceModelElement contextElement : callback.getContextElements()) {
+		for (IResourceModelElement contextElement : contextElements) {
 			IValidationContext context = createContext(callback.getRootElement(), contextElement);
 			if (context instanceof IProjectContributorStateAware) {
 				((IProjectContributorStateAware) context).setProjectContributorState(contributorState);
 			}
 
 			if (context != null) {
-				IModelElementVisitor visitor = new ValidationVisitor(context, ruleDefinitions);
+				IModelElementVisitor visitor = new ValidationVisitor(context, ruleDefinitions, resource, profile,
+						ruleTimes);
 				callback.getRootElement().accept(visitor, subMonitor);
 				problems.addAll(context.getProblems());
 			}
@@ -146,9 +394,28 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 				throw new OperationCanceledException();
 			}
 		}
+
+		if (resource != null) {
+			ValidationRuleStatistics.checkBudget(resource, ruleTimes, budget);
+		}
 		return problems;
 	}
 
+	/**
+	 * Returns the number of elements in the model tree of the given element, which is the total work of
+	 * validating the tree in one context.
+	 */
+	private int countElements(IModelElement rootElement, IProgressMonitor monitor) {
+		final int[] count = new int[1];
+		rootElement.accept(new IModelElementVisitor() {
+			public boolean visit(IModelElement element, IProgressMonitor monitor) {
+				count[0]++;
+				return true;
+			}
+		}, monitor);
+		return count[0];
+	}
+
 	/**
 	 * Returns a newly created {@link IValidationContext} for the given {@link IResourceModelElement root element} and
 	 * it's {@link IResourceModelElement context element}.
@@ -204,32 +471,7 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 	 */
 	protected void reportProgress(String message, IProgressMonitor monitor) {
 		ValidationProgressState progress = getProjectContributorState().get(ValidationProgressState.class);
-		if (progress != null) {
-			
-			int errorCount = progress.getErrorCount();
-			int warningCount = progress.getWarningCount();
-
-			if (errorCount > 0 || warningCount > 0) {
-				StringBuilder builder = new StringBuilder("(Found ");
-				if (errorCount > 0) {
-					builder.append(errorCount).append((errorCount > 1 ? " errors" : " error"));
-				}
-				if (errorCount > 0 && warningCount > 0) {
-					builder.append(" + ");
-				}
-				if (warningCount > 0) {
-					builder.append(warningCount).append((warningCount > 1 ? " warnings" : " warning"));
-				}
-				builder.append(") ").append(message);
-				monitor.subTask(builder.toString());
-			}
-			else {
-				monitor.subTask(message);
-			}
-		}
-		else {
-			monitor.subTask(message);
-		}
+		monitor.subTask(ValidationProgressReporter.formatMessage(progress, message));
 	}
 
 	/**
@@ -257,37 +499,176 @@ public abstract class AbstractValidator implements IValidator, IProjectContribut
 
 		private Set<ValidationRuleDefinition> ruleDefinitions;
 
+		private ValidationProgressReporter progressReporter;
+
+		private String resourcePath;
+
+		private boolean profile;
+
+		/** Accumulated time per rule id on the current resource; <code>null</code> if not measured */
+		private Map<String, Long> ruleTimes;
+
 		public ValidationVisitor(IValidationContext context, Set<ValidationRuleDefinition> ruleDefinitions) {
 			this.ruleDefinitions = ruleDefinitions;
 			this.context = context;
 		}
 
-		@SuppressWarnings("unchecked")
+		private ValidationVisitor(IValidationContext context, Set<ValidationRuleDefinition> ruleDefinitions,
+				IResource resource, boolean profile, Map<String, Long> ruleTimes) {
+			this(context, ruleDefinitions);
+			this.resourcePath = (resource != null ? resource.getFullPath().toString() : null);
+			this.profile = profile;
+			this.ruleTimes = ruleTimes;
+		}
+
 		public boolean visit(IModelElement element, IProgressMonitor monitor) {
+			getProgressReporter(monitor).visiting(element);
 			if (supports(element) && shouldValidate(element, context)) {
-				SubProgressMonitor subMonitor = new SubProgressMonitor(monitor, ruleDefinitions.size());
-				try {
-					for (ValidationRuleDefinition ruleDefinition : ruleDefinitions) {
-						if (subMonitor.isCanceled()) {
-							throw new OperationCanceledException();
-						}
-						String progressMessage = "Validating element '" + element.getElementName() + "' with rule '" + ruleDefinition.getName() + "'";
-						reportProgress(progressMessage, subMonitor);
+				for (ValidationRuleDefinition ruleDefinition : ruleDefinitions) {
+					if (monitor.isCanceled()) {
+						throw new OperationCanceledException();
+					}
+					getProgressReporter(monitor).validating(element, ruleDefinition);
 
-						IValidationRule rule = ruleDefinition.getRule();
-						if (rule.supports(element, context)) {
-							context.setCurrentRuleDefinition(ruleDefinition);
-							rule.validate(element, context, monitor);
+					IValidationRule rule = ruleDefinition.getRule();
+					if (ruleDefinition.isThreadSafe()) {
+						validate(rule, ruleDefinition, element, monitor);
+					}
+					else {
+						synchronized (rule) {
+							validate(rule, ruleDefinition, element, monitor);
 						}
-						subMonitor.worked(1);
 					}
 				}
-				finally {
-					subMonitor.done();
-				}
 				return true;
 			}
 			return false;
 		}
+
+		private ValidationProgressReporter getProgressReporter(IProgressMonitor monitor) {
+			if (progressReporter == null) {
+				progressReporter = new ValidationProgressReporter(monitor, getProjectContributorState().get(
+						ValidationProgressState.class));
+			}
+			return progressReporter;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void validate(IValidationRule rule, ValidationRuleDefinition ruleDefinition, IModelElement element,
+				IProgressMonitor monitor) {
+			if (rule.supports(element, context)) {
+				context.setCurrentRuleDefinition(ruleDefinition);
+				if (ruleTimes != null) {
+					long start = System.nanoTime();
+					rule.validate(element, context, monitor);
+					long time = System.nanoTime() - start;
+
+					Long ruleTime = ruleTimes.get(ruleDefinition.getId());
+					ruleTimes.put(ruleDefinition.getId(), (ruleTime != null ? ruleTime + time : time));
+					if (profile) {
+						ValidationRuleStatistics.record(ruleDefinition.getId(), resourcePath, time);
+					}
+				}
+				else {
+					rule.validate(element, context, monitor);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Resources of a parallel validation run, handed out to the calling thread and the pool workers in order.
+	 * Keeps the problems per resource and the first failure of any thread.
+	 */
+	private class ValidationQueue {
+
+		private final List<IResource> resources;
+
+		private final int kind;
+
+		private final AtomicInteger next = new AtomicInteger();
+
+		private final AtomicReferenceArray<Set<ValidationProblem>> problems;
+
+		private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+		public ValidationQueue(List<IResource> resources, int kind) {
+			this.resources = resources;
+			this.kind = kind;
+			this.problems = new AtomicReferenceArray<Set<ValidationProblem>>(resources.size());
+		}
+
+		/**
+		 * Returns the index of the next resource to validate, or <code>-1</code> if all resources are taken or a
+		 * validation failed.
+		 */
+		public int next() {
+			if (failure.get() != null) {
+				return -1;
+			}
+			int index = next.getAndIncrement();
+			return index < resources.size() ? index : -1;
+		}
+
+		/**
+		 * Validates resources on a pool worker until the queue is empty.
+		 */
+		public void drain(IProgressMonitor monitor) {
+			int index;
+			while ((index = next()) != -1) {
+				validate(index, monitor);
+			}
+		}
+
+		public void validate(int index, IProgressMonitor monitor) {
+			try {
+				problems.set(index, AbstractValidator.this.validate(resources.get(index), kind, monitor));
+			}
+			catch (OperationCanceledException e) {
+				throw e;
+			}
+			catch (RuntimeException e) {
+				failure.compareAndSet(null, e);
+			}
+			catch (Error e) {
+				failure.compareAndSet(null, e);
+				throw e;
+			}
+		}
+
+		public Set<ValidationProblem> getProblems(int index) {
+			return problems.get(index);
+		}
+
+		/**
+		 * Rethrows the first failure of any thread that took part in the validation.
+		 */
+		public void checkFailure() {
+			Throwable e = failure.get();
+			if (e instanceof RuntimeException) {
+				throw (RuntimeException) e;
+			}
+			if (e instanceof Error) {
+				throw (Error) e;
+			}
+		}
+	}
+
+	/**
+	 * Progress monitor handed to validation worker threads: it ignores all progress reporting but reflects the
+	 * cancel state of the monitor of the build.
+	 */
+	private static class CancelStateProgressMonitor extends NullProgressMonitor {
+
+		private final IProgressMonitor monitor;
+
+		public CancelStateProgressMonitor(IProgressMonitor monitor) {
+			this.monitor = monitor;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return super.isCanceled() || monitor.isCanceled();
+		}
 	}
 }
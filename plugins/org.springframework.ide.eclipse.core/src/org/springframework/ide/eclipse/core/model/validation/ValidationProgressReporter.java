@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.model.validation;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.springframework.ide.eclipse.core.internal.model.validation.ValidationRuleDefinition;
+import org.springframework.ide.eclipse.core.model.IModelElement;
+
+/**
+ * Throttled progress reporting for the validation hot loop. The monitor is updated at most every
+ * {@link #REPORT_INTERVAL_MILLIS} milliseconds or every {@link #REPORT_INTERVAL_ELEMENTS} elements, and the
+ * progress message is only formatted if an update is actually due. Worked units for the visited elements are
+ * handed to the monitor in batches along with the updates.
+ * @since 3.9.5
+ */
+class ValidationProgressReporter {
+
+	static final long REPORT_INTERVAL_MILLIS = 200;
+
+	static final int REPORT_INTERVAL_ELEMENTS = 250;
+
+	private static final long REPORT_INTERVAL_NANOS = REPORT_INTERVAL_MILLIS * 1000000L;
+
+	private final IProgressMonitor monitor;
+
+	private final ValidationProgressState state;
+
+	private long lastReport;
+
+	private int elementsSinceLastReport;
+
+	private int pendingWork;
+
+	public ValidationProgressReporter(IProgressMonitor monitor, ValidationProgressState state) {
+		this.monitor = monitor;
+		this.state = state;
+		this.lastReport = System.nanoTime();
+	}
+
+	/**
+	 * Reports that the given element is visited; every element is one unit of work.
+	 */
+	public void visiting(IModelElement element) {
+		pendingWork++;
+	}
+
+	/**
+	 * Reports that the given element is about to be validated with the given rule.
+	 */
+	public void validating(IModelElement element, ValidationRuleDefinition ruleDefinition) {
+		if (isDue()) {
+			monitor.subTask(formatMessage(state, "Validating element '" + element.getElementName() + "' with rule '"
+					+ ruleDefinition.getName() + "'"));
+		}
+	}
+
+	private boolean isDue() {
+		if (++elementsSinceLastReport >= REPORT_INTERVAL_ELEMENTS) {
+			reset();
+			return true;
+		}
+		if (System.nanoTime() - lastReport >= REPORT_INTERVAL_NANOS) {
+			reset();
+			return true;
+		}
+		return false;
+	}
+
+	private void reset() {
+		elementsSinceLastReport = 0;
+		lastReport = System.nanoTime();
+		if (pendingWork > 0) {
+			monitor.worked(pendingWork);
+			pendingWork = 0;
+		}
+	}
+
+	/**
+	 * Prefixes the given message with the number of errors and warnings found so far.
+	 */
+	static String formatMessage(ValidationProgressState state, String message) {
+		if (state == null) {
+			return message;
+		}
+
+		int errorCount = state.getErrorCount();
+		int warningCount = state.getWarningCount();
+		if (errorCount == 0 && warningCount == 0) {
+			return message;
+		}
+
+		StringBuilder builder = new StringBuilder("(Found ");
+		if (errorCount > 0) {
+			builder.append(errorCount).append((errorCount > 1 ? " errors" : " error"));
+		}
+		if (errorCount > 0 && warningCount > 0) {
+			builder.append(" + ");
+		}
+		if (warningCount > 0) {
+			builder.append(warningCount).append((warningCount > 1 ? " warnings" : " warning"));
+		}
+		return builder.append(") ").append(message).toString();
+	}
+
+}
@@ -0,0 +1,423 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.core.model.validation;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.springframework.ide.eclipse.core.SpringCore;
+
+/**
+ * Workspace-wide profiler for validation rules. Collects invocation counts, cumulative, p99 and max latency per
+ * rule, per validated resource and per rule and resource.
+ * <p>
+ * Profiling is enabled by the {@link SpringCore#ENABLE_VALIDATION_PROFILING} preference or the debug option
+ * <code>org.springframework.ide.eclipse.core/validation/timings</code>. If enabled, CSV and JSON reports are
+ * written to the {@link SpringCore#VALIDATION_PROFILE_FOLDER_NAME} folder of the plug-in state location by a
+ * background job shortly after validation runs. The numbers are collected from the moment profiling is switched on;
+ * switching it off discards them.
+ * <p>
+ * Independent of profiling, a warning is logged whenever a rule spends more than the
+ * {@link SpringCore#VALIDATION_RULE_BUDGET} on a single resource.
+ * @since 3.9.5
+ */
+public final class ValidationRuleStatistics {
+
+	public static final String DEBUG_OPTION = SpringCore.PLUGIN_ID + "/validation/timings";
+
+	public static final boolean DEBUG = SpringCore.isDebug(DEBUG_OPTION);
+
+	public static final String CSV_REPORT_FILE_NAME = "validation-profile.csv";
+
+	public static final String JSON_REPORT_FILE_NAME = "validation-profile.json";
+
+	private static final ConcurrentMap<String, Counter> RULES = new ConcurrentHashMap<String, Counter>();
+
+	private static final ConcurrentMap<String, Counter> RESOURCES = new ConcurrentHashMap<String, Counter>();
+
+	private static final ConcurrentMap<String, ConcurrentMap<String, Counter>> RULE_RESOURCES = new ConcurrentHashMap<String, ConcurrentMap<String, Counter>>();
+
+	/** Delay in ms before the reports are written, so that subsequent validation runs are written only once */
+	private static final long REPORT_DELAY = 2000;
+
+	private static final Job REPORT_JOB = new Job("Writing validation profile") {
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			writeReports();
+			return Status.OK_STATUS;
+		}
+	};
+
+	static {
+		REPORT_JOB.setSystem(true);
+		REPORT_JOB.setPriority(Job.DECORATE);
+	}
+
+	private static volatile boolean enabled;
+
+	private ValidationRuleStatistics() {
+	}
+
+	/**
+	 * Returns <code>true</code> if rule invocations should be recorded. Resets the collected numbers whenever
+	 * profiling has been switched on or off since the last call.
+	 */
+	public static boolean isEnabled() {
+		boolean current = DEBUG;
+		if (!current) {
+			SpringCore plugin = SpringCore.getDefault();
+			current = plugin != null && plugin.getPluginPreferences().getBoolean(SpringCore.ENABLE_VALIDATION_PROFILING);
+		}
+		if (current != enabled) {
+			synchronized (ValidationRuleStatistics.class) {
+				if (current != enabled) {
+					reset();
+					enabled = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Returns the time in nanoseconds a rule may spend on a single resource, or <code>0</code> if no budget is
+	 * configured.
+	 */
+	public static long getBudgetNanos() {
+		SpringCore plugin = SpringCore.getDefault();
+		if (plugin == null) {
+			return 0;
+		}
+		return Math.max(0, plugin.getPluginPreferences().getInt(SpringCore.VALIDATION_RULE_BUDGET)) * 1000000L;
+	}
+
+	/**
+	 * Records a single invocation of the rule with the given id on the given resource that took the given time.
+	 */
+	public static void record(String ruleId, String resourcePath, long nanos) {
+		getCounter(RULES, ruleId, true).record(nanos);
+		if (resourcePath != null) {
+			getCounter(RESOURCES, resourcePath, true).record(nanos);
+
+			ConcurrentMap<String, Counter> resources = RULE_RESOURCES.get(ruleId);
+			if (resources == null) {
+				RULE_RESOURCES.putIfAbsent(ruleId, new ConcurrentHashMap<String, Counter>());
+				resources = RULE_RESOURCES.get(ruleId);
+			}
+			getCounter(resources, resourcePath, false).record(nanos);
+		}
+	}
+
+	/**
+	 * Logs a warning for every rule whose time spent on the given resource exceeds the given budget.
+	 * @param ruleTimes the accumulated time in nanoseconds per rule id
+	 */
+	public static void checkBudget(IResource resource, Map<String, Long> ruleTimes, long budgetNanos) {
+		if (budgetNanos <= 0 || ruleTimes == null) {
+			return;
+		}
+		for (Map.Entry<String, Long> entry : ruleTimes.entrySet()) {
+			if (entry.getValue() > budgetNanos) {
+				SpringCore.log(new Status(IStatus.WARNING, SpringCore.PLUGIN_ID, String.format(
+						"Validation rule '%s' took %d ms on '%s' (budget %d ms)", entry.getKey(),
+						entry.getValue() / 1000000, resource.getFullPath().toString(), budgetNanos / 1000000)));
+			}
+		}
+	}
+
+	public static void reset() {
+		RULES.clear();
+		RESOURCES.clear();
+		RULE_RESOURCES.clear();
+	}
+
+	/**
+	 * Schedules writing the CSV and JSON reports in the background.
+	 */
+	public static void scheduleReports() {
+		REPORT_JOB.schedule(REPORT_DELAY);
+	}
+
+	/**
+	 * Writes the CSV and JSON reports into the profiling folder of the plug-in state location.
+	 */
+	public static void writeReports() {
+		SpringCore plugin = SpringCore.getDefault();
+		if (plugin == null) {
+			return;
+		}
+		File folder = plugin.getStateLocation().append(SpringCore.VALIDATION_PROFILE_FOLDER_NAME).toFile();
+		if (!folder.exists() && !folder.mkdirs()) {
+			return;
+		}
+		try {
+			writeReport(new File(folder, CSV_REPORT_FILE_NAME), false);
+			writeReport(new File(folder, JSON_REPORT_FILE_NAME), true);
+		}
+		catch (IOException e) {
+			SpringCore.log("Error writing validation profile", e);
+		}
+	}
+
+	private static void writeReport(File file, boolean json) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+		try {
+			if (json) {
+				writeJson(writer);
+			}
+			else {
+				writeCsv(writer);
+			}
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Writes all collected numbers as CSV. The <code>scope</code> column is one of <code>rule</code>,
+	 * <code>resource</code> or <code>rule-resource</code>; times are in microseconds.
+	 */
+	public static void writeCsv(Writer writer) throws IOException {
+		writer.write("scope,rule,resource,invocations,total,average,p99,max\n");
+		for (Counter counter : sorted(RULES.values())) {
+			writeCsvRow(writer, "rule", counter.name, "", counter);
+		}
+		for (Counter counter : sorted(RESOURCES.values())) {
+			writeCsvRow(writer, "resource", "", counter.name, counter);
+		}
+		for (Map.Entry<String, ConcurrentMap<String, Counter>> entry : RULE_RESOURCES.entrySet()) {
+			for (Counter counter : sorted(entry.getValue().values())) {
+				writeCsvRow(writer, "rule-resource", entry.getKey(), counter.name, counter);
+			}
+		}
+	}
+
+	/**
+	 * Writes all collected numbers as JSON; times are in microseconds.
+	 */
+	public static void writeJson(Writer writer) throws IOException {
+		writer.write("{\n  \"rules\": [");
+		writeJsonCounters(writer, "rule", sorted(RULES.values()), null);
+		writer.write("],\n  \"resources\": [");
+		writeJsonCounters(writer, "resource", sorted(RESOURCES.values()), null);
+		writer.write("],\n  \"ruleResources\": [");
+		List<Counter> counters = new ArrayList<Counter>();
+		List<String> rules = new ArrayList<String>();
+		for (Map.Entry<String, ConcurrentMap<String, Counter>> entry : RULE_RESOURCES.entrySet()) {
+			for (Counter counter : sorted(entry.getValue().values())) {
+				counters.add(counter);
+				rules.add(entry.getKey());
+			}
+		}
+		writeJsonCounters(writer, "resource", counters, rules);
+		writer.write("]\n}\n");
+	}
+
+	private static void writeCsvRow(Writer writer, String scope, String rule, String resource, Counter counter)
+			throws IOException {
+		writer.write(scope);
+		writer.write(',');
+		writer.write(escapeCsv(rule));
+		writer.write(',');
+		writer.write(escapeCsv(resource));
+		writer.write(String.format(",%d,%d,%d,%d,%d\n", counter.getInvocations(), counter.getNanos() / 1000,
+				counter.getAverageNanos() / 1000, counter.getP99Nanos() / 1000, counter.getMaxNanos() / 1000));
+	}
+
+	private static void writeJsonCounters(Writer writer, String nameKey, List<Counter> counters, List<String> rules)
+			throws IOException {
+		for (int i = 0; i < counters.size(); i++) {
+			Counter counter = counters.get(i);
+			writer.write(i == 0 ? "\n    {" : ",\n    {");
+			if (rules != null) {
+				writer.write("\"rule\": \"" + escapeJson(rules.get(i)) + "\", ");
+			}
+			writer.write("\"" + nameKey + "\": \"" + escapeJson(counter.name) + "\"");
+			writer.write(String.format(", \"invocations\": %d, \"total\": %d, \"average\": %d, \"p99\": %d, \"max\": %d}",
+					counter.getInvocations(), counter.getNanos() / 1000, counter.getAverageNanos() / 1000,
+					counter.getP99Nanos() / 1000, counter.getMaxNanos() / 1000));
+		}
+	}
+
+	private static String escapeCsv(String value) {
+		if (value.indexOf(',') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	private static String escapeJson(String value) {
+		StringBuilder builder = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				builder.append('\\').append(c);
+			}
+			else if (c < 0x20) {
+				builder.append(String.format("\\u%04x", (int) c));
+			}
+			else {
+				builder.append(c);
+			}
+		}
+		return builder.toString();
+	}
+
+	private static Counter getCounter(ConcurrentMap<String, Counter> counters, String name, boolean withHistogram) {
+		Counter counter = counters.get(name);
+		if (counter == null) {
+			Counter newCounter = new Counter(name, withHistogram);
+			counter = counters.putIfAbsent(name, newCounter);
+			if (counter == null) {
+				counter = newCounter;
+			}
+		}
+		return counter;
+	}
+
+	private static List<Counter> sorted(Iterable<Counter> values) {
+		List<Counter> counters = new ArrayList<Counter>();
+		for (Counter counter : values) {
+			counters.add(counter);
+		}
+		Collections.sort(counters, new Comparator<Counter>() {
+			public int compare(Counter o1, Counter o2) {
+				long n1 = o1.getNanos();
+				long n2 = o2.getNanos();
+				return n1 < n2 ? 1 : (n1 == n2 ? 0 : -1);
+			}
+		});
+		return counters;
+	}
+
+	private static class Counter {
+
+		final String name;
+		final AtomicLong invocations = new AtomicLong();
+		final AtomicLong nanos = new AtomicLong();
+		final AtomicLong max = new AtomicLong();
+		final Histogram histogram;
+
+		Counter(String name, boolean withHistogram) {
+			this.name = name;
+			this.histogram = withHistogram ? new Histogram() : null;
+		}
+
+		void record(long value) {
+			invocations.incrementAndGet();
+			nanos.addAndGet(value);
+			long current;
+			while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+			}
+			if (histogram != null) {
+				histogram.record(value);
+			}
+		}
+
+		long getInvocations() {
+			return invocations.get();
+		}
+
+		long getNanos() {
+			return nanos.get();
+		}
+
+		long getMaxNanos() {
+			return max.get();
+		}
+
+		long getAverageNanos() {
+			long count = invocations.get();
+			return count > 0 ? nanos.get() / count : 0;
+		}
+
+		/**
+		 * Returns the 99th percentile; counters without histogram report their maximum instead.
+		 */
+		long getP99Nanos() {
+			return histogram != null ? Math.min(histogram.getPercentile(0.99), max.get()) : max.get();
+		}
+	}
+
+	/**
+	 * Log-linear latency histogram with four sub-buckets per power of two, so every reported percentile is at
+	 * most 25% above the recorded value.
+	 */
+	private static class Histogram {
+
+		private static final int SUB_BUCKETS = 4;
+
+		private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+
+		void record(long value) {
+			buckets.incrementAndGet(getBucket(Math.max(0, value)));
+		}
+
+		long getPercentile(double percentile) {
+			long total = 0;
+			for (int i = 0; i < buckets.length(); i++) {
+				total += buckets.get(i);
+			}
+			if (total == 0) {
+				return 0;
+			}
+
+			long rank = (long) Math.ceil(percentile * total);
+			long count = 0;
+			for (int i = 0; i < buckets.length(); i++) {
+				count += buckets.get(i);
+				if (count >= rank) {
+					return getUpperBound(i);
+				}
+			}
+			return Long.MAX_VALUE;
+		}
+
+		private static int getBucket(long value) {
+			if (value < SUB_BUCKETS) {
+				return (int) value;
+			}
+			int msb = 63 - Long.numberOfLeadingZeros(value);
+			int sub = (int) ((value >>> (msb - 2)) & (SUB_BUCKETS - 1));
+			return (msb - 1) * SUB_BUCKETS + sub;
+		}
+
+		private static long getUpperBound(int bucket) {
+			if (bucket < SUB_BUCKETS) {
+				return bucket;
+			}
+			int msb = bucket / SUB_BUCKETS + 1;
+			int sub = bucket % SUB_BUCKETS;
+			return ((long) (SUB_BUCKETS + sub + 1) << (msb - 2)) - 1;
+		}
+	}
+
+}
@@ -17,7 +17,11 @@ import java.util.Set;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.springframework.ide.eclipse.core.MarkerUtils;
 import org.springframework.ide.eclipse.core.SpringCore;
 
@@ -44,6 +48,33 @@ public final class ValidationUtils {
 		}
 	}
 
+	/**
+	 * Creates the {@link IMarker validation markers} for the validation problems of several resources in one
+	 * batched workspace operation, so that only a single resource change event is broadcasted. The markers are
+	 * created in the iteration order of the given map.
+	 * @since 3.9.5
+	 */
+	public static void createProblemMarkers(final Map<IResource, Set<ValidationProblem>> problems, final String markerId) {
+		if (problems == null || problems.isEmpty()) {
+			return;
+		}
+
+		IWorkspaceRunnable runnable = new IWorkspaceRunnable() {
+			public void run(IProgressMonitor monitor) throws CoreException {
+				for (Map.Entry<IResource, Set<ValidationProblem>> entry : problems.entrySet()) {
+					createProblemMarkers(entry.getKey(), entry.getValue(), markerId);
+				}
+			}
+		};
+
+		try {
+			ResourcesPlugin.getWorkspace().run(runnable, null, IWorkspace.AVOID_UPDATE, null);
+		}
+		catch (CoreException e) {
+			SpringCore.log(e);
+		}
+	}
+
 	/**
 	 * Creates an {@link IMarker validation marker} on the specified resource for the given validation problem.
 	 * <p>
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.jmx.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.ide.eclipse.jmx.JMXConnectionPool;
+import org.springsource.ide.eclipse.commons.frameworks.test.util.ACondition;
+
+public class JMXConnectionPoolTest {
+
+	private JMXConnectorServer server;
+	private String serviceUrl;
+	private JMXConnectionPool pool;
+
+	@Before
+	public void setup() throws Exception {
+		server = JMXConnectorServerFactory.newJMXConnectorServer(new JMXServiceURL("service:jmx:rmi://127.0.0.1"), null,
+				ManagementFactory.getPlatformMBeanServer());
+		server.start();
+		serviceUrl = server.getAddress().toString();
+	}
+
+	@After
+	public void teardown() throws Exception {
+		if (pool!=null) {
+			pool.dispose();
+		}
+		if (server.isActive()) {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void testLeasesShareConnection() throws Exception {
+		pool = new JMXConnectionPool(60_000, 2_000, 100, 2_000);
+		JMXConnectionPool.Lease l1 = pool.lease(serviceUrl, null, null);
+		JMXConnectionPool.Lease l2 = pool.lease(serviceUrl, null, null);
+		try {
+			assertSame(l1.getConnector(), l2.getConnector());
+			assertEquals(1, pool.getConnectionCount());
+			assertTrue(l2.getConnection().getMBeanCount() > 0);
+		} finally {
+			l1.dispose();
+			l2.dispose();
+		}
+
+		//Released connections stay open for the next client
+		JMXConnectionPool.Lease l3 = pool.lease(serviceUrl, null, null);
+		assertSame(l1.getConnector(), l3.getConnector());
+		l3.dispose();
+	}
+
+	@Test
+	public void testIdleConnectionEvicted() throws Exception {
+		pool = new JMXConnectionPool(200, 2_000, 100, 2_000);
+		JMXConnectionPool.Lease lease = pool.lease(serviceUrl, null, null);
+		Thread.sleep(500);
+		assertEquals("Leased connection must not be evicted", 1, pool.getConnectionCount());
+
+		lease.dispose();
+		ACondition.waitFor("evicted", 2_000, () -> assertEquals(0, pool.getConnectionCount()));
+	}
+
+	@Test
+	public void testInvalidateReconnects() throws Exception {
+		pool = new JMXConnectionPool(60_000, 2_000, 100, 2_000);
+		JMXConnectionPool.Lease lease = pool.lease(serviceUrl, null, null);
+		lease.invalidate();
+		lease.dispose();
+		assertEquals(0, pool.getConnectionCount());
+
+		JMXConnectionPool.Lease fresh = pool.lease(serviceUrl, null, null);
+		assertNotSame(lease.getConnector(), fresh.getConnector());
+		assertTrue(fresh.getConnection().getMBeanCount() > 0);
+		fresh.dispose();
+	}
+
+	@Test
+	public void testReconnectBackoff() throws Exception {
+		pool = new JMXConnectionPool(60_000, 0, 1_000, 2_000);
+		pool.lease(serviceUrl, null, null).dispose();
+		server.stop();
+		Thread.sleep(10);
+
+		//The health check notices the dead connection and the reconnect fails
+		try {
+			pool.lease(serviceUrl, null, null);
+			fail("Should not connect to stopped server");
+		} catch (IOException e) {
+			//expected
+		}
+		assertEquals(0, pool.getConnectionCount());
+
+		//Right after a failure we don't even try
+		try {
+			pool.lease(serviceUrl, null, null);
+			fail("Should not connect to stopped server");
+		} catch (ConnectException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("not retrying"));
+		}
+	}
+
+	@Test
+	public void testConnectTimeout() throws Exception {
+		//Accepts connections (into its backlog) but never answers
+		try (ServerSocket silent = new ServerSocket(0)) {
+			pool = new JMXConnectionPool(60_000, 2_000, 100, 2_000, 500);
+			long start = System.currentTimeMillis();
+			try {
+				pool.lease(silent.getLocalPort());
+				fail("Should not connect to a server that doesn't answer");
+			} catch (SocketTimeoutException e) {
+				//expected
+			}
+			assertTrue(System.currentTimeMillis() - start < 5_000);
+			assertEquals(0, pool.getConnectionCount());
+
+			//Other servers are not held up by it
+			JMXConnectionPool.Lease lease = pool.lease(serviceUrl, null, null);
+			assertTrue(lease.getConnection().getMBeanCount() > 0);
+			lease.dispose();
+		}
+	}
+
+}
@@ -0,0 +1,533 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Pivotal, Inc.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Pivotal, Inc. - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.jmx;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import javax.management.MBeanServerConnection;
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.remote.JMXConnectionNotification;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+/**
+ * Shares JMX connections between all the clients talking to the same JVM.
+ * <p>
+ * Connections are keyed by service URL (and credentials). Clients take a
+ * {@link Lease} for as long as they need a connection and dispose it when they are
+ * done, any number of leases share a single connector. Idle connections are
+ * verified before being handed out again and closed after they haven't been leased
+ * for a while. When connecting fails, further attempts for the same URL fail fast
+ * with a {@link ConnectException} until an exponentially growing backoff delay has
+ * passed, so that many pollers waiting on a JVM that isn't up yet don't each open
+ * their own RMI connection.
+ * <p>
+ * Connecting and verifying a pooled connection happen outside of any lock and give
+ * up after a timeout, so a JVM that accepts connections but doesn't answer only
+ * holds up the clients waiting for that same JVM, and only for so long.
+ */
+public class JMXConnectionPool {
+
+	public static final long DEFAULT_IDLE_TIMEOUT = 60_000;
+	public static final long DEFAULT_HEALTH_CHECK_INTERVAL = 2_000;
+	public static final long DEFAULT_INITIAL_BACKOFF = 100;
+	public static final long DEFAULT_MAX_BACKOFF = 2_000;
+	public static final long DEFAULT_CONNECT_TIMEOUT = 10_000;
+
+	private static JMXConnectionPool defaultPool;
+
+	public static synchronized JMXConnectionPool getDefault() {
+		if (defaultPool==null) {
+			defaultPool = new JMXConnectionPool(DEFAULT_IDLE_TIMEOUT, DEFAULT_HEALTH_CHECK_INTERVAL, DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF, DEFAULT_CONNECT_TIMEOUT);
+		}
+		return defaultPool;
+	}
+
+	public static synchronized void disposeDefault() {
+		if (defaultPool!=null) {
+			defaultPool.dispose();
+			defaultPool = null;
+		}
+	}
+
+	/**
+	 * @return The service URL of an {@link javax.management.MBeanServer} exposed on the
+	 * current machine on the given port.
+	 */
+	public static String getLocalServiceUrl(int port) {
+		return "service:jmx:rmi:///jndi/rmi://127.0.0.1:" + port + "/jmxrmi";
+	}
+
+	private final long idleTimeout;
+	private final long healthCheckInterval;
+	private final long initialBackoff;
+	private final long maxBackoff;
+	private final long connectTimeout;
+
+	private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService sweeper;
+	private final ExecutorService connectors;
+	private volatile boolean disposed = false;
+
+	public JMXConnectionPool(long idleTimeout, long healthCheckInterval, long initialBackoff, long maxBackoff) {
+		this(idleTimeout, healthCheckInterval, initialBackoff, maxBackoff, DEFAULT_CONNECT_TIMEOUT);
+	}
+
+	public JMXConnectionPool(long idleTimeout, long healthCheckInterval, long initialBackoff, long maxBackoff, long connectTimeout) {
+		this.idleTimeout = idleTimeout;
+		this.healthCheckInterval = healthCheckInterval;
+		this.initialBackoff = initialBackoff;
+		this.maxBackoff = maxBackoff;
+		this.connectTimeout = connectTimeout;
+		AtomicInteger connectorCount = new AtomicInteger();
+		this.connectors = Executors.newCachedThreadPool((r) -> {
+			Thread t = new Thread(r, "JMX connection pool connector "+connectorCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, (r) -> {
+			Thread t = new Thread(r, "JMX connection pool sweeper");
+			t.setDaemon(true);
+			return t;
+		});
+		long sweepInterval = Math.max(1, idleTimeout / 2);
+		executor.scheduleWithFixedDelay(this::evictIdle, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+		this.sweeper = executor;
+	}
+
+	/**
+	 * Leases a connection to an {@link javax.management.MBeanServer} exposed on the current
+	 * machine on the given port. Security should be disabled.
+	 */
+	public Lease lease(int port) throws IOException {
+		return lease(getLocalServiceUrl(port), null, null);
+	}
+
+	/**
+	 * Leases a connection for the given service URL, connecting if there's no usable
+	 * pooled connection.
+	 *
+	 * @throws ConnectException without trying to connect when connecting to the same URL
+	 * failed recently.
+	 * @throws SocketTimeoutException when the JVM doesn't answer within the connect timeout.
+	 */
+	public Lease lease(String serviceUrl, String username, String password) throws IOException {
+		Key key = new Key(serviceUrl, username, password);
+		while (true) {
+			if (disposed) {
+				throw new IOException("JMX connection pool has been disposed");
+			}
+			Entry entry = entries.computeIfAbsent(key, Entry::new);
+			Lease lease = entry.lease();
+			if (lease!=null) {
+				return lease;
+			}
+			//Entry got evicted, or its connection closed, while we were getting hold of it. Try again.
+		}
+	}
+
+	private void evictIdle() {
+		long now = System.currentTimeMillis();
+		for (Entry entry : entries.values()) {
+			entry.evictIfIdle(now);
+		}
+	}
+
+	public void dispose() {
+		disposed = true;
+		sweeper.shutdownNow();
+		connectors.shutdownNow();
+		for (Entry entry : new ArrayList<>(entries.values())) {
+			entry.evict();
+		}
+	}
+
+	/**
+	 * @return Number of open connections, for testing purposes.
+	 */
+	public int getConnectionCount() {
+		int count = 0;
+		for (Entry entry : entries.values()) {
+			if (entry.isConnected()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Runs a blocking JMX call on a connector thread and gives up on it after the connect timeout.
+	 *
+	 * @param discard Called with the result of a call that completes after we gave up on it.
+	 */
+	private <T> T callWithTimeout(Key key, Callable<T> call, Consumer<T> discard) throws IOException {
+		//Holds the result, or ABANDONED once the caller gave up
+		AtomicReference<Object> result = new AtomicReference<>();
+		Future<?> future;
+		try {
+			future = connectors.submit(() -> {
+				T value = call.call();
+				if (!result.compareAndSet(null, value)) {
+					discard.accept(value);
+				}
+				return null;
+			});
+		} catch (Exception e) {
+			throw new IOException("JMX connection pool has been disposed", e);
+		}
+		try {
+			future.get(connectTimeout, TimeUnit.MILLISECONDS);
+			@SuppressWarnings("unchecked")
+			T value = (T) result.get();
+			return value;
+		} catch (TimeoutException e) {
+			abandon(result, discard);
+			throw new SocketTimeoutException("No answer from "+key+" within "+connectTimeout+" ms");
+		} catch (InterruptedException e) {
+			abandon(result, discard);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while talking to "+key);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> void abandon(AtomicReference<Object> result, Consumer<T> discard) {
+		if (!result.compareAndSet(null, ABANDONED)) {
+			//Completed just now
+			discard.accept((T) result.get());
+		}
+	}
+
+	private static final Object ABANDONED = new Object();
+
+	private static void close(JMXConnector connector) {
+		if (connector!=null) {
+			try {
+				connector.close();
+			} catch (IOException e) {
+				//Ignore, the other end is most likely gone already
+			}
+		}
+	}
+
+	private static final class Key {
+		final String serviceUrl;
+		final String username;
+		final String password;
+
+		Key(String serviceUrl, String username, String password) {
+			this.serviceUrl = serviceUrl;
+			this.username = username;
+			this.password = password;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(serviceUrl, username, password);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof Key) {
+				Key other = (Key) obj;
+				return Objects.equals(serviceUrl, other.serviceUrl)
+						&& Objects.equals(username, other.username)
+						&& Objects.equals(password, other.password);
+			}
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			return serviceUrl;
+		}
+	}
+
+	/**
+	 * The pooled state for a single service URL. All fields are guarded by the entry itself.
+	 * Connecting and health checks run without holding the lock, one at a time.
+	 */
+	private final class Entry {
+
+		final Key key;
+		JMXConnector connector;
+		MBeanServerConnection connection;
+		int leases = 0;
+		long lastUsed;
+		long lastVerified;
+		int failures = 0;
+		long retryAt = 0;
+		boolean evicted = false;
+
+		/**
+		 * Whether a thread is connecting or checking the connection. Other threads
+		 * wait for it rather than connecting as well.
+		 */
+		boolean busy = false;
+
+		/**
+		 * Forgets about the connector as soon as it reports it's closed or broken.
+		 */
+		final NotificationListener connectionListener = (Notification notification, Object handback) -> {
+			String type = notification.getType();
+			if (JMXConnectionNotification.CLOSED.equals(type) || JMXConnectionNotification.FAILED.equals(type)) {
+				discard((JMXConnector) handback);
+			}
+		};
+
+		Entry(Key key) {
+			this.key = key;
+		}
+
+		synchronized boolean isConnected() {
+			return connector!=null;
+		}
+
+		Lease lease() throws IOException {
+			JMXConnector toVerify;
+			MBeanServerConnection toVerifyConnection;
+			synchronized (this) {
+				while (busy) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new InterruptedIOException("Interrupted while waiting for connection to "+key);
+					}
+				}
+				if (evicted) {
+					return null;
+				}
+				long now = System.currentTimeMillis();
+				//Also counts failed attempts, the backoff must outlive the sweeper's idle check
+				lastUsed = now;
+				if (connector!=null && (leases>0 || now - lastVerified <= healthCheckInterval)) {
+					return newLease();
+				}
+				if (connector==null && now < retryAt) {
+					throw new ConnectException("Connecting to "+key+" failed "+failures+" time(s), not retrying for another "+(retryAt - now)+" ms");
+				}
+				busy = true;
+				toVerify = connector;
+				toVerifyConnection = connection;
+			}
+			JMXConnector newConnector = null;
+			MBeanServerConnection newConnection = null;
+			IOException error = null;
+			try {
+				if (toVerify!=null && isHealthy(toVerifyConnection)) {
+					newConnector = toVerify;
+					newConnection = toVerifyConnection;
+				} else {
+					newConnector = connect();
+					newConnection = newConnector.getMBeanServerConnection();
+				}
+			} catch (IOException e) {
+				close(newConnector);
+				newConnector = null;
+				error = e;
+			}
+			JMXConnector unhealthy = null;
+			try {
+				synchronized (this) {
+					busy = false;
+					notifyAll();
+					long now = System.currentTimeMillis();
+					if (newConnector==toVerify && toVerify!=null) {
+						if (connector==toVerify) {
+							lastVerified = now;
+							return newLease();
+						}
+						//Closed or evicted while we were checking it, have the caller try again
+						return null;
+					}
+					if (toVerify!=null && connector==toVerify) {
+						unhealthy = detach();
+					}
+					if (error!=null) {
+						failures++;
+						retryAt = now + Math.min(maxBackoff, initialBackoff << Math.min(failures - 1, 16));
+						throw error;
+					}
+					if (evicted) {
+						unhealthy = newConnector;
+						return null;
+					}
+					connector = newConnector;
+					connection = newConnection;
+					lastVerified = now;
+					failures = 0;
+					retryAt = 0;
+					return newLease();
+				}
+			} finally {
+				close(unhealthy);
+			}
+		}
+
+		private Lease newLease() {
+			leases++;
+			return new Lease(this, connector, connection);
+		}
+
+		private boolean isHealthy(MBeanServerConnection connection) {
+			try {
+				callWithTimeout(key, connection::getMBeanCount, (count) -> {});
+				return true;
+			} catch (Exception e) {
+				return false;
+			}
+		}
+
+		private JMXConnector connect() throws IOException {
+			Map<String, Object> env = new HashMap<>();
+			if (key.username != null && key.password != null) {
+				env.put(JMXConnector.CREDENTIALS, new String[] { key.username, key.password });
+			}
+			JMXServiceURL url = new JMXServiceURL(key.serviceUrl);
+			JMXConnector newConnector = callWithTimeout(key, () -> JMXConnectorFactory.connect(url, env), JMXConnectionPool::close);
+			try {
+				newConnector.addConnectionNotificationListener(connectionListener, null, newConnector);
+			} catch (RuntimeException e) {
+				close(newConnector);
+				throw e;
+			}
+			return newConnector;
+		}
+
+		/**
+		 * Detaches the current connector from the entry, the caller must close it.
+		 */
+		private JMXConnector detach() {
+			JMXConnector old = connector;
+			if (old!=null) {
+				try {
+					old.removeConnectionNotificationListener(connectionListener);
+				} catch (Exception e) {
+					//Ignore
+				}
+			}
+			connector = null;
+			connection = null;
+			return old;
+		}
+
+		void discard(JMXConnector broken) {
+			JMXConnector toClose = null;
+			synchronized (this) {
+				if (broken!=null && broken==connector) {
+					toClose = detach();
+				}
+			}
+			close(toClose);
+		}
+
+		void release() {
+			synchronized (this) {
+				leases--;
+				lastUsed = System.currentTimeMillis();
+			}
+		}
+
+		void evictIfIdle(long now) {
+			JMXConnector toClose = null;
+			synchronized (this) {
+				if (leases==0 && !busy && now - lastUsed >= idleTimeout) {
+					toClose = detach();
+					evicted = true;
+					entries.remove(key, this);
+				}
+			}
+			close(toClose);
+		}
+
+		void evict() {
+			JMXConnector toClose;
+			synchronized (this) {
+				toClose = detach();
+				evicted = true;
+				entries.remove(key, this);
+				notifyAll();
+			}
+			close(toClose);
+		}
+	}
+
+	/**
+	 * A claim on a pooled connection. Leases must be disposed when no longer needed,
+	 * the connection itself stays open for the next client.
+	 */
+	public static final class Lease {
+
+		private final Entry entry;
+		private final JMXConnector connector;
+		private final MBeanServerConnection connection;
+		private final AtomicBoolean disposed = new AtomicBoolean(false);
+
+		private Lease(Entry entry, JMXConnector connector, MBeanServerConnection connection) {
+			this.entry = entry;
+			this.connector = connector;
+			this.connection = connection;
+		}
+
+		public JMXConnector getConnector() {
+			return connector;
+		}
+
+		public MBeanServerConnection getConnection() {
+			return connection;
+		}
+
+		/**
+		 * Tells the pool the connection is broken. It will be closed right away
+		 * (affecting other leases on it as well) and the next lease reconnects.
+		 */
+		public void invalidate() {
+			entry.discard(connector);
+		}
+
+		public void dispose() {
+			if (disposed.compareAndSet(false, true)) {
+				entry.release();
+			}
+		}
+	}
+
+}
@@ -16,15 +16,18 @@ import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.TabFolder;
 import org.eclipse.swt.widgets.TabItem;
+import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.dialogs.PropertyPage;
 import org.osgi.service.prefs.BackingStoreException;
 import org.springframework.ide.eclipse.core.SpringCore;
+import org.springframework.ide.eclipse.core.java.ProjectClassLoaderCache;
 import org.springframework.ide.eclipse.core.model.validation.IValidator;
 import org.springframework.ide.eclipse.core.project.IProjectBuilder;
 import org.springframework.ide.eclipse.ui.SpringUIMessages;
@@ -51,6 +54,14 @@ public class ProjectPropertyPage extends ProjectAndPreferencePage {
 
 	private Button useNonLockingClassLoader;
 
+	private Text classLoaderCacheSize;
+
+	private Button enableParallelValidation;
+
+	private Button enableValidationProfiling;
+
+	private Text validationRuleBudget;
+
 	public ProjectPropertyPage() {
 		noDefaultAndApplyButton();
 	}
@@ -95,13 +106,70 @@ public class ProjectPropertyPage extends ProjectAndPreferencePage {
 			note = new Label(composite, SWT.WRAP);
 			note.setText(SpringUIMessages.ProjectBuilderPropertyPage_NonLockingClassLoaderNote);
 			note.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+
+			classLoaderCacheSize = createNumberField(composite,
+					SpringUIMessages.ProjectBuilderPropertyPage_ClassLoaderCacheSizeMessage,
+					prefs.getInt(SpringCore.CLASSLOADER_CACHE_SIZE, ProjectClassLoaderCache.DEFAULT_CACHE_SIZE));
+
+			enableValidationProfiling = new Button(composite, SWT.CHECK);
+			enableValidationProfiling.setText(SpringUIMessages.ProjectBuilderPropertyPage_ValidationProfilingMessage);
+			enableValidationProfiling.setSelection(prefs.getBoolean(SpringCore.ENABLE_VALIDATION_PROFILING, false));
+
+			validationRuleBudget = createNumberField(composite,
+					SpringUIMessages.ProjectBuilderPropertyPage_ValidationRuleBudgetMessage,
+					prefs.getInt(SpringCore.VALIDATION_RULE_BUDGET, 0));
+
+			note = new Label(composite, SWT.WRAP);
+			note.setText(SpringUIMessages.ProjectBuilderPropertyPage_ValidationProfilingNote);
+			note.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+		}
+
+		enableParallelValidation = new Button(composite, SWT.CHECK);
+		enableParallelValidation.setText(SpringUIMessages.ProjectBuilderPropertyPage_ParallelValidationMessage);
+		if (isProjectPreferencePage()) {
+			enableParallelValidation.setSelection(SpringCorePreferences.getProjectPreferences(getProject(),
+					SpringCore.PLUGIN_ID).getBoolean(SpringCore.ENABLE_PARALLEL_VALIDATION, false));
+		}
+		else {
+			enableParallelValidation.setSelection(InstanceScope.INSTANCE.getNode(SpringCore.PLUGIN_ID).getBoolean(
+					SpringCore.ENABLE_PARALLEL_VALIDATION, false));
 		}
 
+		Label parallelValidationNote = new Label(composite, SWT.WRAP);
+		parallelValidationNote.setText(SpringUIMessages.ProjectBuilderPropertyPage_ParallelValidationNote);
+		parallelValidationNote.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+
 		Dialog.applyDialogFont(folder);
 
 		return folder;
 	}
 
+	private Text createNumberField(Composite composite, String label, int value) {
+		Composite fieldComposite = new Composite(composite, SWT.NONE);
+		GridLayout layout = new GridLayout(2, false);
+		layout.marginWidth = 0;
+		fieldComposite.setLayout(layout);
+		fieldComposite.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+
+		Label fieldLabel = new Label(fieldComposite, SWT.NONE);
+		fieldLabel.setText(label);
+		Text field = new Text(fieldComposite, SWT.BORDER | SWT.RIGHT);
+		GridData data = new GridData();
+		data.widthHint = 60;
+		field.setLayoutData(data);
+		field.setText(Integer.toString(value));
+		return field;
+	}
+
+	private int getNumber(Text field, int defaultValue) {
+		try {
+			return Math.max(0, Integer.parseInt(field.getText().trim()));
+		}
+		catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
 	protected String getPreferencePageID() {
 		return PREF_ID;
 	}
@@ -127,9 +195,16 @@ public class ProjectPropertyPage extends ProjectAndPreferencePage {
 				SpringCorePreferences.getProjectPreferences(getProject(), SpringCore.PLUGIN_ID).putBoolean(SpringCore.PROJECT_PROPERTY_ID,
 						false);
 			}
+			SpringCorePreferences.getProjectPreferences(getProject(), SpringCore.PLUGIN_ID).putBoolean(
+					SpringCore.ENABLE_PARALLEL_VALIDATION, enableParallelValidation.getSelection());
 		} else {
 			prefs.putBoolean(SpringCore.USE_CHANGE_DETECTION_IN_JAVA_FILES, useChangeDetectionForJavaFiles.getSelection());
 			prefs.putBoolean(SpringCore.USE_NON_LOCKING_CLASSLOADER, useNonLockingClassLoader.getSelection());
+			prefs.putInt(SpringCore.CLASSLOADER_CACHE_SIZE,
+					getNumber(classLoaderCacheSize, ProjectClassLoaderCache.DEFAULT_CACHE_SIZE));
+			prefs.putBoolean(SpringCore.ENABLE_PARALLEL_VALIDATION, enableParallelValidation.getSelection());
+			prefs.putBoolean(SpringCore.ENABLE_VALIDATION_PROFILING, enableValidationProfiling.getSelection());
+			prefs.putInt(SpringCore.VALIDATION_RULE_BUDGET, getNumber(validationRuleBudget, 0));
 		}
 
 		this.builderTab.performOk();
@@ -53,7 +53,7 @@ public abstract class WebflowValidationRuleUtils {
 		return type;
 	}
 
-	private static ConversionService getConversionService() {
+	private static synchronized ConversionService getConversionService() {
 		if (conversionService == null) {
 			conversionService = new DefaultConversionService();
 		}
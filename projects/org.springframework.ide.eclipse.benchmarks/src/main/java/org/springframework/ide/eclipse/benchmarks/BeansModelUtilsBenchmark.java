@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.parsing.CompositeComponentDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.ide.eclipse.beans.core.internal.model.AbstractBeansConfig;
+import org.springframework.ide.eclipse.beans.core.internal.model.Bean;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansComponent;
+import org.springframework.ide.eclipse.beans.core.internal.model.BeansModelUtils;
+import org.springframework.ide.eclipse.beans.core.model.IBean;
+import org.springframework.ide.eclipse.beans.core.model.IBeansConfig;
+
+/**
+ * Benchmarks {@link BeansModelUtils#getBean(String, org.springframework.ide.eclipse.core.model.IModelElement)} on a
+ * config built from a generated beans XML file.
+ * <p>
+ * A part of the beans is registered in nested components, like the beans contributed by namespace handlers, so
+ * that lookups of these beans and misses have to walk the components.
+ * @since 3.9.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BeansModelUtilsBenchmark {
+
+	private static final int BEANS_PER_COMPONENT = 10;
+
+	@Param({ "1000", "10000" })
+	public int beanCount;
+
+	/** Percentage of the beans that are registered in components instead of the config itself */
+	@Param({ "0", "50" })
+	public int componentPercentage;
+
+	private SyntheticBeansConfig config;
+
+	private int next;
+
+	@Setup
+	public void setup() {
+		DefaultListableBeanFactory registry = new DefaultListableBeanFactory();
+		XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(registry);
+		reader.setValidationMode(XmlBeanDefinitionReader.VALIDATION_XSD);
+		reader.loadBeanDefinitions(new InputStreamResource(new ByteArrayInputStream(Fixtures.createBeansXml(
+				beanCount).getBytes())));
+
+		config = new SyntheticBeansConfig("benchmark-beans.xml");
+		int topLevelBeans = beanCount - beanCount * componentPercentage / 100;
+		BeansComponent component = null;
+		for (int i = 0; i < beanCount; i++) {
+			String name = Fixtures.beanName(i);
+			BeanDefinition definition = registry.getBeanDefinition(name);
+			if (i < topLevelBeans) {
+				config.addBean(new Bean(config, name, registry.getAliases(name), definition));
+			}
+			else {
+				if ((i - topLevelBeans) % BEANS_PER_COMPONENT == 0) {
+					component = new BeansComponent(config, new CompositeComponentDefinition("component" + i, null));
+					config.addComponent(component);
+				}
+				component.addBean(new Bean(component, name, registry.getAliases(name), definition));
+			}
+		}
+	}
+
+	@Benchmark
+	public IBean getBean() {
+		return BeansModelUtils.getBean(Fixtures.beanName(next++ % beanCount), config);
+	}
+
+	@Benchmark
+	public IBean getBeanByAlias() {
+		return BeansModelUtils.getBean(Fixtures.beanName((next++ % (beanCount / 5)) * 5) + "Alias", config);
+	}
+
+	@Benchmark
+	public IBean getMissingBean() {
+		return BeansModelUtils.getBean("missing" + (next++ % beanCount), config);
+	}
+
+	/**
+	 * Beans config that is populated directly instead of reading a config file.
+	 */
+	private static class SyntheticBeansConfig extends AbstractBeansConfig {
+
+		public SyntheticBeansConfig(String name) {
+			super(null, name, IBeansConfig.Type.MANUAL);
+			isModelPopulated = true;
+		}
+
+		public void addBean(IBean bean) {
+			beans.put(bean.getElementName(), bean);
+		}
+
+		public void addComponent(BeansComponent component) {
+			components.add(component);
+		}
+
+		@Override
+		protected void readConfig() {
+			// populated by the benchmark
+		}
+
+		public BeanDefinitionRegistry getRawBeanDefinitions(CompositeComponentDefinition context) {
+			return null;
+		}
+	}
+
+}
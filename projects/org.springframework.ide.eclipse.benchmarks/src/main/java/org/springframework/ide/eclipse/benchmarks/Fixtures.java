@@ -0,0 +1,303 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.eclipse.core.resources.IProject;
+
+/**
+ * Synthetic, deterministic fixtures for the benchmarks. All generators use a fixed seed, so that results of
+ * different commits are measured against the same input.
+ * @since 3.9.5
+ */
+public class Fixtures {
+
+	private static final long SEED = 4711;
+
+	private static final String[] WORDS = { "spring", "server", "datasource", "jpa", "hibernate", "security",
+			"management", "endpoint", "cache", "redis", "mongo", "rabbit", "kafka", "jackson", "http", "port",
+			"address", "timeout", "enabled", "pool", "max", "min", "idle", "size", "url", "username", "password",
+			"path", "context", "session", "cookie", "ssl", "key", "store", "trust", "level", "logging", "file",
+			"pattern", "health", "metrics", "export", "batch", "job", "thread", "queue", "capacity", "retry" };
+
+	/**
+	 * Number of classes in one chain of super classes of the generated class jar.
+	 */
+	public static final int HIERARCHY_DEPTH = 10;
+
+	/**
+	 * Package of the generated classes and interfaces.
+	 */
+	public static final String GENERATED_PACKAGE = "org/springframework/ide/benchmarks/generated/";
+
+	/**
+	 * Creates a jar with <code>classCount</code> class files, organized in chains of {@link #HIERARCHY_DEPTH}
+	 * super classes. Every class implements one of the generated interfaces, which extend each other in chains as
+	 * well. Class <code>Class&lt;i&gt;</code> extends <code>Class&lt;i-1&gt;</code> unless it starts a new chain.
+	 */
+	public static File createClassJar(int classCount, int interfaceCount) throws IOException {
+		File jar = File.createTempFile("benchmark-classes", ".jar");
+		jar.deleteOnExit();
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			for (int i = 0; i < interfaceCount; i++) {
+				String superInterface = i % HIERARCHY_DEPTH == 0 ? null : interfaceName(i - 1);
+				writeClass(out, interfaceName(i), "java/lang/Object", superInterface, true);
+			}
+			for (int i = 0; i < classCount; i++) {
+				String superClass = i % HIERARCHY_DEPTH == 0 ? "java/lang/Object" : className(i - 1);
+				writeClass(out, className(i), superClass, interfaceName(i % interfaceCount), false);
+			}
+		}
+		finally {
+			out.close();
+		}
+		return jar;
+	}
+
+	/**
+	 * Returns the slash separated name of the generated class with the given index.
+	 */
+	public static String className(int index) {
+		return GENERATED_PACKAGE + "Class" + index;
+	}
+
+	/**
+	 * Returns the slash separated name of the generated interface with the given index.
+	 */
+	public static String interfaceName(int index) {
+		return GENERATED_PACKAGE + "Interface" + index;
+	}
+
+	private static void writeClass(JarOutputStream out, String name, String superClass, String superInterface,
+			boolean isInterface) throws IOException {
+		out.putNextEntry(new JarEntry(name + ".class"));
+		out.write(classFile(name, superClass, superInterface, isInterface));
+		out.closeEntry();
+	}
+
+	/**
+	 * Creates the bytes of a class file without members, which is all the type hierarchy readers look at.
+	 */
+	private static byte[] classFile(String name, String superClass, String superInterface, boolean isInterface)
+			throws IOException {
+		List<String> classNames = new ArrayList<String>();
+		classNames.add(name);
+		classNames.add(superClass);
+		if (superInterface != null) {
+			classNames.add(superInterface);
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0xCAFEBABE);
+		out.writeShort(0); // minor version
+		out.writeShort(50); // major version, Java 6
+
+		// constant pool: a Utf8 and a Class entry per class name
+		out.writeShort(1 + 2 * classNames.size());
+		for (int i = 0; i < classNames.size(); i++) {
+			out.writeByte(1);
+			out.writeUTF(classNames.get(i));
+			out.writeByte(7);
+			out.writeShort(2 * i + 1);
+		}
+
+		out.writeShort(isInterface ? 0x0601 : 0x0021); // modifiers
+		out.writeShort(2); // this class
+		out.writeShort(4); // super class
+		if (superInterface != null) {
+			out.writeShort(1);
+			out.writeShort(6);
+		}
+		else {
+			out.writeShort(0);
+		}
+		out.writeShort(0); // fields
+		out.writeShort(0); // methods
+		out.writeShort(0); // attributes
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Creates <code>count</code> distinct, dot separated property names in the style of Spring Boot
+	 * configuration properties.
+	 */
+	public static List<String> createPropertyNames(int count) {
+		Random random = new Random(SEED);
+		Set<String> names = new LinkedHashSet<String>();
+		while (names.size() < count) {
+			StringBuilder name = new StringBuilder();
+			int segments = 2 + random.nextInt(4);
+			for (int i = 0; i < segments; i++) {
+				if (i > 0) {
+					name.append(random.nextInt(4) == 0 ? '-' : '.');
+				}
+				name.append(WORDS[random.nextInt(WORDS.length)]);
+			}
+			names.add(name.toString());
+		}
+		return new ArrayList<String>(names);
+	}
+
+	/**
+	 * Creates an <code>application.yml</code> document with nested maps and sequences, holding about
+	 * <code>propertyCount</code> properties.
+	 */
+	public static String createApplicationYml(int propertyCount) {
+		Random random = new Random(SEED);
+		StringBuilder yml = new StringBuilder();
+		int written = 0;
+		int section = 0;
+		while (written < propertyCount) {
+			yml.append("# section ").append(section).append('\n');
+			yml.append(WORDS[section % WORDS.length]).append(section).append(":\n");
+			int groups = 1 + random.nextInt(5);
+			for (int g = 0; g < groups && written < propertyCount; g++) {
+				yml.append("  ").append(WORDS[random.nextInt(WORDS.length)]).append(g).append(":\n");
+				int properties = 1 + random.nextInt(8);
+				for (int p = 0; p < properties && written < propertyCount; p++, written++) {
+					String key = WORDS[random.nextInt(WORDS.length)] + "-" + p;
+					if (random.nextInt(6) == 0) {
+						yml.append("    ").append(key).append(":\n");
+						yml.append("      - first-").append(p).append('\n');
+						yml.append("      - second-").append(p).append('\n');
+					}
+					else {
+						yml.append("    ").append(key).append(": value-").append(random.nextInt(1000)).append('\n');
+					}
+				}
+			}
+			if (section % 10 == 9) {
+				yml.append("---\n");
+			}
+			section++;
+		}
+		return yml.toString();
+	}
+
+	/**
+	 * Creates a Spring beans XML document with <code>beanCount</code> beans, each referencing up to three of the
+	 * previously defined beans.
+	 */
+	public static String createBeansXml(int beanCount) {
+		Random random = new Random(SEED);
+		StringBuilder xml = new StringBuilder();
+		xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		xml.append("<beans xmlns=\"http://www.springframework.org/schema/beans\"\n");
+		xml.append("\txmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n");
+		xml.append("\txsi:schemaLocation=\"http://www.springframework.org/schema/beans ");
+		xml.append("http://www.springframework.org/schema/beans/spring-beans.xsd\">\n");
+		for (int i = 0; i < beanCount; i++) {
+			xml.append("\t<bean id=\"").append(beanName(i)).append("\" class=\"com.example.generated.Type")
+					.append(i % 97).append("\"");
+			if (i % 5 == 0) {
+				xml.append(" name=\"").append(beanName(i)).append("Alias\"");
+			}
+			xml.append(">\n");
+			int references = i == 0 ? 0 : random.nextInt(4);
+			for (int r = 0; r < references; r++) {
+				xml.append("\t\t<property name=\"dependency").append(r).append("\" ref=\"")
+						.append(beanName(random.nextInt(i))).append("\"/>\n");
+			}
+			xml.append("\t\t<property name=\"value\" value=\"").append(random.nextInt()).append("\"/>\n");
+			xml.append("\t</bean>\n");
+		}
+		xml.append("</beans>\n");
+		return xml.toString();
+	}
+
+	/**
+	 * Returns the name of the generated bean with the given index.
+	 */
+	public static String beanName(int index) {
+		return "bean" + index;
+	}
+
+	/**
+	 * Creates a live beans JSON document as served by the <code>LiveBeansView</code> MBean, with
+	 * <code>contextCount</code> contexts holding <code>beansPerContext</code> beans each.
+	 */
+	public static String createLiveBeansJson(int contextCount, int beansPerContext) {
+		Random random = new Random(SEED);
+		StringBuilder json = new StringBuilder();
+		json.append('[');
+		for (int c = 0; c < contextCount; c++) {
+			if (c > 0) {
+				json.append(',');
+			}
+			json.append("{\"context\":\"context").append(c).append("\",\"parent\":");
+			json.append(c == 0 ? "null" : "\"context" + (c - 1) + "\"");
+			json.append(",\"beans\":[");
+			for (int b = 0; b < beansPerContext; b++) {
+				if (b > 0) {
+					json.append(',');
+				}
+				json.append("{\"bean\":\"context").append(c).append(".bean").append(b).append('"');
+				json.append(",\"aliases\":[],\"scope\":\"singleton\"");
+				json.append(",\"type\":\"com.example.generated.Type").append(b % 97).append('"');
+				json.append(",\"resource\":\"file [/src/main/resources/context").append(c).append('-')
+						.append(b % 10).append(".xml]\"");
+				json.append(",\"dependencies\":[");
+				int dependencies = b == 0 ? 0 : random.nextInt(4);
+				for (int d = 0; d < dependencies; d++) {
+					if (d > 0) {
+						json.append(',');
+					}
+					json.append("\"context").append(c).append(".bean").append(random.nextInt(b)).append('"');
+				}
+				json.append("]}");
+			}
+			json.append("]}");
+		}
+		json.append(']');
+		return json.toString();
+	}
+
+	/**
+	 * Creates a stand-in for a workspace project. The engines only use projects as map keys, so this proxy
+	 * supports nothing but identity based <code>equals</code> and <code>hashCode</code>.
+	 */
+	public static IProject createProject(final String name) {
+		return (IProject) Proxy.newProxyInstance(Fixtures.class.getClassLoader(), new Class<?>[] { IProject.class },
+				new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						if ("equals".equals(method.getName())) {
+							return proxy == args[0];
+						}
+						else if ("hashCode".equals(method.getName())) {
+							return System.identityHashCode(proxy);
+						}
+						else if ("toString".equals(method.getName()) || "getName".equals(method.getName())) {
+							return name;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ide.eclipse.boot.properties.editor.FuzzyMap;
+import org.springframework.ide.eclipse.boot.properties.editor.FuzzyMap.Match;
+import org.springframework.ide.eclipse.editor.support.util.FuzzyMatcher;
+
+/**
+ * Benchmarks {@link FuzzyMap#find(String)} with generated property names, for patterns as typed during content
+ * assist: a single character, an exact prefix, an abbreviation and a pattern that doesn't match anything.
+ * {@link #sequentialScan()} scores every key and is the baseline the search index is compared against.
+ * @since 3.9.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FuzzyMapBenchmark {
+
+	@Param({ "2000", "20000" })
+	public int propertyCount;
+
+	@Param({ "s", "server.port", "sdsmi", "qqqzzz" })
+	public String pattern;
+
+	private FuzzyMap<String> map;
+
+	@Setup
+	public void setup() {
+		map = new FuzzyMap<String>() {
+			@Override
+			protected String getKey(String entry) {
+				return entry;
+			}
+		};
+		for (String name : Fixtures.createPropertyNames(propertyCount)) {
+			map.add(name);
+		}
+		// build the search index outside of the measurement
+		map.find(pattern);
+	}
+
+	@Benchmark
+	public List<Match<String>> find() {
+		return map.find(pattern);
+	}
+
+	@Benchmark
+	public List<Match<String>> sequentialScan() {
+		List<Match<String>> matches = new ArrayList<Match<String>>();
+		for (String key : map) {
+			double score = FuzzyMatcher.matchScore(pattern, key);
+			if (score != 0.0) {
+				matches.add(new Match<String>(pattern, score, key));
+			}
+		}
+		return matches;
+	}
+
+}
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansJsonParser;
+import org.springframework.ide.eclipse.beans.ui.live.model.LiveBeansModel;
+
+/**
+ * Benchmarks {@link LiveBeansJsonParser} on generated live beans JSON documents. No type lookup is passed in, so
+ * only the parsing and model building is measured.
+ * @since 3.9.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class LiveBeansJsonParserBenchmark {
+
+	@Param({ "1", "5" })
+	public int contextCount;
+
+	@Param({ "500", "5000" })
+	public int beansPerContext;
+
+	private String json;
+
+	@Setup
+	public void setup() {
+		json = Fixtures.createLiveBeansJson(contextCount, beansPerContext);
+	}
+
+	@Benchmark
+	public LiveBeansModel parse() throws Exception {
+		return new LiveBeansJsonParser(null, json).parse();
+	}
+
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2018 Spring IDE Developers
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Spring IDE Developers - initial API and implementation
+ *******************************************************************************/
+package org.springframework.ide.eclipse.benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ide.eclipse.core.java.typehierarchy.BytecodeTypeHierarchyClassReader;
+import org.springframework.ide.eclipse.core.java.typehierarchy.ClasspathElement;
+import org.springframework.ide.eclipse.core.java.typehierarchy.ClasspathElementJar;
+import org.springframework.ide.eclipse.core.java.typehierarchy.ClasspathLookupDirect;
+import org.springframework.ide.eclipse.core.java.typehierarchy.DirectTypeHierarchyElementCacheFactory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyClassReader;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyClassReaderFactory;
+import org.springframework.ide.eclipse.core.java.typehierarchy.TypeHierarchyEngine;
+
+/**
+ * Benchmarks {@link TypeHierarchyEngine} lookups against a generated class jar, both with a cold element cache
+ * (every class file has to be read) and with a warm one.
+ * @since 3.9.5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TypeHierarchyEngineBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int classCount;
+
+	private File jar;
+
+	private IProject project;
+
+	private TypeHierarchyEngine engine;
+
+	private int next;
+
+	@Setup
+	public void setup() throws Exception {
+		jar = Fixtures.createClassJar(classCount, classCount / Fixtures.HIERARCHY_DEPTH);
+		project = Fixtures.createProject("type-hierarchy-benchmark");
+
+		engine = new TypeHierarchyEngine(false);
+		engine.setTypeHierarchyElementCacheFactory(new DirectTypeHierarchyElementCacheFactory());
+		engine.setClassReaderFactory(new TypeHierarchyClassReaderFactory() {
+			public TypeHierarchyClassReader createClassReader(IProject project) {
+				return new BytecodeTypeHierarchyClassReader(new ClasspathLookupDirect(
+						new ClasspathElement[] { new ClasspathElementJar(jar.getAbsolutePath()) }));
+			}
+		});
+	}
+
+	@TearDown
+	public void tearDown() {
+		engine.clearCache();
+		jar.delete();
+	}
+
+	/**
+	 * Walks up a full chain of super classes, reading every class file of the chain.
+	 */
+	@Benchmark
+	public boolean doesExtendColdCache() {
+		engine.clearCache(project);
+		return engine.doesExtend(leafClass(), "java.lang.Object", project);
+	}
+
+	@Benchmark
+	public boolean doesExtendWarmCache() {
+		return engine.doesExtend(leafClass(), "java.lang.Object", project);
+	}
+
+	/**
+	 * Searches for an interface that none of the classes implement, so that all super classes and super
+	 * interfaces get visited.
+	 */
+	@Benchmark
+	public boolean doesImplementMissWarmCache() {
+		return engine.doesImplement(leafClass(), "java.io.Serializable", project);
+	}
+
+	private String leafClass() {
+		int chains = classCount / Fixtures.HIERARCHY_DEPTH;
+		int chain = next++ % chains;
+		return Fixtures.className(chain * Fixtures.HIERARCHY_DEPTH + Fixtures.HIERARCHY_DEPTH - 1).replace('/', '.');
+	}
+
+}